@@ -29,6 +29,8 @@ private[alarm] trait HealthService {
    *
    * @note Callbacks are not thread-safe on the JVM. If you need to do side effects/mutations, prefer using [[subscribeAggregatedHealthActorRef]] API.
    * @note aggregated health is worst amongst all active alarms for given key
+   * @note the active alarms are read when the first subscription to the key starts, subscriptions started while it is
+   *       running share its alarms
    * @param key represents an alarm, component, subsystem or system
    * @param callback executed with the latest worst health
    * @return alarm subscription which can be used to unsubscribe or check if subscription is ready to be consumed. The method
@@ -42,6 +44,8 @@ private[alarm] trait HealthService {
    * aggregation changes
    *
    * @note aggregated health is worst amongst all active alarms for given key
+   * @note the active alarms are read when the first subscription to the key starts, subscriptions started while it is
+   *       running share its alarms
    * @param key represents an alarm, component, subsystem or system
    * @param actorRef receives the latest worst health
    * @return alarm subscription which can be used to unsubscribe or check if subscription is ready to be consumed. The method
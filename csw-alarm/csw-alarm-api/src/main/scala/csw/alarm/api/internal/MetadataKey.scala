@@ -7,7 +7,7 @@ package csw.alarm.api.internal
 
 import csw.alarm.commons.Separators.KeySeparator
 import csw.alarm.models.Key
-import csw.alarm.models.Key.AlarmKey
+import csw.alarm.models.Key.{AlarmKey, ComponentKey, GlobalKey, SubsystemKey}
 
 import scala.language.implicitConversions
 
@@ -18,3 +18,14 @@ private[alarm] object MetadataKey {
   implicit def fromAlarmKey(alarmKey: Key): MetadataKey       = MetadataKey(prefix + alarmKey.value)
   implicit def toAlarmKey(metadataKey: MetadataKey): AlarmKey = AlarmKey(metadataKey.value.stripPrefix(prefix))
 }
+
+// set of the metadata keys of all the alarms of a component, a subsystem or the whole system
+private[alarm] case class MetadataIndexKey(value: String)
+
+private[alarm] object MetadataIndexKey {
+  implicit def fromKey(key: Key): MetadataIndexKey = MetadataIndexKey(s"metadataindex$KeySeparator" + key.value)
+
+  // the index sets the given alarm belongs to
+  def forAlarm(alarmKey: AlarmKey): List[MetadataIndexKey] =
+    List(GlobalKey, SubsystemKey(alarmKey.prefix.subsystem), ComponentKey(alarmKey.prefix)).map(fromKey)
+}
@@ -45,6 +45,7 @@ private[alarm] trait MetadataService {
    */
   def getMetadata(key: Key): Future[List[AlarmMetadata]]
 
+  private[alarm] def getMetadataKeys(key: Key): Future[List[MetadataKey]]
   private[alarm] def activate(key: AlarmKey): Future[Done]   // api only for test purpose
   private[alarm] def deactivate(key: AlarmKey): Future[Done] // api only for test purpose
 }
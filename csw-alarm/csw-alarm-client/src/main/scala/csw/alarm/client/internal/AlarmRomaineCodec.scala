@@ -28,6 +28,8 @@ private[client] object AlarmRomaineCodec extends AlarmCodecs {
     stringCodec.bimap(_.value, LatchedSeverityKey.apply)
   implicit val severityKeyRomaineCodec: RomaineCodec[SeverityKey]  = stringCodec.bimap(_.value, SeverityKey.apply)
   implicit val initializingKeyCodec: RomaineCodec[InitializingKey] = stringCodec.bimap(_.value, InitializingKey.apply)
+  implicit val metadataIndexKeyRomaineCodec: RomaineCodec[MetadataIndexKey] =
+    stringCodec.bimap(_.value, MetadataIndexKey.apply)
 
   // value codecs
   implicit val metadataRomaineCodec: RomaineCodec[AlarmMetadata] = viaJsonCodec
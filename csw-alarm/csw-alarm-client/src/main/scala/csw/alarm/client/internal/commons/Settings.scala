@@ -18,5 +18,8 @@ private[alarm] class Settings(config: Config) {
   val maxMissedRefreshCounts: Int     = alarmConfig.getInt("max-missed-refresh-counts")     // default value is 3 times
   val shelveTimeout: String           = alarmConfig.getString("shelve-timeout")
   val severityTTLInSeconds: Long      = refreshInterval.toSeconds * maxMissedRefreshCounts
+  val severityScript: Boolean         = alarmConfig.getBoolean("severity-script")
+  val metadataIndex: Boolean          = alarmConfig.getBoolean("metadata-index")
+  val publishedSeverity: Boolean      = alarmConfig.getBoolean("published-severity")
 
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.alarm.client.internal.models
+
+import csw.alarm.models.FullAlarmSeverity
+import csw.alarm.models.FullAlarmSeverity.Disconnected
+
+import scala.collection.mutable
+
+/**
+ * Aggregates the severities of a set of alarms by counting the alarms at every severity level. Updating the severity of an
+ * alarm takes constant time, and the aggregated severity is the highest level with a non zero count, so it never rescans
+ * the alarms.
+ *
+ * @note not thread-safe, callers are expected to serialize the updates
+ * @param severities the current severity of every alarm
+ * @tparam K the key of an alarm
+ */
+private[client] class SeverityCounts[K](severities: Map[K, FullAlarmSeverity]) {
+  import SeverityCounts._
+
+  private val current = mutable.HashMap.from(severities)
+  private val counts  = new Array[Int](HighestLevel + 1)
+  severities.valuesIterator.foreach(severity => counts(severity.level) += 1)
+
+  /**
+   * Updates the severity of the given alarm
+   */
+  def update(key: K, severity: FullAlarmSeverity): Unit = {
+    current.put(key, severity).foreach(previous => counts(previous.level) -= 1)
+    counts(severity.level) += 1
+  }
+
+  /**
+   * The highest severity of all the alarms, `Disconnected` when there are no alarms
+   */
+  def aggregated: FullAlarmSeverity = SeveritiesByLevel.find(severity => counts(severity.level) > 0).getOrElse(Disconnected)
+}
+
+private[client] object SeverityCounts {
+  private val SeveritiesByLevel: List[FullAlarmSeverity] = FullAlarmSeverity.values.toList.sortBy(-_.level)
+  private val HighestLevel: Int                          = SeveritiesByLevel.head.level
+}
@@ -34,6 +34,9 @@ private[client] class RedisConnectionsFactory(
   lazy val ackStatusApi: RedisAsyncApi[AckStatusKey, AcknowledgementStatus]         = asyncApi
   lazy val shelveStatusApi: RedisAsyncApi[ShelveStatusKey, ShelveStatus]            = asyncApi
   lazy val initializingApi: RedisAsyncApi[InitializingKey, Boolean]                 = asyncApi
+  lazy val metadataIndexApi: RedisAsyncApi[MetadataIndexKey, MetadataKey]           = asyncApi
+  // runs scripts, which take the keys and values of all the kinds above as plain strings
+  lazy val scriptApi: RedisAsyncApi[String, String] = asyncApi
 
   def asyncApi[K: RomaineCodec, V: RomaineCodec]: RedisAsyncApi[K, V] = romaineFactory.redisAsyncApi[K, V](redisURI)
 
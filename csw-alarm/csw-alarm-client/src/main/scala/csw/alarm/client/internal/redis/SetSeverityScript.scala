@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.alarm.client.internal.redis
+
+import csw.alarm.models.AcknowledgementStatus.{Acknowledged, Unacknowledged}
+import csw.alarm.models.AlarmSeverity.{Indeterminate, Okay}
+import csw.alarm.models.FullAlarmSeverity.Disconnected
+import csw.alarm.models.{AlarmStatus, FullAlarmSeverity}
+
+/**
+ * Lua script which sets the severity of an alarm and updates its latched severity, acknowledgement status, alarm time and
+ * initializing flag in one atomic call to redis, the same way `StatusServiceModule.updateStatusForSeverity` does on the client.
+ *
+ * KEYS: metadata, severity, ack status, latched severity, alarm time and initializing keys of the alarm
+ * ARGV: new severity, severity expiry in seconds and the alarm time to record if the severity changes
+ *
+ * The shelve status is not touched, so that the expiry of a shelved alarm is kept. The severity is also published on the
+ * channel named like the severity key, for the subscribers which watch the published severities.
+ */
+private[client] object SetSeverityScript {
+
+  // values returned by the script
+  val Updated: Long             = 1
+  val AlarmNotFound: Long       = 0
+  val UnsupportedSeverity: Long = -1
+
+  private val default = AlarmStatus()
+  private val levels  = FullAlarmSeverity.values.map(severity => s"${severity.entryName} = ${severity.level}").mkString(", ")
+
+  val script: String =
+    s"""local levels = {$levels}
+       |
+       |local metadata = redis.call('GET', KEYS[1])
+       |if not metadata then return $AlarmNotFound end
+       |
+       |local severity = ARGV[1]
+       |local alarm = cjson.decode(metadata)
+       |local supported = severity == '${Okay.entryName}' or severity == '${Indeterminate.entryName}'
+       |for _, supportedSeverity in ipairs(alarm.supportedSeverities) do
+       |  if supportedSeverity == severity then supported = true end
+       |end
+       |if not supported then return $UnsupportedSeverity end
+       |
+       |local current = redis.call('GET', KEYS[2]) or '${Disconnected.entryName}'
+       |local ackStatus = redis.call('GET', KEYS[3]) or '${default.acknowledgementStatus.entryName}'
+       |local latchedSeverity = redis.call('GET', KEYS[4]) or '${default.latchedSeverity.entryName}'
+       |local alarmTime = redis.call('GET', KEYS[5])
+       |local initializing = redis.call('GET', KEYS[6]) or '${default.initializing}'
+       |
+       |-- latch a higher severity, or any severity while the alarm is initializing
+       |local newLatchedSeverity = latchedSeverity
+       |if levels[severity] > levels[latchedSeverity] or initializing == 'true' then newLatchedSeverity = severity end
+       |
+       |local newAckStatus = ackStatus
+       |if alarm.isAutoAcknowledgeable and severity == '${Okay.entryName}' then newAckStatus = '${Acknowledged.entryName}'
+       |elseif severity ~= current and severity ~= '${Okay.entryName}' then newAckStatus = '${Unacknowledged.entryName}' end
+       |
+       |local changed = severity ~= current or newAckStatus ~= ackStatus or newLatchedSeverity ~= latchedSeverity
+       |  or initializing ~= 'false'
+       |if changed then
+       |  local newAlarmTime = alarmTime
+       |  if severity ~= current or not alarmTime then newAlarmTime = ARGV[3] end
+       |  redis.call('MSET', KEYS[3], newAckStatus, KEYS[4], newLatchedSeverity, KEYS[5], newAlarmTime, KEYS[6], 'false')
+       |end
+       |
+       |redis.call('SETEX', KEYS[2], ARGV[2], severity)
+       |redis.call('PUBLISH', KEYS[2], severity)
+       |return $Updated
+       |""".stripMargin
+}
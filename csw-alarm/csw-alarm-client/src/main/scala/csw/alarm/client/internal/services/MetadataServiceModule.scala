@@ -6,10 +6,13 @@
 package csw.alarm.client.internal.services
 
 import akka.Done
+import akka.actor.typed
+import akka.stream.scaladsl.Sink
 import com.typesafe.config.Config
 import csw.alarm.api.exceptions.KeyNotFoundException
-import csw.alarm.api.internal.{AlarmMetadataSet, MetadataKey, MetadataService, StatusService}
+import csw.alarm.api.internal._
 import csw.alarm.client.internal.AlarmServiceLogger
+import csw.alarm.client.internal.commons.Settings
 import csw.alarm.client.internal.configparser.ConfigParser
 import csw.alarm.client.internal.redis.RedisConnectionsFactory
 import csw.alarm.models.ActivationStatus.{Active, Inactive}
@@ -24,6 +27,8 @@ private[client] trait MetadataServiceModule extends MetadataService {
   self: StatusService =>
 
   val redisConnectionsFactory: RedisConnectionsFactory
+  def settings: Settings
+  implicit val actorSystem: typed.ActorSystem[_]
   import redisConnectionsFactory._
 
   private val log = AlarmServiceLogger.getLogger
@@ -57,11 +62,24 @@ private[client] trait MetadataServiceModule extends MetadataService {
     async {
       log.debug(s"Getting metadata for alarms matching [${key.value}]")
 
-      val metadataKeys = await(metadataApi.keys(key))
+      val metadataKeys = await(getMetadataKeys(key))
       if (metadataKeys.isEmpty) logAndThrow(KeyNotFoundException(key))
       await(metadataApi.mget(metadataKeys)).collect { case RedisResult(_, Some(metadata)) => metadata }
     }
 
+  /**
+   * Finds the metadata keys of the alarms matching the given key without the KEYS command, which blocks redis. A single
+   * alarm is checked with EXISTS. The alarms of a component, subsystem or the whole system are read from their index set
+   * when `metadata-index` is on, and scanned otherwise.
+   */
+  private[alarm] final override def getMetadataKeys(key: Key): Future[List[MetadataKey]] =
+    key match {
+      case alarmKey: AlarmKey =>
+        metadataApi.exists(alarmKey).map(exists => if (exists) List(MetadataKey.fromAlarmKey(alarmKey)) else Nil)
+      case _ if settings.metadataIndex => metadataIndexApi.smembers(key).map(_.toList)
+      case _                           => metadataApi.scanKeys(key).runWith(Sink.seq).map(_.distinct.toList)
+    }
+
   final override def initAlarms(inputConfig: Config, reset: Boolean): Future[Done] =
     async {
       log.debug(s"Initializing alarm store with reset [$reset] and alarms [$inputConfig]")
@@ -80,18 +98,30 @@ private[client] trait MetadataServiceModule extends MetadataService {
       .sequence(
         List(
           metadataApi.mset(metadataMap),
-          setStatus(statusMap)
+          setStatus(statusMap),
+          addToIndex(alarms.map(_.alarmKey))
         )
       )
       .map(_ => Done)
   }
 
+  // the index is kept even when `metadata-index` is off, so that it can be turned on for clients of the same alarm store
+  private def addToIndex(alarmKeys: List[AlarmKey]): Future[Done] = {
+    val indexes = alarmKeys
+      .flatMap(alarmKey => MetadataIndexKey.forAlarm(alarmKey).map(_ -> MetadataKey.fromAlarmKey(alarmKey)))
+      .groupMap(_._1)(_._2)
+    Future
+      .traverse(indexes.toList) { case (indexKey, metadataKeys) => metadataIndexApi.sadd(indexKey, metadataKeys) }
+      .map(_ => Done)
+  }
+
   private[alarm] def clearAlarmStore(): Future[Done] = {
     log.debug("Clearing alarm store")
     Future
       .sequence(
         List(
           metadataApi.pdel(GlobalKey),
+          metadataIndexApi.pdel(GlobalKey),
           clearAllStatus(),
           severityApi.pdel(GlobalKey)
         )
@@ -100,7 +130,7 @@ private[client] trait MetadataServiceModule extends MetadataService {
   }
 
   private[alarm] def setMetadata(alarmKey: AlarmKey, alarmMetadata: AlarmMetadata): Future[Done] =
-    metadataApi.set(alarmKey, alarmMetadata)
+    metadataApi.set(alarmKey, alarmMetadata).zipWith(addToIndex(List(alarmKey)))((done, _) => done)
 
   private def logAndThrow(runtimeException: RuntimeException) = {
     log.error(runtimeException.getMessage, ex = runtimeException)
@@ -8,22 +8,25 @@ package csw.alarm.client.internal.services
 import akka.Done
 import akka.actor.typed
 import akka.actor.typed.ActorRef
+import akka.stream.OverflowStrategy.dropHead
 import akka.stream.scaladsl.{Sink, Source}
 import csw.alarm.api.exceptions.{InactiveAlarmException, InvalidSeverityException, KeyNotFoundException}
 import csw.alarm.api.internal._
 import csw.alarm.api.scaladsl.AlarmSubscription
 import csw.alarm.client.internal.commons.Settings
-import csw.alarm.client.internal.redis.RedisConnectionsFactory
+import csw.alarm.client.internal.redis.{RedisConnectionsFactory, SetSeverityScript}
 import csw.alarm.client.internal.{AlarmRomaineCodec, AlarmServiceLogger}
 import csw.alarm.models.FullAlarmSeverity.Disconnected
 import csw.alarm.models.Key.AlarmKey
 import csw.alarm.models.{AlarmSeverity, FullAlarmSeverity, Key}
+import csw.time.core.models.UTCTime
+import io.lettuce.core.ScriptOutputType.INTEGER
 import reactor.core.publisher.FluxSink.OverflowStrategy
 import romaine.RedisResult
-import romaine.extensions.SourceExtensions.RichSource
-import romaine.reactive.RedisSubscription
+import romaine.codec.RomaineCodec.ToBytesAndString
 
 import scala.async.Async.{async, await}
+import scala.collection.mutable
 import scala.concurrent.Future
 
 private[client] trait SeverityServiceModule extends SeverityService {
@@ -36,7 +39,47 @@ private[client] trait SeverityServiceModule extends SeverityService {
 
   private val log = AlarmServiceLogger.getLogger
 
+  // aggregations of the keys subscribed to, guarded by itself
+  private val sharedAggregations = mutable.Map.empty[Key, SharedAggregatedSeverity]
+  // changes of the aggregated severity a slow subscriber can be behind by, before the oldest ones are dropped
+  private val SubscriberBufferSize = 64
+
   final override def setSeverity(alarmKey: AlarmKey, severity: AlarmSeverity): Future[Done] =
+    if (settings.severityScript) setSeverityWithScript(alarmKey, severity)
+    else setSeverityOnClient(alarmKey, severity)
+
+  // sets the severity and updates the status in one atomic call, see SetSeverityScript
+  private[alarm] def setSeverityWithScript(alarmKey: AlarmKey, severity: AlarmSeverity): Future[Done] =
+    async {
+      log.debug(
+        s"Setting severity [${severity.name}] for alarm [${alarmKey.value}] with expire timeout [${settings.severityTTLInSeconds}] seconds"
+      )
+
+      val keys = List(
+        MetadataKey.fromAlarmKey(alarmKey).value,
+        SeverityKey.fromAlarmKey(alarmKey).value,
+        AckStatusKey.fromAlarmKey(alarmKey).value,
+        LatchedSeverityKey.fromAlarmKey(alarmKey).value,
+        AlarmTimeKey.fromAlarmKey(alarmKey).value,
+        InitializingKey.fromAlarmKey(alarmKey).value
+      )
+      import AlarmRomaineCodec.alarmTimeRomaineCodec
+      val args = List(severity.entryName, settings.severityTTLInSeconds.toString, UTCTime.now().asString)
+
+      log.info(s"Updating current severity [${severity.name}] in alarm store")
+      val result: Long = await(scriptApi.evalScript[java.lang.Long](SetSeverityScript.script, INTEGER, keys, args))
+
+      if (result == SetSeverityScript.AlarmNotFound) logAndThrow(KeyNotFoundException(alarmKey))
+      if (result == SetSeverityScript.UnsupportedSeverity) {
+        // the supported severities are read only to report them, which is never on the path of a regular heartbeat
+        val alarm = await(getMetadata(alarmKey))
+        logAndThrow(InvalidSeverityException(alarmKey, alarm.allSupportedSeverities, severity))
+      }
+      Done
+    }
+
+  // reads and writes the severity and every field of the status from the client, with a round trip each
+  private[alarm] def setSeverityOnClient(alarmKey: AlarmKey, severity: AlarmSeverity): Future[Done] =
     async {
       val currentSeverity = await(getCurrentSeverity(alarmKey))
       await(updateStatusForSeverity(alarmKey, currentSeverity, severity))
@@ -88,45 +131,78 @@ private[client] trait SeverityServiceModule extends SeverityService {
       // set the severity of the alarm so that it does not transition to `Disconnected` state
       log.info(s"Updating current severity [${severity.name}] in alarm store")
       await(severityApi.setex(alarmKey, settings.severityTTLInSeconds, severity))
+
+      // published for the subscribers which watch the published severities instead of reading them on every change
+      await(severityApi.publish(alarmKey, severity))
+      Done
     }
 
   // PatternMessage gives three values:
   // pattern: e.g  __keyspace@0__:status.nfiraos.*.*,
   // channel: e.g. __keyspace@0__:status.nfiraos.trombone.tromboneAxisLowLimitAlarm,
   // message: event type as value: e.g. set, expire, expired
-  private[alarm] def subscribeAggregatedSeverity(key: Key): Source[FullAlarmSeverity, AlarmSubscription] = {
+  //
+  // All the subscribers to the same key share one keyspace subscription and one aggregation, see SharedAggregatedSeverity.
+  // The alarms aggregated are the ones active when the first of them subscribed, a subscriber joining later does not read
+  // them again.
+  private[alarm] def subscribeAggregatedSeverity(key: Key): Source[FullAlarmSeverity, AlarmSubscription] =
+    Source
+      .queue[FullAlarmSeverity](SubscriberBufferSize, dropHead)
+      .mapMaterializedValue { queue =>
+        val aggregation = sharedAggregations.synchronized {
+          val aggregation = sharedAggregations.getOrElseUpdate(key, aggregateSeverity(key))
+          aggregation.subscribe(queue)
+          aggregation
+        }
+
+        // a subscriber leaves when it unsubscribes or when its stream completes, e.g. because it was cancelled downstream
+        def leave(): Future[Done] = {
+          val last = sharedAggregations.synchronized {
+            val last = aggregation.unsubscribe(queue)
+            if (last) removeAggregation(key, aggregation)
+            last
+          }
+          if (last) aggregation.stop() else Future.successful(Done)
+        }
+        queue.watchCompletion().onComplete(_ => leave())(actorSystem.executionContext)
+
+        new AlarmSubscription {
+          override def unsubscribe(): Future[Done] = leave()
+          override def ready(): Future[Done]       = aggregation.ready
+        }
+      }
+
+  private def aggregateSeverity(key: Key): SharedAggregatedSeverity = {
     import AlarmRomaineCodec._
 
-    // create new connection for every client
+    // create new connection for every aggregation
     val keySpaceApi = redisKeySpaceApi(severityApi)
 
-    val severitySourceF: Future[Source[FullAlarmSeverity, RedisSubscription]] = async {
+    val initialSeveritiesF = async {
       val metadataKeys                          = await(getActiveAlarmKeys(key))
       val activeSeverityKeys: List[SeverityKey] = metadataKeys.map(a => SeverityKey.fromAlarmKey(a))
-      val currentSeverities = await(severityApi.mget(activeSeverityKeys)).map(result => result.key -> result.value).toMap
-
-      keySpaceApi
-        .watchKeyspaceValue(activeSeverityKeys, OverflowStrategy.LATEST)
-        .scan(currentSeverities) { case (data, RedisResult(severityKey, mayBeSeverity)) =>
-          data + (severityKey -> mayBeSeverity)
-        }
-        .map(data => aggregratorByMax(data.values))
-        .distinctUntilChanged
+      await(severityApi.mget(activeSeverityKeys)).map(result => result.key -> result.value.getOrElse(Disconnected)).toMap
     }
 
-    Source
-      .futureSource(severitySourceF)
-      .mapMaterializedValue { mat =>
-        new AlarmSubscription {
-          override def unsubscribe(): Future[Done] = mat.flatMap(_.unsubscribe())
-          override def ready(): Future[Done]       = mat.flatMap(_.ready())
-        }
-      }
+    def watch(severityKeys: List[SeverityKey]) =
+      if (settings.publishedSeverity)
+        keySpaceApi.watchPublishedValue(severityKeys, subscriptionApi[SeverityKey, FullAlarmSeverity], OverflowStrategy.LATEST)
+      else keySpaceApi.watchKeyspaceValue(severityKeys, OverflowStrategy.LATEST)
+
+    new SharedAggregatedSeverity(
+      initialSeveritiesF,
+      watch,
+      aggregation => sharedAggregations.synchronized(removeAggregation(key, aggregation))
+    )
   }
 
+  // a failed or stopped aggregation is removed only if it was not replaced already, so that the next subscriber starts a new one
+  private def removeAggregation(key: Key, aggregation: SharedAggregatedSeverity): Unit =
+    if (sharedAggregations.get(key).contains(aggregation)) sharedAggregations.remove(key)
+
   private def getActiveAlarmKeys(key: Key): Future[List[MetadataKey]] =
     async {
-      val metadataKeys = await(metadataApi.keys(key))
+      val metadataKeys = await(getMetadataKeys(key))
       if (metadataKeys.isEmpty) logAndThrow(KeyNotFoundException(key))
 
       val keys = await(metadataApi.mget(metadataKeys)).collect {
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.alarm.client.internal.services
+
+import akka.Done
+import akka.actor.typed
+import akka.stream.scaladsl.{Keep, Sink, Source, SourceQueueWithComplete}
+import csw.alarm.api.internal.SeverityKey
+import csw.alarm.client.internal.models.SeverityCounts
+import csw.alarm.models.FullAlarmSeverity
+import csw.alarm.models.FullAlarmSeverity.Disconnected
+import romaine.RedisResult
+import romaine.reactive.RedisSubscription
+
+import scala.concurrent.Future
+
+/**
+ * The aggregated severity of one key, shared by all the subscribers to that key. A single keyspace subscription feeds a
+ * [[SeverityCounts]], and every change of the aggregated severity is offered to the queues of all the subscribers. A
+ * subscriber is offered the current aggregated severity first, and then every change of it.
+ *
+ * The alarms aggregated are fixed when the aggregation starts, i.e. when the first subscriber joins. Alarms activated or
+ * deactivated later are taken into account by the next aggregation of the key, once all its subscribers left.
+ *
+ * @param initialSeverities current severities of the alarms of the key
+ * @param watch watches the changes of the given severity keys
+ * @param onFailure called with this aggregation when it fails, after all its subscribers are failed
+ */
+private[services] class SharedAggregatedSeverity(
+    initialSeverities: Future[Map[SeverityKey, FullAlarmSeverity]],
+    watch: List[SeverityKey] => Source[RedisResult[SeverityKey, Option[FullAlarmSeverity]], RedisSubscription],
+    onFailure: SharedAggregatedSeverity => Unit
+)(implicit actorSystem: typed.ActorSystem[_]) {
+  import actorSystem.executionContext
+
+  private var subscribers: Set[SourceQueueWithComplete[FullAlarmSeverity]] = Set.empty
+  private var severityCounts: Option[SeverityCounts[SeverityKey]]         = None
+  private var aggregated: Option[FullAlarmSeverity]                       = None
+  private var failure: Option[Throwable]                                  = None
+
+  private val redisSubscriptionF: Future[RedisSubscription] = initialSeverities.map { severities =>
+    synchronized {
+      severityCounts = Some(new SeverityCounts(severities))
+      publish()
+    }
+
+    val (redisSubscription, doneF) = watch(severities.keys.toList).toMat(Sink.foreach(update))(Keep.both).run()
+    doneF.failed.foreach(fail)
+    redisSubscription
+  }
+  redisSubscriptionF.failed.foreach(fail)
+
+  /**
+   * Completes when the shared keyspace subscription is ready, or fails if the aggregation could not be started
+   */
+  val ready: Future[Done] = redisSubscriptionF.flatMap(_.ready())
+
+  /**
+   * Adds the given queue to the subscribers, and offers it the current aggregated severity right away if it is known
+   */
+  def subscribe(queue: SourceQueueWithComplete[FullAlarmSeverity]): Unit =
+    synchronized {
+      failure match {
+        case Some(ex) => queue.fail(ex)
+        case None =>
+          subscribers += queue
+          aggregated.foreach(queue.offer)
+      }
+    }
+
+  /**
+   * Removes the given queue from the subscribers and completes it. Removing a queue which is not subscribed, e.g. because
+   * it left already, does nothing.
+   *
+   * @return true if the given queue was the last subscriber
+   */
+  def unsubscribe(queue: SourceQueueWithComplete[FullAlarmSeverity]): Boolean =
+    synchronized {
+      val subscribed = subscribers.contains(queue)
+      if (subscribed) {
+        subscribers -= queue
+        queue.complete()
+      }
+      subscribed && subscribers.isEmpty
+    }
+
+  /**
+   * Stops the shared keyspace subscription, once the last subscriber left
+   */
+  def stop(): Future[Done] = redisSubscriptionF.flatMap(_.unsubscribe()).recover { case _ => Done }
+
+  private def update(result: RedisResult[SeverityKey, Option[FullAlarmSeverity]]): Unit =
+    synchronized {
+      severityCounts.foreach(_.update(result.key, result.value.getOrElse(Disconnected)))
+      publish()
+    }
+
+  // offers the aggregated severity to the subscribers only when it changes
+  private def publish(): Unit =
+    severityCounts.map(_.aggregated).filterNot(aggregated.contains).foreach { latest =>
+      aggregated = Some(latest)
+      subscribers.foreach(_.offer(latest))
+    }
+
+  private def fail(ex: Throwable): Unit = {
+    synchronized {
+      failure = Some(ex)
+      subscribers.foreach(_.fail(ex))
+      subscribers = Set.empty
+    }
+    onFailure(this)
+  }
+}
@@ -23,6 +23,7 @@ import csw.alarm.models.Key.{AlarmKey, GlobalKey}
 import csw.alarm.models.ShelveStatus.{Shelved, Unshelved}
 import csw.alarm.models._
 import csw.time.core.models.UTCTime
+import romaine.async.RedisAsyncApi
 
 import scala.async.Async.{async, await}
 import scala.compat.java8.DurationConverters.DurationOps
@@ -199,10 +200,58 @@ private[client] trait StatusServiceModule extends StatusService {
       .map(_ => Done)
   }
 
+  // writes every field of all the statuses with one MSET per field, instead of five SETs per alarm
   private[alarm] def setStatus(statusMap: Map[AlarmKey, AlarmStatus]): Future[Done] =
-    Future
-      .sequence(statusMap.map { case (key, status) => setStatus(key, status) })
-      .map(_ => Done)
+    if (statusMap.isEmpty) Future.successful(Done)
+    else {
+      log.info(s"Updating status of [${statusMap.size}] alarms in alarm store")
+      def field[K, V](toKey: AlarmKey => K, value: AlarmStatus => V): Map[K, V] =
+        statusMap.map { case (key, status) => toKey(key) -> value(status) }
+
+      Future
+        .sequence(
+          Seq(
+            ackStatusApi.mset(field(AckStatusKey.fromAlarmKey, _.acknowledgementStatus)),
+            shelveStatusApi.mset(field(ShelveStatusKey.fromAlarmKey, _.shelveStatus)),
+            alarmTimeApi.mset(field(AlarmTimeKey.fromAlarmKey, _.alarmTime)),
+            latchedSeverityApi.mset(field(LatchedSeverityKey.fromAlarmKey, _.latchedSeverity)),
+            initializingApi.mset(field(InitializingKey.fromAlarmKey, _.initializing))
+          )
+        )
+        .map(_ => Done)
+    }
+
+  /**
+   * Reads the statuses of the given alarms with one MGET per field, instead of six commands per alarm
+   *
+   * @return the statuses in the order of the given keys
+   */
+  private[alarm] def getStatuses(alarmKeys: List[AlarmKey]): Future[List[AlarmStatus]] =
+    if (alarmKeys.isEmpty) Future.successful(Nil)
+    else {
+      def values[K, V](api: RedisAsyncApi[K, V], toKey: AlarmKey => K): Future[List[Option[V]]] =
+        api.mget(alarmKeys.map(toKey)).map(_.map(_.value))
+
+      val ackStatusesF       = values(ackStatusApi, AckStatusKey.fromAlarmKey)
+      val latchedSeveritiesF = values(latchedSeverityApi, LatchedSeverityKey.fromAlarmKey)
+      val shelveStatusesF    = values(shelveStatusApi, ShelveStatusKey.fromAlarmKey)
+      val alarmTimesF        = values(alarmTimeApi, AlarmTimeKey.fromAlarmKey)
+      val initializingF      = values(initializingApi, InitializingKey.fromAlarmKey)
+
+      async {
+        val default = AlarmStatus()
+        val fields  = await(ackStatusesF) zip await(latchedSeveritiesF) zip await(shelveStatusesF) zip await(alarmTimesF)
+        fields.zip(await(initializingF)).map { case ((((ackStatus, latchedSeverity), shelveStatus), alarmTime), initializing) =>
+          AlarmStatus(
+            ackStatus.getOrElse(default.acknowledgementStatus),
+            latchedSeverity.getOrElse(default.latchedSeverity),
+            shelveStatus.getOrElse(default.shelveStatus),
+            alarmTime.getOrElse(default.alarmTime),
+            initializing.getOrElse(default.initializing)
+          )
+        }
+      }
+    }
 
   final override private[alarm] def clearAllStatus(): Future[Done] =
     Future
@@ -217,20 +266,38 @@ private[client] trait StatusServiceModule extends StatusService {
       )
       .map(_ => Done)
 
-  private def getShelveStatus(alarmKey: AlarmKey): Future[ShelveStatus] =
+  private def getShelveStatus(alarmKey: AlarmKey): Future[ShelveStatus] = {
+    // the existence check and the read are sent together, so that both take a single round trip
+    val existsF       = metadataApi.exists(alarmKey)
+    val shelveStatusF = shelveStatusApi.get(alarmKey)
     async {
-      if (await(metadataApi.exists(alarmKey))) await(shelveStatusApi.get(alarmKey)).getOrElse(Unshelved)
+      if (await(existsF)) await(shelveStatusF).getOrElse(Unshelved)
       else logAndThrow(KeyNotFoundException(alarmKey))
     }
+  }
 
+  /**
+   * Reads all the alarms matching the given key with one MGET per kind of key, so that listing thousands of alarms takes a
+   * handful of commands instead of ten per alarm
+   */
   private[alarm] def getAlarms(key: Key): Future[List[Alarm]] =
-    metadataApi.keys(key).flatMap {
-      Future.traverse(_) { key =>
-        for {
-          metadata <- getMetadata(key)
-          status   <- getStatus(key)
-          severity <- getCurrentSeverity(key)
-        } yield Alarm(key, metadata, status, severity)
+    async {
+      val metadataKeys = await(getMetadataKeys(key))
+      if (metadataKeys.isEmpty) Nil
+      else {
+        val alarmKeys: List[AlarmKey] = metadataKeys.map(MetadataKey.toAlarmKey)
+        val metadataF                 = metadataApi.mget(metadataKeys)
+        val statusesF                 = getStatuses(alarmKeys)
+        val severitiesF               = severityApi.mget(alarmKeys.map(SeverityKey.fromAlarmKey))
+
+        val metadata   = await(metadataF)
+        val statuses   = await(statusesF)
+        val severities = await(severitiesF)
+
+        // an alarm removed after its key was listed is left out
+        alarmKeys.lazyZip(metadata).lazyZip(statuses).lazyZip(severities).flatMap { (alarmKey, maybeMetadata, status, severity) =>
+          maybeMetadata.value.map(Alarm(alarmKey, _, status, severity.value.getOrElse(Disconnected)))
+        }
       }
     }
 
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.alarm.client.internal.models
+
+import csw.alarm.models.AlarmSeverity.{Critical, Indeterminate, Major, Okay, Warning}
+import csw.alarm.models.FullAlarmSeverity
+import csw.alarm.models.FullAlarmSeverity.Disconnected
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+class SeverityCountsTest extends AnyFunSuite with Matchers {
+
+  test("aggregated should be the highest severity of all the alarms") {
+    new SeverityCounts(Map("a" -> Okay, "b" -> Major, "c" -> Warning)).aggregated shouldBe Major
+    new SeverityCounts(Map("a" -> Indeterminate, "b" -> Disconnected)).aggregated shouldBe Disconnected
+  }
+
+  test("aggregated should be Disconnected when there are no alarms") {
+    new SeverityCounts(Map.empty[String, FullAlarmSeverity]).aggregated shouldBe Disconnected
+  }
+
+  test("update should replace the previous severity of the alarm") {
+    val severityCounts = new SeverityCounts(Map("a" -> Okay, "b" -> Warning))
+
+    severityCounts.update("a", Critical)
+    severityCounts.aggregated shouldBe Critical
+
+    severityCounts.update("a", Okay)
+    severityCounts.aggregated shouldBe Warning
+
+    severityCounts.update("b", Okay)
+    severityCounts.aggregated shouldBe Okay
+  }
+}
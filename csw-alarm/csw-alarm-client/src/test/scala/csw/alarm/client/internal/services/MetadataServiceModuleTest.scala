@@ -5,9 +5,11 @@
 
 package csw.alarm.client.internal.services
 
+import akka.stream.scaladsl.Sink
 import com.typesafe.config.{Config, ConfigFactory}
 import csw.alarm.api.exceptions.KeyNotFoundException
 import csw.alarm.api.internal.MetadataKey
+import csw.alarm.client.internal.commons.Settings
 import csw.alarm.client.internal.helpers.AlarmServiceTestSetup
 import csw.alarm.client.internal.helpers.TestFutureExt.RichFuture
 import csw.alarm.models.ActivationStatus.{Active, Inactive}
@@ -19,6 +21,12 @@ import csw.alarm.models.{ActivationStatus, AlarmStatus}
 import csw.prefix.models.{Prefix, Subsystem}
 import csw.prefix.models.Subsystem.{CSW, NFIRAOS}
 
+// runs the same tests with the alarms of a component, subsystem or the whole system read from their index sets
+class MetadataServiceModuleWithMetadataIndexTest extends MetadataServiceModuleTest {
+  override def settings: Settings =
+    new Settings(ConfigFactory.parseString("csw-alarm.metadata-index = on").withFallback(ConfigFactory.load()))
+}
+
 // DEOPSCSW-486: Provide API to load alarm metadata in Alarm store from file
 // CSW-83: Alarm models should take prefix
 class MetadataServiceModuleTest
@@ -164,6 +172,19 @@ class MetadataServiceModuleTest
     testMetadataApi.get(MetadataKey("sentinel.a.b.c")).await shouldBe Some(cpuExceededAlarm)
   }
 
+  test("initAlarms should keep an index of the alarms of every component and subsystem, which matches the scanned keys") {
+    initTestAlarms()
+
+    List(GlobalKey, SubsystemKey(NFIRAOS), ComponentKey(Prefix(NFIRAOS, "trombone"))).foreach { key =>
+      val scannedKeys = testMetadataApi.scanKeys(key).runWith(Sink.seq).await
+      scannedKeys should not be empty
+      redisConnectionsFactory.metadataIndexApi.smembers(key).await shouldBe scannedKeys.toSet
+    }
+
+    clearAlarmStore().await
+    redisConnectionsFactory.metadataIndexApi.smembers(GlobalKey).await shouldBe empty
+  }
+
   test("initAlarm with reset=false should preserve existing alarm keys | DEOPSCSW-486") {
     clearAlarmStore().await
     a[KeyNotFoundException] shouldBe thrownBy(getMetadata(GlobalKey).await)
@@ -9,6 +9,7 @@ import java.net.InetAddress
 import java.time.Instant
 
 import akka.actor.testkit.typed.scaladsl.TestProbe
+import akka.stream.scaladsl.{Keep, Sink}
 import com.typesafe.config.ConfigFactory
 import csw.alarm.api.exceptions.{InactiveAlarmException, InvalidSeverityException, KeyNotFoundException}
 import csw.alarm.models.AcknowledgementStatus.{Acknowledged, Unacknowledged}
@@ -17,6 +18,7 @@ import csw.alarm.models.FullAlarmSeverity.Disconnected
 import csw.alarm.models.Key._
 import csw.alarm.models.ShelveStatus._
 import csw.alarm.models._
+import csw.alarm.client.internal.commons.Settings
 import csw.alarm.client.internal.helpers.TestFutureExt.RichFuture
 import csw.alarm.client.internal.helpers.{AlarmServiceTestSetup, TestDataFeeder}
 import csw.alarm.client.internal.services.SeverityTestScenarios._
@@ -31,6 +33,18 @@ import play.api.libs.json.{JsObject, Json}
 import scala.collection.mutable
 import scala.concurrent.duration.DurationInt
 
+// runs the same tests with the subscriptions taking the severities from the messages published by setSeverity
+class SeverityServiceModuleWithPublishedSeverityTest extends SeverityServiceModuleTest {
+  override def settings: Settings =
+    new Settings(ConfigFactory.parseString("csw-alarm.published-severity = on").withFallback(ConfigFactory.load()))
+}
+
+// runs the same tests with the alarms of a component, subsystem or the whole system read from their index sets
+class SeverityServiceModuleWithMetadataIndexTest extends SeverityServiceModuleTest {
+  override def settings: Settings =
+    new Settings(ConfigFactory.parseString("csw-alarm.metadata-index = on").withFallback(ConfigFactory.load()))
+}
+
 //CSW-83:Alarm models should take prefix
 class SeverityServiceModuleTest
     extends AlarmServiceTestSetup
@@ -384,6 +398,73 @@ class SeverityServiceModuleTest
     testProbe2.expectNoMessage(200.millis)
   }
 
+  test("subscribeAggregatedSeverity should get the severities published by the severity script and the client side fallback") {
+    val testProbe         = TestProbe[FullAlarmSeverity]()(actorSystem)
+    val alarmSubscription = subscribeAggregatedSeverityCallback(tromboneAxisLowLimitAlarmKey, testProbe.ref ! _)
+    alarmSubscription.ready().await
+    testProbe.expectMessage(Disconnected)
+
+    setSeverityWithScript(tromboneAxisLowLimitAlarmKey, Major).await
+    testProbe.expectMessage(Major)
+
+    setSeverityOnClient(tromboneAxisLowLimitAlarmKey, Critical).await
+    testProbe.expectMessage(Critical)
+
+    testProbe.expectMessage(2.seconds, Disconnected) // severity expires after 1 second in test
+    alarmSubscription.unsubscribe().await
+  }
+
+  test("subscriptions to the same key should share the aggregation and get the current aggregated severity on subscription") {
+    val testProbe1         = TestProbe[FullAlarmSeverity]()(actorSystem)
+    val alarmSubscription1 = subscribeAggregatedSeverityCallback(GlobalKey, testProbe1.ref ! _)
+    alarmSubscription1.ready().await
+    testProbe1.expectMessage(Disconnected)
+
+    setSeverity(tromboneAxisLowLimitAlarmKey, Critical).await
+    testProbe1.expectMessage(Critical)
+
+    // the second subscription joins the running aggregation, and gets its current value instead of Disconnected
+    val testProbe2         = TestProbe[FullAlarmSeverity]()(actorSystem)
+    val alarmSubscription2 = subscribeAggregatedSeverityCallback(GlobalKey, testProbe2.ref ! _)
+    alarmSubscription2.ready().await
+    testProbe2.expectMessage(Critical)
+
+    testProbe1.expectMessage(2.seconds, Disconnected) // severity expires after 1 second in test
+    testProbe2.expectMessage(2.seconds, Disconnected)
+
+    // the remaining subscription keeps getting the changes once the other one leaves
+    alarmSubscription1.unsubscribe().await
+    setSeverity(tromboneAxisLowLimitAlarmKey, Critical).await
+    testProbe2.expectMessage(Critical)
+    testProbe1.expectNoMessage(200.millis)
+
+    alarmSubscription2.unsubscribe().await
+  }
+
+  test("a subscription whose stream completes without unsubscribing should leave the shared aggregation") {
+    val enclosureKey = ComponentKey(Prefix(NFIRAOS, "enclosure"))
+
+    // the stream is cancelled after the first aggregated severity, which completes the queue of the subscriber
+    val (subscription, firstSeverity) = subscribeAggregatedSeverity(enclosureKey).take(1).toMat(Sink.head)(Keep.both).run()
+    firstSeverity.await shouldBe Disconnected
+    subscription.unsubscribe().await // leaving again does nothing
+
+    // a new aggregation is started for the next subscriber, which reads the active alarms again
+    enclosureTempLowAlarm.isActive shouldBe false
+    activate(enclosureTempLowAlarmKey).await
+    val testProbe         = TestProbe[FullAlarmSeverity]()(actorSystem)
+    val alarmSubscription = subscribeAggregatedSeverityCallback(enclosureKey, testProbe.ref ! _)
+    alarmSubscription.ready().await
+    testProbe.expectMessage(Disconnected)
+
+    setSeverity(enclosureTempHighAlarmKey, Okay).await
+    testProbe.expectNoMessage(200.millis) // enclosureTempLowAlarm is active now and still disconnected
+    setSeverity(enclosureTempLowAlarmKey, Critical).await
+    testProbe.expectMessage(Critical)
+
+    alarmSubscription.unsubscribe().await
+  }
+
   // DEOPSCSW-448: Set Activation status for an alarm entity
   // DEOPSCSW-467: Monitor alarm severities in the alarm store for a single alarm, component, subsystem, or all
   test("subscribeAggregatedSeverityCallback should not consider inactive alarm for aggregation | DEOPSCSW-448, DEOPSCSW-467") {
@@ -531,6 +612,36 @@ class SeverityServiceModuleTest
     }
   }
 
+  // the client side fallback of setSeverity has to update the status the same way the severity script does
+  SeverityTestCases.foreach { testCase =>
+    test(testCase.name + " (on client)") {
+      feedTestData(testCase)
+      import testCase._
+
+      setSeverityOnClient(alarmKey, newSeverity).await
+      getStatus(alarmKey).await.latchedSeverity shouldEqual expectedLatchedSeverity
+    }
+  }
+
+  AckStatusTestCases.foreach { testCase =>
+    test(testCase.name() + " (on client)") {
+      feedTestData(testCase)
+      import testCase._
+
+      setSeverityOnClient(alarmKey, newSeverity).await
+      getStatus(alarmKey).await.acknowledgementStatus shouldEqual newAckStatus
+    }
+  }
+
+  test("setSeverity should not update the status when neither the severity nor the status change") {
+    setSeverity(tromboneAxisHighLimitAlarmKey, Major).await
+    val status = getStatus(tromboneAxisHighLimitAlarmKey).await
+
+    setSeverity(tromboneAxisHighLimitAlarmKey, Major).await
+    getStatus(tromboneAxisHighLimitAlarmKey).await shouldBe status
+    getCurrentSeverity(tromboneAxisHighLimitAlarmKey).await shouldBe Major
+  }
+
   // DEOPSCSW-496 : Set Ack status on setSeverity
   AckStatusTestCasesForDisconnected.foreach { testCase =>
     test(testCase.name(Disconnected) + " | DEOPSCSW-496") {
@@ -254,6 +254,32 @@ class StatusServiceModuleTest
     a[KeyNotFoundException] shouldBe thrownBy(getStatus(invalidAlarm).await)
   }
 
+  test("getAlarms should read the metadata, status and severity of every alarm matching the key") {
+    setSeverity(tromboneAxisLowLimitAlarmKey, Major).await
+    shelve(tromboneAxisHighLimitAlarmKey).await
+
+    val alarms = getAlarms(Key.GlobalKey).await
+
+    val metadataKeys = getMetadata(Key.GlobalKey).await.map(_.alarmKey)
+    alarms.map(_.key).toSet shouldBe metadataKeys.toSet
+    alarms.foreach { alarm =>
+      alarm.metadata shouldBe getMetadata(alarm.key).await
+      alarm.status shouldBe getStatus(alarm.key).await
+      alarm.severity shouldBe getCurrentSeverity(alarm.key).await
+    }
+    getAlarms(AlarmKey(Prefix(CSW, "invalid"), "invalid")).await shouldBe empty
+  }
+
+  test("setStatus should write the statuses of many alarms which are read back by getStatuses") {
+    val keys     = List(tromboneAxisLowLimitAlarmKey, tromboneAxisHighLimitAlarmKey)
+    val statuses = List(AlarmStatus().copy(latchedSeverity = Major), AlarmStatus().copy(acknowledgementStatus = Unacknowledged))
+
+    setStatus(keys.zip(statuses).toMap).await
+
+    getStatuses(keys).await shouldBe statuses
+    keys.map(getStatus(_).await) shouldBe statuses
+  }
+
   // DEOPSCSW-501: AlarmServer update time and latch severity
   test("latchToDisconnected should latch the status to disconnected | DEOPSCSW-501") {
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+// in the csw.alarm package to reach the internal `getAlarms` used by the alarm cli
+package csw.alarm.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.{Config, ConfigFactory}
+import csw.alarm.client.AlarmServiceFactory
+import csw.alarm.client.internal.AlarmServiceImpl
+import csw.alarm.client.internal.models.Alarm
+import csw.alarm.models.Key.GlobalKey
+import csw.commons.redis.EmbeddedRedis
+import csw.network.utils.SocketUtils.getFreePort
+import io.lettuce.core.RedisClient
+import org.openjdk.jmh.annotations._
+import redis.embedded.{RedisSentinel, RedisServer}
+
+import scala.concurrent.duration.DurationInt
+import scala.concurrent.{Await, ExecutionContext, Future}
+
+/**
+ * Measures listing all alarms of an alarm store of 2000 alarms, like the alarm cli and UIs do, with the bulk reads of
+ * `getAlarms` and with the metadata, status and severity of every alarm read on its own.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*GetAlarmsBenchmark.*
+//
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class GetAlarmsBenchmark extends EmbeddedRedis {
+
+  private var actorSystem: ActorSystem[SpawnProtocol.Command] = _
+  private var redisClient: RedisClient                        = _
+  private var redisSentinel: RedisSentinel                    = _
+  private var redisServer: RedisServer                        = _
+  private var alarmService: AlarmServiceImpl                  = _
+  implicit private var ec: ExecutionContext                   = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val sentinelPort = getFreePort
+    val redis        = startSentinel(sentinelPort, getFreePort, ConfigFactory.load().getString("csw-alarm.redis.masterId"))
+    redisSentinel = redis._1
+    redisServer = redis._2
+
+    actorSystem = ActorSystem(SpawnProtocol(), "get-alarms-benchmark")
+    ec = actorSystem.executionContext
+    redisClient = RedisClient.create()
+    alarmService =
+      new AlarmServiceFactory(redisClient).makeAdminApi("localhost", sentinelPort)(actorSystem).asInstanceOf[AlarmServiceImpl]
+    Await.result(alarmService.initAlarms(GetAlarmsBenchmark.alarms(2000), reset = true), 30.seconds)
+  }
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = {
+    redisClient.shutdown()
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+    stopSentinel(redisSentinel, redisServer)
+  }
+
+  @Benchmark
+  def getAlarms(): List[Alarm] = Await.result(alarmService.getAlarms(GlobalKey), 30.seconds)
+
+  @Benchmark
+  def getAlarmsOneByOne(): List[Alarm] = {
+    val alarms = alarmService.getMetadata(GlobalKey).flatMap {
+      Future.traverse(_) { metadata =>
+        for {
+          status   <- alarmService.getStatus(metadata.alarmKey)
+          severity <- alarmService.getCurrentSeverity(metadata.alarmKey)
+        } yield Alarm(metadata.alarmKey, metadata, status, severity)
+      }
+    }
+    Await.result(alarms, 30.seconds)
+  }
+}
+
+object GetAlarmsBenchmark {
+  def alarms(count: Int): Config = {
+    val alarms = (1 to count).map { i =>
+      s"""{
+         |  prefix = "nfiraos.trombone$i"
+         |  name = tromboneAxisLowLimitAlarm
+         |  description = "Warns when trombone axis has reached the low limit"
+         |  location = "south side"
+         |  alarmType = Absolute
+         |  supportedSeverities = [Warning, Major, Critical]
+         |  probableCause = "the trombone software has failed or the stage was driven into the low limit"
+         |  operatorResponse = "go to the NFIRAOS engineering user interface and select the datum axis command"
+         |  isAutoAcknowledgeable = false
+         |  isLatchable = true
+         |  activationStatus = Active
+         |}""".stripMargin
+    }
+    ConfigFactory.parseString(alarms.mkString("alarms: [\n", ",\n", "\n]"))
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+// in the csw.alarm package to reach both ways of setting the severity of an alarm
+package csw.alarm.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import akka.Done
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.alarm.client.AlarmServiceFactory
+import csw.alarm.client.internal.AlarmServiceImpl
+import csw.alarm.models.AlarmSeverity.Major
+import csw.alarm.models.Key.{AlarmKey, GlobalKey}
+import csw.commons.redis.EmbeddedRedis
+import csw.network.utils.SocketUtils.getFreePort
+import io.lettuce.core.RedisClient
+import org.openjdk.jmh.annotations._
+import redis.embedded.{RedisSentinel, RedisServer}
+
+import scala.concurrent.duration.DurationInt
+import scala.concurrent.{Await, ExecutionContext, Future}
+
+/**
+ * Measures the heartbeats per second the alarm store takes when 5000 auto-refreshed alarms are refreshed, with the
+ * severity script and with the client side reads and writes of every key.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*SetSeverityBenchmark.*
+//
+// Every invocation refreshes the severity of all the alarms once, like the alarm refresh actors of the components do on
+// every refresh interval.
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+class SetSeverityBenchmark extends EmbeddedRedis {
+
+  private val alarmCount = 5000
+
+  private var actorSystem: ActorSystem[SpawnProtocol.Command] = _
+  private var redisClient: RedisClient                        = _
+  private var redisSentinel: RedisSentinel                    = _
+  private var redisServer: RedisServer                        = _
+  private var alarmService: AlarmServiceImpl                  = _
+  private var alarmKeys: List[AlarmKey]                       = _
+  implicit private var ec: ExecutionContext                   = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val sentinelPort = getFreePort
+    val redis        = startSentinel(sentinelPort, getFreePort, ConfigFactory.load().getString("csw-alarm.redis.masterId"))
+    redisSentinel = redis._1
+    redisServer = redis._2
+
+    actorSystem = ActorSystem(SpawnProtocol(), "set-severity-benchmark")
+    ec = actorSystem.executionContext
+    redisClient = RedisClient.create()
+    alarmService =
+      new AlarmServiceFactory(redisClient).makeAdminApi("localhost", sentinelPort)(actorSystem).asInstanceOf[AlarmServiceImpl]
+    Await.result(alarmService.initAlarms(GetAlarmsBenchmark.alarms(alarmCount), reset = true), 30.seconds)
+    alarmKeys = Await.result(alarmService.getMetadata(GlobalKey), 30.seconds).map(_.alarmKey)
+  }
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = {
+    redisClient.shutdown()
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+    stopSentinel(redisSentinel, redisServer)
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(5000)
+  def withScript(): List[Done] =
+    Await.result(Future.traverse(alarmKeys)(alarmService.setSeverityWithScript(_, Major)), 30.seconds)
+
+  @Benchmark
+  @OperationsPerInvocation(5000)
+  def onClient(): List[Done] =
+    Await.result(Future.traverse(alarmKeys)(alarmService.setSeverityOnClient(_, Major)), 30.seconds)
+}
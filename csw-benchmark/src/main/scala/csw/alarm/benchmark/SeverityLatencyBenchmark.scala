@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.alarm.benchmark
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.alarm.api.scaladsl.{AlarmAdminService, AlarmSubscription}
+import csw.alarm.client.AlarmServiceFactory
+import csw.alarm.models.AlarmSeverity.{Critical, Major}
+import csw.alarm.models.FullAlarmSeverity
+import csw.alarm.models.Key.AlarmKey
+import csw.commons.redis.EmbeddedRedis
+import csw.network.utils.SocketUtils.getFreePort
+import csw.prefix.models.Prefix
+import io.lettuce.core.RedisClient
+import org.openjdk.jmh.annotations._
+import redis.embedded.{RedisSentinel, RedisServer}
+
+import scala.concurrent.duration.DurationInt
+import scala.concurrent.{Await, Promise}
+
+/**
+ * Measures the time from `setSeverity` to the callback of an aggregated severity subscription seeing the new severity,
+ * with the subscription taking the severities from the published messages or reading them on every keyspace notification.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*SeverityLatencyBenchmark.*
+//
+// Every invocation flips the severity of one alarm between Major and Critical, so that every invocation changes the
+// aggregated severity.
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class SeverityLatencyBenchmark extends EmbeddedRedis {
+  @Param(Array("true", "false"))
+  var publishedSeverity: String = _
+
+  private var actorSystem: ActorSystem[SpawnProtocol.Command] = _
+  private var redisClient: RedisClient                        = _
+  private var redisSentinel: RedisSentinel                    = _
+  private var redisServer: RedisServer                        = _
+  private var alarmService: AlarmAdminService                 = _
+  private var subscription: AlarmSubscription                 = _
+  private var severity: FullAlarmSeverity                     = Major
+
+  // completed by the subscription when it sees the severity it waits for
+  private val expected = new AtomicReference[(FullAlarmSeverity, Promise[Unit])]()
+
+  private val alarmKey = AlarmKey(Prefix("nfiraos.trombone1"), "tromboneAxisLowLimitAlarm")
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    System.setProperty("csw-alarm.published-severity", publishedSeverity)
+    ConfigFactory.invalidateCaches()
+
+    val sentinelPort = getFreePort
+    val redis        = startSentinel(sentinelPort, getFreePort, ConfigFactory.load().getString("csw-alarm.redis.masterId"))
+    redisSentinel = redis._1
+    redisServer = redis._2
+
+    actorSystem = ActorSystem(SpawnProtocol(), "severity-latency-benchmark")
+    redisClient = RedisClient.create()
+    alarmService = new AlarmServiceFactory(redisClient).makeAdminApi("localhost", sentinelPort)(actorSystem)
+    Await.result(alarmService.initAlarms(GetAlarmsBenchmark.alarms(1), reset = true), 10.seconds)
+
+    subscription = alarmService.subscribeAggregatedSeverityCallback(
+      alarmKey,
+      aggregated =>
+        Option(expected.get()).foreach { case (wanted, promise) => if (aggregated == wanted) promise.trySuccess(()) }
+    )
+    Await.result(subscription.ready(), 10.seconds)
+  }
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = {
+    Await.result(subscription.unsubscribe(), 5.seconds)
+    redisClient.shutdown()
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+    stopSentinel(redisSentinel, redisServer)
+  }
+
+  @Benchmark
+  def setSeverityToCallback(): Unit = {
+    val next    = if (severity == Major) Critical else Major
+    val promise = Promise[Unit]()
+    expected.set(next -> promise)
+    alarmService.setSeverity(alarmKey, next)
+    Await.result(promise.future, 5.seconds)
+    severity = next
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.command
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.testkit.typed.scaladsl.{BehaviorTestKit, TestInbox}
+import csw.command.client.MiniCRM
+import csw.command.client.MiniCRM.CRMMessage
+import csw.command.client.MiniCRM.MiniCRMMessage.{AddResponse, AddStarted, Query, QueryFinal}
+import csw.params.commands.CommandResponse.{Completed, Started, SubmitResponse}
+import csw.params.core.models.Id
+import org.openjdk.jmh.annotations._
+
+/**
+ * Tests the throughput of the miniCRM behavior handling query and queryFinal with a number of retained commands,
+ * without the overhead of an actor mailbox.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 10 -i 20 .*MiniCRMBenchmark.*
+//
+@State(Scope.Benchmark)
+class MiniCRMBenchmark {
+  @Param(Array("1000", "10000"))
+  var retained: Int = _
+
+  var crm: BehaviorTestKit[CRMMessage] = _
+  var inbox: TestInbox[SubmitResponse] = _
+  var startedIds: Array[Id]            = _
+  var completedIds: Array[Id]          = _
+  private var index                    = 0
+  private var next                     = 0
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    crm = BehaviorTestKit(MiniCRM.make(retained, retained, retained))
+    inbox = TestInbox[SubmitResponse]()
+    // half of the retained commands are still running, the other half have completed
+    startedIds = Array.fill(retained / 2)(Id())
+    completedIds = Array.fill(retained / 2)(Id())
+    startedIds.foreach(id => crm.run(AddStarted(Started(id))))
+    completedIds.foreach { id =>
+      crm.run(AddStarted(Started(id)))
+      crm.run(AddResponse(Completed(id)))
+    }
+  }
+
+  private def nextIndex(): Int = {
+    index = if (index == completedIds.length - 1) 0 else index + 1
+    index
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  def queryStarted(): SubmitResponse = {
+    crm.run(Query(startedIds(nextIndex()), inbox.ref))
+    inbox.receiveMessage()
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  def queryCompleted(): SubmitResponse = {
+    crm.run(Query(completedIds(nextIndex()), inbox.ref))
+    inbox.receiveMessage()
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  def queryFinalCompleted(): SubmitResponse = {
+    crm.run(QueryFinal(completedIds(nextIndex()), inbox.ref))
+    inbox.receiveMessage()
+  }
+
+  // A new command starts, is waited for and completes, evicting the least recently used retained commands
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  def queryFinalNewCommand(): SubmitResponse = {
+    next += 1
+    val id = Id(s"new-$next")
+    crm.run(AddStarted(Started(id)))
+    crm.run(QueryFinal(id, inbox.ref))
+    crm.run(AddResponse(Completed(id)))
+    inbox.receiveMessage()
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.event
+
+import java.util.concurrent.TimeUnit
+
+import csw.params.core.formats.EventCbor
+import csw.params.events.{EventKey, EventName, SystemEvent}
+import csw.prefix.models.{Prefix, Subsystem}
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*EventKeyParsingBenchmark.*
+//
+// Every invocation handles one message for each of 300 event keys, the way a subscriber does on the receive path: the key
+// of the channel is parsed, the event is decoded, and the subscription of the key is looked up.
+// `uncachedKeys` parses the keys the way EventKey.apply did before its results were interned.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class EventKeyParsingBenchmark {
+
+  private val events: Array[SystemEvent] = Array.tabulate(EventKeyParsingBenchmark.Keys) { i =>
+    Data.smallEvent.copy(source = Prefix(s"tcs.assembly_${i % 30}"), eventName = EventName(s"telemetry_$i"))
+  }
+  private val keyStrings: Array[String]         = events.map(_.eventKey.key)
+  private val payloads: Array[Array[Byte]]      = events.map(EventCbor.encode(_))
+  private val subscriptions: Map[EventKey, Int] = events.map(_.eventKey).zipWithIndex.toMap
+
+  @Benchmark
+  @OperationsPerInvocation(EventKeyParsingBenchmark.Keys)
+  def internedKeys(bh: Blackhole): Unit = keyStrings.foreach(key => bh.consume(EventKey(key)))
+
+  @Benchmark
+  @OperationsPerInvocation(EventKeyParsingBenchmark.Keys)
+  def uncachedKeys(bh: Blackhole): Unit = keyStrings.foreach(key => bh.consume(EventKeyParsingBenchmark.parse(key)))
+
+  @Benchmark
+  @OperationsPerInvocation(EventKeyParsingBenchmark.Keys)
+  def receivedMessages(bh: Blackhole): Unit = {
+    var i = 0
+    while (i < EventKeyParsingBenchmark.Keys) {
+      val eventKey = EventKey(keyStrings(i))
+      bh.consume(EventCbor.decode[SystemEvent](payloads(i)))
+      bh.consume(subscriptions.get(eventKey))
+      i += 1
+    }
+  }
+}
+
+object EventKeyParsingBenchmark {
+  final val Keys = 300
+
+  private def parse(eventKeyStr: String): EventKey = {
+    val (prefix, name) = eventKeyStr.splitAt(eventKeyStr.lastIndexOf("."))
+    val source = prefix.split("\\.", 2) match {
+      case Array(subsystem, componentName) => new Prefix(Subsystem.withNameInsensitive(subsystem), componentName)
+      case x                               => throw new MatchError(x)
+    }
+    new EventKey(source, new EventName(name.tail))
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.event
+
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.commons.redis.EmbeddedRedis
+import csw.event.api.scaladsl.{EventPublisher, EventSubscription}
+import csw.event.client.EventServiceFactory
+import csw.event.client.models.EventStores.{HybridStore, RedisStore}
+import csw.network.utils.SocketUtils.getFreePort
+import csw.params.core.models.Id
+import csw.params.events.Event
+import io.lettuce.core.RedisClient
+import org.openjdk.jmh.annotations._
+import redis.embedded.{RedisSentinel, RedisServer}
+
+import scala.concurrent.Await
+import scala.concurrent.duration.DurationInt
+
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*HybridDeliveryLatencyBenchmark.*
+//
+// A publisher and a subscriber in the same JVM, made by one event service factory. Every invocation publishes one event and
+// waits until the subscriber received it. With the redis store, the event makes a round trip through redis, with the hybrid
+// store it is delivered to the subscriber directly and its copy from redis is dropped.
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+class HybridDeliveryLatencyBenchmark extends EmbeddedRedis {
+
+  @Param(Array("redis", "hybrid"))
+  var store: String = _
+
+  private var actorSystem: ActorSystem[SpawnProtocol.Command] = _
+  private var redisClient: RedisClient                        = _
+  private var redisSentinel: RedisSentinel                    = _
+  private var redisServer: RedisServer                        = _
+  private var publisher: EventPublisher                       = _
+  private var subscription: EventSubscription                 = _
+  private var sequence: Long                                  = 0
+
+  // the id of the event being waited for and the latch counted down by the subscriber when it receives it
+  @volatile private var expected: (Id, CountDownLatch) = (Id("none"), new CountDownLatch(0))
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val config       = ConfigFactory.load()
+    val sentinelPort = getFreePort
+    val redis        = startSentinel(sentinelPort, getFreePort, config.getString("csw-event.redis.masterId"))
+    redisSentinel = redis._1
+    redisServer = redis._2
+
+    actorSystem = ActorSystem(SpawnProtocol(), "hybrid-delivery-latency-benchmark", config)
+    redisClient = RedisClient.create()
+    val factory = new EventServiceFactory(if (store == "hybrid") HybridStore(redisClient) else RedisStore(redisClient))
+    publisher = factory.make("localhost", sentinelPort)(actorSystem).makeNewPublisher()
+
+    subscription = factory
+      .make("localhost", sentinelPort)(actorSystem)
+      .makeNewSubscriber()
+      .subscribeCallback(
+        Set(Data.smallEvent.eventKey),
+        event => {
+          val (id, latch) = expected
+          if (event.eventId == id) latch.countDown()
+        }
+      )
+    Await.result(subscription.ready(), 10.seconds)
+  }
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = {
+    Await.result(subscription.unsubscribe(), 5.seconds)
+    Await.result(publisher.shutdown(), 5.seconds)
+    redisClient.shutdown()
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+    stopSentinel(redisSentinel, redisServer)
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime, Mode.SampleTime))
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def publishToSubscriber(): Unit = {
+    sequence += 1
+    val event: Event = Data.smallEvent.copy(eventId = Id(sequence.toString))
+    val latch        = new CountDownLatch(1)
+    expected = (event.eventId, latch)
+    publisher.publish(event)
+    latch.await(5, TimeUnit.SECONDS)
+  }
+}
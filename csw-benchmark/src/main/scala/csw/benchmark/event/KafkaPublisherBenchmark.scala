@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.event
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.event.api.scaladsl.EventPublisher
+import csw.event.client.EventServiceFactory
+import csw.event.client.models.EventStores.KafkaStore
+import csw.network.utils.SocketUtils.getFreePort
+import csw.params.events.{Event, EventName, SystemEvent}
+import csw.prefix.models.Prefix
+import io.github.embeddedkafka.{EmbeddedKafka, EmbeddedKafkaConfig}
+import org.openjdk.jmh.annotations._
+
+import scala.concurrent.duration.DurationInt
+import scala.concurrent.{Await, ExecutionContext, Future}
+
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*KafkaPublisherBenchmark.*
+//
+// Publishes events on 50 event keys to an embedded kafka broker, waiting for the acknowledgement of each event before
+// sending the next one (pipelining off) or sending events while earlier ones are in flight (pipelining on).
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS, batchSize = 1)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS, batchSize = 1)
+class KafkaPublisherBenchmark {
+
+  @Param(Array("off", "on"))
+  var pipelining: String = _
+
+  private val eventKeys = 50
+
+  private var actorSystem: ActorSystem[SpawnProtocol.Command] = _
+  private var publisher: EventPublisher                       = _
+  private var events: Seq[Event]                              = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val config = ConfigFactory
+      .parseString(s"csw-event.kafka.publisher.pipelining = $pipelining")
+      .withFallback(ConfigFactory.load())
+
+    val kafkaPort = getFreePort
+    EmbeddedKafka.start()(EmbeddedKafkaConfig(kafkaPort = kafkaPort, zooKeeperPort = getFreePort))
+
+    actorSystem = ActorSystem(SpawnProtocol(), "kafka-publisher-benchmark", config)
+    publisher = new EventServiceFactory(KafkaStore).make("localhost", kafkaPort)(actorSystem).makeNewPublisher()
+    events = (1 to KafkaPublisherBenchmark.EventsPerInvocation).map { i =>
+      SystemEvent(Prefix("csw.benchmark"), EventName(s"telemetry_${i % eventKeys}"), Data.smallEvent.paramSet)
+    }
+
+    // creates the topics of all the event keys before measuring
+    implicit val ec: ExecutionContext = actorSystem.executionContext
+    Await.result(Future.sequence(events.take(eventKeys).map(event => publisher.publish(event))), 60.seconds)
+  }
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = {
+    Await.result(publisher.shutdown(), 10.seconds)
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+    EmbeddedKafka.stop()
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(KafkaPublisherBenchmark.EventsPerInvocation)
+  def publishThroughput(): Unit = {
+    // events of different keys go to different topics, hence they can be acknowledged out of order
+    implicit val ec: ExecutionContext = actorSystem.executionContext
+    val published                     = events.map(event => publisher.publish(event))
+    Await.result(Future.sequence(published), 30.seconds)
+  }
+}
+
+object KafkaPublisherBenchmark {
+  final val EventsPerInvocation = 1000
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.event
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.commons.redis.EmbeddedRedis
+import csw.event.api.scaladsl.EventPublisher
+import csw.event.client.EventServiceFactory
+import csw.event.client.models.EventStores.RedisStore
+import csw.network.utils.SocketUtils.getFreePort
+import csw.params.events.{Event, EventName, SystemEvent}
+import csw.prefix.models.Prefix
+import io.lettuce.core.RedisClient
+import org.openjdk.jmh.annotations._
+import redis.embedded.{RedisSentinel, RedisServer}
+
+import scala.concurrent.Await
+import scala.concurrent.duration.DurationInt
+
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*RedisPublisherBenchmark.*
+//
+// Publishes events on 200 event keys through a pipelined redis publisher, with micro-batches of 1, 16 and 128 events.
+// A batch size of 1 writes the PUBLISH and SET of one event in a single flush. With pipelining turned off, the publisher
+// instead waits for PUBLISH to complete before it sends SET, hence batches of 1 are not a measure of unpipelined publishing.
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS, batchSize = 1)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS, batchSize = 1)
+class RedisPublisherBenchmark extends EmbeddedRedis {
+
+  @Param(Array("1", "16", "128"))
+  var batchSize: Int = _
+
+  private val eventKeys = 200
+
+  private var actorSystem: ActorSystem[SpawnProtocol.Command] = _
+  private var redisClient: RedisClient                        = _
+  private var redisSentinel: RedisSentinel                    = _
+  private var redisServer: RedisServer                        = _
+  private var publisher: EventPublisher                       = _
+  private var events: Seq[Event]                              = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val config = ConfigFactory
+      .parseString(s"""
+           |csw-event.redis.publisher {
+           |  pipelining = on
+           |  max-batch-size = $batchSize
+           |}
+           |""".stripMargin)
+      .withFallback(ConfigFactory.load())
+
+    val sentinelPort = getFreePort
+    val redis        = startSentinel(sentinelPort, getFreePort, config.getString("csw-event.redis.masterId"))
+    redisSentinel = redis._1
+    redisServer = redis._2
+
+    actorSystem = ActorSystem(SpawnProtocol(), "redis-publisher-benchmark", config)
+    redisClient = RedisClient.create()
+    publisher = new EventServiceFactory(RedisStore(redisClient)).make("localhost", sentinelPort)(actorSystem).makeNewPublisher()
+    events = (1 to RedisPublisherBenchmark.EventsPerInvocation).map { i =>
+      SystemEvent(Prefix("csw.benchmark"), EventName(s"telemetry_${i % eventKeys}"), Data.smallEvent.paramSet)
+    }
+  }
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = {
+    Await.result(publisher.shutdown(), 5.seconds)
+    redisClient.shutdown()
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+    stopSentinel(redisSentinel, redisServer)
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(RedisPublisherBenchmark.EventsPerInvocation)
+  def publishThroughput(): Unit = {
+    // events are published in order, hence the last event completing means that all events of this invocation are published
+    val published = events.map(event => publisher.publish(event))
+    Await.result(published.last, 10.seconds)
+  }
+}
+
+object RedisPublisherBenchmark {
+  final val EventsPerInvocation = 1000
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.event
+
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.commons.redis.EmbeddedRedis
+import csw.event.api.scaladsl.{EventPublisher, EventSubscription}
+import csw.event.client.EventServiceFactory
+import csw.event.client.models.EventStores.RedisStore
+import csw.network.utils.SocketUtils.getFreePort
+import csw.params.core.generics.KeyType
+import csw.params.core.models.{Id, MatrixData}
+import csw.params.events.{Event, EventName, SystemEvent}
+import csw.prefix.models.Prefix
+import io.lettuce.core.RedisClient
+import org.openjdk.jmh.annotations._
+import redis.embedded.{RedisSentinel, RedisServer}
+
+import scala.concurrent.Await
+import scala.concurrent.duration.DurationInt
+
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*RedisSubscriberDecodingBenchmark.*
+//
+// 50 subscribers, each with a pub/sub connection of its own, subscribe to the same key of a 1 MB image like event. Every
+// invocation publishes one event and waits until all the subscribers received it. The throughput is in events/ms and the
+// sample time reports the percentiles (p0.99 among them) of the latency from publishing to the last delivery.
+// With a decode parallelism of 0, the events are decoded on the I/O threads which the 50 connections share.
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+class RedisSubscriberDecodingBenchmark extends EmbeddedRedis {
+
+  @Param(Array("0", "4", "8"))
+  var decodeParallelism: Int = _
+
+  private val subscriberCount = 50
+
+  private val imageKey   = KeyType.IntMatrixKey.make("image")
+  private val imageEvent = SystemEvent(Prefix("csw.benchmark"), EventName("image"))
+    .add(imageKey.set(MatrixData.fromArrays(Array.tabulate(512, 512)(_ + _))))
+
+  private var actorSystem: ActorSystem[SpawnProtocol.Command] = _
+  private var redisClient: RedisClient                        = _
+  private var redisSentinel: RedisSentinel                    = _
+  private var redisServer: RedisServer                        = _
+  private var publisher: EventPublisher                       = _
+  private var subscriptions: Seq[EventSubscription]           = _
+  private var sequence: Long                                  = 0
+
+  // the id of the event being waited for and the latch counted down by every subscriber which receives it
+  @volatile private var expected: (Id, CountDownLatch) = (Id("none"), new CountDownLatch(0))
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val config = ConfigFactory
+      .parseString(s"csw-event.redis.subscriber.decode-parallelism = $decodeParallelism")
+      .withFallback(ConfigFactory.load())
+
+    val sentinelPort = getFreePort
+    val redis        = startSentinel(sentinelPort, getFreePort, config.getString("csw-event.redis.masterId"))
+    redisSentinel = redis._1
+    redisServer = redis._2
+
+    actorSystem = ActorSystem(SpawnProtocol(), "redis-subscriber-decoding-benchmark", config)
+    redisClient = RedisClient.create()
+    val eventService = new EventServiceFactory(RedisStore(redisClient)).make("localhost", sentinelPort)(actorSystem)
+    publisher = eventService.makeNewPublisher()
+
+    subscriptions = (1 to subscriberCount).map { _ =>
+      eventService.makeNewSubscriber().subscribeCallback(
+        Set(imageEvent.eventKey),
+        event => {
+          val (id, latch) = expected
+          if (event.eventId == id) latch.countDown()
+        }
+      )
+    }
+    subscriptions.foreach(subscription => Await.result(subscription.ready(), 10.seconds))
+  }
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = {
+    subscriptions.foreach(subscription => Await.result(subscription.unsubscribe(), 5.seconds))
+    Await.result(publisher.shutdown(), 5.seconds)
+    redisClient.shutdown()
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+    stopSentinel(redisSentinel, redisServer)
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput, Mode.SampleTime))
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  def publishToAllSubscriptions(): Unit = {
+    sequence += 1
+    val event: Event = imageEvent.copy(eventId = Id(sequence.toString))
+    val latch        = new CountDownLatch(subscriberCount)
+    expected = (event.eventId, latch)
+    publisher.publish(event)
+    latch.await(5, TimeUnit.SECONDS)
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.location
+
+import java.net.URI
+import java.util.concurrent.TimeUnit
+
+import csw.location.api.codec.LocationServiceCodecs
+import csw.location.api.models.Connection.{AkkaConnection, HttpConnection}
+import csw.location.api.models._
+import csw.prefix.models.Prefix
+import io.bullet.borer.{Cbor, Json, Target}
+import org.openjdk.jmh.annotations._
+
+/**
+ * Compares the JSON and CBOR encodings used by the HTTP location client and server: the size and decoding time of the
+ * response to `list` with 500 registered locations, and of a tracking event.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 10 -i 20 .*LocationTransportBenchmark.*
+//
+// The payload sizes are printed at the start of a trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+class LocationTransportBenchmark extends LocationServiceCodecs {
+  @Param(Array("json", "cbor"))
+  var contentType: String = _
+
+  var target: Target               = _
+  var listPayload: Array[Byte]     = _
+  var trackingPayload: Array[Byte] = _
+  var locations: List[Location]    = _
+  var trackingEvent: TrackingEvent = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    target = if (contentType == "cbor") Cbor else Json
+    locations = (1 to 500).toList.map { i =>
+      val componentId = ComponentId(Prefix(s"wfos.blue.filter$i"), ComponentType.HCD)
+      if (i % 2 == 0) AkkaLocation(AkkaConnection(componentId), new URI(s"akka://wfos@10.1.1.$i:3552/user/hcd$i"), Metadata.empty)
+      else HttpLocation(HttpConnection(componentId), new URI(s"http://10.1.1.$i:8080/command"), Metadata.empty)
+    }
+    trackingEvent = LocationUpdated(locations.head)
+    listPayload = target.encode(locations).toByteArray
+    trackingPayload = target.encode(trackingEvent).toByteArray
+    println(s"\n$contentType: list of 500 locations ${listPayload.length} bytes, tracking event ${trackingPayload.length} bytes")
+  }
+
+  @Benchmark
+  def encodeList(): Array[Byte] = target.encode(locations).toByteArray
+
+  @Benchmark
+  def decodeList(): List[Location] = target.decode(listPayload).to[List[Location]].value
+
+  @Benchmark
+  def encodeTrackingEvent(): Array[Byte] = target.encode(trackingEvent).toByteArray
+
+  @Benchmark
+  def decodeTrackingEvent(): TrackingEvent = target.decode(trackingPayload).to[TrackingEvent].value
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.location
+
+import java.util.concurrent.TimeUnit
+
+import csw.location.api.models.Connection.{HttpConnection, TcpConnection}
+import csw.location.api.models._
+import csw.location.api.scaladsl.{LocationService, RegistrationResult}
+import csw.location.server.internal.ServerWiring
+import csw.prefix.models.Prefix
+import org.openjdk.jmh.annotations._
+
+import scala.concurrent.duration.DurationInt
+import scala.concurrent.{Await, ExecutionContext, Future}
+
+/**
+ * Measures the time a container of many components takes to register them with the location service, registering every
+ * connection on its own or all of them together with `registerAll`.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*RegistrationBenchmark.*
+//
+// Every component registers two connections, like the akka and http connections of an embedded component. The
+// connections are unregistered after every invocation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class RegistrationBenchmark {
+  @Param(Array("10", "50"))
+  var components: Int = _
+
+  implicit var ec: ExecutionContext     = _
+  var wiring: ServerWiring              = _
+  var locationService: LocationService  = _
+  var registrations: List[Registration] = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    wiring = ServerWiring.make(Some(3553), enableAuth = false)
+    locationService = wiring.locationService
+    ec = wiring.actorSystem.executionContext
+    registrations = (1 to components).toList.flatMap { i =>
+      val componentId = ComponentId(Prefix(s"wfos.blue.filter$i"), ComponentType.Service)
+      List(
+        TcpRegistration(TcpConnection(componentId), 5000 + i),
+        HttpRegistration(HttpConnection(componentId), 8000 + i, "command")
+      )
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  def unregister(): Unit = Await.result(locationService.unregisterAll(registrations.map(_.connection)), 10.seconds)
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = Await.result(wiring.actorRuntime.shutdown(), 10.seconds)
+
+  @Benchmark
+  def registerEach(): List[RegistrationResult] =
+    Await.result(Future.traverse(registrations)(locationService.register), 10.seconds)
+
+  @Benchmark
+  def registerAll(): List[RegistrationResult] = Await.result(locationService.registerAll(registrations), 10.seconds)
+}
@@ -10,6 +10,7 @@ import java.util.concurrent.TimeUnit
 
 import akka.actor.typed
 import akka.actor.typed.SpawnProtocol
+import com.typesafe.config.ConfigFactory
 import csw.benchmark.logging.mock.LogActorMock
 import csw.logging.client.appenders.FileAppender
 import csw.logging.client.internal.LoggingSystem
@@ -29,22 +30,35 @@ import scala.concurrent.duration.DurationLong
 // multiple threads (for example, 4 threads):
 // sbt csw-benchmark/jmh:run -f 1 -wi 10 -i 20 -t 4 -si true .*FileAppenderBenchmark.*
 //
+// The `mode` param compares today's appender, which flushes every line on the calling thread (sync), with the appender
+// writing on its own thread through a buffered stream (async) or a file channel with a direct buffer (async-channel).
+//
 
 // DEOPSCSW-279: Test logging performance
 @State(Scope.Benchmark)
 class FileAppenderBenchmark {
+  @Param(Array("sync", "async", "async-channel"))
+  var mode: String = _
+
   var actorSystem: typed.ActorSystem[SpawnProtocol.Command] = _
   var fileAppender: FileAppender                            = _
 
   @Setup(Level.Trial)
   def setup(): Unit = {
-    actorSystem = typed.ActorSystem(SpawnProtocol(), "logging")
+    val config = ConfigFactory
+      .parseString(s"""
+           |csw-logging.appender-config.file.async = ${mode != "sync"}
+           |csw-logging.appender-config.file.useFileChannel = ${mode == "async-channel"}
+           |""".stripMargin)
+      .withFallback(ConfigFactory.load())
+    actorSystem = typed.ActorSystem(SpawnProtocol(), "logging", config)
     new LoggingSystem("FileAppender", "SNAPSHOT-1.0", InetAddress.getLocalHost.getHostName, actorSystem)
     fileAppender = new FileAppender(actorSystem, LogActorMock.standardHeaders)
   }
 
   @TearDown(Level.Trial)
   def teardown(): Unit = {
+    Await.result(fileAppender.stop(), 5.seconds)
     actorSystem.terminate()
     Await.result(actorSystem.whenTerminated, 5.seconds)
   }
@@ -57,4 +71,12 @@ class FileAppenderBenchmark {
   def fileAppenderThroughput(): Unit = {
     LogActorMock.receiveLog(fileAppender)
   }
+
+  // Same as above, with the log message encoded by the LogActor's JsonLogEncoder instead of being built as a JsObject
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  def fileAppenderThroughputWithEncoder(): Unit = {
+    LogActorMock.receiveEncodedLog(fileAppender)
+  }
 }
@@ -9,8 +9,11 @@ import java.util.concurrent.TimeUnit
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.google.gson.Gson
+import csw.benchmark.logging.mock.LogActorMock
+import csw.logging.client.appenders.LogRecord
 import csw.logging.client.commons.LoggingKeys
 import csw.logging.client.internal.JsonExtensions.RichJsObject
+import csw.logging.client.internal.JsonLogEncoder
 import org.openjdk.jmh.annotations._
 import play.api.libs.json.{JsObject, Json}
 
@@ -49,11 +52,13 @@ class JsonUtilBenchmark {
 
   var gson: Gson                        = _
   var jacksonObjectMapper: ObjectMapper = _
+  var encoder: JsonLogEncoder           = _
 
   @Setup(Level.Trial)
   def setup() = {
     gson = new Gson()
     jacksonObjectMapper = new ObjectMapper()
+    encoder = new JsonLogEncoder
   }
 
   // Benchmark for extracting value of key using play-json method
@@ -98,4 +103,20 @@ class JsonUtilBenchmark {
     jacksonObjectMapper.writeValueAsString(expectedLogMsgJson1.value.asJava)
   }
 
+  // Benchmark for json string formation of a log message, built as a JsObject by the LogActor before
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  def benchLogJsObjectToString(): String = {
+    encoder.encode(LogActorMock.logWithoutException).json.toString()
+  }
+
+  // Benchmark for json string formation of a log message, written by the JsonLogEncoder of the LogActor
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  def benchLogEncoderToString(): String = {
+    val record = encoder.encode(LogActorMock.logWithoutException)
+    record.toJsonString(LogRecord.Headers.empty, withCategory = true, withPlainStack = false)
+  }
 }
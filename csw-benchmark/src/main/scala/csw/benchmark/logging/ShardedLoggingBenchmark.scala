@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.logging
+
+import java.io.OutputStream
+import java.net.InetAddress
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import akka.actor.typed
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.logging.api.scaladsl.Logger
+import csw.logging.client.appenders.{LogAppender, LogAppenderBuilder, LogRecord}
+import csw.logging.client.internal.LoggingSystem
+import csw.logging.client.scaladsl.LoggerFactory
+import csw.logging.models.Level.INFO
+import csw.prefix.models.Prefix
+import csw.prefix.models.Subsystem.CSW
+import org.openjdk.jmh.annotations._
+import play.api.libs.json.JsObject
+
+import scala.concurrent.duration.DurationLong
+import scala.concurrent.{Await, Future}
+
+/**
+ * Tests logging throughput of many components logging concurrently, with log messages formatted by a single LogActor
+ * (shards = 0) or by shards in parallel.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 10 -i 20 -t 16 .*ShardedLoggingBenchmark.*
+//
+// Every producer thread logs as a component of its own. The number of log messages dropped because the shards were
+// full is printed at the end of a trial.
+@State(Scope.Benchmark)
+class ShardedLoggingBenchmark {
+  @Param(Array("0", "4"))
+  var shards: Int = _
+
+  @Param(Array("false", "true"))
+  var strictOrder: Boolean = _
+
+  var actorSystem: typed.ActorSystem[SpawnProtocol.Command] = _
+  var loggingSystem: LoggingSystem                          = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val config = ConfigFactory
+      .parseString(s"""
+           |csw-logging.shards = $shards
+           |csw-logging.strictOrder = $strictOrder
+           |""".stripMargin)
+      .withFallback(ConfigFactory.load())
+    actorSystem = typed.ActorSystem(SpawnProtocol(), "logging", config)
+    loggingSystem = new LoggingSystem("Sharded", "SNAPSHOT-1.0", InetAddress.getLocalHost.getHostName, actorSystem)
+    loggingSystem.setAppenders(List(DiscardingAppender))
+    loggingSystem.setDefaultLogLevel(INFO)
+  }
+
+  @TearDown(Level.Trial)
+  def teardown(): Unit = {
+    loggingSystem.getQueueMetrics.foreach(metrics => println(s"\nDropped log messages: ${metrics.dropped}"))
+    Await.result(loggingSystem.stop, 10.seconds)
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.Throughput))
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  def concurrentLoggingThroughput(component: LoggingComponent): Unit = {
+    component.log.info("Moving to position", Map("position" -> 42.5, "axis" -> "x"))
+  }
+}
+
+// A producer thread logging as a component of its own
+@State(Scope.Thread)
+class LoggingComponent {
+  var log: Logger = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = log = new LoggerFactory(Prefix(CSW, s"component${LoggingComponent.count.incrementAndGet()}")).getLogger
+}
+
+object LoggingComponent {
+  private val count = new AtomicInteger()
+}
+
+// Serializes every record like the file appender does, without doing any I/O
+object DiscardingAppender extends LogAppenderBuilder {
+  private val discard = new OutputStream {
+    override def write(b: Int): Unit                                       = ()
+    override def write(bytes: Array[Byte], offset: Int, length: Int): Unit = ()
+  }
+
+  def apply(system: ActorSystem[_], stdHeaders: JsObject): LogAppender =
+    new LogAppender {
+      private val headers = LogRecord.Headers(stdHeaders)
+
+      def append(baseMsg: JsObject, category: String): Unit = append(LogRecord(baseMsg), category)
+
+      override def append(record: LogRecord, category: String): Unit =
+        record.writeTo(discard, headers, withCategory = true, withPlainStack = false)
+
+      def finish(): Future[Unit] = Future.successful(())
+      def stop(): Future[Unit]   = Future.successful(())
+    }
+}
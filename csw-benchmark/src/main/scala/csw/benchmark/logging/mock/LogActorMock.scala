@@ -5,9 +5,11 @@
 
 package csw.benchmark.logging.mock
 
+import csw.logging.api.NoLogException
 import csw.logging.models.Level.DEBUG
 import csw.logging.client.appenders.LogAppender
 import csw.logging.client.commons.{Category, LoggingKeys, TMTDateTimeFormatter}
+import csw.logging.client.internal.JsonLogEncoder
 import csw.logging.client.internal.LogActorMessages.Log
 import csw.logging.macros.SourceLocation
 import csw.logging.models.noId
@@ -33,6 +35,13 @@ object LogActorMock {
     new Exception("No Exception")
   )
 
+  // the log without an exception, as written by receiveLog
+  val logWithoutException: Log = log.copy(ex = NoLogException)
+  private val encoder          = new JsonLogEncoder
+
+  // hands the log over the way the LogActor does, encoded without building a JsObject
+  def receiveEncodedLog(appender: LogAppender): Unit = appender.append(encoder.encode(logWithoutException), Category.Common.name)
+
   def receiveLog(appender: LogAppender): Unit = {
     var jsonObject = Json.obj(
       LoggingKeys.TIMESTAMP -> TMTDateTimeFormatter.format(log.time),
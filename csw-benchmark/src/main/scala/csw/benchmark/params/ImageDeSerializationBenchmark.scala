@@ -12,10 +12,10 @@ import akka.actor.typed.ActorSystem
 import akka.actor.typed.scaladsl.Behaviors
 import akka.serialization.{Serialization, SerializationExtension}
 import csw.params.commands.{CommandName, Observe}
-import csw.params.core.generics.KeyType.ByteArrayKey
+import csw.params.core.generics.KeyType.{ByteArrayKey, FloatMatrixKey}
 import csw.params.core.generics.{Key, Parameter}
 import csw.params.core.models.Units.pascal
-import csw.params.core.models.{ArrayData, ObsId}
+import csw.params.core.models.{ArrayData, MatrixData, ObsId}
 import csw.prefix.models.Prefix
 import org.openjdk.jmh.annotations._
 
@@ -47,6 +47,9 @@ class ImageDeSerializationBenchmark {
   private final var img_128k_tuple: (Array[Byte], Observe) = _
   private final var img_512k_tuple: (Array[Byte], Observe) = _
 
+  private final var frame_512_tuple: (Array[Byte], Observe) = _
+  private final var frame_2k_tuple: (Array[Byte], Observe)  = _
+
   @Setup(Level.Trial)
   def setup(): Unit = {
     system = ActorSystem(Behaviors.empty, "example")
@@ -57,6 +60,9 @@ class ImageDeSerializationBenchmark {
     img_32k_tuple = serializeImage("/images/32k_image.bin")
     img_128k_tuple = serializeImage("/images/128k_image.bin")
     img_512k_tuple = serializeImage("/images/512k_image.bin")
+
+    frame_512_tuple = serializeFrame(ImageSerializationBenchmark.floatFrame(512))
+    frame_2k_tuple = serializeFrame(ImageSerializationBenchmark.floatFrame(2048))
   }
 
   @TearDown(Level.Trial)
@@ -79,6 +85,16 @@ class ImageDeSerializationBenchmark {
     (observeSerializer.toBinary(observe), observe)
   }
 
+  def serializeFrame(frame: MatrixData[Float]): (Array[Byte], Observe) = {
+    val frameKey: Key[MatrixData[Float]]    = FloatMatrixKey.make("frameKey")
+    val param: Parameter[MatrixData[Float]] = frameKey -> frame withUnits pascal
+
+    val observe           = Observe(Prefix("csw.originationPrefix"), CommandName(prefixStr), Some(obsId)).add(param)
+    val observeSerializer = serialization.findSerializerFor(observe)
+
+    (observeSerializer.toBinary(observe), observe)
+  }
+
   @Benchmark
   @BenchmarkMode(Array(Mode.AverageTime))
   @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -102,4 +118,20 @@ class ImageDeSerializationBenchmark {
     val observeSerializer = serialization.findSerializerFor(img_512k_tuple._2)
     observeSerializer.fromBinary(img_512k_tuple._1).asInstanceOf[Observe]
   }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  def _512x512FloatFrameDeSerializationBench(): Observe = {
+    val observeSerializer = serialization.findSerializerFor(frame_512_tuple._2)
+    observeSerializer.fromBinary(frame_512_tuple._1).asInstanceOf[Observe]
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  def _2kx2kFloatFrameDeSerializationBench(): Observe = {
+    val observeSerializer = serialization.findSerializerFor(frame_2k_tuple._2)
+    observeSerializer.fromBinary(frame_2k_tuple._1).asInstanceOf[Observe]
+  }
 }
@@ -12,10 +12,10 @@ import akka.actor.typed.ActorSystem
 import akka.actor.typed.scaladsl.Behaviors
 import akka.serialization.{Serialization, SerializationExtension}
 import csw.params.commands.{CommandName, Observe}
-import csw.params.core.generics.KeyType.ByteArrayKey
+import csw.params.core.generics.KeyType.{ByteArrayKey, FloatMatrixKey}
 import csw.params.core.generics.{Key, Parameter}
 import csw.params.core.models.Units.pascal
-import csw.params.core.models.{ArrayData, ObsId}
+import csw.params.core.models.{ArrayData, MatrixData, ObsId}
 import csw.prefix.models.Prefix
 import org.openjdk.jmh.annotations._
 
@@ -47,6 +47,8 @@ class ImageSerializationBenchmark {
   private final var serialization: Serialization = _
   private final var prefixStr: String            = _
   private final var obsId: ObsId                 = _
+  private var frame_512_Data: MatrixData[Float]  = _
+  private var frame_2k_Data: MatrixData[Float]   = _
 
   @Setup(Level.Trial)
   def setup() = {
@@ -64,6 +66,9 @@ class ImageSerializationBenchmark {
     serialization = SerializationExtension(system)
     prefixStr = "wfos.prog.cloudcover"
     obsId = ObsId("2020A-001-123")
+
+    frame_512_Data = ImageSerializationBenchmark.floatFrame(512)
+    frame_2k_Data = ImageSerializationBenchmark.floatFrame(2048)
   }
 
   @TearDown(Level.Trial)
@@ -116,4 +121,31 @@ class ImageSerializationBenchmark {
 
     observeSerializer.toBinary(observe)
   }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  def _512x512FloatFrameSerializationBench(): Array[Byte] = serializeFrame(frame_512_Data)
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  def _2kx2kFloatFrameSerializationBench(): Array[Byte] = serializeFrame(frame_2k_Data)
+
+  private def serializeFrame(frame: MatrixData[Float]): Array[Byte] = {
+    val frameKey: Key[MatrixData[Float]]    = FloatMatrixKey.make("frameKey")
+    val param: Parameter[MatrixData[Float]] = frameKey -> frame withUnits pascal
+
+    val observe           = Observe(Prefix("csw.originationPrefix"), CommandName(prefixStr), Some(obsId)).add(param)
+    val observeSerializer = serialization.findSerializerFor(observe)
+
+    observeSerializer.toBinary(observe)
+  }
+}
+
+object ImageSerializationBenchmark {
+
+  // a square frame of pixel values, stored row after row
+  def floatFrame(size: Int): MatrixData[Float] =
+    MatrixData.fromFlat(size, size, Array.tabulate(size * size)(i => (i % 65536).toFloat))
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.params
+
+import java.util.concurrent.TimeUnit
+
+import csw.params.commands
+import csw.params.commands.CommandName
+import csw.params.core.generics.KeyType.{DoubleKey, IntKey, StringKey}
+import csw.params.core.generics.Parameter
+import csw.params.core.models.ObsId
+import csw.prefix.models.Prefix
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 5 -i 10 .*ParameterSetBenchmark.*
+//
+// Builds a setup with 10, 60 and 120 parameters, and looks up every parameter of a setup the way a handler validates
+// a submitted command.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+class ParameterSetBenchmark {
+
+  @Param(Array("10", "60", "120"))
+  var paramCount: Int = _
+
+  private val prefix      = Prefix("wfos.blue.filter")
+  private val commandName = CommandName("move")
+  private val obsId       = Some(ObsId("2020A-001-123"))
+
+  private var parameters: Seq[Parameter[_]] = _
+  private var setup: commands.Setup         = _
+
+  @Setup(Level.Trial)
+  def setupTrial(): Unit = {
+    parameters = (0 until paramCount).map { i =>
+      i % 3 match {
+        case 0 => IntKey.make(s"int_$i").set(i)
+        case 1 => DoubleKey.make(s"double_$i").set(i.toDouble)
+        case _ => StringKey.make(s"string_$i").set(i.toString)
+      }
+    }
+    setup = build()
+  }
+
+  private def build(): commands.Setup = commands.Setup(prefix, commandName, obsId).madd(parameters: _*)
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def buildWithMadd(): commands.Setup = build()
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def buildWithAdd(): commands.Setup = parameters.foldLeft(commands.Setup(prefix, commandName, obsId))(_.add(_))
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def lookupAll(blackhole: Blackhole): Unit =
+    parameters.foreach(p => blackhole.consume(setup.get(p.keyName, p.keyType)))
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def buildAndLookupAll(blackhole: Blackhole): Unit = {
+    // a freshly received command, whose index is built by the first lookup
+    val received = build()
+    parameters.foreach(p => blackhole.consume(received.get(p.keyName, p.keyType).isDefined))
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.benchmark.serialization
+
+import java.net.URI
+import java.util.concurrent.TimeUnit
+
+import csw.command.client.cbor.CommandAkkaSerializer
+import csw.commons.CborAkkaSerializer
+import csw.location.api.models.Connection.HttpConnection
+import csw.location.api.models.{ComponentId, ComponentType, HttpLocation, Metadata}
+import csw.location.api.serializer.LocationAkkaSerializer
+import csw.logging.client.cbor.LoggingAkkaSerializer
+import csw.logging.models.Level.{DEBUG, ERROR, INFO, WARN}
+import csw.logging.models.LogMetadata
+import csw.params.commands.CommandResponse.Completed
+import csw.params.core.generics.KeyType.IntKey
+import csw.params.core.models.Id
+import csw.params.core.states.{CurrentState, StateName}
+import csw.prefix.models.Prefix
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * Tests the akka serializers used for remoting: the lookup of the codec of a message by walking the registrations,
+ * as done before the codecs were cached, against the cached lookup, and `toBinary`/`fromBinary` round trips.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// sbt csw-benchmark/jmh:run -f 1 -wi 10 -i 20 .*AkkaSerializerBenchmark.*
+//
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+class AkkaSerializerBenchmark {
+
+  @Param(Array("command-response", "current-state", "location", "log-metadata"))
+  var message: String = _
+
+  var serializer: CborAkkaSerializer[_] = _
+  var msg: AnyRef                       = _
+  var bytes: Array[Byte]                = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val prefix       = Prefix("wfos.blue.filter")
+    val currentState = CurrentState(prefix, StateName("position"), Set(IntKey.make("encoder").set(22)))
+    val connection   = HttpConnection(ComponentId(prefix, ComponentType.HCD))
+    val location     = HttpLocation(connection, new URI("http://localhost:8080"), Metadata.empty)
+
+    val (s, m): (CborAkkaSerializer[_], AnyRef) = message match {
+      case "command-response" => (new CommandAkkaSerializer, Completed(Id()))
+      case "current-state"    => (new CommandAkkaSerializer, currentState)
+      case "location"         => (new LocationAkkaSerializer, location)
+      case "log-metadata"     => (new LoggingAkkaSerializer, LogMetadata(INFO, WARN, ERROR, DEBUG))
+    }
+    serializer = s
+    msg = m
+    bytes = serializer.toBinary(msg)
+  }
+
+  @Benchmark
+  def lookupByRegistrations(bh: Blackhole): Unit = bh.consume(serializer.lookupCodec(msg.getClass))
+
+  @Benchmark
+  def lookupCached(bh: Blackhole): Unit = bh.consume(serializer.cachedCodec(msg.getClass))
+
+  @Benchmark
+  def toBinary(): Array[Byte] = serializer.toBinary(msg)
+
+  @Benchmark
+  def fromBinary(): AnyRef = serializer.fromBinary(bytes, Some(msg.getClass))
+}
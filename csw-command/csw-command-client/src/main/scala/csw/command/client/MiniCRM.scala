@@ -11,7 +11,7 @@ import csw.params.commands.CommandIssue.IdNotAvailableIssue
 import csw.params.commands.CommandResponse.{Invalid, Started, SubmitResponse}
 import csw.params.core.models.Id
 
-import scala.collection.mutable.ListBuffer
+import scala.collection.mutable
 
 /**
  * miniCRM is described here.
@@ -25,7 +25,9 @@ import scala.collection.mutable.ListBuffer
  * WaiterList: This is a list of queryFinal callers.  The list contains tuples of (id, ActorRef[SubmitResponse]).
  *              Each entry is an actor waiting for the final response for the command with the given id.
  *
- * miniCRM is written in the "immutable" style so all state is passed between calls to new Behaviors
+ * Each list is indexed by runId, so that query, queryFinal and the completion of waiters do not have to scan the
+ * lists. Each list retains at most the configured number of entries and evicts the least recently used entry
+ * when it is full. The lists are mutable and owned by the miniCRM actor, they are never shared with other actors.
  *
  * The ComponentBehavior only submits Started commands to the miniCRM when a Started is returned from a submit
  * handler. When a Started SubmitResponse is received, miniCRM receives an AddStarted call from ComponentBehavior.
@@ -41,9 +43,9 @@ object MiniCRM {
   type Responses            = List[SubmitResponse]
   type Starters             = List[SubmitResponse]
   type Waiters              = List[(Id, ActorRef[SubmitResponse])]
-  private type ResponseList = SizedList[SubmitResponse]
-  private type StartedList  = SizedList[SubmitResponse]
-  private type WaiterList   = SizedList[(Id, ActorRef[SubmitResponse])]
+  private type ResponseList = IndexedList[SubmitResponse]
+  private type StartedList  = IndexedList[SubmitResponse]
+  private type WaiterList   = IndexedList[ActorRef[SubmitResponse]]
 
   sealed trait CRMMessage
   object MiniCRMMessage {
@@ -67,63 +69,55 @@ object MiniCRM {
   // scalastyle:off method.length
   // scalastyle:off cyclomatic.complexity
   private def handle(startedList: StartedList, responseList: ResponseList, waiterList: WaiterList): Behavior[CRMMessage] =
-    Behaviors.receive { (_, message) =>
+    Behaviors.receiveMessage { message =>
       message match {
         case AddResponse(cmdResponse) =>
           // Called when a StartedCommand publishes a "final" SubmitResponse for a long-running command
-          handle(startedList, responseList.append(cmdResponse), updateWaiters(waiterList, cmdResponse))
+          responseList.append(cmdResponse.runId, cmdResponse)
+          updateWaiters(waiterList, cmdResponse)
         case AddStarted(startedResponse) =>
           // The new command state -- only way to get this is from Behavior receiving Started CommandResponse
           // This is called by submit and submitAndWait if the destination component returns Started
-          handle(startedList.append(startedResponse), responseList, waiterList)
+          startedList.append(startedResponse.runId, startedResponse)
         case QueryFinal(runId, replyTo) =>
-          // If there is a response, send the response to replyTo and do not save,
-          val augmentedWaiterList = updateWaiterList(waiterList, runId, replyTo)
-          responseList.query(_.runId == runId) match {
+          responseList.query(runId) match {
             case Some(cr) =>
-              // Note that we have a response, so updateWaiters, will send the response and remove from WaiterList
-              handle(startedList, responseList, updateWaiters(augmentedWaiterList, cr))
+              // If there is a response, send the response to replyTo and do not save
+              replyTo ! cr
             case None =>
               // Just add the new waiter to the WaiterList
-              handle(startedList, responseList, augmentedWaiterList)
+              updateWaiterList(waiterList, runId, replyTo)
           }
         case Query(runId, replyTo: ActorRef[SubmitResponse]) =>
           // check for a response or started and return the first match
           replyTo ! getResponse(startedList, responseList, runId)
-          Behaviors.same
         case GetWaiters(replyTo) =>
           // Used only for tests
-          replyTo ! waiterList.toList
-          Behaviors.same
+          replyTo ! waiterList.entries
         case GetResponses(replyTo) =>
           // Used only for tests
           replyTo ! responseList.toList
-          Behaviors.same
         case GetStarters(replyTo) =>
           // Used only for tests
           replyTo ! startedList.toList
-          Behaviors.same
         case Print(replyTo) =>
           // Used only for tests
           replyTo ! s"responseList: $responseList, waiterList: $waiterList"
-          Behaviors.same
         case _ =>
-          Behaviors.same
       }
+      Behaviors.same
     }
 
   /**
-   * Update a WaiterList and return the new WaiterList. This is called from more than one place so it's
-   * in its own function.
+   * Update a WaiterList. This is called from more than one place so it's in its own function.
    * Waiters are always added, no matter what. There is not a big chance of more than one waiter for
-   * a specific runId, but things work fine if there are more than one. The updated waiter list is returned.
-   * @param waiterList a WaiterList of Id, ActurRef[SubmitResponse] tuples.
+   * a specific runId, but things work fine if there are more than one.
+   * @param waiterList a WaiterList of Id, ActurRef[SubmitResponse] entries.
    * @param runId the new runId
    * @param replyTo the new ActorRef[SubmitResponse]
-   * @return the updated WaiterList
    */
-  private def updateWaiterList(waiterList: WaiterList, runId: Id, replyTo: ActorRef[SubmitResponse]): WaiterList =
-    waiterList.append((runId, replyTo))
+  private def updateWaiterList(waiterList: WaiterList, runId: Id, replyTo: ActorRef[SubmitResponse]): Unit =
+    waiterList.append(runId, replyTo)
 
   /**
    * getResponse function handles the query message. It is passed the current StartedList and ResponseList.
@@ -140,63 +134,137 @@ object MiniCRM {
    */
   private def getResponse(startedList: StartedList, responseList: ResponseList, runId: Id): SubmitResponse =
     responseList
-      .query(_.runId == runId)
+      .query(runId)
       .getOrElse(
         startedList
-          .query(_.runId == runId)
+          .query(runId)
           .getOrElse(Invalid(runId, IdNotAvailableIssue(runId.id)))
       )
 
   /**
-   * updateWaiters looks through the waiterList input for any ActorRefs matching the id of the input response.
-   * For every waiter waiting for the id of the response, the response is sent to the ActorRef. Then
-   * that entry is removed from the WaiterList and the updated list is returned to the caller
+   * updateWaiters removes the waiters for the id of the input response from the waiterList and sends the response
+   * to each of them, in the order they started waiting.
    * @param waiterList the list of (id, ActorRef[SubmitResponse]) -- callers of queryFinal
    * @param response a received update SubmitResponse from a component
-   * @return new WaiterList, maybe be the same if no matches, or may be smaller but the number of waiters
    */
-  private def updateWaiters(waiterList: WaiterList, response: SubmitResponse): WaiterList = {
-    // Send final response to any waiters that match runId
-    waiterList.foreach(w =>
-      if (w._1 == response.runId) {
-        w._2 ! response
-      }
-    )
-    // Remove all waiters that match runId and return
-    waiterList.remove(_._1 == response.runId)
-  }
+  private def updateWaiters(waiterList: WaiterList, response: SubmitResponse): Unit =
+    waiterList.removeAll(response.runId)(_ ! response)
 
   /**
-   * This is a specialized list that will only keep a maximum number of elements
+   * This is a specialized list that will only keep a maximum number of elements, indexed by the runId of each element.
+   * Adding, querying and removing the elements of a runId take constant time, independent of the size of the list.
+   *
+   * When the list is full, the least recently used element is evicted to make room for a new one. An element is used
+   * when it is added and when it is returned by a query. Elements with the same runId are kept in the order they were
+   * added, a query returns the first of them.
+   *
    * @param max size of list to retain
-   * @param initList the list can be initialized with some values
    * @tparam T the type of elements in the list
    */
-  private class SizedList[T](max: Int, initList: List[T] = List.empty) {
-    val list: ListBuffer[T] = ListBuffer() ++= initList
+  private class IndexedList[T](max: Int) {
+
+    // An element is linked into the list of all elements, from least to most recently used, and into the list of
+    // the elements with the same runId. Only the first element of a runId keeps a reference to the last one.
+    private final class Node(val runId: Id, val value: T) {
+      var older: Node      = _
+      var newer: Node      = _
+      var nextSameId: Node = _
+      var prevSameId: Node = _
+      var lastSameId: Node = _
+    }
+
+    private val index        = mutable.HashMap.empty[Id, Node]
+    private var oldest: Node = _
+    private var newest: Node = _
+    private var size         = 0
 
-    def append(sr: T): SizedList[T] = {
-      // If the list is at the maximum, remove 1 and add the new one
-      if (list.size == max) {
-        list.dropInPlace(1)
+    def append(runId: Id, value: T): Unit = {
+      // If the list is at the maximum, remove the least recently used and add the new one
+      if (size >= max && oldest != null) remove(oldest)
+      val node = new Node(runId, value)
+      linkNewest(node)
+      index.get(runId) match {
+        case Some(first) =>
+          val last = first.lastSameId
+          last.nextSameId = node
+          node.prevSameId = last
+          first.lastSameId = node
+        case None =>
+          node.lastSameId = node
+          index.update(runId, node)
       }
-      list.append(sr)
-      this
+      size += 1
     }
 
-    def toList: List[T] = list.toList
+    // Returns the first element with the given runId and marks it as the most recently used
+    def query(runId: Id): Option[T] =
+      index.get(runId).map { node =>
+        if (node ne newest) {
+          unlink(node)
+          linkNewest(node)
+        }
+        node.value
+      }
+
+    // Removes all elements with the given runId and runs the function for each of them
+    def removeAll[U](runId: Id)(f: T => U): Unit =
+      index.remove(runId).foreach { first =>
+        var node = first
+        while (node != null) {
+          unlink(node)
+          size -= 1
+          f(node.value)
+          node = node.nextSameId
+        }
+      }
+
+    def toList: List[T] = nodes.map(_.value)
 
-    def remove(f: T => Boolean): SizedList[T] = {
-      val newList = list.filterNot(f)
-      new SizedList(max, newList.toList)
+    def entries: List[(Id, T)] = nodes.map(node => (node.runId, node.value))
+
+    override def toString: String = s"IndexedList(${entries.mkString(", ")})"
+
+    private def nodes: List[Node] = {
+      val list = List.newBuilder[Node]
+      var node = oldest
+      while (node != null) {
+        list += node
+        node = node.newer
+      }
+      list.result()
     }
 
-    // Runs the predicate argument against each member of the list and returns first
-    def query(f: T => Boolean): Option[T] = list.find(f)
+    private def remove(node: Node): Unit = {
+      unlink(node)
+      size -= 1
+      val next = node.nextSameId
+      val prev = node.prevSameId
+      if (prev == null) {
+        // the first element of its runId
+        if (next == null) index.remove(node.runId)
+        else {
+          next.prevSameId = null
+          next.lastSameId = node.lastSameId
+          index.update(node.runId, next)
+        }
+      }
+      else {
+        prev.nextSameId = next
+        if (next == null) index(node.runId).lastSameId = prev
+        else next.prevSameId = prev
+      }
+    }
 
-    // Runs the function for every member of the list
-    def foreach[U](f: T => U): Unit = list.foreach(f)
+    private def linkNewest(node: Node): Unit = {
+      node.older = newest
+      node.newer = null
+      if (newest == null) oldest = node else newest.newer = node
+      newest = node
+    }
 
-    override def toString: String = s"SizedList(${list.toString()})"
+    private def unlink(node: Node): Unit = {
+      if (node.older == null) oldest = node.newer else node.older.newer = node.newer
+      if (node.newer == null) newest = node.older else node.newer.older = node.older
+    }
   }
 }
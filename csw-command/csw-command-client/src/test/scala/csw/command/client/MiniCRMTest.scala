@@ -307,6 +307,56 @@ class MiniCRMTest extends AnyFunSuite with Matchers with BeforeAndAfterAll {
     responses3(1).runId shouldBe id3
   }
 
+  // This test checks that a query keeps a response, so that the least recently used response is removed instead
+  test("add responses, query, check least recently used is removed") {
+    val crm           = testKit.spawn(MiniCRM.make(2, 2, 2))
+    val responseProbe = testKit.createTestProbe[Responses]()
+    val queryProbe    = testKit.createTestProbe[SubmitResponse]()
+
+    val r1 = Completed(Id())
+    val r2 = Completed(Id())
+    val r3 = Completed(Id())
+    crm ! AddResponse(r1)
+    crm ! AddResponse(r2)
+
+    crm ! Query(r1.runId, queryProbe.ref)
+    queryProbe.expectMessage(r1)
+
+    crm ! AddResponse(r3)
+    crm ! GetResponses(responseProbe.ref)
+    responseProbe.expectMessageType[Responses] shouldBe List(r1, r3)
+
+    crm ! Query(r2.runId, queryProbe.ref)
+    queryProbe.expectMessage(Invalid(r2.runId, IdNotAvailableIssue(r2.runId.id)))
+  }
+
+  // This test checks that waiters beyond the max size remove the oldest waiter, and that the remaining waiters
+  // are still completed
+  test("add waiters, check max size") {
+    val crm             = testKit.spawn(MiniCRM.make(crmListSize, crmListSize, 2))
+    val waiterListProbe = testKit.createTestProbe[Waiters]()
+    val qfProbe1        = testKit.createTestProbe[SubmitResponse]()
+    val qfProbe2        = testKit.createTestProbe[SubmitResponse]()
+    val qfProbe3        = testKit.createTestProbe[SubmitResponse]()
+
+    val id1 = Id()
+    val id2 = Id()
+    crm ! QueryFinal(id1, qfProbe1.ref)
+    crm ! QueryFinal(id2, qfProbe2.ref)
+    crm ! QueryFinal(id1, qfProbe3.ref)
+
+    crm ! GetWaiters(waiterListProbe.ref)
+    waiterListProbe.expectMessageType[Waiters] shouldBe List((id2, qfProbe2.ref), (id1, qfProbe3.ref))
+
+    val r1 = Completed(id1)
+    crm ! AddResponse(r1)
+    qfProbe3.expectMessage(r1)
+    qfProbe1.expectNoMessage(100.milli)
+
+    crm ! GetWaiters(waiterListProbe.ref)
+    waiterListProbe.expectMessageType[Waiters] shouldBe List((id2, qfProbe2.ref))
+  }
+
   // This test adds waiters through queryFinal and then sends a response to make sure waiters are removed, but only
   // the waiters that are supposed to be removed
   test("add responses, verify waiter removal is proper") {
@@ -14,6 +14,11 @@ abstract class CborAkkaSerializer[Ser] extends Serializer {
 
   private var registrations: List[(Class[_], Codec[_])] = Nil
 
+  // the codec of every class is looked up in the registrations once, on first use
+  private val codecs: ClassValue[Option[Codec[_]]] = new ClassValue[Option[Codec[_]]] {
+    override def computeValue(classValue: Class[_]): Option[Codec[_]] = lookupCodec(classValue)
+  }
+
   protected def register[T <: Ser: Encoder: Decoder: ClassTag]: Unit = {
     registrations ::= scala.reflect.classTag[T].runtimeClass -> Codec.of[T]
   }
@@ -32,13 +37,19 @@ abstract class CborAkkaSerializer[Ser] extends Serializer {
     Cbor.decode(bytes).to[AnyRef](decoder).value
   }
 
-  private def getCodec(classValue: Class[_], action: String): Codec[_] = {
-    registrations
-      .collectFirst {
-        case (clazz, codec) if clazz.isAssignableFrom(classValue) => codec
-      }
-      .getOrElse {
-        throw new RuntimeException(s"$action of $classValue is not configured")
-      }
-  }
+  private def getCodec(classValue: Class[_], action: String): Codec[_] =
+    codecs.get(classValue).getOrElse {
+      throw new RuntimeException(s"$action of $classValue is not configured")
+    }
+
+  /**
+   * Finds the codec of the given class by walking the registrations, which is what every `toBinary` and `fromBinary`
+   * did before the codecs were cached per class. Used by benchmarks to compare both lookups.
+   */
+  private[csw] def lookupCodec(classValue: Class[_]): Option[Codec[_]] =
+    registrations.collectFirst {
+      case (clazz, codec) if clazz.isAssignableFrom(classValue) => codec
+    }
+
+  private[csw] def cachedCodec(classValue: Class[_]): Option[Codec[_]] = codecs.get(classValue)
 }
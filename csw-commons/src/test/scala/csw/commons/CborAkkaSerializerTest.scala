@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.commons
+
+import java.util.concurrent.{Callable, Executors, TimeUnit}
+
+import csw.commons.CborAkkaSerializerTest._
+import io.bullet.borer.derivation.CompactMapBasedCodecs.deriveCodec
+import io.bullet.borer.{Codec, Decoder, Encoder}
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+import scala.jdk.CollectionConverters._
+
+class CborAkkaSerializerTest extends AnyFunSuite with Matchers with BeforeAndAfterAll {
+
+  private val serializer = new TestAkkaSerializer
+  private val executor   = Executors.newFixedThreadPool(8)
+
+  override protected def afterAll(): Unit = executor.shutdownNow()
+
+  private def roundTrip(msg: TestMessage): AnyRef = serializer.fromBinary(serializer.toBinary(msg), Some(msg.getClass))
+
+  test("should round trip messages of every registered class") {
+    val messages = List(Ping(1), Text("hello"), Payload(Array.tabulate(10)(_.toByte)), Nested(Text("inner")))
+
+    messages.foreach { msg =>
+      roundTrip(msg) match {
+        case Payload(bytes) => bytes shouldBe msg.asInstanceOf[Payload].bytes
+        case decoded        => decoded shouldBe msg
+      }
+    }
+  }
+
+  test("should round trip a message encoded while another message is being encoded on the same thread") {
+    // the encoder of Nested calls toBinary for the inner message while the outer one is being encoded
+    roundTrip(Nested(Ping(42))) shouldBe Nested(Ping(42))
+    roundTrip(Ping(43)) shouldBe Ping(43)
+  }
+
+  test("should not leak the bytes of a large message into the next one") {
+    val large = Payload(Array.fill(2 * 1024 * 1024)(7.toByte))
+
+    roundTrip(large).asInstanceOf[Payload].bytes shouldBe large.bytes
+    serializer.toBinary(Text("small")) shouldBe serializer.toBinary(Text("small"))
+    roundTrip(Text("small")) shouldBe Text("small")
+  }
+
+  test("should round trip messages encoded concurrently on several threads") {
+    val tasks = (1 to 64).map { task =>
+      new Callable[Unit] {
+        override def call(): Unit =
+          (1 to 200).foreach { i =>
+            val msg: TestMessage = i % 3 match {
+              case 0 => Ping(task * 1000 + i)
+              case 1 => Text(s"task-$task-$i" * (i % 17))
+              case _ => Nested(Text(s"nested-$task-$i"))
+            }
+            roundTrip(msg) shouldBe msg
+          }
+      }
+    }
+
+    executor.invokeAll(tasks.asJava, 1, TimeUnit.MINUTES).asScala.foreach(_.get())
+  }
+
+  test("should fail for a class which is not registered") {
+    val exception = intercept[RuntimeException](serializer.toBinary(Unregistered(1)))
+    exception.getMessage should include("encoding of")
+    exception.getMessage should include("is not configured")
+  }
+}
+
+object CborAkkaSerializerTest {
+
+  sealed trait TestMessage
+  case class Ping(id: Int)               extends TestMessage
+  case class Text(value: String)         extends TestMessage
+  case class Payload(bytes: Array[Byte]) extends TestMessage
+  case class Nested(inner: TestMessage)  extends TestMessage
+  case class Unregistered(id: Int)       extends TestMessage
+
+  implicit lazy val pingCodec: Codec[Ping]       = deriveCodec
+  implicit lazy val textCodec: Codec[Text]       = deriveCodec
+  implicit lazy val payloadCodec: Codec[Payload] = deriveCodec
+
+  // encodes the inner message with the serializer, to nest an encoding in another one
+  private lazy val nestedSerializer = new TestAkkaSerializer
+
+  implicit lazy val nestedCodec: Codec[Nested] = Codec(
+    Encoder[(String, Array[Byte])].contramap[Nested](n => n.inner.getClass.getName -> nestedSerializer.toBinary(n.inner)),
+    Decoder[(String, Array[Byte])].map { case (className, bytes) =>
+      Nested(nestedSerializer.fromBinary(bytes, Some(Class.forName(className))).asInstanceOf[TestMessage])
+    }
+  )
+
+  class TestAkkaSerializer extends CborAkkaSerializer[TestMessage] {
+    override def identifier: Int = 19999
+
+    register[Ping]
+    register[Text]
+    register[Payload]
+    register[Nested]
+  }
+}
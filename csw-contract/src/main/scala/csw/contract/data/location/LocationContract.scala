@@ -38,7 +38,9 @@ object LocationContract extends LocationData with LocationServiceCodecs {
 
   private val httpEndpoints: List[Endpoint] = List(
     Endpoint(name[Register], name[Location], List(name[RegistrationFailed], name[OtherLocationIsRegistered])),
+    Endpoint(name[RegisterAll], arrayName[Location], List(name[RegistrationFailed], name[OtherLocationIsRegistered])),
     Endpoint(name[Unregister], name[Done], List(name[UnregistrationFailed])),
+    Endpoint(name[UnregisterConnections], name[Done], List(name[UnregistrationFailed])),
     Endpoint(objectName(UnregisterAll), name[Done], List(name[UnregistrationFailed])),
     Endpoint(name[Find], arrayName[Location]),
     Endpoint(name[Resolve], arrayName[Location]),
@@ -51,7 +53,9 @@ object LocationContract extends LocationData with LocationServiceCodecs {
 
   private val httpRequests = new RequestSet[LocationRequest] {
     requestType(akkaRegister, httpRegister, publicHttpRegister)
+    requestType(registerAll)
     requestType(unregister)
+    requestType(unregisterConnections)
     requestType(unregisterAll)
     requestType(find)
     requestType(resolve)
@@ -57,7 +57,9 @@ trait LocationData {
   val akkaRegister: Register                           = Register(akkaRegistration)
   val httpRegister: Register                           = Register(httpRegistration)
   val publicHttpRegister: Register                     = Register(publicHttpRegistration)
+  val registerAll: RegisterAll                         = RegisterAll(List(akkaRegistration, httpRegistration))
   val unregister: Unregister                           = Unregister(httpConnection)
+  val unregisterConnections: UnregisterConnections     = UnregisterConnections(List(akkaConnection, httpConnection))
   val unregisterAll: UnregisterAll.type                = UnregisterAll
   val find: Find                                       = Find(akkaConnection)
   val resolve: Resolve                                 = Resolve(akkaConnection, FiniteDuration(seconds, TimeUnit.SECONDS))
@@ -8,7 +8,7 @@ package csw.event.api.javadsl
 import akka.actor.typed.ActorRef
 import akka.stream.javadsl.Source
 import csw.event.api.scaladsl.SubscriptionMode
-import csw.params.events.{Event, EventKey}
+import csw.params.events.{Event, EventKey, EventView}
 import csw.prefix.models.Subsystem
 
 import java.time.Duration
@@ -52,6 +52,18 @@ trait IEventSubscriber {
    */
   def subscribe(eventKeys: util.Set[EventKey], every: Duration, mode: SubscriptionMode): Source[Event, IEventSubscription]
 
+  /**
+   * Subscribe to multiple Event Keys and get a single stream of [[csw.params.events.EventView]]s for all event keys. This behaves
+   * like `subscribe`, except that an implementation may decode the parameters of an event only when they are looked up
+   * on the view. By default, the views wrap the events received from `subscribe`.
+   *
+   * @param eventKeys a set of [[csw.params.events.EventKey]] to subscribe to
+   * @return a [[akka.stream.javadsl.Source]] of [[csw.params.events.EventView]]. The materialized value of the source provides
+   *         an [[csw.event.api.javadsl.IEventSubscription]] which can be used to unsubscribe from all the Event Keys which were subscribed to
+   */
+  def subscribeView(eventKeys: util.Set[EventKey]): Source[EventView, IEventSubscription] =
+    subscribe(eventKeys).map(event => EventView(event))
+
   /**
    * Subscribes an asynchronous callback function to events from multiple eventKeys. The callback is of type event => future
    * and it ensures that the event callbacks are called sequentially in such a way that the subsequent execution will
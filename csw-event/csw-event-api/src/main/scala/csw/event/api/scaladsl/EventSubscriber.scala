@@ -7,7 +7,7 @@ package csw.event.api.scaladsl
 
 import akka.actor.typed.ActorRef
 import akka.stream.scaladsl.Source
-import csw.params.events.{Event, EventKey}
+import csw.params.events.{Event, EventKey, EventView}
 import csw.prefix.models.Subsystem
 
 import scala.concurrent.Future
@@ -55,6 +55,17 @@ trait EventSubscriber {
    */
   def subscribe(eventKeys: Set[EventKey], every: FiniteDuration, mode: SubscriptionMode): Source[Event, EventSubscription]
 
+  /**
+   * Subscribe to multiple Event Keys and get a single stream of [[csw.params.events.EventView]]s for all event keys. This behaves
+   * like `subscribe`, except that an implementation may decode the parameters of an event only when they are looked up
+   * on the view. This is useful for subscribers which read a few parameters of large events.
+   *
+   * @param eventKeys a set of [[csw.params.events.EventKey]] to subscribe to
+   * @return a [[akka.stream.scaladsl.Source]] of [[csw.params.events.EventView]]. The materialized value of the source provides
+   *         an [[csw.event.api.scaladsl.EventSubscription]] which can be used to unsubscribe from all the Event Keys which were subscribed to
+   */
+  def subscribeView(eventKeys: Set[EventKey]): Source[EventView, EventSubscription] = subscribe(eventKeys).map(EventView(_))
+
   /**
    * Subscribes an asynchronous callback function to events from multiple eventKeys. The callback is of type event => future
    * and it ensures that the event callbacks are called sequentially in such a way that the subsequent execution will
@@ -14,10 +14,11 @@ import csw.event.client.internal.commons.serviceresolver.{
   EventServiceLocationResolver,
   EventServiceResolver
 }
+import csw.event.client.internal.hybrid.{HybridEventService, LocalEventBus}
 import csw.event.client.internal.kafka.KafkaEventService
 import csw.event.client.internal.redis.RedisEventService
 import csw.event.client.models.EventStore
-import csw.event.client.models.EventStores.{KafkaStore, RedisStore}
+import csw.event.client.models.EventStores.{HybridStore, KafkaStore, RedisStore}
 import csw.location.api.javadsl.ILocationService
 import csw.location.api.scaladsl.LocationService
 
@@ -31,6 +32,9 @@ class EventServiceFactory(store: EventStore = RedisStore()) {
    */
   def this() = this(RedisStore())
 
+  // shared by all the hybrid event services created by this factory, e.g. by the components of a container
+  private lazy val localEventBus = new LocalEventBus
+
   /**
    * API to create [[csw.event.api.scaladsl.EventService]] using [[csw.location.api.scaladsl.LocationService]] to resolve Event Server.
    *
@@ -82,6 +86,8 @@ class EventServiceFactory(store: EventStore = RedisStore()) {
     store match {
       case RedisStore(client) => new RedisEventService(eventServiceResolver, masterId, client)
       case KafkaStore         => new KafkaEventService(eventServiceResolver)
+      case HybridStore(client) =>
+        new HybridEventService(new RedisEventService(eventServiceResolver, masterId, client), localEventBus)
     }
   }
 }
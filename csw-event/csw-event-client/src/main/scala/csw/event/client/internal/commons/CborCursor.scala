@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.commons
+
+import java.nio.charset.StandardCharsets.UTF_8
+
+/**
+ * A minimal reader over CBOR encoded bytes which reads map keys and text strings, and skips whole data items without
+ * decoding them. It is used to locate the fields of an encoded event so that they can be decoded on demand.
+ *
+ * @param bytes the CBOR encoded bytes
+ * @param pos   the offset of the data item to start reading from
+ */
+private[commons] class CborCursor(bytes: Array[Byte], private var pos: Int = 0) {
+
+  private val MajorUnsigned = 0
+  private val MajorNegative = 1
+  private val MajorBytes    = 2
+  private val MajorText     = 3
+  private val MajorArray    = 4
+  private val MajorMap      = 5
+  private val MajorTag      = 6
+  private val Break         = 0xff
+
+  def position: Int = pos
+
+  private def initialByte: Int = bytes(pos) & 0xff
+  private def majorType: Int   = initialByte >>> 5
+
+  def readString(): String = {
+    expect(MajorText)
+    val length = readHead()
+    if (length < 0) {
+      val builder = new StringBuilder
+      while (!readBreak()) builder.append(readString())
+      builder.toString
+    }
+    else {
+      val string = new String(bytes, pos, length.toInt, UTF_8)
+      pos += length.toInt
+      string
+    }
+  }
+
+  // calls `f` with the key of every entry of the map at the cursor, `f` has to read or skip the value of the entry
+  def foreachEntry(f: String => Unit): Unit = {
+    expect(MajorMap)
+    times(readHead())(f(readString()))
+  }
+
+  // calls `f` for every element of the array at the cursor, `f` has to read or skip the element
+  def foreachElement(f: => Unit): Unit = {
+    expect(MajorArray)
+    times(readHead())(f)
+  }
+
+  def skip(): Unit = {
+    val major    = majorType
+    val argument = readHead()
+    major match {
+      case MajorUnsigned | MajorNegative          => ()
+      case MajorBytes | MajorText if argument < 0 => while (!readBreak()) skip()
+      case MajorBytes | MajorText                 => pos += argument.toInt
+      case MajorArray                             => times(argument)(skip())
+      case MajorMap                               => times(argument) { skip(); skip() }
+      case MajorTag                               => skip()
+      case _                                      => () // simple values and floats are covered by the head
+    }
+  }
+
+  // runs `f` `count` times, or until a break for indefinite length items
+  private def times(count: Long)(f: => Unit): Unit =
+    if (count < 0) while (!readBreak()) f
+    else {
+      var i = 0L
+      while (i < count) {
+        f
+        i += 1
+      }
+    }
+
+  private def readBreak(): Boolean =
+    if (initialByte == Break) {
+      pos += 1
+      true
+    }
+    else false
+
+  // moves past the head of the data item at the cursor and returns its argument, -1 for indefinite length items
+  private def readHead(): Long = {
+    val info = initialByte & 0x1f
+    pos += 1
+    info match {
+      case small if small < 24 => small.toLong
+      case 24                  => readUnsigned(1)
+      case 25                  => readUnsigned(2)
+      case 26                  => readUnsigned(4)
+      case 27                  => readUnsigned(8)
+      case 31                  => -1
+      case _                   => throw new IllegalArgumentException(s"Invalid CBOR additional info [$info] at offset [$pos]")
+    }
+  }
+
+  private def readUnsigned(length: Int): Long = {
+    var value = 0L
+    var i     = 0
+    while (i < length) {
+      value = (value << 8) | (bytes(pos + i) & 0xffL)
+      i += 1
+    }
+    pos += length
+    value
+  }
+
+  private def expect(major: Int): Unit =
+    if (majorType != major)
+      throw new IllegalArgumentException(s"Expected CBOR major type [$major] but found [$majorType] at offset [$pos]")
+}
@@ -5,7 +5,9 @@
 
 package csw.event.client.internal.commons
 
-import csw.params.events.Event
+import java.nio.ByteBuffer
+
+import csw.params.events.{Event, EventView}
 import io.bullet.borer.Cbor.DecodingConfig
 import io.bullet.borer.{Cbor, Input, Output}
 
@@ -23,6 +25,13 @@ private[event] object EventConverter {
     }
   }
 
+  def toEventView(bytes: ByteBuffer): EventView = {
+    // the buffer handed over by the redis driver is reused once decoding returns, hence the view keeps a copy of the bytes
+    val copy = new Array[Byte](bytes.remaining())
+    bytes.duplicate().get(copy)
+    LazyEventView(copy)
+  }
+
   def toBytes[Chunk: Output.ToTypeProvider](event: Event): Chunk = {
     Cbor.encode(event).to[Chunk].result
   }
@@ -15,6 +15,7 @@ import csw.params.events.Event
 
 import scala.concurrent.duration.FiniteDuration
 import scala.concurrent.{Future, Promise}
+import scala.util.Success
 import scala.util.control.NonFatal
 
 /**
@@ -45,6 +46,36 @@ private[event] class EventPublisherUtil(implicit actorSystem: ActorSystem[_]) {
       }
       .runForeach(_ => ())
 
+  // groups queued events into batches of at most `maxBatchSize` events and publishes one batch at a time, so that events are
+  // published in the order in which they were queued. With zero `maxLinger`, a batch holds the events which queued up while the
+  // previous batch was in flight, otherwise a batch is also emitted when `maxLinger` has elapsed since the previous one
+  def batchedStreamTermination(maxBatchSize: Int, maxLinger: FiniteDuration)(f: Seq[Event] => Seq[Future[Done]]): Future[Done] = {
+    val batches: Source[Seq[(Event, Promise[Done])], _] =
+      if (maxLinger.length == 0) stream.batch(maxBatchSize.toLong, Vector(_))(_ :+ _)
+      else stream.groupedWithin(maxBatchSize, maxLinger)
+
+    batches
+      .mapAsync(1) { batch =>
+        val results = f(batch.map(_._1))
+        batch.zip(results).foreach { case ((_, p), result) => p.completeWith(result) }
+        Future.sequence(results.map(_.transform(_ => Success(Done))))
+      }
+      .runForeach(_ => ())
+  }
+
+  // hands every queued event to `f` without waiting for the result of the previous one, at most `maxInFlight` results are
+  // awaited at once. `f` is called in the order in which events were queued, once `ready` has completed
+  def pipelinedStreamTermination(ready: Future[_], maxInFlight: Int)(f: Event => Future[Done]): Future[Done] =
+    Source
+      .future(ready.transform(_ => Success(Done)))
+      .flatMapConcat(_ => stream)
+      .mapAsync(maxInFlight) { case (e, p) =>
+        val result = f(e)
+        p.completeWith(result)
+        result.transform(_ => Success(Done))
+      }
+      .runForeach(_ => ())
+
   private def tick(initialDelay: FiniteDuration, every: FiniteDuration): Source[Unit, Cancellable] = {
     // buffer size of the queue should be 0 so as to follow the semantics of Source.tick
     Source.queue[Unit](0, OverflowStrategy.dropHead).mapMaterializedValue { q =>
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.commons
+
+import java.nio.ByteBuffer
+
+import csw.params.core.generics.{Key, Parameter}
+import csw.params.core.models.Id
+import csw.params.events.{Event, EventName, EventView}
+import csw.prefix.models.Prefix
+import csw.time.core.models.UTCTime
+import io.bullet.borer.Cbor
+import io.bullet.borer.Cbor.DecodingConfig
+
+import scala.collection.concurrent.TrieMap
+import scala.util.control.NonFatal
+
+/**
+ * An [[csw.params.events.EventView]] over the CBOR bytes of an event. The header fields are decoded when the view is created,
+ * whereas a parameter is decoded only when it is looked up, and then cached. Bytes of the parameters which are never looked up
+ * are only scanned to find where each parameter starts.
+ *
+ * @param bytes the CBOR encoded event, which must not be modified after handing it over to the view
+ */
+private[event] class LazyEventView private (bytes: Array[Byte]) extends EventView {
+  import LazyEventView._
+  import csw.params.core.formats.ParamCodecs._
+
+  private var _typeName: String     = _
+  private var _eventId: Id          = _
+  private var _source: Prefix       = _
+  private var _eventName: EventName = _
+  private var eventTimeSlice: Slice = _
+  private var paramSetOffset: Int   = -1
+
+  private val header = new CborCursor(bytes)
+  header.foreachEntry {
+    case "_type"     => _typeName = header.readString()
+    case "eventId"   => _eventId = Id(header.readString())
+    case "source"    => _source = Prefix(header.readString())
+    case "eventName" => _eventName = EventName(header.readString())
+    case "eventTime" => eventTimeSlice = slice(header)
+    case "paramSet"  => paramSetOffset = header.position; header.skip()
+    case _           => header.skip()
+  }
+
+  private val _eventTime: UTCTime = decode[UTCTime](eventTimeSlice)
+
+  override def typeName: String     = _typeName
+  override def eventId: Id          = _eventId
+  override def source: Prefix       = _source
+  override def eventName: EventName = _eventName
+  override def eventTime: UTCTime   = _eventTime
+
+  override lazy val toEvent: Event = EventConverter.toEvent(bytes)
+
+  // keyName -> (keyType name, bytes of the parameter), None if the parameters could not be scanned
+  private lazy val paramIndex: Option[Map[String, (String, Slice)]] =
+    try Some(if (paramSetOffset < 0) Map.empty else scanParams())
+    catch { case NonFatal(_) => None }
+
+  private val decodedParams = TrieMap.empty[String, Parameter[_]]
+
+  override def get[S](key: Key[S]): Option[Parameter[S]] =
+    paramIndex match {
+      case Some(index) =>
+        index.get(key.keyName).collect {
+          case (keyTypeName, paramSlice) if keyTypeName.equalsIgnoreCase(key.keyType.entryName) =>
+            decodedParams.getOrElseUpdate(key.keyName, decode[Parameter[_]](paramSlice)).asInstanceOf[Parameter[S]]
+        }
+      case None => toEvent.paramType.get(key.keyName, key.keyType)
+    }
+
+  // every parameter is encoded as {keyType: {keyName: .., values: .., units: ..}}, values are skipped without decoding
+  private def scanParams(): Map[String, (String, Slice)] = {
+    val cursor = new CborCursor(bytes, paramSetOffset)
+    val params = Map.newBuilder[String, (String, Slice)]
+    cursor.foreachElement {
+      val start       = cursor.position
+      var keyTypeName = ""
+      var keyName     = ""
+      cursor.foreachEntry { name =>
+        keyTypeName = name
+        cursor.foreachEntry {
+          case "keyName" => keyName = cursor.readString()
+          case _         => cursor.skip()
+        }
+      }
+      params += keyName -> ((keyTypeName, Slice(start, cursor.position)))
+    }
+    params.result()
+  }
+
+  private def slice(cursor: CborCursor): Slice = {
+    val start = cursor.position
+    cursor.skip()
+    Slice(start, cursor.position)
+  }
+
+  private def decode[T: io.bullet.borer.Decoder](slice: Slice): T =
+    Cbor
+      .decode(ByteBuffer.wrap(bytes, slice.start, slice.end - slice.start).slice())
+      .withConfig(DecodingConfig(readDoubleAlsoAsFloat = true))
+      .to[T]
+      .value
+}
+
+private[event] object LazyEventView {
+
+  private case class Slice(start: Int, end: Int)
+
+  /**
+   * Creates a view over the given CBOR encoded event
+   *
+   * @param bytes the CBOR encoded event
+   * @return a lazy view over the bytes, or a view over a bad event if the header of the event could not be decoded
+   */
+  def apply(bytes: Array[Byte]): EventView =
+    try new LazyEventView(bytes)
+    catch { case NonFatal(_) => EventView(Event.badEvent()) }
+}
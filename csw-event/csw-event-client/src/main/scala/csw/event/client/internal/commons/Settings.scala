@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.commons
+
+import com.typesafe.config.Config
+
+import scala.compat.java8.DurationConverters.DurationOps
+import scala.concurrent.duration.FiniteDuration
+
+private[event] class Settings(config: Config) {
+
+  private val eventConfig      = config.getConfig("csw-event")
+  private val publisherConfig  = eventConfig.getConfig("redis.publisher")
+  private val subscriberConfig = eventConfig.getConfig("redis.subscriber")
+
+  private val kafkaPublisherConfig  = eventConfig.getConfig("kafka.publisher")
+  private val kafkaSubscriberConfig = eventConfig.getConfig("kafka.subscriber")
+
+  private val hybridConfig = eventConfig.getConfig("hybrid")
+
+  val masterId: String                   = eventConfig.getString("redis.masterId")
+  val publisherPipelining: Boolean       = publisherConfig.getBoolean("pipelining")
+  val publisherMaxBatchSize: Int         = publisherConfig.getInt("max-batch-size")
+  val publisherMaxLinger: FiniteDuration = publisherConfig.getDuration("max-linger").toScala
+  val subscriberConnections: Int         = subscriberConfig.getInt("connections")
+  val subscriberDecodeParallelism: Int   = subscriberConfig.getInt("decode-parallelism")
+  val subscriberDecodeDispatcher: String = "csw-event.redis.subscriber.decode-dispatcher"
+
+  val kafkaPublisherPipelining: Boolean = kafkaPublisherConfig.getBoolean("pipelining")
+  val kafkaPublisherMaxInFlight: Int    = kafkaPublisherConfig.getInt("max-in-flight")
+  val kafkaLatestEventCache: Boolean    = kafkaSubscriberConfig.getBoolean("latest-event-cache")
+  val kafkaLatestEventCacheIdleTimeout: FiniteDuration =
+    kafkaSubscriberConfig.getDuration("latest-event-cache-idle-timeout").toScala
+
+  val hybridLocalBufferSize: Int  = hybridConfig.getInt("local-buffer-size")
+  val hybridMaxPendingEchoes: Int = hybridConfig.getInt("max-pending-echoes")
+}
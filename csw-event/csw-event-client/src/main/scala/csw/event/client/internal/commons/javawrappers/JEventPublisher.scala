@@ -27,7 +27,7 @@ import scala.compat.java8.FutureConverters.{CompletionStageOps, FutureOps}
 /**
  * Java API for [[csw.event.api.scaladsl.EventPublisher]]
  */
-private[event] class JEventPublisher(eventPublisher: EventPublisher) extends IEventPublisher {
+private[event] class JEventPublisher(private[event] val eventPublisher: EventPublisher) extends IEventPublisher {
   override def publish(event: Event): CompletableFuture[Done] = eventPublisher.publish(event).toJava.toCompletableFuture
 
   override def publish[Mat](source: Source[Event, Mat]): Mat = eventPublisher.publish(source.asScala)
@@ -13,7 +13,7 @@ import java.util.function.Consumer
 import akka.Done
 import akka.actor.typed.ActorRef
 import akka.stream.javadsl.Source
-import csw.params.events.{Event, EventKey}
+import csw.params.events.{Event, EventKey, EventView}
 import csw.event.api.internal.EventServiceExts.RichEventSubscription
 import csw.event.api.javadsl.{IEventSubscriber, IEventSubscription}
 import csw.event.api.scaladsl.{EventSubscriber, EventSubscription, SubscriptionMode}
@@ -26,7 +26,7 @@ import scala.compat.java8.FutureConverters.{CompletionStageOps, FutureOps}
 /**
  * Java API for [[csw.event.api.scaladsl.EventSubscriber]]
  */
-class JEventSubscriber(eventSubscriber: EventSubscriber) extends IEventSubscriber {
+class JEventSubscriber(private[event] val eventSubscriber: EventSubscriber) extends IEventSubscriber {
 
   def subscribe(eventKeys: util.Set[EventKey]): Source[Event, IEventSubscription] =
     eventSubscriber
@@ -46,6 +46,12 @@ class JEventSubscriber(eventSubscriber: EventSubscriber) extends IEventSubscribe
       .mapMaterializedValue(_.asJava)
       .asJava
 
+  override def subscribeView(eventKeys: util.Set[EventKey]): Source[EventView, IEventSubscription] =
+    eventSubscriber
+      .subscribeView(eventKeys.asScala.toSet)
+      .mapMaterializedValue(_.asJava)
+      .asJava
+
   def subscribeAsync(eventKeys: util.Set[EventKey], callback: Event => CompletableFuture[_]): IEventSubscription =
     eventSubscriber.subscribeAsync(eventKeys.asScala.toSet, e => callback(e).toScala).asJava
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.hybrid
+
+import akka.NotUsed
+import akka.stream.BufferOverflowException
+import akka.stream.scaladsl.{Keep, Source}
+import csw.event.client.internal.commons.EventServiceLogger
+import csw.params.core.models.Id
+
+import scala.collection.mutable
+
+/**
+ * Merges the events of a subscription received from redis with the ones delivered by the [[LocalEventBus]], so that an event
+ * received from both is delivered once, by whichever of the two comes first.
+ *
+ * Both streams deliver the events of a key in the order in which they were published, hence the merged stream does too, as
+ * long as neither of them skips events. The local stream fails with a [[akka.stream.BufferOverflowException]] instead of
+ * skipping events, after which the events are delivered from redis only.
+ */
+private[hybrid] object DeliveredOnce {
+
+  private val log = EventServiceLogger.getLogger
+
+  private sealed trait Delivery[+E]
+  private case class Local[E](event: E)  extends Delivery[E]
+  private case class Remote[E](event: E) extends Delivery[E]
+  private case object LocalOverflowed    extends Delivery[Nothing]
+
+  // completing the redis stream completes the merged stream, which ends the local subscription as well. An overflow of the
+  // local stream does not complete it, the subscription goes on with the events from redis
+  def apply[E, Mat](redisStream: Source[E, Mat], localStream: Source[E, NotUsed], maxPendingEchoes: Int)(
+      eventId: E => Id
+  ): Source[E, Mat] = {
+    val localDeliveries = localStream
+      .map[Delivery[E]](Local(_))
+      .recoverWithRetries(1, { case _: BufferOverflowException => Source.single(LocalOverflowed).concat(Source.never) })
+
+    redisStream
+      .map[Delivery[E]](Remote(_))
+      .mergeMat(localDeliveries, eagerComplete = true)(Keep.left)
+      .statefulMapConcat { () =>
+        val pendingEchoes = new PendingEchoes(maxPendingEchoes)
+        val deliverOnce: Delivery[E] => List[E] = {
+          case Local(event)  => if (pendingEchoes.deliverLocal(eventId(event))) List(event) else Nil
+          case Remote(event) => if (pendingEchoes.deliverRemote(eventId(event))) List(event) else Nil
+          case LocalOverflowed =>
+            log.warn("The local buffer of a subscription overflowed, events published in this JVM are delivered from redis only")
+            pendingEchoes.localOverflowed()
+            Nil
+        }
+        deliverOnce
+      }
+  }
+}
+
+/**
+ * Ids of the events delivered by one of redis and the local bus whose copies from the other one are yet to be received, with
+ * the number of copies awaited for events which were published more than once. A copy lost on the way, e.g. dropped by a slow
+ * subscription to redis, stays pending till `maxSize` newer events push it out.
+ *
+ * @param maxSize maximum number of ids waiting for their copy
+ */
+private[hybrid] class PendingEchoes(maxSize: Int) {
+  // positive counts are copies awaited from redis, negative ones copies awaited from the local bus
+  private val pending       = mutable.LinkedHashMap.empty[Id, Int]
+  private var localReceived = true
+
+  /**
+   * @return true if the event received from the local bus is to be delivered, false if it is the copy of a delivered event
+   */
+  def deliverLocal(eventId: Id): Boolean = received(eventId, 1)
+
+  /**
+   * @return true if the event received from redis is to be delivered, false if it is the copy of a delivered event
+   */
+  def deliverRemote(eventId: Id): Boolean =
+    if (localReceived) received(eventId, -1)
+    else
+      // no copies come from the local bus anymore, hence the events from redis are not recorded
+      pending.get(eventId) match {
+        case Some(copies) =>
+          if (copies == 1) pending.remove(eventId) else pending.update(eventId, copies - 1)
+          false
+        case None => true
+      }
+
+  /**
+   * Stops awaiting copies from the local bus, once it stopped delivering events
+   */
+  def localOverflowed(): Unit = {
+    localReceived = false
+    pending.filterInPlace { case (_, copies) => copies > 0 }
+  }
+
+  private def received(eventId: Id, side: Int): Boolean =
+    pending.get(eventId) match {
+      case Some(copies) if copies * side < 0 =>
+        if (copies + side == 0) pending.remove(eventId) else pending.update(eventId, copies + side)
+        false
+      case copies =>
+        pending.update(eventId, copies.getOrElse(0) + side)
+        if (pending.size > maxSize) pending.remove(pending.head._1)
+        true
+    }
+}
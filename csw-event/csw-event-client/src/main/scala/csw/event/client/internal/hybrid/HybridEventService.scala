@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.hybrid
+
+import akka.actor.typed.ActorSystem
+import csw.event.api.scaladsl.EventService
+import csw.event.client.internal.commons.Settings
+import csw.event.client.internal.redis.RedisEventService
+
+/**
+ * Implementation of [[csw.event.api.scaladsl.EventService]] which provides handle to [[csw.event.api.scaladsl.EventPublisher]]
+ * and [[csw.event.api.scaladsl.EventSubscriber]] backed by Redis, which deliver events published in this JVM to the
+ * subscriptions in this JVM directly
+ *
+ * @param redisEventService creates the Redis publishers and subscribers which the hybrid ones are built upon
+ * @param localEventBus the bus shared by the publishers and subscribers in this JVM
+ * @param actorSystem provides Materializer, ExecutionContext, etc.
+ */
+private[event] class HybridEventService(redisEventService: RedisEventService, localEventBus: LocalEventBus)(implicit
+    val actorSystem: ActorSystem[_]
+) extends EventService {
+
+  private lazy val settings = new Settings(actorSystem.settings.config)
+
+  override def makeNewPublisher(): HybridPublisher =
+    new HybridPublisher(redisEventService.makeNewPublisher(), localEventBus, settings)
+
+  override def makeNewSubscriber(): HybridSubscriber =
+    new HybridSubscriber(redisEventService.makeNewSubscriber(), localEventBus, settings)
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.hybrid
+
+import akka.Done
+import akka.actor.Cancellable
+import akka.actor.typed.ActorSystem
+import akka.stream.scaladsl.Source
+import csw.event.api.exceptions.PublishFailure
+import csw.event.api.scaladsl.EventPublisher
+import csw.event.client.internal.commons.{EventPublisherUtil, Settings}
+import csw.event.client.internal.redis.RedisPublisher
+import csw.params.events.Event
+import csw.time.core.models.TMTTime
+
+import scala.concurrent.Future
+import scala.concurrent.duration.{DurationInt, FiniteDuration}
+
+/**
+ * An implementation of [[csw.event.api.scaladsl.EventPublisher]] API which delivers events to the subscriptions made in
+ * the same JVM through the [[csw.event.client.internal.hybrid.LocalEventBus]], and publishes them to Redis for the other
+ * subscriptions and for `get`.
+ *
+ * @param redisPublisher publishes events to Redis
+ * @param localEventBus  delivers events to the subscriptions in this JVM
+ * @param settings       event service settings, used to decide how many events from a source are published at once
+ * @param actorSystem    provides Materializer, executionContext, etc
+ */
+private[event] class HybridPublisher(redisPublisher: RedisPublisher, localEventBus: LocalEventBus, settings: Settings)(implicit
+    actorSystem: ActorSystem[_]
+) extends EventPublisher {
+
+  // inorder to preserve the order of publishing events, the parallelism level is maintained to 1
+  private val parallelism                         = 1
+  private val defaultInitialDelay: FiniteDuration = 0.millis
+  private val eventPublisherUtil                  = new EventPublisherUtil()
+
+  // publishing to redis queues events in the order in which they are published, see RedisPublisher
+  private val sourceParallelism = if (settings.publisherPipelining) settings.publisherMaxBatchSize else parallelism
+
+  @volatile private var isShutdown = false
+
+  // local subscriptions get the event before it is queued for redis, even when publishing to redis fails
+  override def publish(event: Event): Future[Done] = {
+    if (!isShutdown) localEventBus.publish(event)
+    redisPublisher.publish(event)
+  }
+
+  override def publish[Mat](source: Source[Event, Mat]): Mat =
+    eventPublisherUtil.publishFromSource(source, sourceParallelism, event => publish(event), None)
+
+  override def publish[Mat](source: Source[Event, Mat], onError: PublishFailure => Unit): Mat =
+    eventPublisherUtil.publishFromSource(source, sourceParallelism, event => publish(event), Some(onError))
+
+  override def publish(eventGenerator: => Option[Event], every: FiniteDuration): Cancellable =
+    publish(eventPublisherUtil.eventSource(Future.successful(eventGenerator), parallelism, defaultInitialDelay, every))
+
+  override def publish(eventGenerator: => Option[Event], startTime: TMTTime, every: FiniteDuration): Cancellable =
+    publish(eventPublisherUtil.eventSource(Future.successful(eventGenerator), parallelism, startTime.durationFromNow, every))
+
+  override def publish(eventGenerator: => Option[Event], every: FiniteDuration, onError: PublishFailure => Unit): Cancellable =
+    publish(eventPublisherUtil.eventSource(Future.successful(eventGenerator), parallelism, defaultInitialDelay, every), onError)
+
+  override def publish(
+      eventGenerator: => Option[Event],
+      startTime: TMTTime,
+      every: FiniteDuration,
+      onError: PublishFailure => Unit
+  ): Cancellable =
+    publish(
+      eventPublisherUtil.eventSource(Future.successful(eventGenerator), parallelism, startTime.durationFromNow, every),
+      onError
+    )
+
+  override def publishAsync(eventGenerator: => Future[Option[Event]], every: FiniteDuration): Cancellable =
+    publish(eventPublisherUtil.eventSource(eventGenerator, parallelism, defaultInitialDelay, every))
+
+  override def publishAsync(eventGenerator: => Future[Option[Event]], startTime: TMTTime, every: FiniteDuration): Cancellable =
+    publish(eventPublisherUtil.eventSource(eventGenerator, parallelism, startTime.durationFromNow, every))
+
+  override def publishAsync(
+      eventGenerator: => Future[Option[Event]],
+      every: FiniteDuration,
+      onError: PublishFailure => Unit
+  ): Cancellable =
+    publish(eventPublisherUtil.eventSource(eventGenerator, parallelism, defaultInitialDelay, every), onError)
+
+  override def publishAsync(
+      eventGenerator: => Future[Option[Event]],
+      startTime: TMTTime,
+      every: FiniteDuration,
+      onError: PublishFailure => Unit
+  ): Cancellable =
+    publish(eventPublisherUtil.eventSource(eventGenerator, parallelism, startTime.durationFromNow, every), onError)
+
+  override def shutdown(): Future[Done] = {
+    isShutdown = true
+    redisPublisher.shutdown()
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.hybrid
+
+import akka.NotUsed
+import akka.actor.typed.{ActorRef, ActorSystem}
+import akka.stream.scaladsl.{Keep, Source}
+import csw.event.api.scaladsl.{EventSubscriber, EventSubscription, SubscriptionMode}
+import csw.event.client.internal.commons.{EventServiceLogger, EventSubscriberUtil, Settings}
+import csw.event.client.internal.redis.RedisSubscriber
+import csw.params.events.{Event, EventKey, EventView}
+import csw.prefix.models.Subsystem
+
+import scala.concurrent.Future
+import scala.concurrent.duration.FiniteDuration
+
+/**
+ * An implementation of [[csw.event.api.scaladsl.EventSubscriber]] API which receives the events published in the same JVM
+ * through the [[csw.event.client.internal.hybrid.LocalEventBus]], and the other events from Redis. An event published in
+ * this JVM is delivered once, by whichever of the two comes first. Once the local buffer of a subscription overflows, the
+ * subscription receives all events from Redis, so that the events of a key keep their order.
+ *
+ * Pattern subscriptions and `get` are served by Redis only.
+ *
+ * @param redisSubscriber subscribes to events on Redis
+ * @param localEventBus   delivers events published in this JVM
+ * @param settings        event service settings, used to size the buffers of local deliveries
+ * @param actorSystem     to be used for performing asynchronous operations
+ */
+private[event] class HybridSubscriber(redisSubscriber: RedisSubscriber, localEventBus: LocalEventBus, settings: Settings)(
+    implicit actorSystem: ActorSystem[_]
+) extends EventSubscriber {
+
+  private val log                 = EventServiceLogger.getLogger
+  private val eventSubscriberUtil = new EventSubscriberUtil()
+  private val maxPendingEchoes    = settings.hybridMaxPendingEchoes
+
+  // the published events are materialized along with the latest events, hence events published locally while the latest
+  // events are fetched wait in the local buffer and are delivered after them
+  override def subscribe(eventKeys: Set[EventKey]): Source[Event, EventSubscription] = {
+    log.info(s"Subscribing to event keys: $eventKeys")
+
+    val latestEventStream: Source[Event, NotUsed] = Source.future(get(eventKeys)).mapConcat(identity)
+    val publishedEvents =
+      DeliveredOnce(redisSubscriber.subscribePublished(eventKeys), localEvents(eventKeys), maxPendingEchoes)(_.eventId)
+    latestEventStream.concatMat(publishedEvents)(Keep.right)
+  }
+
+  override def subscribeView(eventKeys: Set[EventKey]): Source[EventView, EventSubscription] = {
+    log.info(s"Subscribing views of event keys: $eventKeys")
+
+    val latestEventStream: Source[EventView, NotUsed] = Source.future(get(eventKeys)).mapConcat(identity).map(EventView(_))
+    val localViews                                    = localEvents(eventKeys).map(EventView(_))
+    val publishedEvents =
+      DeliveredOnce(redisSubscriber.subscribePublishedViews(eventKeys), localViews, maxPendingEchoes)(_.eventId)
+    latestEventStream.concatMat(publishedEvents)(Keep.right)
+  }
+
+  override def subscribe(
+      eventKeys: Set[EventKey],
+      every: FiniteDuration,
+      mode: SubscriptionMode
+  ): Source[Event, EventSubscription] = subscribe(eventKeys).via(eventSubscriberUtil.subscriptionModeStage(every, mode))
+
+  override def subscribeAsync(eventKeys: Set[EventKey], callback: Event => Future[_]): EventSubscription =
+    eventSubscriberUtil.subscribeAsync(subscribe(eventKeys), callback)
+
+  override def subscribeAsync(
+      eventKeys: Set[EventKey],
+      callback: Event => Future[_],
+      every: FiniteDuration,
+      mode: SubscriptionMode
+  ): EventSubscription = eventSubscriberUtil.subscribeAsync(subscribe(eventKeys, every, mode), callback)
+
+  override def subscribeCallback(eventKeys: Set[EventKey], callback: Event => Unit): EventSubscription =
+    eventSubscriberUtil.subscribeCallback(subscribe(eventKeys), callback)
+
+  override def subscribeCallback(
+      eventKeys: Set[EventKey],
+      callback: Event => Unit,
+      every: FiniteDuration,
+      mode: SubscriptionMode
+  ): EventSubscription = eventSubscriberUtil.subscribeCallback(subscribe(eventKeys, every, mode), callback)
+
+  override def subscribeActorRef(eventKeys: Set[EventKey], actorRef: ActorRef[Event]): EventSubscription =
+    subscribeCallback(eventKeys, eventSubscriberUtil.actorCallback(actorRef))
+
+  override def subscribeActorRef(
+      eventKeys: Set[EventKey],
+      actorRef: ActorRef[Event],
+      every: FiniteDuration,
+      mode: SubscriptionMode
+  ): EventSubscription = subscribeCallback(eventKeys, eventSubscriberUtil.actorCallback(actorRef), every, mode)
+
+  override def pSubscribe(subsystem: Subsystem, pattern: String): Source[Event, EventSubscription] =
+    redisSubscriber.pSubscribe(subsystem, pattern)
+
+  override def pSubscribeCallback(subsystem: Subsystem, pattern: String, callback: Event => Unit): EventSubscription =
+    redisSubscriber.pSubscribeCallback(subsystem, pattern, callback)
+
+  override def subscribeObserveEvents(): Source[Event, EventSubscription] = redisSubscriber.subscribeObserveEvents()
+
+  override def get(eventKeys: Set[EventKey]): Future[Set[Event]] = redisSubscriber.get(eventKeys)
+
+  override def get(eventKey: EventKey): Future[Event] = redisSubscriber.get(eventKey)
+
+  private def localEvents(eventKeys: Set[EventKey]): Source[Event, NotUsed] =
+    localEventBus.subscribe(eventKeys, settings.hybridLocalBufferSize)
+}
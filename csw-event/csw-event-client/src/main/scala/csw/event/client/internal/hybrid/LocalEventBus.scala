@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.hybrid
+
+import java.util.concurrent.ConcurrentHashMap
+
+import akka.NotUsed
+import akka.actor.ActorRef
+import akka.stream.OverflowStrategy
+import akka.stream.scaladsl.{Keep, Source}
+import csw.params.events.{Event, EventKey}
+
+import scala.concurrent.ExecutionContext
+
+/**
+ * Delivers events published in this JVM to the subscriptions made in this JVM to their event keys, as they are, without
+ * encoding them. Hybrid publishers and subscribers created by one [[csw.event.client.EventServiceFactory]] share a bus.
+ */
+private[event] class LocalEventBus {
+
+  private val subscriptions = new ConcurrentHashMap[EventKey, Set[ActorRef]]()
+
+  def publish(event: Event): Unit = {
+    val subscribers = subscriptions.get(event.eventKey)
+    if (subscribers != null) subscribers.foreach(_ ! event)
+  }
+
+  // the events published for the given keys from the time the source is materialized till it terminates. When more than
+  // `bufferSize` events wait for the subscription to take them, the source fails with a BufferOverflowException rather than
+  // dropping events, which would let later events overtake the dropped ones when merged with the events from redis
+  def subscribe(eventKeys: Set[EventKey], bufferSize: Int): Source[Event, NotUsed] =
+    Source
+      .actorRef[Event](PartialFunction.empty, PartialFunction.empty, bufferSize, OverflowStrategy.fail)
+      .watchTermination()(Keep.both)
+      .mapMaterializedValue { case (subscriber, terminated) =>
+        eventKeys.foreach(add(_, subscriber))
+        terminated.onComplete(_ => eventKeys.foreach(remove(_, subscriber)))(ExecutionContext.parasitic)
+        NotUsed
+      }
+
+  private def add(eventKey: EventKey, subscriber: ActorRef): Unit =
+    subscriptions.compute(
+      eventKey,
+      (_: EventKey, subscribers: Set[ActorRef]) => if (subscribers == null) Set(subscriber) else subscribers + subscriber
+    )
+
+  private def remove(eventKey: EventKey, subscriber: ActorRef): Unit =
+    subscriptions.computeIfPresent(
+      eventKey,
+      (_: EventKey, subscribers: Set[ActorRef]) => {
+        val remaining = subscribers - subscriber
+        if (remaining.isEmpty) null else remaining
+      }
+    )
+}
@@ -11,6 +11,7 @@ import akka.actor.typed.ActorSystem
 import akka.actor.typed.scaladsl.adapter.TypedActorSystemOps
 import akka.kafka.{ConsumerSettings, ProducerSettings}
 import csw.event.api.scaladsl.EventService
+import csw.event.client.internal.commons.Settings
 import csw.event.client.internal.commons.serviceresolver.EventServiceResolver
 
 import scala.concurrent.Future
@@ -28,8 +29,11 @@ private[event] class KafkaEventService(eventServiceResolver: EventServiceResolve
 ) extends EventService {
 
   import actorSystem.executionContext
-  override def makeNewPublisher(): KafkaPublisher   = new KafkaPublisher(producerSettings)
-  override def makeNewSubscriber(): KafkaSubscriber = new KafkaSubscriber(consumerSettings)
+
+  private lazy val settings = new Settings(actorSystem.settings.config)
+
+  override def makeNewPublisher(): KafkaPublisher   = new KafkaPublisher(producerSettings, settings)
+  override def makeNewSubscriber(): KafkaSubscriber = new KafkaSubscriber(consumerSettings, settings)
 
   // resolve event service every time before creating a new publisher
   private def producerSettings: Future[ProducerSettings[String, Array[Byte]]] =
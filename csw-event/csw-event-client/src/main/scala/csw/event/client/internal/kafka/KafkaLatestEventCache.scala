@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.kafka
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.{AtomicLong, LongAdder}
+
+import akka.Done
+import akka.actor.Cancellable
+import akka.actor.typed.ActorSystem
+import akka.kafka.{ConsumerSettings, Subscriptions, scaladsl}
+import akka.stream.scaladsl.{Keep, Sink}
+import csw.event.client.internal.commons.EventConverter
+import csw.event.client.models.LatestEventCacheMetrics
+import csw.params.events.{Event, EventKey}
+import org.apache.kafka.common.TopicPartition
+
+import scala.concurrent.Future
+import scala.concurrent.duration.FiniteDuration
+
+/**
+ * Latest event of every event key which was asked for, kept up to date by one background consumer which follows the topics
+ * of these keys. A key is followed from the first time it misses the cache, that miss is answered by fetching the latest
+ * event of the key from kafka.
+ *
+ * A cached event can lag behind the event server by the time the consumer takes to poll a newly published event. The consumer
+ * is stopped and the cache is emptied once no `get` is made for `idleTimeout`, so that a subscriber which is no longer used
+ * does not keep polling. The next `get` starts over with misses.
+ *
+ * @param consumerSettings future of settings for akka-streams-kafka API for Apache Kafka consumer
+ * @param fetch fetches the latest events of the given event keys from kafka
+ * @param latestOffsets gets the offset of the upcoming message of the partitions of the given event keys
+ * @param idleTimeout time without any `get` after which the consumer is stopped
+ * @param actorSystem to be used for running the consumer stream
+ */
+// $COVERAGE-OFF$
+private[kafka] class KafkaLatestEventCache(
+    consumerSettings: Future[ConsumerSettings[String, Array[Byte]]],
+    fetch: Set[EventKey] => Future[Set[Event]],
+    latestOffsets: Set[EventKey] => Future[Map[TopicPartition, Long]],
+    idleTimeout: FiniteDuration
+)(implicit actorSystem: ActorSystem[_]) {
+
+  import KafkaLatestEventCache._
+  import actorSystem.executionContext
+
+  private val latestEvents = new ConcurrentHashMap[EventKey, CachedEvent]()
+  private val hits         = new LongAdder()
+  private val misses       = new LongAdder()
+  private val lastGet      = new AtomicLong(System.nanoTime())
+
+  // written under this. Events are cached only for followed keys, so that events received by a stopped consumer or fetched
+  // after it was stopped do not stay in the cache without being updated
+  @volatile private var followedKeys: Set[EventKey]               = Set.empty
+  private var follower: Option[Future[scaladsl.Consumer.Control]] = None
+  private var idleCheck: Option[Cancellable]                      = None
+
+  def get(eventKeys: Set[EventKey]): Future[Set[Event]] = {
+    lastGet.set(System.nanoTime())
+    val lookups = eventKeys.map(eventKey => eventKey -> Option(latestEvents.get(eventKey)))
+    val cached  = lookups.collect { case (_, Some(cachedEvent)) => cachedEvent.event }
+    val missed  = lookups.collect { case (eventKey, None) => eventKey }
+    hits.add(cached.size.toLong)
+    misses.add(missed.size.toLong)
+
+    if (missed.isEmpty) Future.successful(cached)
+    else {
+      follow(missed)
+      fetch(missed).map { fetched =>
+        fetched.foreach(event => update(event.eventKey, FetchedOffset, event))
+        cached ++ fetched
+      }
+    }
+  }
+
+  def metrics: LatestEventCacheMetrics =
+    LatestEventCacheMetrics(latestEvents.size(), followedKeys.size, hits.sum(), misses.sum())
+
+  // an event replaces the cached event of its key only if it is not older, so that the order of updates does not matter
+  private def update(eventKey: EventKey, offset: Long, event: Event): Unit =
+    if (followedKeys.contains(eventKey))
+      latestEvents.merge(
+        eventKey,
+        CachedEvent(offset, event),
+        (cached: CachedEvent, latest: CachedEvent) => if (latest.offset >= cached.offset) latest else cached
+      )
+
+  // restarts the consumer to follow the given keys as well. The previous consumer is stopped once the new one is running, so
+  // that no event is missed in between
+  private def follow(eventKeys: Set[EventKey]): Unit =
+    synchronized {
+      if (!eventKeys.subsetOf(followedKeys)) {
+        followedKeys ++= eventKeys
+        val previous = follower
+        val started  = startFollower(followedKeys)
+        val next     = started.map { case (control, _) => control }
+        follower = Some(next)
+        next.onComplete(_ => previous.foreach(_.flatMap(_.shutdown())))
+        started.flatMap { case (_, doneF) => doneF }.failed.foreach(_ => reset(Some(next)))
+        if (idleCheck.isEmpty)
+          idleCheck = Some(actorSystem.scheduler.scheduleWithFixedDelay(idleTimeout, idleTimeout)(() => stopIfIdle()))
+      }
+    }
+
+  private def stopIfIdle(): Unit =
+    synchronized {
+      if (System.nanoTime() - lastGet.get() >= idleTimeout.toNanos) {
+        follower.foreach(_.flatMap(_.shutdown()))
+        reset(follower)
+      }
+    }
+
+  // the control of the consumer stream and a future which completes when the stream stops
+  private def startFollower(eventKeys: Set[EventKey]): Future[(scaladsl.Consumer.Control, Future[Done])] =
+    for {
+      offsets  <- latestOffsets(eventKeys)
+      settings <- consumerSettings
+    } yield {
+      // starts from the last published event of every key
+      val subscription = Subscriptions.assignmentWithOffset(offsets.view.mapValues(offset => math.max(offset - 1, 0L)).toMap)
+      scaladsl.Consumer
+        .plainSource(settings, subscription)
+        .toMat(Sink.foreach(record => update(EventKey(record.topic()), record.offset(), EventConverter.toEvent(record.value()))))(
+          Keep.both
+        )
+        .run()
+    }
+
+  // a failed or stopped consumer leaves the cache stale, hence the cache starts over and keys are followed again on their next
+  // miss
+  private def reset(stopped: Option[Future[scaladsl.Consumer.Control]]): Unit =
+    synchronized {
+      if (follower == stopped) {
+        followedKeys = Set.empty
+        follower = None
+        idleCheck.foreach(_.cancel())
+        idleCheck = None
+        latestEvents.clear()
+      }
+    }
+}
+
+private object KafkaLatestEventCache {
+  // events fetched on a miss are replaced by any event received by the consumer
+  private val FetchedOffset = -1L
+
+  private case class CachedEvent(offset: Long, event: Event)
+}
+// $COVERAGE-ON$
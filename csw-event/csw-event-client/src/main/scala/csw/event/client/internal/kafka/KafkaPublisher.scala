@@ -5,6 +5,8 @@
 
 package csw.event.client.internal.kafka
 
+import java.util.concurrent.atomic.{AtomicLong, LongAdder}
+
 import akka.Done
 import akka.actor.Cancellable
 import akka.actor.typed.ActorSystem
@@ -12,52 +14,97 @@ import akka.kafka.ProducerSettings
 import akka.stream.scaladsl.Source
 import csw.event.api.exceptions.PublishFailure
 import csw.event.api.scaladsl.EventPublisher
-import csw.event.client.internal.commons.{EventConverter, EventPublisherUtil}
+import csw.event.client.internal.commons.{EventConverter, EventPublisherUtil, Settings}
+import csw.event.client.models.PublisherMetrics
 import csw.params.events.Event
 import csw.time.core.models.TMTTime
-import org.apache.kafka.clients.producer.{Callback, ProducerRecord}
+import org.apache.kafka.clients.producer.{Callback, KafkaProducer, ProducerRecord}
 
 import scala.concurrent.duration.{DurationDouble, FiniteDuration}
-import scala.concurrent.{Future, Promise}
+import scala.concurrent.{ExecutionContext, Future, Promise}
 import scala.util.control.NonFatal
+import scala.util.{Failure, Success}
 
 /**
  * An implementation of [[csw.event.api.scaladsl.EventPublisher]] API which uses Apache Kafka as the provider for publishing
  * and subscribing events.
  *
  * @param producerSettings future of settings for akka-streams-kafka API for Apache Kafka producer
+ * @param settings event service settings, used to decide whether publishing is pipelined
  */
 // $COVERAGE-OFF$
-private[event] class KafkaPublisher(producerSettings: Future[ProducerSettings[String, Array[Byte]]])(implicit
+private[event] class KafkaPublisher(producerSettings: Future[ProducerSettings[String, Array[Byte]]], settings: Settings)(implicit
     actorSystem: ActorSystem[_]
 ) extends EventPublisher {
 
   import actorSystem.executionContext
 
   private val parallelism                         = 1
+  private val pipelining                          = settings.kafkaPublisherPipelining
   private val defaultInitialDelay: FiniteDuration = 0.millis
   private val kafkaProducer                       = producerSettings.map(_.createKafkaProducer())
   private val eventPublisherUtil                  = new EventPublisherUtil()
 
-  private val streamTermination: Future[Done] = eventPublisherUtil.streamTermination(publishInternal)
+  private val inFlight     = new AtomicLong()
+  private val acknowledged = new LongAdder()
+  private val failed       = new LongAdder()
+
+  private val streamTermination: Future[Done] =
+    if (pipelining)
+      eventPublisherUtil.pipelinedStreamTermination(kafkaProducer, settings.kafkaPublisherMaxInFlight)(publishInternal)
+    else eventPublisherUtil.streamTermination(publishInternal)
+
+  // with pipelining, events from a source are sent without waiting for the acknowledgement of the previous event, up to
+  // max-in-flight events of the source at once. The source is backpressured beyond it
+  private val sourceParallelism = if (pipelining) settings.kafkaPublisherMaxInFlight else parallelism
 
   override def publish(event: Event): Future[Done] = {
     eventPublisherUtil.publish(event, streamTermination.isCompleted)
   }
 
-  private def publishInternal(event: Event): Future[Done] = {
+  /**
+   * Events in flight and counts of acknowledged and failed events of this publisher
+   */
+  def metrics: PublisherMetrics = PublisherMetrics(inFlight.get(), acknowledged.sum(), failed.sum())
+
+  // once the producer is created, the event is sent right away, so that events are sent in the order of the calls
+  private def publishInternal(event: Event): Future[Done] =
+    kafkaProducer.value match {
+      case Some(Success(producer)) => send(producer, event)
+      case _ =>
+        kafkaProducer.transformWith {
+          case Success(producer) => send(producer, event)
+          case Failure(ex)       => Future.failed(PublishFailure(event, ex))
+        }
+    }
+
+  private def send(producer: KafkaProducer[String, Array[Byte]], event: Event): Future[Done] = {
     val p = Promise[Done]()
-    kafkaProducer.map(_.send(eventToProducerRecord(event), completePromise(event, p))).recover { case NonFatal(ex) =>
-      p.failure(PublishFailure(event, ex))
-    }: Any
+    inFlight.incrementAndGet()
+    try {
+      producer.send(eventToProducerRecord(event), completePromise(event, p))
+    }
+    catch {
+      case NonFatal(ex) =>
+        inFlight.decrementAndGet()
+        failed.increment()
+        p.failure(PublishFailure(event, ex))
+    }
     p.future
   }
 
   override def publish[Mat](source: Source[Event, Mat]): Mat =
-    eventPublisherUtil.publishFromSource(source, parallelism, publishInternal, None)
+    eventPublisherUtil.publishFromSource(afterProducer(source), sourceParallelism, publishInternal, None)
 
   override def publish[Mat](source: Source[Event, Mat], onError: PublishFailure => Unit): Mat =
-    eventPublisherUtil.publishFromSource(source, parallelism, publishInternal, Some(onError))
+    eventPublisherUtil.publishFromSource(afterProducer(source), sourceParallelism, publishInternal, Some(onError))
+
+  // holds back the events of a source till the producer is created, after which publishInternal sends every event right away,
+  // in the order of the source. Events queued on the creation of the producer could otherwise be sent in any order
+  private def afterProducer[Mat](source: Source[Event, Mat]): Source[Event, Mat] =
+    if (pipelining)
+      source.mapAsync(parallelism)(event => kafkaProducer.transform(_ => Success(event))(ExecutionContext.parasitic))
+    else source
 
   override def publish(eventGenerator: => Option[Event], every: FiniteDuration): Cancellable =
     publish(eventPublisherUtil.eventSource(Future.successful(eventGenerator), parallelism, defaultInitialDelay, every))
@@ -112,8 +159,14 @@ private[event] class KafkaPublisher(producerSettings: Future[ProducerSettings[St
 
   // callback to be complete the future operation for publishing when the record has been acknowledged by the server
   private def completePromise(event: Event, promisedDone: Promise[Done]): Callback = {
-    case (_, null)          => promisedDone.success(Done)
-    case (_, ex: Exception) => promisedDone.failure(PublishFailure(event, ex))
+    case (_, null) =>
+      inFlight.decrementAndGet()
+      acknowledged.increment()
+      promisedDone.success(Done)
+    case (_, ex: Exception) =>
+      inFlight.decrementAndGet()
+      failed.increment()
+      promisedDone.failure(PublishFailure(event, ex))
   }
 }
 // $COVERAGE-ON$
@@ -11,7 +11,8 @@ import akka.kafka.{ConsumerSettings, Subscription, Subscriptions, scaladsl}
 import akka.stream.StreamDetachedException
 import akka.stream.scaladsl.{Keep, Sink, Source}
 import csw.event.api.scaladsl.{EventSubscriber, EventSubscription, SubscriptionMode}
-import csw.event.client.internal.commons.{EventConverter, EventSubscriberUtil}
+import csw.event.client.internal.commons.{EventConverter, EventSubscriberUtil, Settings}
+import csw.event.client.models.LatestEventCacheMetrics
 import csw.event.client.utils.Utils
 import csw.params.events._
 import csw.prefix.models.Subsystem
@@ -29,10 +30,11 @@ import scala.util.control.NonFatal
  * and subscribing events.
  *
  * @param consumerSettings  future of settings for akka-streams-kafka API for Apache Kafka consumer
+ * @param settings event service settings, used to decide whether `get` is answered from a cache of latest events
  * @param actorSystem to be used for performing asynchronous operations
  */
 // $COVERAGE-OFF$
-private[event] class KafkaSubscriber(consumerSettings: Future[ConsumerSettings[String, Array[Byte]]])(implicit
+private[event] class KafkaSubscriber(consumerSettings: Future[ConsumerSettings[String, Array[Byte]]], settings: Settings)(implicit
     actorSystem: ActorSystem[_]
 ) extends EventSubscriber {
 
@@ -41,6 +43,11 @@ private[event] class KafkaSubscriber(consumerSettings: Future[ConsumerSettings[S
   private val consumer: Future[Consumer[String, Array[Byte]]] = consumerSettings.map(_.createKafkaConsumer())
   private val eventSubscriberUtil                             = new EventSubscriberUtil()
 
+  private val latestEventCache: Option[KafkaLatestEventCache] =
+    if (settings.kafkaLatestEventCache)
+      Some(new KafkaLatestEventCache(consumerSettings, fetch, getLatestOffsets, settings.kafkaLatestEventCacheIdleTimeout))
+    else None
+
   override def subscribe(eventKeys: Set[EventKey]): Source[Event, EventSubscription] = {
     val offsetsF = getLatestOffsets(eventKeys)
 
@@ -113,7 +120,20 @@ private[event] class KafkaSubscriber(consumerSettings: Future[ConsumerSettings[S
 
   override def subscribeObserveEvents(): Source[Event, EventSubscription] = pSubscribe(".*.ObserveEvent.*")
 
-  override def get(eventKeys: Set[EventKey]): Future[Set[Event]] = {
+  override def get(eventKeys: Set[EventKey]): Future[Set[Event]] =
+    latestEventCache match {
+      case Some(cache) => cache.get(eventKeys)
+      case None        => fetch(eventKeys)
+    }
+
+  override def get(eventKey: EventKey): Future[Event] = get(Set(eventKey)).map(_.head)
+
+  /**
+   * Metrics of the cache of latest events, if `get` is answered from one
+   */
+  def latestEventCacheMetrics: Option[LatestEventCacheMetrics] = latestEventCache.map(_.metrics)
+
+  private def fetch(eventKeys: Set[EventKey]): Future[Set[Event]] = {
     val (subscription, eventsF) = subscribe(eventKeys).take(eventKeys.size).toMat(Sink.seq)(Keep.both).run()
 
     async {
@@ -124,8 +144,6 @@ private[event] class KafkaSubscriber(consumerSettings: Future[ConsumerSettings[S
     }
   }
 
-  override def get(eventKey: EventKey): Future[Event] = get(Set(eventKey)).map(_.head)
-
   private def pSubscribe(pattern: String) = {
     val subscription = Subscriptions.topicPattern(pattern)
     getEventStream(Future.successful(subscription)).mapMaterializedValue(control =>
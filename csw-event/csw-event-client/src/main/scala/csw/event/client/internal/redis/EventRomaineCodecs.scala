@@ -8,7 +8,7 @@ package csw.event.client.internal.redis
 import java.nio.ByteBuffer
 
 import csw.event.client.internal.commons.EventConverter
-import csw.params.events.{Event, EventKey}
+import csw.params.events.{Event, EventKey, EventView}
 import romaine.codec.RomaineCodec
 
 /**
@@ -22,4 +22,10 @@ private[event] object EventRomaineCodecs {
   implicit val eventRomaineCodec: RomaineCodec[Event] =
     RomaineCodec.byteBufferCodec.bimap[Event](EventConverter.toBytes[ByteBuffer], EventConverter.toEvent)
 
+  implicit val eventViewRomaineCodec: RomaineCodec[EventView] =
+    RomaineCodec.byteBufferCodec.bimap[EventView](
+      view => EventConverter.toBytes[ByteBuffer](view.toEvent),
+      EventConverter.toEventView
+    )
+
 }
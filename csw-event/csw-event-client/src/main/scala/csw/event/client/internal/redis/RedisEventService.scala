@@ -7,6 +7,7 @@ package csw.event.client.internal.redis
 
 import akka.actor.typed.ActorSystem
 import csw.event.api.scaladsl.EventService
+import csw.event.client.internal.commons.Settings
 import csw.event.client.internal.commons.serviceresolver.EventServiceResolver
 import io.lettuce.core.{RedisClient, RedisURI}
 
@@ -27,9 +28,11 @@ private[event] class RedisEventService(eventServiceResolver: EventServiceResolve
 
   import actorSystem.executionContext
 
-  override def makeNewPublisher(): RedisPublisher = new RedisPublisher(redisURI(), redisClient)
+  private lazy val settings = new Settings(actorSystem.settings.config)
 
-  override def makeNewSubscriber(): RedisSubscriber = new RedisSubscriber(redisURI(), redisClient)
+  override def makeNewPublisher(): RedisPublisher = new RedisPublisher(redisURI(), redisClient, settings)
+
+  override def makeNewSubscriber(): RedisSubscriber = new RedisSubscriber(redisURI(), redisClient, settings)
 
   // resolve event service every time before creating a new publisher or subscriber
   private def redisURI(): Future[RedisURI] =
@@ -11,7 +11,7 @@ import akka.actor.typed.ActorSystem
 import akka.stream.scaladsl.Source
 import csw.event.api.exceptions.PublishFailure
 import csw.event.api.scaladsl.EventPublisher
-import csw.event.client.internal.commons.EventPublisherUtil
+import csw.event.client.internal.commons.{EventPublisherUtil, Settings}
 import csw.params.events.Event
 import csw.time.core.models.TMTTime
 import io.lettuce.core.{RedisClient, RedisURI}
@@ -19,6 +19,7 @@ import romaine.RomaineFactory
 import romaine.async.RedisAsyncApi
 
 import scala.async.Async._
+import scala.compat.java8.FutureConverters.CompletionStageOps
 import scala.concurrent.duration.{DurationInt, FiniteDuration}
 import scala.concurrent.{Await, Future}
 import scala.util.control.NonFatal
@@ -29,9 +30,10 @@ import scala.util.control.NonFatal
  *
  * @param redisURI    future containing connection details for the Redis/Sentinel connections.
  * @param redisClient redis client available from lettuce
+ * @param settings    event service settings, used to decide whether publishing is pipelined
  * @param actorSystem provides Materializer, executionContext, etc
  */
-private[event] class RedisPublisher(redisURI: Future[RedisURI], redisClient: RedisClient)(implicit
+private[event] class RedisPublisher(redisURI: Future[RedisURI], redisClient: RedisClient, settings: Settings)(implicit
     actorSystem: ActorSystem[_]
 ) extends EventPublisher {
 
@@ -39,6 +41,7 @@ private[event] class RedisPublisher(redisURI: Future[RedisURI], redisClient: Red
 
   // inorder to preserve the order of publishing events, the parallelism level is maintained to 1
   private val parallelism                         = 1
+  private val pipelining                          = settings.publisherPipelining
   private val defaultInitialDelay: FiniteDuration = 0.millis
   private val eventPublisherUtil                  = new EventPublisherUtil()
   private val romaineFactory                      = new RomaineFactory(redisClient)
@@ -46,7 +49,15 @@ private[event] class RedisPublisher(redisURI: Future[RedisURI], redisClient: Red
 
   private val asyncApi: RedisAsyncApi[String, Event] = romaineFactory.redisAsyncApi(redisURI)
 
-  private val streamTermination: Future[Done] = eventPublisherUtil.streamTermination(publishInternal)
+  private val streamTermination: Future[Done] =
+    if (pipelining)
+      eventPublisherUtil.batchedStreamTermination(settings.publisherMaxBatchSize, settings.publisherMaxLinger)(publishBatchInternal)
+    else eventPublisherUtil.streamTermination(publishInternal)
+
+  // with pipelining, events from a source are queued like single events so that they are published in batches. Queueing
+  // happens in the order of the source, hence more than one event can be in flight without breaking the order of publishing
+  private val sourceParallelism                    = if (pipelining) settings.publisherMaxBatchSize else parallelism
+  private val sourcePublish: Event => Future[Done] = if (pipelining) publish(_: Event) else publishInternal
 
   // This blocks main thread and publish dummy initialization event.
   // We have observed higher latencies for few initial events with [[EventPublisher.publish(event: Event)]] API when used for periodic publish.
@@ -60,17 +71,34 @@ private[event] class RedisPublisher(redisURI: Future[RedisURI], redisClient: Red
       await(asyncApi.publish(event.eventKey.key, event))
       set(event, asyncApi) // set will run independent of publish
       Done
-    } recover { case NonFatal(ex) =>
-      val failure = PublishFailure(event, ex)
-      eventPublisherUtil.logError(failure)
-      throw failure
+    } recover publishFailure(event)
+
+  // PUBLISH and SET commands of all the events in a batch are written to redis in one flush, in the order of the batch
+  private def publishBatchInternal(events: Seq[Event]): Seq[Future[Done]] = {
+    val publishedF = asyncApi.pipelined { commands =>
+      events.map { event =>
+        val published = commands.publish(event.eventKey.key, event)
+        commands.set(event.eventKey.key, event) // set will run independent of publish
+        published
+      }
+    }
+
+    events.zipWithIndex.map { case (event, index) =>
+      publishedF.flatMap(_(index).toScala).map(_ => Done: Done).recover(publishFailure(event))
     }
+  }
+
+  private def publishFailure(event: Event): PartialFunction[Throwable, Done] = { case NonFatal(ex) =>
+    val failure = PublishFailure(event, ex)
+    eventPublisherUtil.logError(failure)
+    throw failure
+  }
 
   override def publish[Mat](source: Source[Event, Mat]): Mat =
-    eventPublisherUtil.publishFromSource(source, parallelism, publishInternal, None)
+    eventPublisherUtil.publishFromSource(source, sourceParallelism, sourcePublish, None)
 
   override def publish[Mat](source: Source[Event, Mat], onError: PublishFailure => Unit): Mat =
-    eventPublisherUtil.publishFromSource(source, parallelism, publishInternal, Some(onError))
+    eventPublisherUtil.publishFromSource(source, sourceParallelism, sourcePublish, Some(onError))
 
   override def publish(eventGenerator: => Option[Event], every: FiniteDuration): Cancellable =
     publish(eventPublisherUtil.eventSource(Future.successful(eventGenerator), parallelism, defaultInitialDelay, every))
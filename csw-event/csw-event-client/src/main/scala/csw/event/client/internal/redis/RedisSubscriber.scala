@@ -5,24 +5,26 @@
 
 package csw.event.client.internal.redis
 
-import akka.actor.typed.{ActorRef, ActorSystem}
+import java.nio.ByteBuffer
+
+import akka.actor.typed.{ActorRef, ActorSystem, DispatcherSelector}
 import akka.stream.scaladsl.{Keep, Source}
 import akka.{Done, NotUsed}
 import csw.event.api.exceptions.EventServerNotAvailable
 import csw.event.api.scaladsl.{EventSubscriber, EventSubscription, SubscriptionMode}
-import csw.event.client.internal.commons.{EventServiceLogger, EventSubscriberUtil}
+import csw.event.client.internal.commons.{EventConverter, EventServiceLogger, EventSubscriberUtil, Settings}
 import csw.params.events._
 import csw.prefix.models.Subsystem
 import io.lettuce.core.{RedisClient, RedisURI}
 import reactor.core.publisher.FluxSink.OverflowStrategy
-import romaine.RomaineFactory
 import romaine.async.RedisAsyncApi
 import romaine.codec.RomaineCodec
 import romaine.exceptions.RedisServerNotAvailable
-import romaine.reactive.{RedisSubscription, RedisSubscriptionApi}
+import romaine.reactive.{RedisSharedSubscriptionApi, RedisSubscription, RedisSubscriptionApi}
+import romaine.{RedisResult, RomaineFactory}
 
 import scala.async.Async._
-import scala.concurrent.Future
+import scala.concurrent.{ExecutionContext, Future}
 import scala.concurrent.duration.FiniteDuration
 
 /**
@@ -31,9 +33,11 @@ import scala.concurrent.duration.FiniteDuration
  *
  * @param redisURI    future containing connection details for the Redis/Sentinel connections.
  * @param redisClient redis client available from lettuce
+ * @param settings    event service settings, used to decide how many pub/sub connections are shared by subscriptions and
+ *                    where events are decoded
  * @param actorSystem to be used for performing asynchronous operations
  */
-private[event] class RedisSubscriber(redisURI: Future[RedisURI], redisClient: RedisClient)(implicit
+private[event] class RedisSubscriber(redisURI: Future[RedisURI], redisClient: RedisClient, settings: Settings)(implicit
     actorSystem: ActorSystem[_]
 ) extends EventSubscriber {
 
@@ -47,18 +51,82 @@ private[event] class RedisSubscriber(redisURI: Future[RedisURI], redisClient: Re
 
   private val asyncApi: RedisAsyncApi[EventKey, Event] = romaineFactory.redisAsyncApi[EventKey, Event](redisURI)
 
+  private val sharedConnections = settings.subscriberConnections
+
+  // subscriptions of this subscriber share these connections, unless configured to open a connection per subscription
+  private lazy val sharedSubscriptionApi: RedisSharedSubscriptionApi[EventKey, Event] =
+    romaineFactory.redisSharedSubscriptionApi[EventKey, Event](redisURI, sharedConnections)
+  private lazy val sharedPatternSubscriptionApi: RedisSharedSubscriptionApi[String, Event] =
+    romaineFactory.redisSharedSubscriptionApi[String, Event](redisURI, sharedConnections)
+
+  private lazy val sharedViewSubscriptionApi: RedisSharedSubscriptionApi[EventKey, EventView] =
+    romaineFactory.redisSharedSubscriptionApi[EventKey, EventView](redisURI, sharedConnections)
+
   private def subscriptionApi[T: RomaineCodec](): RedisSubscriptionApi[T, Event] =
     romaineFactory.redisSubscriptionApi[T, Event](redisURI)
 
+  private val decodeParallelism = settings.subscriberDecodeParallelism
+
+  // with parallel decoding, subscriptions receive the raw bytes of events and decode them on the decode dispatcher
+  private lazy val decodeDispatcher: ExecutionContext =
+    actorSystem.dispatchers.lookup(DispatcherSelector.fromConfig(settings.subscriberDecodeDispatcher))
+
+  private lazy val sharedRawSubscriptionApi: RedisSharedSubscriptionApi[EventKey, ByteBuffer] =
+    romaineFactory.redisSharedSubscriptionApi[EventKey, ByteBuffer](redisURI, sharedConnections)(
+      eventKeyRomaineCodec,
+      RomaineCodec.rawBytesCodec
+    )
+  private lazy val sharedRawPatternSubscriptionApi: RedisSharedSubscriptionApi[String, ByteBuffer] =
+    romaineFactory.redisSharedSubscriptionApi[String, ByteBuffer](redisURI, sharedConnections)(
+      RomaineCodec.stringCodec,
+      RomaineCodec.rawBytesCodec
+    )
+
+  private def rawSubscriptionApi[T: RomaineCodec](): RedisSubscriptionApi[T, ByteBuffer] =
+    romaineFactory.redisSubscriptionApi[T, ByteBuffer](redisURI)(implicitly[RomaineCodec[T]], RomaineCodec.rawBytesCodec)
+
   override def subscribe(eventKeys: Set[EventKey]): Source[Event, EventSubscription] = {
     log.info(s"Subscribing to event keys: $eventKeys")
-    val eventSubscriptionApi: RedisSubscriptionApi[EventKey, Event] = subscriptionApi()
 
     val latestEventStream: Source[Event, NotUsed] = Source.future(get(eventKeys)).mapConcat(identity)
-    val redisStream: Source[Event, RedisSubscription] =
-      eventSubscriptionApi.subscribe(eventKeys.toList, OverflowStrategy.LATEST).map(_.value)
+    latestEventStream.concatMat(subscribePublished(eventKeys))(Keep.right)
+  }
+
+  // events published after subscribing, without the latest events of the keys which `subscribe` starts with
+  private[event] def subscribePublished(eventKeys: Set[EventKey]): Source[Event, EventSubscription] = {
+    val redisStream: Source[Event, RedisSubscription] = {
+      val keys = eventKeys.toList
+      if (decodeParallelism > 0) {
+        val rawStream =
+          if (sharedConnections > 0) sharedRawSubscriptionApi.subscribe(keys, OverflowStrategy.LATEST)
+          else rawSubscriptionApi[EventKey]().subscribe(keys, OverflowStrategy.LATEST)
+        decoded(rawStream)
+      }
+      else if (sharedConnections > 0) sharedSubscriptionApi.subscribe(keys, OverflowStrategy.LATEST).map(_.value)
+      else subscriptionApi[EventKey]().subscribe(keys, OverflowStrategy.LATEST).map(_.value)
+    }
+
+    eventStream(eventKeys, redisStream)
+  }
+
+  // events received on the subscription are only scanned, their parameters are decoded when looked up on the view, hence
+  // views are never decoded on the decode dispatcher
+  override def subscribeView(eventKeys: Set[EventKey]): Source[EventView, EventSubscription] = {
+    log.info(s"Subscribing views of event keys: $eventKeys")
 
-    latestEventStream.concatMat(eventStream(eventKeys, redisStream))(Keep.right)
+    val latestEventStream: Source[EventView, NotUsed] = Source.future(get(eventKeys)).mapConcat(identity).map(EventView(_))
+    latestEventStream.concatMat(subscribePublishedViews(eventKeys))(Keep.right)
+  }
+
+  private[event] def subscribePublishedViews(eventKeys: Set[EventKey]): Source[EventView, EventSubscription] = {
+    val redisStream: Source[EventView, RedisSubscription] = {
+      val keys = eventKeys.toList
+      if (sharedConnections > 0) sharedViewSubscriptionApi.subscribe(keys, OverflowStrategy.LATEST).map(_.value)
+      else
+        romaineFactory.redisSubscriptionApi[EventKey, EventView](redisURI).subscribe(keys, OverflowStrategy.LATEST).map(_.value)
+    }
+
+    eventStream(eventKeys, redisStream)
   }
 
   override def subscribe(
@@ -117,16 +185,28 @@ private[event] class RedisSubscriber(redisURI: Future[RedisURI], redisClient: Re
   private def pSubscribe(pattern: String) = {
     log.info(s"Subscribing to event key pattern: $pattern")
 
-    val patternSubscriptionApi: RedisSubscriptionApi[String, Event] = subscriptionApi()
     val redisStream: Source[Event, RedisSubscription] =
-      patternSubscriptionApi.psubscribe(List(pattern), OverflowStrategy.LATEST).map(_.value)
+      if (decodeParallelism > 0) {
+        val rawStream =
+          if (sharedConnections > 0) sharedRawPatternSubscriptionApi.psubscribe(List(pattern), OverflowStrategy.LATEST)
+          else rawSubscriptionApi[String]().psubscribe(List(pattern), OverflowStrategy.LATEST)
+        decoded(rawStream)
+      }
+      else if (sharedConnections > 0) sharedPatternSubscriptionApi.psubscribe(List(pattern), OverflowStrategy.LATEST).map(_.value)
+      else subscriptionApi[String]().psubscribe(List(pattern), OverflowStrategy.LATEST).map(_.value)
     eventStream(pattern, redisStream)
   }
 
-  private def eventStream[T](
+  // up to decodeParallelism events are decoded at once, mapAsync still emits them in the order in which they were received.
+  // The subscriptions to a channel of a shared connection receive the same buffer, and decoding moves the position of the
+  // buffer it reads, hence every subscription decodes a duplicate of its own
+  private def decoded[K](rawStream: Source[RedisResult[K, ByteBuffer], RedisSubscription]): Source[Event, RedisSubscription] =
+    rawStream.mapAsync(decodeParallelism)(result => Future(EventConverter.toEvent(result.value.duplicate()))(decodeDispatcher))
+
+  private def eventStream[T, E](
       eventKeys: T,
-      eventStreamF: Source[Event, RedisSubscription]
-  ): Source[Event, EventSubscription] =
+      eventStreamF: Source[E, RedisSubscription]
+  ): Source[E, EventSubscription] =
     eventStreamF.mapMaterializedValue { redisSubscription =>
       new EventSubscription {
         override def unsubscribe(): Future[Done] = {
@@ -10,19 +10,27 @@ import io.lettuce.core.RedisClient
 sealed trait EventStore
 
 /**
- * Event service supports two underlying implementations for event store
+ * Event service supports following underlying implementations for event store
  * 1. [[csw.event.client.models.EventStores.RedisStore]]: This is the default and recommended store. If you are creating [[csw.event.api.scaladsl.EventService]] using [[csw.event.client.EventServiceFactory]], then you should shutdown redis client when it is no longer in use.
  * 2. [[csw.event.client.models.EventStores.KafkaStore]]: This can be used to create an [[csw.event.api.scaladsl.EventService]] which is backed by Kafka event store. You should not use this unless you have strong reasons to do so.
+ * 3. [[csw.event.client.models.EventStores.HybridStore]]: Backed by Redis like [[csw.event.client.models.EventStores.RedisStore]], but events published in the JVM are also delivered directly, without serialization, to the subscriptions in the JVM made through an [[csw.event.api.scaladsl.EventService]] of the same [[csw.event.client.EventServiceFactory]]. Pattern subscriptions and `get` are served by Redis.
  *
  * @note If you are using csw-framework, your component will already have an event service injected which is backed up by [[csw.event.client.models.EventStores.RedisStore]]. You do not need to take the [[csw.event.client.EventServiceFactory]] route.
  */
 object EventStores {
-  case class RedisStore(redisClient: RedisClient = RedisClient.create()) extends EventStore
-  case object KafkaStore                                                 extends EventStore
+  case class RedisStore(redisClient: RedisClient = RedisClient.create())  extends EventStore
+  case object KafkaStore                                                  extends EventStore
+  case class HybridStore(redisClient: RedisClient = RedisClient.create()) extends EventStore
 
   /**
    * Java helpers to select appropriate event store.
    */
   val jRedisStore: EventStore = RedisStore()
   val jKafkaStore: EventStore = KafkaStore
+
+  /**
+   * Java helper to select the hybrid event store. Its redis client is created on first use, and the caller owns it: shut it
+   * down when it is no longer in use.
+   */
+  lazy val jHybridStore: EventStore = HybridStore()
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.models
+
+import java.util.Optional
+
+import csw.event.api.javadsl.IEventSubscriber
+import csw.event.api.scaladsl.EventSubscriber
+import csw.event.client.internal.commons.javawrappers.JEventSubscriber
+import csw.event.client.internal.kafka.KafkaSubscriber
+import csw.params.extensions.OptionConverters.RichOption
+
+/**
+ * Metrics of the cache of latest events which answers `get` on a subscriber
+ *
+ * @param cachedEvents number of event keys whose latest event is cached
+ * @param followedKeys number of event keys followed by the consumer which keeps the cache up to date
+ * @param hits number of event keys which were answered from the cache
+ * @param misses number of event keys which had to be fetched from the event server
+ */
+case class LatestEventCacheMetrics(cachedEvents: Int, followedKeys: Int, hits: Long, misses: Long)
+
+object LatestEventCacheMetrics {
+
+  /**
+   * Reads the metrics of the cache of latest events of a subscriber made by an event service
+   *
+   * @note only the subscribers of the Kafka based event service with `latest-event-cache` turned on keep a cache
+   * @param subscriber the subscriber to read the metrics of
+   * @return the current metrics of the cache of the subscriber, or None if the subscriber does not keep a cache
+   */
+  def of(subscriber: EventSubscriber): Option[LatestEventCacheMetrics] =
+    subscriber match {
+      case kafkaSubscriber: KafkaSubscriber => kafkaSubscriber.latestEventCacheMetrics
+      case _                                => None
+    }
+
+  /**
+   * Java API to read the metrics of the cache of latest events of a subscriber made by an event service
+   *
+   * @note only the subscribers of the Kafka based event service with `latest-event-cache` turned on keep a cache
+   * @param subscriber the subscriber to read the metrics of
+   * @return the current metrics of the cache of the subscriber, or empty if the subscriber does not keep a cache
+   */
+  def jOf(subscriber: IEventSubscriber): Optional[LatestEventCacheMetrics] =
+    subscriber match {
+      case jSubscriber: JEventSubscriber => of(jSubscriber.eventSubscriber).asJava
+      case _                             => Optional.empty()
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.models
+
+import java.util.Optional
+
+import csw.event.api.javadsl.IEventPublisher
+import csw.event.api.scaladsl.EventPublisher
+import csw.event.client.internal.commons.javawrappers.JEventPublisher
+import csw.event.client.internal.kafka.KafkaPublisher
+import csw.params.extensions.OptionConverters.RichOption
+
+/**
+ * Metrics of the events sent by a publisher. The publishing throughput is the rate at which `acknowledged` grows.
+ *
+ * @param inFlight number of events sent but not yet acknowledged by the event server
+ * @param acknowledged number of events acknowledged since the publisher was created
+ * @param failed number of events which failed to be published since the publisher was created
+ */
+case class PublisherMetrics(inFlight: Long, acknowledged: Long, failed: Long)
+
+object PublisherMetrics {
+
+  /**
+   * Reads the metrics of a publisher made by an event service
+   *
+   * @note only the publishers of the Kafka based event service keep metrics
+   * @param publisher the publisher to read the metrics of
+   * @return the current metrics of the publisher, or None if the publisher does not keep metrics
+   */
+  def of(publisher: EventPublisher): Option[PublisherMetrics] =
+    publisher match {
+      case kafkaPublisher: KafkaPublisher => Some(kafkaPublisher.metrics)
+      case _                              => None
+    }
+
+  /**
+   * Java API to read the metrics of a publisher made by an event service
+   *
+   * @note only the publishers of the Kafka based event service keep metrics
+   * @param publisher the publisher to read the metrics of
+   * @return the current metrics of the publisher, or empty if the publisher does not keep metrics
+   */
+  def jOf(publisher: IEventPublisher): Optional[PublisherMetrics] =
+    publisher match {
+      case jPublisher: JEventPublisher => of(jPublisher.eventPublisher).asJava
+      case _                           => Optional.empty()
+    }
+}
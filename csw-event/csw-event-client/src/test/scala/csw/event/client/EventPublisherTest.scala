@@ -8,6 +8,7 @@ package csw.event.client
 import akka.actor.Cancellable
 import akka.actor.testkit.typed.scaladsl.TestProbe
 import akka.stream.scaladsl.{Keep, Sink, Source}
+import com.typesafe.config.ConfigFactory
 import csw.event.client.helpers.TestFutureExt.RichFuture
 import csw.event.client.helpers.Utils.{makeDistinctEvent, makeEvent, makeEventWithPrefix}
 import csw.params.core.generics.{Key, Parameter}
@@ -229,6 +230,26 @@ class EventPublisherTest extends TestNGSuite with Matchers with Eventually with
     testProbe.expectMessage(event5)
   }
 
+  @Test
+  def should_maintain_ordering_while_publishing_in_batches_with_pipelining(): Unit = {
+    import redisTestProps._
+
+    val pipelinedPublisher = makePublisher(ConfigFactory.parseString("csw-event.redis.publisher.pipelining = on"))
+    val events             = (1 to 500).map(makeEventWithPrefix(_, Prefix("csw.pipelined")))
+    val eventKey           = events.head.eventKey
+
+    val (subscription, seqF) = subscriber.subscribe(Set(eventKey)).take(events.size + 1).toMat(Sink.seq)(Keep.both).run()
+    subscription.ready().await
+    Thread.sleep(500)
+
+    // all the events are queued at once and are in flight together
+    Future.sequence(events.map(event => pipelinedPublisher.publish(event))).await
+
+    seqF.await shouldBe Event.invalidEvent(eventKey) +: events
+    eventually(subscriber.get(eventKey).await shouldBe events.last)
+    pipelinedPublisher.shutdown().await
+  }
+
   // DEOPSCSW-515: Include Start Time in API
   // DEOPSCSW-516: Optionally Publish - API Change
   @Test(dataProvider = "event-service-provider")
@@ -9,6 +9,7 @@ import akka.actor.testkit.typed.scaladsl.{TestInbox, TestProbe}
 import akka.actor.typed.ActorSystem
 import akka.actor.typed.scaladsl.Behaviors
 import akka.stream.scaladsl.{Keep, Sink}
+import com.typesafe.config.ConfigFactory
 import csw.event.api.scaladsl.SubscriptionModes
 import csw.event.client.helpers.TestFutureExt.RichFuture
 import csw.event.client.helpers.Utils._
@@ -622,6 +623,77 @@ class EventSubscriberTest extends TestNGSuite with Matchers with Eventually {
     cancellable.cancel()
   }
 
+  @Test(dataProvider = "redis-provider")
+  def should_be_able_to_subscribe_with_events_decoded_in_parallel_in_the_order_of_publishing(redisProps: RedisTestProps): Unit = {
+    import redisProps._
+
+    val decodingSubscriber = makeSubscriber(ConfigFactory.parseString("csw-event.redis.subscriber.decode-parallelism = 4"))
+    val publishedEvents    = events(EventName("parallel_decoding")).take(200)
+    val eventKey           = publishedEvents.head.eventKey
+
+    val (subscription, seqF) =
+      decodingSubscriber.subscribe(Set(eventKey)).take(publishedEvents.size + 1).toMat(Sink.seq)(Keep.both).run()
+    subscription.ready().await
+    Thread.sleep(200)
+    publishedEvents.foreach(publisher.publish(_).await)
+
+    seqF.await shouldBe Event.invalidEvent(eventKey) +: publishedEvents
+  }
+
+  @Test(dataProvider = "redis-provider")
+  def should_decode_events_in_parallel_for_every_subscription_to_a_shared_channel(redisProps: RedisTestProps): Unit = {
+    import redisProps._
+
+    // both subscriptions receive the events of the key from the one shared connection of the subscriber
+    val decodingSubscriber = makeSubscriber(
+      ConfigFactory.parseString("csw-event.redis.subscriber { connections = 1, decode-parallelism = 4 }")
+    )
+    val publishedEvents = events(EventName("parallel_decoding_shared")).take(200)
+    val eventKey        = publishedEvents.head.eventKey
+
+    val (subscription1, seq1F) =
+      decodingSubscriber.subscribe(Set(eventKey)).take(publishedEvents.size + 1).toMat(Sink.seq)(Keep.both).run()
+    val (subscription2, seq2F) =
+      decodingSubscriber.subscribe(Set(eventKey)).take(publishedEvents.size + 1).toMat(Sink.seq)(Keep.both).run()
+    subscription1.ready().await
+    subscription2.ready().await
+    Thread.sleep(200)
+    publishedEvents.foreach(publisher.publish(_).await)
+
+    seq1F.await shouldBe Event.invalidEvent(eventKey) +: publishedEvents
+    seq2F.await shouldBe Event.invalidEvent(eventKey) +: publishedEvents
+  }
+
+  @Test(dataProvider = "redis-provider")
+  def should_deliver_events_published_in_the_same_jvm_once_and_publish_them_to_redis(redisProps: RedisTestProps): Unit = {
+    import redisProps._
+
+    val localPublisher  = makeHybridEventService().makeNewPublisher()
+    val localSubscriber = makeHybridEventService().makeNewSubscriber()
+    val publishedEvents = events(EventName("hybrid_delivery")).take(100)
+    val eventKey        = publishedEvents.head.eventKey
+
+    val (localSubscription, localEventsF)   = localSubscriber.subscribe(Set(eventKey)).toMat(Sink.seq)(Keep.both).run()
+    val (remoteSubscription, remoteEventsF) = subscriber.subscribe(Set(eventKey)).toMat(Sink.seq)(Keep.both).run()
+    localSubscription.ready().await
+    remoteSubscription.ready().await
+    Thread.sleep(200)
+
+    publishedEvents.foreach(localPublisher.publish(_).await)
+    Thread.sleep(1000) // gives the copies of the events from redis time to arrive at the local subscription
+    localSubscription.unsubscribe().await
+    remoteSubscription.unsubscribe().await
+
+    val localEvents = localEventsF.await
+    localEvents shouldBe Event.invalidEvent(eventKey) +: publishedEvents
+    // events are delivered to local subscriptions as they were published
+    localEvents.tail.zip(publishedEvents).forall { case (received, published) => received eq published } shouldBe true
+    remoteEventsF.await shouldBe Event.invalidEvent(eventKey) +: publishedEvents
+    localSubscriber.get(eventKey).await shouldBe publishedEvents.last
+
+    localPublisher.shutdown().await
+  }
+
   private def resumingCallback(queue: mutable.Queue[Event]) = {
     var counter = 0
     val callback: Event => Unit = event => {
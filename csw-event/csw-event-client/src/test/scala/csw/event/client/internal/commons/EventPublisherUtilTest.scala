@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.commons
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import akka.Done
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import csw.event.api.exceptions.PublishFailure
+import csw.event.client.helpers.TestFutureExt.RichFuture
+import csw.event.client.helpers.Utils.makeEvent
+import csw.params.events.Event
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+import scala.concurrent.Future
+import scala.concurrent.duration.DurationInt
+import scala.jdk.CollectionConverters.CollectionHasAsScala
+
+class EventPublisherUtilTest extends AnyFunSuite with Matchers with BeforeAndAfterAll {
+
+  private implicit val actorSystem: ActorSystem[SpawnProtocol.Command] = ActorSystem(SpawnProtocol(), "event-publisher-util")
+  import actorSystem.executionContext
+
+  override def afterAll(): Unit = {
+    actorSystem.terminate()
+    actorSystem.whenTerminated.await
+  }
+
+  private val events: Seq[Event] = (1 to 500).map(makeEvent)
+
+  test("batched publishing should hand queued events to the publisher in the order in which they were queued") {
+    val eventPublisherUtil = new EventPublisherUtil()
+    val batches            = new ConcurrentLinkedQueue[Seq[Event]]()
+    eventPublisherUtil.batchedStreamTermination(maxBatchSize = 16, maxLinger = 0.millis) { batch =>
+      batches.add(batch)
+      batch.map(_ => Future.successful(Done))
+    }
+
+    Future.sequence(events.map(eventPublisherUtil.publish(_, isStreamTerminated = false))).await
+
+    batches.asScala.toList.flatten shouldBe events
+    all(batches.asScala.map(_.size)) should be <= 16
+  }
+
+  test("batched publishing with a linger should hand queued events to the publisher in the order in which they were queued") {
+    val eventPublisherUtil = new EventPublisherUtil()
+    val published          = new ConcurrentLinkedQueue[Event]()
+    eventPublisherUtil.batchedStreamTermination(maxBatchSize = 16, maxLinger = 5.millis) { batch =>
+      batch.foreach(published.add)
+      batch.map(_ => Future.successful(Done))
+    }
+
+    Future.sequence(events.map(eventPublisherUtil.publish(_, isStreamTerminated = false))).await
+
+    published.asScala.toList shouldBe events
+  }
+
+  test("batched publishing should fail only the futures of the events which failed and go on with the next batches") {
+    val eventPublisherUtil = new EventPublisherUtil()
+    val failed             = events.filter(_.eventId.id.toInt % 7 == 0).toSet
+    eventPublisherUtil.batchedStreamTermination(maxBatchSize = 16, maxLinger = 0.millis) { batch =>
+      batch.map { event =>
+        if (failed.contains(event)) Future.failed(PublishFailure(event, new RuntimeException("publish failed")))
+        else Future.successful(Done)
+      }
+    }
+
+    val results = events.map(event => event -> eventPublisherUtil.publish(event, isStreamTerminated = false))
+
+    results.foreach { case (event, result) =>
+      if (failed.contains(event)) intercept[PublishFailure](result.await).event shouldBe event
+      else result.await shouldBe Done
+    }
+  }
+}
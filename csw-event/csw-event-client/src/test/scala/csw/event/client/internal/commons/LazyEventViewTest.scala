@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.commons
+
+import java.nio.ByteBuffer
+
+import csw.event.client.helpers.Utils
+import csw.params.core.generics.KeyType.{DoubleKey, IntKey, StringKey}
+import csw.params.core.models.Units.meter
+import csw.params.events.{Event, ObserveEvent}
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+class LazyEventViewTest extends AnyFunSuite with Matchers {
+
+  private val intParam    = IntKey.make("counter").set(1, 2, 3)
+  private val doubleParam = DoubleKey.make("position").set(1.5).withUnits(meter)
+  private val stringParam = StringKey.make("state").set("tracking")
+
+  private val event = Utils.makeEvent(1).madd(intParam, doubleParam, stringParam)
+
+  private def view(event: Event) = EventConverter.toEventView(EventConverter.toBytes[ByteBuffer](event))
+
+  test("should read the header and look up parameters of an encoded event") {
+    val eventView = view(event)
+
+    eventView.typeName shouldBe event.typeName
+    eventView.eventId shouldBe event.eventId
+    eventView.eventKey shouldBe event.eventKey
+    eventView.eventTime shouldBe event.eventTime
+    eventView.get(intParam.key) shouldBe Some(intParam)
+    eventView.get(doubleParam.key) shouldBe Some(doubleParam)
+    eventView.exists(stringParam.key) shouldBe true
+    eventView.toEvent shouldBe event
+  }
+
+  test("should not find a parameter with the same name but a different key type") {
+    view(event).get(StringKey.make("counter")) shouldBe None
+    view(event).get(IntKey.make("missing")) shouldBe None
+  }
+
+  test("should view an observe event with no parameters") {
+    val observeEvent = ObserveEvent(Utils.prefix, Utils.eventName)
+    val eventView    = view(observeEvent)
+
+    eventView.typeName shouldBe "ObserveEvent"
+    eventView.get(intParam.key) shouldBe None
+    eventView.toEvent shouldBe observeEvent
+  }
+
+  test("should view invalid bytes as a bad event") {
+    val eventView = EventConverter.toEventView(ByteBuffer.wrap(Array[Byte](1, 2, 3)))
+
+    eventView.isInvalid shouldBe true
+    eventView.toEvent shouldBe Event.badEvent()
+  }
+}
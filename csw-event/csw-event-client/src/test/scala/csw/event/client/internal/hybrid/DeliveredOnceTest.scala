@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.hybrid
+
+import akka.NotUsed
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import akka.stream.BufferOverflowException
+import akka.stream.scaladsl.{Sink, Source}
+import csw.event.client.helpers.TestFutureExt.RichFuture
+import csw.params.core.models.Id
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+import scala.concurrent.duration.DurationInt
+
+class DeliveredOnceTest extends AnyFunSuite with Matchers with BeforeAndAfterAll {
+
+  private implicit val actorSystem: ActorSystem[SpawnProtocol.Command] = ActorSystem(SpawnProtocol(), "delivered-once")
+
+  override def afterAll(): Unit = {
+    actorSystem.terminate()
+    actorSystem.whenTerminated.await
+  }
+
+  // the streams of a subscription do not complete on their own
+  private def stream(ids: Int*): Source[Int, NotUsed]  = Source(ids.toList).concat(Source.never)
+  private def delayed(ids: Int*): Source[Int, NotUsed] = stream(ids: _*).initialDelay(300.millis)
+
+  // a local stream whose buffer overflows after the given events
+  private def overflowing(ids: Int*): Source[Int, NotUsed] =
+    Source(ids.toList).concat(Source.failed(BufferOverflowException("full")))
+
+  private def delivered(redis: Source[Int, NotUsed], local: Source[Int, NotUsed]): Seq[Int] =
+    DeliveredOnce(redis, local, maxPendingEchoes = 1024)(id => Id(id.toString)).takeWithin(1.second).runWith(Sink.seq).await
+
+  test("should drop the copies from redis of the events delivered locally") {
+    delivered(redis = delayed(1, 2, 3), local = stream(1, 2, 3)) shouldBe List(1, 2, 3)
+  }
+
+  test("should drop the local copies of the events delivered from redis") {
+    delivered(redis = stream(1, 2, 3), local = delayed(1, 2, 3)) shouldBe List(1, 2, 3)
+  }
+
+  test("should deliver the events of both streams once and in order when their copies interleave") {
+    delivered(redis = stream(1 to 50: _*), local = stream(1 to 50: _*)) shouldBe (1 to 50)
+  }
+
+  test("should deliver every copy of an event published more than once") {
+    delivered(redis = delayed(1, 1, 2), local = stream(1, 1, 2)) shouldBe List(1, 1, 2)
+  }
+
+  test("should deliver the events from redis only once the local buffer overflowed") {
+    delivered(redis = delayed(1, 2, 3, 4, 5), local = overflowing(1, 2)) shouldBe List(1, 2, 3, 4, 5)
+  }
+
+  test("should keep track of a bounded number of events waiting for their copy") {
+    val pendingEchoes = new PendingEchoes(maxSize = 2)
+
+    (1 to 3).map(id => pendingEchoes.deliverLocal(Id(id.toString))) shouldBe List(true, true, true)
+    // the oldest pending event was forgotten, hence its copy is delivered
+    List(3, 2, 1).map(id => pendingEchoes.deliverRemote(Id(id.toString))) shouldBe List(false, false, true)
+  }
+}
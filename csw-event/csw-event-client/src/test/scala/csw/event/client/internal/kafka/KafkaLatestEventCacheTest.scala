@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.kafka
+
+import java.util.Optional
+
+import com.typesafe.config.ConfigFactory
+import csw.event.client.helpers.TestFutureExt.RichFuture
+import csw.event.client.internal.commons.EventServiceExt.RichEventSubscriber
+import csw.event.client.helpers.Utils.{makeEventForPrefixAndKeyName, prefix}
+import csw.event.client.models.LatestEventCacheMetrics
+import csw.params.events.{Event, EventName}
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.Eventually
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+import scala.concurrent.duration.DurationInt
+
+class KafkaLatestEventCacheTest extends AnyFunSuite with Matchers with Eventually with BeforeAndAfterAll {
+
+  implicit val patience: PatienceConfig = PatienceConfig(10.seconds, 100.millis)
+
+  var kafkaTestProps: KafkaTestProps = _
+
+  override def beforeAll(): Unit = {
+    kafkaTestProps = KafkaTestProps.createKafkaProperties()
+    kafkaTestProps.start()
+  }
+
+  override def afterAll(): Unit = kafkaTestProps.shutdown()
+
+  test("get should fetch the latest events of new event keys and answer from the cache afterwards") {
+    import kafkaTestProps._
+
+    val subscriber = makeSubscriber(ConfigFactory.parseString("csw-event.kafka.subscriber.latest-event-cache = on"))
+
+    val published   = makeEventForPrefixAndKeyName(prefix, EventName("cached_published"), 1)
+    val unpublished = makeEventForPrefixAndKeyName(prefix, EventName("cached_unpublished"), 1)
+    publisher.publish(published).await
+
+    subscriber.get(Set(published.eventKey, unpublished.eventKey)).await shouldBe Set(
+      published,
+      Event.invalidEvent(unpublished.eventKey)
+    )
+    LatestEventCacheMetrics.of(subscriber) shouldBe Some(LatestEventCacheMetrics(2, 2, 0, 2))
+
+    subscriber.get(Set(published.eventKey, unpublished.eventKey)).await shouldBe Set(
+      published,
+      Event.invalidEvent(unpublished.eventKey)
+    )
+    LatestEventCacheMetrics.of(subscriber) shouldBe Some(LatestEventCacheMetrics(2, 2, 2, 2))
+  }
+
+  test("get should answer with the events published after an event key is followed") {
+    import kafkaTestProps._
+
+    val subscriber = makeSubscriber(ConfigFactory.parseString("csw-event.kafka.subscriber.latest-event-cache = on"))
+
+    val eventName = EventName("cached_updated")
+    val first     = makeEventForPrefixAndKeyName(prefix, eventName, 1)
+    val second    = makeEventForPrefixAndKeyName(prefix, eventName, 2)
+
+    subscriber.get(first.eventKey).await shouldBe Event.invalidEvent(first.eventKey)
+
+    publisher.publish(first).await
+    eventually(subscriber.get(first.eventKey).await shouldBe first)
+
+    publisher.publish(second).await
+    eventually(subscriber.get(first.eventKey).await shouldBe second)
+
+    // only the first get had to fetch the event from kafka
+    LatestEventCacheMetrics.of(subscriber).map(_.misses) shouldBe Some(1)
+  }
+
+  test("should read the metrics of the cache from the Scala and Java APIs") {
+    import kafkaTestProps._
+
+    val subscriber = makeSubscriber(ConfigFactory.parseString("csw-event.kafka.subscriber.latest-event-cache = on"))
+    val eventKey   = makeEventForPrefixAndKeyName(prefix, EventName("cached_metrics"), 1).eventKey
+    subscriber.get(eventKey).await
+
+    LatestEventCacheMetrics.of(subscriber).map(_.misses) shouldBe Some(1)
+    LatestEventCacheMetrics.jOf(subscriber.asJava).map(_.misses) shouldBe Optional.of(1L)
+    // the cache is off by default
+    LatestEventCacheMetrics.of(kafkaTestProps.subscriber) shouldBe None
+  }
+
+  test("should stop following the event keys once the subscriber is idle and fetch them again on the next get") {
+    import kafkaTestProps._
+
+    val subscriber = makeSubscriber(ConfigFactory.parseString("""
+        |csw-event.kafka.subscriber.latest-event-cache = on
+        |csw-event.kafka.subscriber.latest-event-cache-idle-timeout = 500 millis
+        |""".stripMargin))
+    val event = makeEventForPrefixAndKeyName(prefix, EventName("cached_idle"), 1)
+    publisher.publish(event).await
+
+    subscriber.get(event.eventKey).await shouldBe event
+    LatestEventCacheMetrics.of(subscriber) shouldBe Some(LatestEventCacheMetrics(1, 1, 0, 1))
+
+    eventually(LatestEventCacheMetrics.of(subscriber) shouldBe Some(LatestEventCacheMetrics(0, 0, 0, 1)))
+
+    subscriber.get(event.eventKey).await shouldBe event
+    LatestEventCacheMetrics.of(subscriber) shouldBe Some(LatestEventCacheMetrics(1, 1, 0, 2))
+  }
+}
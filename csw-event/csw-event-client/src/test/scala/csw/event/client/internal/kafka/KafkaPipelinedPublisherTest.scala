@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.kafka
+
+import akka.stream.scaladsl.{Keep, Sink, Source}
+import com.typesafe.config.ConfigFactory
+import csw.event.client.helpers.TestFutureExt.RichFuture
+import csw.event.client.helpers.Utils.{makeEventForPrefixAndKeyName, prefix}
+import csw.event.client.models.PublisherMetrics
+import csw.params.events.{Event, EventName}
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.Eventually
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+import scala.concurrent.Future
+import scala.concurrent.duration.DurationInt
+
+class KafkaPipelinedPublisherTest extends AnyFunSuite with Matchers with Eventually with BeforeAndAfterAll {
+
+  implicit val patience: PatienceConfig = PatienceConfig(10.seconds, 100.millis)
+
+  private val maxInFlight = 4
+
+  var kafkaTestProps: KafkaTestProps = _
+
+  override def beforeAll(): Unit = {
+    kafkaTestProps = KafkaTestProps.createKafkaProperties()
+    kafkaTestProps.start()
+  }
+
+  override def afterAll(): Unit = kafkaTestProps.shutdown()
+
+  private def makePipelinedPublisher(maxInFlight: Int = maxInFlight): KafkaPublisher =
+    kafkaTestProps.makePublisher(
+      ConfigFactory.parseString(s"csw-event.kafka.publisher { pipelining = on, max-in-flight = $maxInFlight }")
+    )
+
+  test("should keep the order of the events of every key") {
+    import kafkaTestProps._
+
+    val pipelinedPublisher = makePipelinedPublisher()
+    val eventNames         = List(EventName("pipelined_first"), EventName("pipelined_second"))
+    val events             = (1 to 100).map(id => makeEventForPrefixAndKeyName(prefix, eventNames(id % 2), id))
+
+    val (subscription, received) = subscriber
+      .subscribe(events.map(_.eventKey).toSet)
+      .filterNot(_.isInvalid)
+      .take(events.size)
+      .toMat(Sink.seq)(Keep.both)
+      .run()
+    subscription.ready().await
+
+    Future.sequence(events.map(pipelinedPublisher.publish)).await
+
+    received.await.groupBy(_.eventKey).map { case (key, keyEvents) => key -> keyEvents.map(_.eventId) } shouldBe
+      events.groupBy(_.eventKey).map { case (key, keyEvents) => key -> keyEvents.map(_.eventId) }
+    pipelinedPublisher.shutdown().await
+  }
+
+  test("should complete the future of a publish once its event is acknowledged") {
+    import kafkaTestProps._
+
+    val pipelinedPublisher = makePipelinedPublisher()
+    val events             = (1 to 50).map(id => makeEventForPrefixAndKeyName(prefix, EventName("pipelined_acknowledged"), id))
+
+    // the metrics are read when the future of every publish completes
+    val acknowledgedOnCompletion = events.map(event => pipelinedPublisher.publish(event).map(_ => pipelinedPublisher.metrics))
+    val metrics                  = Future.sequence(acknowledgedOnCompletion).await
+
+    metrics.foreach(_.acknowledged should be >= 1L)
+    metrics.map(_.acknowledged).max shouldBe events.size
+    subscriber.get(events.last.eventKey).await shouldBe events.last
+
+    PublisherMetrics.of(pipelinedPublisher) shouldBe Some(PublisherMetrics(0, events.size, 0))
+    pipelinedPublisher.shutdown().await
+  }
+
+  test("should not have more events in flight than max-in-flight") {
+    import kafkaTestProps._
+
+    val pipelinedPublisher = makePipelinedPublisher()
+    val events             = (1 to 500).map(id => makeEventForPrefixAndKeyName(prefix, EventName("pipelined_bounded"), id))
+
+    val published   = Future.sequence(events.map(pipelinedPublisher.publish))
+    var inFlightMax = 0L
+    while (!published.isCompleted) inFlightMax = math.max(inFlightMax, pipelinedPublisher.metrics.inFlight)
+    published.await
+
+    inFlightMax should be <= maxInFlight.toLong
+    pipelinedPublisher.metrics shouldBe PublisherMetrics(0, events.size, 0)
+    pipelinedPublisher.shutdown().await
+  }
+
+  test("should publish every event of sources published alongside single events") {
+    import kafkaTestProps._
+
+    // as many events in flight as the queue of single events holds
+    val pipelinedPublisher = makePipelinedPublisher(maxInFlight = 1024)
+    val events             = (1 to 3000).map(id => makeEventForPrefixAndKeyName(prefix, EventName("pipelined_sources"), id))
+    val (first, second)    = events.splitAt(1000)
+    val (single, third)    = second.splitAt(1000)
+
+    // each source keeps up to max-in-flight events in flight, without going through the queue of single events
+    pipelinedPublisher.publish(Source(first))
+    pipelinedPublisher.publish(Source(third))
+    Future.sequence(single.map(pipelinedPublisher.publish)).await
+
+    eventually(pipelinedPublisher.metrics shouldBe PublisherMetrics(0, events.size, 0))
+    pipelinedPublisher.shutdown().await
+  }
+
+  test("should read the metrics of the publishers of the event service") {
+    import kafkaTestProps._
+
+    publisher.publish(makeEventForPrefixAndKeyName(prefix, EventName("pipelined_metrics"), 1)).await
+
+    PublisherMetrics.of(publisher).map(_.acknowledged).exists(_ >= 1) shouldBe true
+    PublisherMetrics.jOf(jPublisher).isPresent shouldBe true
+  }
+}
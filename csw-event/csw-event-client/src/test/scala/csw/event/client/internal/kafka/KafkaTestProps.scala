@@ -5,14 +5,18 @@
 
 package csw.event.client.internal.kafka
 
+import java.util.UUID
+
 import akka.Done
 import akka.actor.typed.{ActorSystem, SpawnProtocol}
 import akka.actor.typed.scaladsl.adapter.TypedActorSystemOps
-import akka.kafka.ProducerSettings
+import akka.kafka.{ConsumerSettings, ProducerSettings}
+import com.typesafe.config.Config
 import csw.event.api.javadsl.{IEventPublisher, IEventService, IEventSubscriber}
 import csw.event.api.scaladsl.{EventPublisher, EventService, EventSubscriber}
 import csw.event.client.EventServiceFactory
 import csw.event.client.helpers.TestFutureExt.RichFuture
+import csw.event.client.internal.commons.Settings
 import csw.event.client.internal.wiring.BaseProperties
 import csw.event.client.internal.wiring.BaseProperties.createInfra
 import csw.event.client.models.EventStores.KafkaStore
@@ -54,6 +58,21 @@ class KafkaTestProps(
   override val jPublisher: IEventPublisher   = jEventService.defaultPublisher
   override val jSubscriber: IEventSubscriber = jEventService.defaultSubscriber
 
+  // a publisher with settings of its own, falling back to the settings of the actor system
+  def makePublisher(config: Config): KafkaPublisher = {
+    val producerSettings = ProducerSettings[String, Array[Byte]](actorSystem.toClassic, None, None)
+      .withBootstrapServers(s"${Networks().hostname}:$kafkaPort")
+    new KafkaPublisher(Future.successful(producerSettings), new Settings(config.withFallback(actorSystem.settings.config)))
+  }
+
+  // a subscriber with settings of its own, falling back to the settings of the actor system
+  def makeSubscriber(config: Config): KafkaSubscriber = {
+    val consumerSettings = ConsumerSettings[String, Array[Byte]](actorSystem.toClassic, None, None)
+      .withBootstrapServers(s"${Networks().hostname}:$kafkaPort")
+      .withGroupId(UUID.randomUUID().toString)
+    new KafkaSubscriber(Future.successful(consumerSettings), new Settings(config.withFallback(actorSystem.settings.config)))
+  }
+
   override def toString: String = "Kafka"
 
   override val eventPattern: String = ".*sys.*"
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.event.client.internal.redis
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import akka.stream.scaladsl.{Keep, Sink}
+import csw.commons.redis.EmbeddedRedis
+import csw.event.client.helpers.TestFutureExt.RichFuture
+import csw.network.utils.SocketUtils.getFreePort
+import io.lettuce.core.api.sync.RedisCommands
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection
+import io.lettuce.core.{RedisClient, RedisURI}
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.Eventually
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+import reactor.core.publisher.FluxSink.OverflowStrategy
+import redis.embedded.RedisServer
+import romaine.codec.RomaineRedisCodec
+import romaine.reactive.RedisSharedSubscriptionApi
+
+import scala.compat.java8.FutureConverters.CompletionStageOps
+import scala.concurrent.duration.DurationInt
+import scala.concurrent.{ExecutionContext, Future}
+import scala.jdk.CollectionConverters.{CollectionHasAsScala, MapHasAsScala}
+
+class RedisSharedSubscriptionApiTest extends AnyFunSuite with Matchers with Eventually with BeforeAndAfterAll with EmbeddedRedis {
+
+  private implicit val actorSystem: ActorSystem[SpawnProtocol.Command] = ActorSystem(SpawnProtocol(), "shared-subscription")
+  private implicit val ec: ExecutionContext                            = actorSystem.executionContext
+  implicit val patience: PatienceConfig                                = PatienceConfig(5.seconds, 50.millis)
+
+  private val redisPort                               = getFreePort
+  private val redisServer: RedisServer                = startRedis(redisPort)
+  private val redisURI: RedisURI                      = RedisURI.create("localhost", redisPort)
+  private val redisClient: RedisClient                = RedisClient.create()
+  private val commands: RedisCommands[String, String] = redisClient.connect(redisURI).sync()
+
+  override def afterAll(): Unit = {
+    redisClient.shutdown()
+    stopRedis(redisServer)
+    actorSystem.terminate()
+    actorSystem.whenTerminated.await
+  }
+
+  private def connect(): Future[StatefulRedisPubSubConnection[String, String]] =
+    redisClient.connectPubSubAsync(new RomaineRedisCodec[String, String], redisURI).toScala
+
+  private def numberOfSubscriptions(channel: String): Long = commands.pubsubNumsub(channel).asScala(channel).longValue()
+
+  test("should hand every message only to the subscriptions of its channel") {
+    val sharedSubscriptionApi = new RedisSharedSubscriptionApi[String, String](() => connect())
+
+    def subscribe(channel: String, messages: Int) =
+      sharedSubscriptionApi
+        .subscribe(List(channel), OverflowStrategy.LATEST)
+        .map(_.value)
+        .take(messages.toLong)
+        .toMat(Sink.seq)(Keep.both)
+        .run()
+
+    val (subscription1, messages1F) = subscribe("fan-out-a", 2)
+    val (subscription2, messages2F) = subscribe("fan-out-a", 2)
+    val (subscription3, messages3F) = subscribe("fan-out-b", 1)
+    Seq(subscription1, subscription2, subscription3).foreach(_.ready().await)
+
+    commands.publish("fan-out-a", "a1")
+    commands.publish("fan-out-b", "b1")
+    commands.publish("fan-out-a", "a2")
+
+    messages1F.await shouldBe Seq("a1", "a2")
+    messages2F.await shouldBe Seq("a1", "a2")
+    messages3F.await shouldBe Seq("b1")
+  }
+
+  test("should subscribe a channel on redis once and unsubscribe it when its last subscription leaves") {
+    val sharedSubscriptionApi = new RedisSharedSubscriptionApi[String, String](() => connect())
+    val channel               = "ref-counted"
+
+    val received = new ConcurrentLinkedQueue[String]()
+
+    val subscription1 = sharedSubscriptionApi.subscribe(List(channel), OverflowStrategy.LATEST).to(Sink.ignore).run()
+    val subscription2 =
+      sharedSubscriptionApi.subscribe(List(channel), OverflowStrategy.LATEST).to(Sink.foreach(r => received.add(r.value))).run()
+    subscription1.ready().await
+    subscription2.ready().await
+    numberOfSubscriptions(channel) shouldBe 1
+
+    subscription1.unsubscribe().await
+    numberOfSubscriptions(channel) shouldBe 1
+    commands.publish(channel, "after first left")
+    eventually(received.asScala.toList shouldBe List("after first left"))
+
+    subscription2.unsubscribe().await
+    numberOfSubscriptions(channel) shouldBe 0
+  }
+
+  test("should subscribe a channel again for new subscriptions after its subscribe has failed") {
+    val attempts = new AtomicInteger()
+    // the first connection attempt fails, the next ones connect to redis
+    val sharedSubscriptionApi = new RedisSharedSubscriptionApi[String, String](() =>
+      if (attempts.getAndIncrement() == 0) Future.failed(new RuntimeException("redis is not available")) else connect()
+    )
+    val channel = "failed-subscribe"
+
+    val (failedSubscription, failedMessagesF) =
+      sharedSubscriptionApi.subscribe(List(channel), OverflowStrategy.LATEST).toMat(Sink.ignore)(Keep.both).run()
+    intercept[RuntimeException](failedSubscription.ready().await).getMessage shouldBe "redis is not available"
+    intercept[RuntimeException](failedMessagesF.await)
+
+    val (subscription, messagesF) = sharedSubscriptionApi
+      .subscribe(List(channel), OverflowStrategy.LATEST)
+      .map(_.value)
+      .take(1)
+      .toMat(Sink.seq)(Keep.both)
+      .run()
+    subscription.ready().await
+    commands.publish(channel, "subscribed again")
+
+    messagesF.await shouldBe Seq("subscribed again")
+  }
+
+  test("should close the connection once nothing is subscribed and open it again for the next subscription") {
+    val connections = new ConcurrentLinkedQueue[StatefulRedisPubSubConnection[String, String]]()
+    val sharedSubscriptionApi = new RedisSharedSubscriptionApi[String, String](() =>
+      connect().map { connection =>
+        connections.add(connection)
+        connection
+      }
+    )
+    val channel = "closed-when-idle"
+
+    val subscription1 = sharedSubscriptionApi.subscribe(List(channel), OverflowStrategy.LATEST).to(Sink.ignore).run()
+    val subscription2 =
+      sharedSubscriptionApi.psubscribe(List("closed-when-idle-*"), OverflowStrategy.LATEST).to(Sink.ignore).run()
+    subscription1.ready().await
+    subscription2.ready().await
+    connections.size shouldBe 1
+
+    // the pattern is still subscribed
+    subscription1.unsubscribe().await
+    connections.peek().isOpen shouldBe true
+
+    subscription2.unsubscribe().await
+    eventually(connections.peek().isOpen shouldBe false)
+
+    val (subscription3, messagesF) = sharedSubscriptionApi
+      .subscribe(List(channel), OverflowStrategy.LATEST)
+      .map(_.value)
+      .take(1)
+      .toMat(Sink.seq)(Keep.both)
+      .run()
+    subscription3.ready().await
+    connections.size shouldBe 2
+    commands.publish(channel, "subscribed on a new connection")
+
+    messagesF.await shouldBe Seq("subscribed on a new connection")
+  }
+}
@@ -7,16 +7,17 @@ package csw.event.client.internal.redis
 
 import akka.Done
 import akka.actor.typed.{ActorSystem, SpawnProtocol}
-import com.typesafe.config.ConfigFactory
+import com.typesafe.config.{Config, ConfigFactory}
 import csw.commons.redis.EmbeddedRedis
 import csw.event.api.javadsl.{IEventPublisher, IEventService, IEventSubscriber}
 import csw.event.api.scaladsl._
 import csw.event.client.EventServiceFactory
 import csw.event.client.helpers.TestFutureExt.RichFuture
+import csw.event.client.internal.commons.Settings
 import csw.event.client.internal.commons.javawrappers.JEventService
 import csw.event.client.internal.wiring.BaseProperties
 import csw.event.client.internal.wiring.BaseProperties.createInfra
-import csw.event.client.models.EventStores.RedisStore
+import csw.event.client.models.EventStores.{HybridStore, RedisStore}
 import csw.location.api.scaladsl.LocationService
 import csw.location.server.http.HTTPLocationServiceOnPorts
 import csw.network.utils.SocketUtils.getFreePort
@@ -56,6 +57,19 @@ class RedisTestProps(
   lazy val publisher: EventPublisher   = eventService.defaultPublisher
   lazy val subscriber: EventSubscriber = eventService.defaultSubscriber
 
+  // a publisher with settings of its own, falling back to the settings of the actor system
+  def makePublisher(config: Config): EventPublisher =
+    new RedisPublisher(Future.successful(redisURI), redisClient, new Settings(config.withFallback(actorSystem.settings.config)))
+
+  // a subscriber with settings of its own, falling back to the settings of the actor system
+  def makeSubscriber(config: Config): EventSubscriber =
+    new RedisSubscriber(Future.successful(redisURI), redisClient, new Settings(config.withFallback(actorSystem.settings.config)))
+
+  // event services of one factory deliver the events published through any of them to each other's subscriptions directly
+  private lazy val hybridEventServiceFactory = new EventServiceFactory(HybridStore(redisClient))
+
+  def makeHybridEventService(): EventService = hybridEventServiceFactory.make(locationService)
+
   override def toString: String = name
 
   override lazy val jPublisher: IEventPublisher = jEventService.defaultPublisher
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.framework.internal.container
+
+import akka.Done
+import akka.actor.typed.ActorSystem
+import akka.stream.scaladsl.Source
+import csw.location.api.models._
+import csw.location.api.scaladsl.{LocationService, RegistrationResult}
+import msocket.api.Subscription
+
+import scala.concurrent.duration.{DurationInt, FiniteDuration}
+import scala.concurrent.{Future, Promise}
+import scala.util.{Failure, Success}
+
+/**
+ * The location service used by the components of a container. The registrations made within `window` of each other, like
+ * the ones of components which finish initializing together at startup, are registered together with `registerAll`.
+ *
+ * If registering a batch fails, every registration of the batch is registered on its own, so that each caller gets the
+ * same result it would have got without batching.
+ *
+ * @param locationService the location service the registrations are made with
+ * @param window time for which a registration waits for others to be registered with
+ */
+private[framework] class BatchingLocationService(locationService: LocationService, window: FiniteDuration)(implicit
+    actorSystem: ActorSystem[_]
+) extends LocationService {
+  import actorSystem.executionContext
+
+  // registrations waiting for the batch to be flushed, newest first
+  private var pending: List[(Registration, Promise[RegistrationResult])] = Nil
+
+  override def register(registration: Registration): Future[RegistrationResult] = {
+    val promise = Promise[RegistrationResult]()
+    val first = synchronized {
+      pending ::= (registration -> promise)
+      pending.size == 1
+    }
+    if (first) actorSystem.scheduler.scheduleOnce(window, () => flush())
+    promise.future
+  }
+
+  override def registerAll(registrations: Seq[Registration]): Future[List[RegistrationResult]] =
+    locationService.registerAll(registrations)
+
+  override def unregister(connection: Connection): Future[Done] = locationService.unregister(connection)
+
+  override def unregisterAll(connections: Seq[Connection]): Future[Done] = locationService.unregisterAll(connections)
+
+  override def unregisterAll(): Future[Done] = locationService.unregisterAll()
+
+  override def find[L <: Location](connection: TypedConnection[L]): Future[Option[L]] = locationService.find(connection)
+
+  override def resolve[L <: Location](connection: TypedConnection[L], within: FiniteDuration): Future[Option[L]] =
+    locationService.resolve(connection, within)
+
+  override def list: Future[List[Location]] = locationService.list
+
+  override def list(componentType: ComponentType): Future[List[Location]] = locationService.list(componentType)
+
+  override def list(hostname: String): Future[List[Location]] = locationService.list(hostname)
+
+  override def list(connectionType: ConnectionType): Future[List[Location]] = locationService.list(connectionType)
+
+  override def listByPrefix(prefix: String): Future[List[Location]] = locationService.listByPrefix(prefix)
+
+  override def track(connection: Connection): Source[TrackingEvent, Subscription] = locationService.track(connection)
+
+  override def subscribe(connection: Connection, callback: TrackingEvent => Unit): Subscription =
+    locationService.subscribe(connection, callback)
+
+  private def flush(): Unit = {
+    val batch = synchronized {
+      val batch = pending.reverse
+      pending = Nil
+      batch
+    }
+    batch match {
+      case List((registration, promise)) => promise.completeWith(locationService.register(registration))
+      case _ =>
+        locationService.registerAll(batch.map(_._1)).onComplete {
+          case Success(results) => batch.zip(results).foreach { case ((_, promise), result) => promise.success(result) }
+          case Failure(_) =>
+            batch.foreach { case (registration, promise) => promise.completeWith(locationService.register(registration)) }
+        }
+    }
+  }
+}
+
+private[framework] object BatchingLocationService {
+
+  /**
+   * Time for which a registration of a component waits for the registrations of other components of the container
+   */
+  val BatchWindow: FiniteDuration = 50.millis
+}
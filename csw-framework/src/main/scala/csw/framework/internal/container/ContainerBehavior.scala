@@ -20,7 +20,7 @@ import csw.framework.internal.supervisor.SupervisorInfoFactory
 import csw.framework.models._
 import csw.framework.scaladsl.RegistrationFactory
 import csw.location.api.models.Connection.AkkaConnection
-import csw.location.api.models.{AkkaRegistration, ComponentId, ComponentType, Metadata}
+import csw.location.api.models.{AkkaRegistration, ComponentId, ComponentType, Connection, Metadata}
 import csw.location.api.scaladsl.LocationService
 import csw.logging.api.scaladsl.Logger
 import csw.logging.client.scaladsl.LoggerFactory
@@ -61,6 +61,10 @@ private[framework] final class ContainerBehavior(
   private val akkaRegistration: AkkaRegistration =
     registrationFactory.akkaTyped(akkaConnection, ctx.self, locationMetadata)
 
+  // components registering together, e.g. at startup, are registered with a single update of the location service
+  private val componentLocationService =
+    new BatchingLocationService(locationService, BatchingLocationService.BatchWindow)(ctx.system)
+
   // Set of successfully created supervisors for components
   var supervisors: Set[SupervisorInfo] = Set.empty
 
@@ -107,8 +111,8 @@ private[framework] final class ContainerBehavior(
       }
       this
     case PostStop =>
-      log.warn(s"Un-registering container from location service")
-      locationService.unregister(akkaConnection)
+      log.warn(s"Un-registering container and its components from location service")
+      locationService.unregisterAll(akkaConnection :: componentConnections)
       supervisors.foreach(_.component.supervisor ! Shutdown)
       this
   }
@@ -169,7 +173,8 @@ private[framework] final class ContainerBehavior(
     log.info(s"Container is creating following components :[${componentInfos.map(_.prefix.toString).mkString(", ")}]")
     Future
       .traverse(componentInfos) { ci =>
-        supervisorInfoFactory.make(ctx.self, ci, locationService, eventServiceFactory, alarmServiceFactory, registrationFactory)
+        supervisorInfoFactory
+          .make(ctx.self, ci, componentLocationService, eventServiceFactory, alarmServiceFactory, registrationFactory)
       }
       .foreach(infos => {
         val infosWithRemoteRefs = infos.flatten(_.map(treatSupervisorRefAsRemote))
@@ -200,6 +205,13 @@ private[framework] final class ContainerBehavior(
     }
   }
 
+  // connections of the components which register with the location service, unregistering the akka connection of a component
+  // unregisters its http connection as well
+  private def componentConnections: List[Connection] =
+    containerInfo.components.toList
+      .filterNot(_.locationServiceUsage == LocationServiceUsage.DoNotRegister)
+      .map(ci => AkkaConnection(ComponentId(ci.prefix, ci.componentType)))
+
   private def registerWithLocationService(): Unit = {
     log.debug(
       s"Container with connection :[${akkaRegistration.connection.name}] is registering with location service with ref :[${akkaRegistration.actorRefURI}]"
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.framework.internal.container
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import csw.location.api.exceptions.OtherLocationIsRegistered
+import csw.location.api.models.Connection.TcpConnection
+import csw.location.api.models.{ComponentId, ComponentType, TcpRegistration}
+import csw.location.api.scaladsl.{LocationService, RegistrationResult}
+import csw.location.client.ActorSystemFactory
+import csw.prefix.models.{Prefix, Subsystem}
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.{never, verify, when}
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.mockito.MockitoSugar
+
+import scala.concurrent.Future
+import scala.concurrent.duration.DurationInt
+
+class BatchingLocationServiceTest extends AnyFunSuite with Matchers with MockitoSugar with ScalaFutures with BeforeAndAfterAll {
+  implicit val typedSystem: ActorSystem[SpawnProtocol.Command] = ActorSystemFactory.remote(SpawnProtocol(), "test")
+
+  implicit override val patienceConfig: PatienceConfig = PatienceConfig(5.seconds, 50.millis)
+
+  override protected def afterAll(): Unit = typedSystem.terminate()
+
+  private def registration(name: String) =
+    TcpRegistration(TcpConnection(ComponentId(Prefix(Subsystem.CSW, name), ComponentType.Service)), 1234)
+
+  test("should register the registrations made within the window together") {
+    val locationService = mock[LocationService]
+    val results         = List(mock[RegistrationResult], mock[RegistrationResult])
+    val registrations   = List(registration("redis1"), registration("redis2"))
+    when(locationService.registerAll(registrations)).thenReturn(Future.successful(results))
+
+    val batching = new BatchingLocationService(locationService, 200.millis)
+    val futures  = registrations.map(batching.register)
+
+    futures.map(_.futureValue) shouldBe results
+    verify(locationService, never()).register(any[TcpRegistration])
+  }
+
+  test("should register every registration of a batch on its own when registering the batch fails") {
+    val locationService = mock[LocationService]
+    val result          = mock[RegistrationResult]
+    val failure         = OtherLocationIsRegistered("redis2 is registered")
+    val registrations   = List(registration("redis1"), registration("redis2"))
+    when(locationService.registerAll(registrations)).thenReturn(Future.failed(failure))
+    when(locationService.register(registrations.head)).thenReturn(Future.successful(result))
+    when(locationService.register(registrations(1))).thenReturn(Future.failed(failure))
+
+    val batching = new BatchingLocationService(locationService, 200.millis)
+    val futures  = registrations.map(batching.register)
+
+    futures.head.futureValue shouldBe result
+    futures(1).failed.futureValue shouldBe failure
+  }
+}
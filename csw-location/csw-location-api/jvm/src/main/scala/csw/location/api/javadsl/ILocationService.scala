@@ -31,6 +31,17 @@ trait ILocationService {
    */
   def register(registration: Registration): CompletableFuture[IRegistrationResult]
 
+  /**
+   * Registers all the given connections to locations together
+   *
+   * Note that either all registrations succeed or none of them is left registered
+   *
+   * @param registrations the Registrations holding connections and their corresponding locations to register with `LocationService`
+   * @return a CompletableFuture which completes with Registration results in the order of the given registrations or can fail with
+   *         [[csw.location.api.exceptions.RegistrationFailed]] or [[csw.location.api.exceptions.OtherLocationIsRegistered]]
+   */
+  def registerAll(registrations: ju.List[Registration]): CompletableFuture[ju.List[IRegistrationResult]]
+
   /**
    * Unregisters the connection
    *
@@ -43,6 +54,17 @@ trait ILocationService {
    */
   def unregister(connection: Connection): CompletableFuture[Done]
 
+  /**
+   * Unregisters all the given connections together
+   *
+   * Note that this method is idempotent, like `unregister`
+   *
+   * @param connections already registered connections
+   * @return a CompletableFuture which completes after un-registration happens successfully and fails otherwise with
+   *         [[csw.location.api.exceptions.UnregistrationFailed]]
+   */
+  def unregisterAll(connections: ju.List[Connection]): CompletableFuture[Done]
+
   /**
    * Unregisters all connections registered
    *
@@ -38,9 +38,18 @@ class LocationServiceClient(
       .map(RegistrationResult.from(_, unregister))
   }
 
+  override def registerAll(registrations: Seq[Registration]): Future[List[RegistrationResult]] = {
+    httpTransport
+      .requestResponse[List[Location]](RegisterAll(registrations.map(_.withCswVersion(cswVersion.get)).toList))
+      .map(_.map(RegistrationResult.from(_, unregister)))
+  }
+
   override def unregister(connection: Connection): Future[Done] =
     httpTransport.requestResponse[Done](Unregister(connection))
 
+  override def unregisterAll(connections: Seq[Connection]): Future[Done] =
+    httpTransport.requestResponse[Done](UnregisterConnections(connections.toList))
+
   override def unregisterAll(): Future[Done] =
     httpTransport.requestResponse[Done](UnregisterAll)
 
@@ -13,7 +13,9 @@ sealed trait LocationRequest
 
 object LocationRequest {
   case class Register(registration: Registration)                                   extends LocationRequest
+  case class RegisterAll(registrations: List[Registration])                         extends LocationRequest
   case class Unregister(connection: Connection)                                     extends LocationRequest
+  case class UnregisterConnections(connections: List[Connection])                   extends LocationRequest
   case object UnregisterAll                                                         extends LocationRequest
   case class Find(connection: TypedConnection[Location])                            extends LocationRequest
   case class Resolve(connection: TypedConnection[Location], within: FiniteDuration) extends LocationRequest
@@ -27,6 +27,17 @@ trait LocationService {
    */
   def register(registration: Registration): Future[RegistrationResult]
 
+  /**
+   * Registers all the given connection -> location entries together
+   *
+   * @note either all registrations succeed or none of them is left registered, except for connections which were already
+   *       registered with the same location before. A connection can only be given once.
+   * @param registrations the Registrations holding connections and their corresponding locations to register with `LocationService`
+   * @return a future which completes with the Registration results in the order of the given registrations or can fail with
+   *         [[csw.location.api.exceptions.RegistrationFailed]] or [[csw.location.api.exceptions.OtherLocationIsRegistered]]
+   */
+  def registerAll(registrations: Seq[Registration]): Future[List[RegistrationResult]]
+
   /**
    * Unregisters the connection
    *
@@ -38,6 +49,16 @@ trait LocationService {
    */
   def unregister(connection: Connection): Future[Done]
 
+  /**
+   * Unregisters all the given connections together
+   *
+   * @note this method is idempotent, like `unregister`
+   * @param connections already registered connections
+   * @return a future which completes after un-registration happens successfully and fails otherwise with
+   *         [[csw.location.api.exceptions.UnregistrationFailed]]
+   */
+  def unregisterAll(connections: Seq[Connection]): Future[Done]
+
   /**
    * Unregisters all connections
    *
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.location.client.internal
+
+import java.util
+import java.util.concurrent.atomic.LongAdder
+
+import akka.Done
+import akka.actor.typed.ActorSystem
+import akka.stream.scaladsl.{Keep, Sink, Source}
+import csw.location.api.models.*
+import csw.location.api.scaladsl.{LocationService, RegistrationResult}
+import csw.location.client.internal.CachingLocationService.CacheMetrics
+import msocket.api.Subscription
+
+import scala.concurrent.Future
+import scala.concurrent.duration.FiniteDuration
+
+/**
+ * A location service which keeps the locations found and resolved through the given location service in a bounded
+ * cache, so that resolving the same connection again does not need a round trip to the location server.
+ *
+ * Every cached connection is tracked with a single `track` stream, which keeps the cached location up to date and
+ * removes it from the cache when the location is removed or the stream ends. A connection which is not in the cache is
+ * looked up through the given location service. When the cache is full, the least recently used connection is evicted
+ * and its stream is cancelled.
+ *
+ * @param locationService the location service the locations are looked up and tracked with
+ * @param maxSize maximum number of cached connections
+ */
+class CachingLocationService(locationService: LocationService, maxSize: Int)(implicit actorSystem: ActorSystem[_])
+    extends LocationService {
+  import actorSystem.executionContext
+
+  private final class Entry(@volatile var location: Location) {
+    @volatile var subscription: Subscription = _
+  }
+
+  // access ordered, all access is synchronized on the map
+  private val entries = new util.LinkedHashMap[Connection, Entry](16, 0.75f, true) {
+    override def removeEldestEntry(eldest: util.Map.Entry[Connection, Entry]): Boolean = {
+      val full = size() > maxSize
+      if (full) cancel(eldest.getValue)
+      full
+    }
+  }
+
+  private val hits          = new LongAdder
+  private val misses        = new LongAdder
+  private val invalidations = new LongAdder
+
+  override def register(registration: Registration): Future[RegistrationResult] = locationService.register(registration)
+
+  override def registerAll(registrations: Seq[Registration]): Future[List[RegistrationResult]] =
+    locationService.registerAll(registrations)
+
+  override def unregister(connection: Connection): Future[Done] = {
+    invalidate(connection)
+    locationService.unregister(connection)
+  }
+
+  override def unregisterAll(connections: Seq[Connection]): Future[Done] = {
+    connections.foreach(invalidate)
+    locationService.unregisterAll(connections)
+  }
+
+  override def unregisterAll(): Future[Done] = {
+    invalidateAll()
+    locationService.unregisterAll()
+  }
+
+  override def find[L <: Location](connection: TypedConnection[L]): Future[Option[L]] =
+    cached(connection).getOrElse(locationService.find(connection).map(cache(connection, _)))
+
+  override def resolve[L <: Location](connection: TypedConnection[L], within: FiniteDuration): Future[Option[L]] =
+    cached(connection).getOrElse(locationService.resolve(connection, within).map(cache(connection, _)))
+
+  override def list: Future[List[Location]] = locationService.list
+
+  override def list(componentType: ComponentType): Future[List[Location]] = locationService.list(componentType)
+
+  override def list(hostname: String): Future[List[Location]] = locationService.list(hostname)
+
+  override def list(connectionType: ConnectionType): Future[List[Location]] = locationService.list(connectionType)
+
+  override def listByPrefix(prefix: String): Future[List[Location]] = locationService.listByPrefix(prefix)
+
+  override def track(connection: Connection): Source[TrackingEvent, Subscription] = locationService.track(connection)
+
+  override def subscribe(connection: Connection, callback: TrackingEvent => Unit): Subscription =
+    locationService.subscribe(connection, callback)
+
+  def metrics: CacheMetrics =
+    CacheMetrics(hits.sum(), misses.sum(), invalidations.sum(), entries.synchronized(entries.size()))
+
+  private def cached[L <: Location](connection: TypedConnection[L]): Option[Future[Option[L]]] = {
+    val entry = entries.synchronized(entries.get(connection))
+    if (entry == null) {
+      misses.increment()
+      None
+    }
+    else {
+      hits.increment()
+      Some(Future.successful(Some(entry.location.asInstanceOf[L])))
+    }
+  }
+
+  private def cache[L <: Location](connection: Connection, maybeLocation: Option[L]): Option[L] = {
+    maybeLocation.foreach { location =>
+      val entry = new Entry(location)
+      val previous = entries.synchronized {
+        val previous = entries.get(connection)
+        if (previous == null) entries.put(connection, entry)
+        previous
+      }
+      // a concurrent lookup of the same connection already cached it
+      if (previous == null) startTracking(connection, entry)
+    }
+    maybeLocation
+  }
+
+  private def startTracking(connection: Connection, entry: Entry): Unit = {
+    val (subscription, done) = locationService
+      .track(connection)
+      .toMat(Sink.foreach[TrackingEvent] {
+        case LocationUpdated(location) => entry.location = location
+        case LocationRemoved(_)        => remove(connection, entry)
+      })(Keep.both)
+      .run()
+    entry.subscription = subscription
+    // the entry could have been evicted before its subscription was set
+    if (!isCached(connection, entry)) subscription.cancel()
+    done.onComplete(_ => remove(connection, entry))
+  }
+
+  private def isCached(connection: Connection, entry: Entry): Boolean = entries.synchronized(entries.get(connection) eq entry)
+
+  // removes the entry unless it was already replaced
+  private def remove(connection: Connection, entry: Entry): Unit = {
+    val removed = entries.synchronized(entries.remove(connection, entry))
+    if (removed) {
+      invalidations.increment()
+      cancel(entry)
+    }
+  }
+
+  private def invalidate(connection: Connection): Unit = {
+    val entry = entries.synchronized(entries.remove(connection))
+    if (entry != null) {
+      invalidations.increment()
+      cancel(entry)
+    }
+  }
+
+  private def invalidateAll(): Unit = {
+    val all = entries.synchronized {
+      val all = new util.ArrayList[Entry](entries.values())
+      entries.clear()
+      all
+    }
+    all.forEach(entry => cancel(entry))
+  }
+
+  private def cancel(entry: Entry): Unit = if (entry.subscription != null) entry.subscription.cancel()
+}
+
+object CachingLocationService {
+
+  /**
+   * @param hits number of finds and resolves answered from the cache
+   * @param misses number of finds and resolves which went to the location server
+   * @param invalidations number of cached connections removed because their location was removed, their stream ended
+   *                      or they were unregistered
+   * @param size number of cached connections
+   */
+  case class CacheMetrics(hits: Long, misses: Long, invalidations: Long, size: Int)
+}
@@ -30,9 +30,15 @@ private[location] class JLocationServiceImpl(locationService: LocationService)(i
   override def register(registration: Registration): CompletableFuture[IRegistrationResult] =
     locationService.register(registration).map(registrationResult).toJava.toCompletableFuture
 
+  override def registerAll(registrations: util.List[Registration]): CompletableFuture[util.List[IRegistrationResult]] =
+    locationService.registerAll(registrations.asScala.toList).map(_.map(registrationResult).asJava).toJava.toCompletableFuture
+
   override def unregister(connection: Connection): CompletableFuture[Done] =
     locationService.unregister(connection).toJava.toCompletableFuture
 
+  override def unregisterAll(connections: util.List[Connection]): CompletableFuture[Done] =
+    locationService.unregisterAll(connections.asScala.toList).toJava.toCompletableFuture
+
   override def unregisterAll(): CompletableFuture[Done] =
     locationService.unregisterAll().toJava.toCompletableFuture
 
@@ -9,6 +9,7 @@ import com.typesafe.config.{Config, ConfigFactory}
 class Settings(config: Config) {
   private val locationConfig = config.getConfig("csw-location-client")
   val serverPort: Int        = locationConfig.getInt("server-http-port")
+  val cacheSize: Int         = locationConfig.getInt("cache-size")
 }
 
 object Settings {
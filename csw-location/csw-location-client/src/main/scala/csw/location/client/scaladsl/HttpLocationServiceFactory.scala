@@ -11,9 +11,8 @@ import csw.location.api.client.LocationServiceClient
 import csw.location.api.codec.LocationServiceCodecs
 import csw.location.api.messages.{LocationRequest, LocationStreamRequest}
 import csw.location.api.scaladsl.LocationService
-import csw.location.client.internal.Settings
-import msocket.api.ContentType.Json
-import msocket.api.Transport
+import csw.location.client.internal.{CachingLocationService, Settings}
+import msocket.api.{ContentType, Transport}
 import msocket.http.post.HttpPostTransport
 import msocket.http.ws.WebsocketTransport
 
@@ -22,6 +21,7 @@ import msocket.http.ws.WebsocketTransport
  */
 object HttpLocationServiceFactory extends LocationServiceCodecs {
   private val httpServerPort = Settings().serverPort
+  private val cacheSize      = Settings().cacheSize
 
   /**
    * Use this factory method to create http location client when location server is running locally.
@@ -32,20 +32,43 @@ object HttpLocationServiceFactory extends LocationServiceCodecs {
   /**
    * Use this factory method to create http location client when location server ip is known.
    * HTTP Location server runs on port 7654.
+   *
+   * Requests, responses and tracking events are encoded as CBOR by default. The location server answers in the content
+   * type of each request, so browser clients keep using JSON.
    */
-  private[csw] def make(serverIp: String, port: Int, tokenFactory: () => Option[String] = () => None)(implicit
-      actorSystem: ActorSystem[_]
-  ): LocationService = {
+  private[csw] def make(
+      serverIp: String,
+      port: Int,
+      tokenFactory: () => Option[String] = () => None,
+      contentType: ContentType = ContentType.Cbor
+  )(implicit actorSystem: ActorSystem[_]): LocationService = {
 
     val httpUri      = s"http://$serverIp:$port/post-endpoint"
     val websocketUri = s"ws://$serverIp:$port/websocket-endpoint"
     val httpTransport: Transport[LocationRequest] =
-      new HttpPostTransport[LocationRequest](httpUri, Json, tokenFactory)
+      new HttpPostTransport[LocationRequest](httpUri, contentType, tokenFactory)
     val websocketTransport: Transport[LocationStreamRequest] =
-      new WebsocketTransport[LocationStreamRequest](websocketUri, Json)
+      new WebsocketTransport[LocationStreamRequest](websocketUri, contentType)
     new LocationServiceClient(httpTransport, websocketTransport, new CswVersionJvm())
   }
 
   private[csw] def make(serverIp: String)(implicit actorSystem: ActorSystem[_]): LocationService =
     make(serverIp, httpServerPort)
+
+  /**
+   * Use this factory method to create http location client which caches found and resolved locations, when location
+   * server is running locally. A cached location is kept up to date by tracking it over a websocket connection.
+   * HTTP Location server runs on port 7654.
+   */
+  def makeCachingLocalClient(implicit actorSystem: ActorSystem[_]): CachingLocationService = makeCaching("localhost")
+
+  /**
+   * Use this factory method to create http location client which caches found and resolved locations, when location
+   * server ip is known.
+   * HTTP Location server runs on port 7654.
+   */
+  private[csw] def makeCaching(serverIp: String, port: Int = httpServerPort, maxSize: Int = cacheSize)(implicit
+      actorSystem: ActorSystem[_]
+  ): CachingLocationService =
+    new CachingLocationService(make(serverIp, port), maxSize)
 }
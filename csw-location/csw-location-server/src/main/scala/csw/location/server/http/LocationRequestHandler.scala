@@ -28,7 +28,10 @@ class LocationRequestHandler(locationService: LocationService, securityDirective
   override def handle(request: LocationRequest): Route =
     request match {
       case Register(registration)               => sPost(complete(locationService.register(registration).map(_.location)))
+      case RegisterAll(registrations) =>
+        sPost(complete(locationService.registerAll(registrations).map(_.map(_.location))))
       case Unregister(connection)               => sPost(complete(locationService.unregister(connection)))
+      case UnregisterConnections(connections)   => sPost(complete(locationService.unregisterAll(connections)))
       case UnregisterAll                        => sPost(complete(locationService.unregisterAll()))
       case Find(connection)                     => complete(locationService.find(connection))
       case Resolve(connection, within)          => complete(locationService.resolve(connection, within))
@@ -5,73 +5,135 @@
 
 package csw.location.server.internal
 
+import akka.Done
 import akka.actor.typed.scaladsl.Behaviors
 import akka.actor.typed.{ActorRef, ActorSystem, Behavior, Terminated}
 import akka.cluster.ddata.typed.scaladsl.Replicator
 import akka.cluster.ddata.typed.scaladsl.Replicator.{Changed, SubscribeResponse}
 import csw.location.api.extensions.URIExtension.RichURI
 import csw.location.api.models.Connection.HttpConnection
-import csw.location.api.models.{AkkaLocation, Location}
-import csw.location.api.scaladsl.LocationService
+import csw.location.api.models.{AkkaLocation, Connection, Location}
 import csw.location.server.commons.{CswCluster, LocationServiceLogger}
 import csw.location.server.internal.Registry.AllServices
 import csw.logging.api.scaladsl.Logger
 import csw.logging.client.commons.AkkaTypedExtension.UserActorFactory
 
+import scala.collection.mutable
+import scala.concurrent.Future
+import scala.concurrent.duration.{DurationInt, FiniteDuration}
+import scala.util.{Failure, Success}
+
 /**
  * DeathWatchActor tracks the health of all components registered with LocationService.
  *
- * @param locationService is used to unregister Actors that are no more alive
+ * On every change, the registry is compared with the registry as of the last change, and only the entries which were
+ * added, changed or removed are watched or unwatched. The watched locations are indexed by their ActorRef, so a
+ * terminated actor is found in constant time. Locations of terminated actors are unregistered in batches, collected
+ * for `batchWindow`, so that losing a node with many components does not cause an unregistration per component. A
+ * connection is only unregistered while its location is the one of the terminated actor, as the component may have
+ * registered again in the meantime.
+ *
+ * @param unregister is used to unregister the connections of the given locations, while they are still registered
+ * @param batchWindow time to collect the connections of terminated actors before they are unregistered together
  */
-private[location] class DeathwatchActor(locationService: LocationService)(implicit actorSystem: ActorSystem[_]) {
-  import DeathwatchActor.Msg
+private[location] class DeathwatchActor(unregister: Seq[Location] => Future[Done], batchWindow: FiniteDuration)(implicit
+    actorSystem: ActorSystem[_]
+) {
+  import DeathwatchActor.*
 
   /**
-   * Deathwatch behavior processes `DeathwatchActor.Msg` type events sent by replicator for newly registered Locations.
+   * Deathwatch behavior processes the changes of the registry sent by replicator for newly registered Locations.
    * Terminated signal will be received upon termination of an actor that was being watched.
    *
+   * @param subscribe subscribes the given ActorRef to the changes of the registry
    * @see [[akka.actor.Terminated]]
    */
-  private[location] def behavior(watchedLocations: Set[Location]): Behavior[Msg] =
-    Behaviors.receive[Msg] { (context, changeMsg) =>
-      val log: Logger = LocationServiceLogger.getLogger(context)
+  private[location] def behavior(subscribe: ActorRef[SubscribeResponse[AllServices.Value]] => Unit): Behavior[Msg] =
+    Behaviors.setup { context =>
+      Behaviors.withTimers { timers =>
+        val log: Logger = LocationServiceLogger.getLogger(context)
 
-      val allLocations = changeMsg.get(AllServices.Key).entries.values.toSet
+        // the registry as of the last change, and the watched Akka locations by connection and by ActorRef
+        var registered: Map[Connection, Location] = Map.empty
+        val watchedLocations                      = mutable.HashMap.empty[Connection, AkkaLocation]
+        val watchedActors                         = mutable.HashMap.empty[ActorRef[Nothing], Set[Connection]]
+        // locations of terminated actors waiting to be unregistered
+        val deadLocations = mutable.LinkedHashMap.empty[Connection, AkkaLocation]
 
-      // Find out the ones that are not being watched and watch them
-      val unwatchedLocations = allLocations diff watchedLocations
+        subscribe(context.messageAdapter[SubscribeResponse[AllServices.Value]] {
+          case x @ Changed(_) => LocationsChanged(x.get(AllServices.Key).entries)
+          case _              => LocationsChanged(Map.empty)
+        })
 
-      // Ignore HttpLocation or TcpLocation (Do not watch)
-      unwatchedLocations.foreach {
-        case AkkaLocation(_, actorRefURI, _) =>
-          log.debug(s"Started watching actor: ${actorRefURI.toString}")
-          context.watch(actorRefURI.toActorRef)
-        case _ => // ignore http and tcp location
-      }
-      // all locations are now watched
-      behavior(allLocations)
-    } receiveSignal { case (ctx, Terminated(deadActorRef)) =>
-      val log: Logger = LocationServiceLogger.getLogger(ctx)
+        def watch(location: AkkaLocation): Unit = {
+          val actorRef = location.uri.toActorRef
+          watchedLocations.update(location.connection, location)
+          watchedActors.get(actorRef) match {
+            case Some(connections) => watchedActors.update(actorRef, connections + location.connection)
+            case None =>
+              log.debug(s"Started watching actor: ${location.uri.toString}")
+              context.watch(actorRef)
+              watchedActors.update(actorRef, Set(location.connection))
+          }
+        }
 
-      log.warn(s"Un-watching terminated actor: ${deadActorRef.toString}")
-      // stop watching the terminated actor
-      ctx.unwatch(deadActorRef)
-      // Unregister the dead location and remove it from the list of watched locations
-      val maybeLocation = watchedLocations.find {
-        case AkkaLocation(_, actorRefUri, _) => deadActorRef == actorRefUri.toActorRef
-        case _                               => false
-      }
-      maybeLocation match {
-        case Some(location) =>
-          // if deadActorRef is mapped to a location, unregister it and remove it from watched locations
-          locationService.unregister(location.connection)
-          // unregister the http connection for an akka connection if present else do nothing, locationService.unregister is idempotent
-          val httpConnection = HttpConnection(location.connection.componentId)
-          locationService.unregister(httpConnection)
-          behavior(watchedLocations - location)
-        case None =>
-          // if deadActorRef does not match any location, don't change a thing!
-          Behaviors.same
+        def unwatch(connection: Connection): Unit =
+          watchedLocations.remove(connection).foreach { location =>
+            val actorRef = location.uri.toActorRef
+            watchedActors.get(actorRef).foreach { connections =>
+              val remaining = connections - connection
+              if (remaining.isEmpty) {
+                log.debug(s"Stopped watching actor: ${location.uri.toString}")
+                context.unwatch(actorRef)
+                watchedActors.remove(actorRef)
+              }
+              else watchedActors.update(actorRef, remaining)
+            }
+          }
+
+        Behaviors
+          .receiveMessage[Msg] {
+            case LocationsChanged(current) =>
+              // Compare the entries with the ones of the last change, to watch and unwatch only the changed ones
+              current.foreach { case (connection, location) =>
+                if (!registered.get(connection).contains(location)) {
+                  unwatch(connection)
+                  location match {
+                    case akkaLocation: AkkaLocation => watch(akkaLocation)
+                    case _                          => // ignore http and tcp location
+                  }
+                }
+              }
+              registered.keysIterator.foreach(connection => if (!current.contains(connection)) unwatch(connection))
+              registered = current
+              Behaviors.same
+            case UnregisterDead =>
+              // a component which registered again with another actor since its actor terminated keeps its connections,
+              // the http connection of a dead component is unregistered along with its akka connection
+              val locations = deadLocations.valuesIterator
+                .filter(location => registered.get(location.connection).contains(location))
+                .flatMap(location => location :: registered.get(HttpConnection(location.connection.componentId)).toList)
+                .toList
+              deadLocations.clear()
+              unregister(locations).onComplete {
+                case Success(_)  =>
+                case Failure(ex) => log.error("Failed to unregister connections of terminated actors", ex = ex)
+              }(actorSystem.executionContext)
+              Behaviors.same
+          }
+          .receiveSignal { case (_, Terminated(deadActorRef)) =>
+            log.warn(s"Un-watching terminated actor: ${deadActorRef.toString}")
+            // Unregister the dead locations and remove them from the watched locations
+            watchedActors.remove(deadActorRef) match {
+              case Some(connections) =>
+                connections.foreach { connection =>
+                  watchedLocations.remove(connection).foreach(location => deadLocations.update(connection, location))
+                }
+                if (!timers.isTimerActive(UnregisterDead)) timers.startSingleTimer(UnregisterDead, batchWindow)
+              case None => // if deadActorRef does not match any location, don't change a thing!
+            }
+            Behaviors.same
+          }
       }
     }
 }
@@ -79,29 +141,26 @@ private[location] class DeathwatchActor(locationService: LocationService)(implic
 private[location] object DeathwatchActor {
 
   private val log: Logger = LocationServiceLogger.getLogger
-  // message type handled by the for the typed deathwatch actor
-  type Msg = Changed[AllServices.Value]
+
+  // time to collect the connections of terminated actors before they are unregistered together
+  private val BatchWindow: FiniteDuration = 100.millis
+
+  // message type handled by the typed deathwatch actor
+  sealed trait Msg
+  case class LocationsChanged(locations: Map[Connection, Location]) extends Msg
+  private case object UnregisterDead                                  extends Msg
 
   /**
    * Start the DeathwatchActor using the given locationService
    *
    * @param cswCluster is used to get remote ActorSystem to create DeathwatchActor
    */
-  def start(cswCluster: CswCluster, locationService: LocationService): ActorRef[Msg] = {
+  def start(cswCluster: CswCluster, locationService: LocationServiceImpl): ActorRef[Msg] = {
     log.debug("Starting Deathwatch actor")
-    val behavior: Behavior[Msg] = new DeathwatchActor(locationService)(cswCluster.actorSystem).behavior(Set.empty)
-    val widenedBehaviour: Behavior[SubscribeResponse[AllServices.Value]] = behavior.transformMessages { case x @ Changed(_) =>
-      x
-    }
-    val actorRef: ActorRef[SubscribeResponse[AllServices.Value]] =
-      cswCluster.actorSystem.spawn(
-        // span the actor with empty set of watched locations
-        widenedBehaviour,
-        name = "location-service-death-watch-actor"
-      )
-
+    val deathwatchActor = new DeathwatchActor(locationService.unregisterLocations, BatchWindow)(cswCluster.actorSystem)
     // Subscribed to replicator to get events for locations registered with LocationService
-    cswCluster.replicator ! Replicator.Subscribe(AllServices.Key, actorRef)
-    actorRef
+    val behavior = deathwatchActor.behavior(actorRef => cswCluster.replicator ! Replicator.Subscribe(AllServices.Key, actorRef))
+    // span the actor with empty set of watched locations
+    cswCluster.actorSystem.spawn(behavior, name = "location-service-death-watch-actor")
   }
 }
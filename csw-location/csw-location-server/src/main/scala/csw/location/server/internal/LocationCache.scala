@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.location.server.internal
+
+import java.util.concurrent.atomic.LongAdder
+
+import akka.Done
+import akka.actor.typed.scaladsl.AskPattern.*
+import akka.actor.typed.scaladsl.Behaviors
+import akka.actor.typed.{ActorRef, Behavior}
+import akka.cluster.ddata.Replicator.NotFound
+import akka.cluster.ddata.typed.scaladsl.Replicator
+import akka.cluster.ddata.typed.scaladsl.Replicator.{Changed, GetResponse, GetSuccess, SubscribeResponse}
+import akka.util.Timeout
+import csw.location.api.exceptions.RegistrationListingFailed
+import csw.location.api.models.{ComponentType, Connection, ConnectionType, Location}
+import csw.location.server.commons.{CswCluster, LocationServiceLogger}
+import csw.location.server.internal.Registry.AllServices
+import csw.logging.api.scaladsl.Logger
+import csw.logging.client.commons.AkkaTypedExtension.UserActorFactory
+
+import scala.collection.mutable
+import scala.concurrent.Future
+import scala.concurrent.duration.{Duration, DurationDouble, FiniteDuration}
+
+/**
+ * Metrics of the local read model of the registered locations
+ *
+ * @param hits number of `find` calls answered by the read model
+ * @param misses number of `find` calls for a connection missing in the read model, which were answered by the replicator
+ * @param staleMisses number of misses for which the replicator had a location, i.e. the read model was behind
+ * @param updates number of times the read model was updated
+ * @param age time since the read model was last updated
+ */
+case class LocationCacheMetrics(hits: Long, misses: Long, staleMisses: Long, updates: Long, age: FiniteDuration)
+
+/**
+ * A local read model of all registered locations, indexed by connection, component type, connection type, hostname
+ * and prefix, so that lookups do not have to go through the replicator and copy every location.
+ *
+ * The read model subscribes once to the changes of [[csw.location.server.internal.Registry.AllServices]]. Changes
+ * made by other nodes become visible when the replicator notifies its subscribers, see
+ * `akka.cluster.distributed-data.notify-subscribers-interval`. Changes made through this node are visible as soon as
+ * `refresh` completes. A connection missing in the read model is looked up in the replicator.
+ */
+private[location] class LocationCache(cswCluster: CswCluster) {
+  import LocationCache.*
+  import cswCluster.*
+
+  private val log: Logger               = LocationServiceLogger.getLogger
+  private implicit val timeout: Timeout = Timeout(5.seconds)
+
+  // null until the first snapshot of the registry is read
+  @volatile private var index: LocationIndex = _
+  @volatile private var updatedAt: Long      = System.nanoTime()
+
+  private val hits        = new LongAdder
+  private val misses      = new LongAdder
+  private val staleMisses = new LongAdder
+  private val updates     = new LongAdder
+
+  private val cacheActor: ActorRef[Msg] = actorSystem.spawn(behavior, "location-service-cache-actor")
+
+  /**
+   * Reads the registry again and completes once the read model reflects it. Called after every change made through
+   * this node, so that it can be read back right away.
+   */
+  def refresh(): Future[Done] = cacheActor ? (Refresh(_))
+
+  def find(connection: Connection): Future[Option[Location]] = {
+    val current = index
+    val found   = if (current == null) None else current.find(connection)
+    if (found.isDefined) {
+      hits.increment()
+      Future.successful(found)
+    }
+    else {
+      misses.increment()
+      val service = new Registry.Service(connection)
+      (replicator ? service.get).map {
+        case x @ GetSuccess(_) =>
+          val location = x.get(service.Key).value
+          if (location.isDefined) staleMisses.increment()
+          location
+        case _ => None
+      }
+    }
+  }
+
+  def list: Future[List[Location]] = withIndex(_.all)
+
+  def list(componentType: ComponentType): Future[List[Location]] = withIndex(_.list(componentType))
+
+  def list(hostname: String): Future[List[Location]] = withIndex(_.list(hostname))
+
+  def list(connectionType: ConnectionType): Future[List[Location]] = withIndex(_.list(connectionType))
+
+  def listByPrefix(prefix: String): Future[List[Location]] = withIndex(_.listByPrefix(prefix))
+
+  def metrics: LocationCacheMetrics = {
+    val age = Duration.fromNanos(System.nanoTime() - updatedAt)
+    LocationCacheMetrics(hits.sum(), misses.sum(), staleMisses.sum(), updates.sum(), age)
+  }
+
+  // until the first snapshot is read, the locations are read from the replicator
+  private def withIndex[T](f: LocationIndex => T): Future[T] = {
+    val current = index
+    if (current != null) Future.successful(f(current))
+    else
+      (replicator ? AllServices.get).map {
+        case x @ GetSuccess(_)            => f(new LocationIndex(x.get(AllServices.Key).entries.values))
+        case NotFound(AllServices.Key, _) => f(new LocationIndex(Nil))
+        case _                            => throw logException(RegistrationListingFailed())
+      }
+  }
+
+  private def update(locations: Iterable[Location]): Unit = {
+    index = new LocationIndex(locations)
+    updatedAt = System.nanoTime()
+    updates.increment()
+  }
+
+  /**
+   * The read model is updated by a single actor, which receives the changes and the snapshots it reads from the
+   * replicator in the order the replicator produced them, so that an older snapshot never replaces a newer one.
+   */
+  private def behavior: Behavior[Msg] =
+    Behaviors.setup { context =>
+      val changes = context.messageAdapter[SubscribeResponse[AllServices.Value]] {
+        case x @ Changed(_) => Updated(x.get(AllServices.Key).entries.values)
+        case _              => Updated(Nil) // the registry was deleted
+      }
+      val reads = context.messageAdapter[GetResponse[AllServices.Value]] {
+        case x @ GetSuccess(_)            => Read(Some(x.get(AllServices.Key).entries.values))
+        case NotFound(AllServices.Key, _) => Read(Some(Nil))
+        case _                            => Read(None)
+      }
+
+      // callers waiting for a refresh, in the order of the reads sent to the replicator
+      val pending = mutable.Queue.empty[Option[ActorRef[Done]]]
+      def read(replyTo: Option[ActorRef[Done]]): Unit = {
+        pending.enqueue(replyTo)
+        replicator ! AllServices.get(reads)
+      }
+
+      replicator ! Replicator.Subscribe(AllServices.Key, changes)
+      read(None)
+
+      Behaviors.receiveMessage {
+        case Updated(locations) =>
+          update(locations)
+          Behaviors.same
+        case Refresh(replyTo) =>
+          read(Some(replyTo))
+          Behaviors.same
+        case Read(maybeLocations) =>
+          maybeLocations match {
+            case Some(locations) => update(locations)
+            case None            => log.warn("Failed to read the registry, the location cache is not refreshed")
+          }
+          if (pending.nonEmpty) pending.dequeue().foreach(_ ! Done)
+          Behaviors.same
+      }
+    }
+
+  private def logException(ex: Throwable): Throwable = {
+    log.error(ex.getMessage, ex = ex)
+    ex
+  }
+}
+
+private[location] object LocationCache {
+
+  private sealed trait Msg
+  private case class Updated(locations: Iterable[Location])      extends Msg
+  private case class Read(locations: Option[Iterable[Location]]) extends Msg
+  private case class Refresh(replyTo: ActorRef[Done])            extends Msg
+
+  /**
+   * An immutable snapshot of the registered locations with its indexes
+   */
+  private[internal] final class LocationIndex(locations: Iterable[Location]) {
+    val all: List[Location] = locations.toList
+
+    private val byConnection: Map[Connection, Location]               = all.iterator.map(l => l.connection -> l).toMap
+    private val byComponentType: Map[ComponentType, List[Location]]   = all.groupBy(_.connection.componentId.componentType)
+    private val byConnectionType: Map[ConnectionType, List[Location]] = all.groupBy(_.connection.connectionType)
+    private val byHostname: Map[String, List[Location]]               = all.filter(_.uri.getHost != null).groupBy(_.uri.getHost)
+    private val byPrefix: PrefixTrie                                  = new PrefixTrie
+    all.foreach(l => byPrefix.add(l.prefix.toString, l))
+
+    def find(connection: Connection): Option[Location]       = byConnection.get(connection)
+    def list(componentType: ComponentType): List[Location]   = byComponentType.getOrElse(componentType, Nil)
+    def list(connectionType: ConnectionType): List[Location] = byConnectionType.getOrElse(connectionType, Nil)
+    def list(hostname: String): List[Location]               = byHostname.getOrElse(hostname, Nil)
+    def listByPrefix(prefix: String): List[Location]         = byPrefix.startingWith(prefix)
+  }
+
+  /**
+   * A trie of the locations by the characters of their prefix, it is only added to before its snapshot is published
+   */
+  private[internal] final class PrefixTrie {
+    private var locations: List[Location] = Nil
+    private val children                  = mutable.HashMap.empty[Char, PrefixTrie]
+
+    def add(key: String, location: Location): Unit = {
+      var node: PrefixTrie = this
+      key.foreach(c => node = node.children.getOrElseUpdate(c, new PrefixTrie))
+      node.locations ::= location
+    }
+
+    def startingWith(key: String): List[Location] = {
+      var node: PrefixTrie = this
+      var i    = 0
+      while (node != null && i < key.length) {
+        node = node.children.getOrElse(key.charAt(i), null)
+        i += 1
+      }
+      if (node == null) Nil
+      else {
+        val result = List.newBuilder[Location]
+        node.collect(result)
+        result.result()
+      }
+    }
+
+    private def collect(result: mutable.Builder[Location, List[Location]]): Unit = {
+      result ++= locations
+      children.valuesIterator.foreach(_.collect(result))
+    }
+  }
+}
@@ -23,8 +23,8 @@ private[location] object LocationServiceFactory {
    * @return an instance of `LocationService`
    */
   def make(clusterSettings: ClusterSettings): LocationService = {
-    val cswCluster                       = CswCluster.make(clusterSettings)
-    val locationService: LocationService = new LocationServiceImpl(cswCluster)
+    val cswCluster      = CswCluster.make(clusterSettings)
+    val locationService = new LocationServiceImpl(cswCluster)
     // starts a DeathwatchActor each time a LocationService is created
     DeathwatchActor.start(cswCluster, locationService)
     locationService
@@ -5,10 +5,12 @@
 
 package csw.location.server.internal
 
+import java.util.concurrent.atomic.AtomicBoolean
+
 import akka.Done
 import akka.actor.typed.scaladsl.AskPattern.*
 import akka.cluster.ddata.*
-import akka.cluster.ddata.Replicator.{ModifyFailure, NotFound, UpdateSuccess}
+import akka.cluster.ddata.Replicator.{ModifyFailure, UpdateSuccess}
 import akka.cluster.ddata.typed.scaladsl.Replicator
 import akka.cluster.ddata.typed.scaladsl.Replicator.{Changed, GetSuccess}
 import akka.stream.OverflowStrategy
@@ -32,6 +34,7 @@ import msocket.jvm.SourceExtension.RichSource
 import scala.async.Async.*
 import scala.concurrent.Future
 import scala.concurrent.duration.{DurationDouble, FiniteDuration}
+import scala.util.{Failure, Success}
 
 private[location] class LocationServiceImpl(cswCluster: CswCluster, cswVersion: CswVersion = new CswVersionJvm())
     extends LocationService {
@@ -42,6 +45,9 @@ private[location] class LocationServiceImpl(cswCluster: CswCluster, cswVersion:
   import cswCluster.*
   private implicit val timeout: Timeout = Timeout(5.seconds)
 
+  // started on first use, the read model serving find and list
+  private lazy val cache = new LocationCache(cswCluster)
+
   /**
    * Register a 'connection -> location' entry in CRDT
    */
@@ -51,48 +57,108 @@ private[location] class LocationServiceImpl(cswCluster: CswCluster, cswVersion:
       val location: Location = getLocation(registration)
       log.info(s"Registering connection: [${registration.connection.name}] with location: [${location.uri.toString}]")
 
-      // Create a message handler for this connection
-      val service = new Registry.Service(registration.connection)
+      // Create a message to update connection -> location map in CRDT
+      val updateRegistry = AllServices.update(_ :+ (registration.connection -> location))
 
-      // Registering a location needs to read from other replicas to avoid duplicate location registration before performing the update
-      // This approach is inspired from Migration Guide section of https://github.com/patriknw/akka-data-replication
-      val initialValue = (replicator ? service.getByMajority).map {
-        case x @ GetSuccess(_) => x.get(service.Key)
-        case _                 => service.EmptyValue
+      // Register the location for the connection key. On success, send another message to update connection -> location
+      // map. If that is successful then return a registrationResult for this Location. In case of any failure throw an exception.
+      val registrationResultF = registerService(location).flatMap { _ =>
+        (replicator ? updateRegistry).map {
+          case _: UpdateSuccess[_] =>
+            log.info(s"Successfully registered connection: [${registration.connection.name}] with location [${location.uri}]")
+            registrationResult(location)
+          case _ =>
+            throw logException(new RegistrationFailed(registration.connection))
+        }
       }
+      val result = await(registrationResultF)
+      await(cache.refresh())
+      result
+    }
 
-      // Create an update message to update the value of connection key. if the current value is None or same as
-      // this location then update it with this location. if it is some other location then an exception will be thrown and
-      // it will be handled below by ModifyFailure.
+  /**
+   * Register all the given 'connection -> location' entries in CRDT. The connection keys are checked and updated in parallel
+   * and all entries are added to the connection -> location map with a single update. If any connection key can not be
+   * updated, the keys which this call registered for the other connections are cleared again and nothing is added to the
+   * map, while keys which already held their location before are left as they are. A connection can only be registered
+   * once per call.
+   */
+  def registerAll(registrations: Seq[Registration]): Future[List[RegistrationResult]] =
+    if (registrations.isEmpty) Future.successful(Nil)
+    else
+      async {
+        registrations.foreach(registration => cswVersion.check(registration.metadata, registration.connection.prefix))
+        val duplicates = registrations.groupBy(_.connection).collect { case (connection, rs) if rs.size > 1 => connection.name }
+        if (duplicates.nonEmpty)
+          throw logException(RegistrationFailed(s"connections registered more than once: [${duplicates.mkString(", ")}]"))
+        val locations = registrations.map(getLocation).toList
+        val names     = locations.map(_.connection.name).mkString(", ")
+        log.info(s"Registering connections: [$names]")
+
+        val serviceUpdates = Future.traverse(locations)(location => registerService(location).transform(Success(_)))
+        val results        = await(serviceUpdates)
+        results.collectFirst { case Failure(cause) => cause } match {
+          case Some(cause) =>
+            // only the keys which were empty before this call are cleared, and only while they hold the location of this call
+            val registered = locations.zip(results).collect {
+              case (location, Success(true)) => location.connection -> Some(location)
+            }
+            await(clearServices(registered))
+            throw cause
+          case None =>
+            val updateRegistry = AllServices.update(map => locations.foldLeft(map)((m, l) => m :+ (l.connection -> l)))
+            await(replicator ? updateRegistry) match {
+              case _: UpdateSuccess[_] => log.info(s"Successfully registered connections: [$names]")
+              case _                   => throw logException(new RegistrationFailed(locations.head.connection))
+            }
+            await(cache.refresh())
+            locations.map(registrationResult)
+        }
+      }
+
+  /**
+   * Update the connection key with the given location, failing with OtherLocationIsRegistered if some other location is
+   * registered for the connection
+   *
+   * @return true if no location was registered for the connection before, false if the same location already was
+   */
+  private def registerService(location: Location): Future[Boolean] = {
+    // Create a message handler for this connection
+    val service = new Registry.Service(location.connection)
+
+    // Registering a location needs to read from other replicas to avoid duplicate location registration before performing the update
+    // This approach is inspired from Migration Guide section of https://github.com/patriknw/akka-data-replication
+    val initialValue = (replicator ? service.getByMajority).map {
+      case x @ GetSuccess(_) => x.get(service.Key)
+      case _                 => service.EmptyValue
+    }
+
+    // Create an update message to update the value of connection key. if the current value is None or same as
+    // this location then update it with this location. if it is some other location then an exception will be thrown and
+    // it will be handled below by ModifyFailure.
+    initialValue.flatMap { value =>
+      // set by the replicator when it applies the update, which happens before it replies
+      val wasEmpty = new AtomicBoolean(false)
       val updateValue = service.update(
         {
-          case r @ LWWRegister(Some(`location`) | None) => r.withValueOf(Some(location))
+          case r @ LWWRegister(Some(`location`)) => r.withValueOf(Some(location))
+          case r @ LWWRegister(None) =>
+            wasEmpty.set(true)
+            r.withValueOf(Some(location))
           case LWWRegister(Some(otherLocation)) => throw logException(new OtherLocationIsRegistered(location, otherLocation))
           case x                                => throw new MatchError(x)
         },
-        await(initialValue)
+        value
       )
 
-      // Create a message to update connection -> location map in CRDT
-      val updateRegistry = AllServices.update(_ :+ (registration.connection -> location))
-
-      // Send the update message for connection key to replicator. On success, send another message to update connection -> location
-      // map. If that is successful then return a registrationResult for this Location. In case of any failure throw an exception.
-      val registrationResultF = (replicator ? updateValue).flatMap {
-        case _: UpdateSuccess[_] =>
-          (replicator ? updateRegistry).map {
-            case _: UpdateSuccess[_] =>
-              log.info(s"Successfully registered connection: [${registration.connection.name}] with location [${location.uri}]")
-              registrationResult(location)
-            case _ =>
-              throw logException(new RegistrationFailed(registration.connection))
-          }
+      (replicator ? updateValue).map {
+        case _: UpdateSuccess[_] => wasEmpty.get()
         case ModifyFailure(service.Key, _, cause, _) =>
           throw logException(cause) // // this exception gets mapped onto OtherLocationIsRegistered
-        case _ => throw logException(new RegistrationFailed(registration.connection))
+        case _ => throw logException(new RegistrationFailed(location.connection))
       }
-      await(registrationResultF)
     }
+  }
 
   private[internal] def getLocation(registration: Registration) =
     registration match {
@@ -115,6 +181,19 @@ private[location] class LocationServiceImpl(cswCluster: CswCluster, cswVersion:
   private def unregisterEmbeddedComponent(componentId: ComponentId): Future[Done] =
     (unregister0(AkkaConnection(componentId)) zip unregister0(HttpConnection(componentId))).map(_ => Done)
 
+  /**
+   * Unregister all the given connections from CRDT with a single update of the connection -> location map. Like `unregister`,
+   * both connections of an embedded component are unregistered.
+   */
+  def unregisterAll(connections: Seq[Connection]): Future[Done] =
+    unregisterConnections(connections.flatMap(embeddedConnections).distinct)
+
+  private def embeddedConnections(connection: Connection): Seq[Connection] =
+    connection.componentId.componentType match {
+      case HCD | Assembly | Sequencer => List(AkkaConnection(connection.componentId), HttpConnection(connection.componentId))
+      case _                          => List(connection)
+    }
+
   private def unregister0(connection: Connection): Future[Done] = {
     log.info(s"Un-registering connection: [${connection.name}]")
     // Create a message handler for this connection
@@ -124,14 +203,66 @@ private[location] class LocationServiceImpl(cswCluster: CswCluster, cswVersion:
     // corresponding connection -> location entry from map. In case of any failure throw an exception otherwise return Done.
     (replicator ? service.update(_.withValueOf(None))).flatMap {
       case _: UpdateSuccess[_] =>
-        (replicator ? AllServices.update(_.remove(node, connection))).map {
-          case _: UpdateSuccess[_] => Done
+        (replicator ? AllServices.update(_.remove(node, connection))).flatMap {
+          case _: UpdateSuccess[_] => cache.refresh()
           case _                   => throw logException(UnregistrationFailed(connection))
         }
       case _ => throw logException(UnregistrationFailed(connection))
     }
   }
 
+  /**
+   * Unregister the given connections from CRDT, updating the connection keys in parallel and removing all of them from
+   * the connection -> location map with a single update. Used by `unregisterAll`.
+   */
+  private[location] def unregisterConnections(connections: Seq[Connection]): Future[Done] =
+    unregisterEntries(connections.map(_ -> None))
+
+  /**
+   * Unregister the connections of the given locations like `unregisterConnections`, but only the connections which are
+   * still registered with the given location. Used by the DeathwatchActor, as a component whose actor terminated may
+   * have registered again with a new actor before its connections are unregistered.
+   */
+  private[location] def unregisterLocations(locations: Seq[Location]): Future[Done] =
+    unregisterEntries(locations.map(location => location.connection -> Some(location)))
+
+  // unregisters the connections, the ones with an expected location only while that location is registered for them
+  private def unregisterEntries(entries: Seq[(Connection, Option[Location])]): Future[Done] =
+    if (entries.isEmpty) Future.successful(Done)
+    else {
+      val expected = entries.toMap
+      log.info(s"Un-registering connections: [${entries.map(_._1.name).mkString(", ")}]")
+      clearServices(entries).flatMap { results =>
+        val removed = results.collect { case Right(connection) => connection }
+        val failed  = results.collectFirst { case Left(connection) => connection }
+        def remove(map: LWWMap[Connection, Location], connection: Connection) = {
+          val stillExpected = expected(connection).forall(location => map.get(connection).contains(location))
+          if (stillExpected) map.remove(node, connection) else map
+        }
+        (replicator ? AllServices.update(map => removed.foldLeft(map)(remove))).flatMap {
+          case _: UpdateSuccess[_] =>
+            cache.refresh().map { done =>
+              failed.foreach(connection => throw logException(UnregistrationFailed(connection)))
+              done
+            }
+          case _ => throw logException(UnregistrationFailed(removed.headOption.getOrElse(entries.head._1)))
+        }
+      }
+    }
+
+  // Update the connection keys with None in parallel, the ones with an expected location only while it is their value.
+  // Left for the connections which could not be updated.
+  private def clearServices(entries: Seq[(Connection, Option[Location])]): Future[Seq[Either[Connection, Connection]]] =
+    Future.traverse(entries) { case (connection, expectedLocation) =>
+      val service = new Registry.Service(connection)
+      val clear: LWWRegister[Option[Location]] => LWWRegister[Option[Location]] =
+        r => if (expectedLocation.forall(location => r.value.contains(location))) r.withValueOf(None) else r
+      (replicator ? service.update(clear)).map {
+        case _: UpdateSuccess[_] => Right(connection)
+        case _                   => Left(connection)
+      }
+    }
+
   /**
    * Unregister all connections from CRDT
    *
@@ -151,11 +282,10 @@ private[location] class LocationServiceImpl(cswCluster: CswCluster, cswVersion:
   /**
    * Resolves the location for a connection from the local cache
    */
-  def find[L <: Location](connection: TypedConnection[L]): Future[Option[L]] =
-    async {
-      log.info(s"Finding location for connection: [${connection.name}]")
-      await(list).find(_.connection == connection).asInstanceOf[Option[L]]
-    }
+  def find[L <: Location](connection: TypedConnection[L]): Future[Option[L]] = {
+    log.info(s"Finding location for connection: [${connection.name}]")
+    cache.find(connection).asInstanceOf[Future[Option[L]]]
+  }
 
   /**
    * Resolve a location for the given connection
@@ -171,31 +301,29 @@ private[location] class LocationServiceImpl(cswCluster: CswCluster, cswVersion:
   /**
    * List all locations registered with CRDT
    */
-  def list: Future[List[Location]] =
-    (replicator ? AllServices.get).map {
-      case x @ GetSuccess(_)            => x.get(AllServices.Key).entries.values.toList
-      case NotFound(AllServices.Key, _) => List.empty
-      case _                            => throw logException(RegistrationListingFailed())
-    }
+  def list: Future[List[Location]] = cache.list
 
   /**
    * List all locations registered for the given componentType
    */
-  def list(componentType: ComponentType): Future[List[Location]] =
-    list.map(_.filter(_.connection.componentId.componentType == componentType))
+  def list(componentType: ComponentType): Future[List[Location]] = cache.list(componentType)
 
   /**
    * List all locations registered with the given hostname
    */
-  def list(hostname: String): Future[List[Location]] = list.map(_.filter(_.uri.getHost == hostname))
+  def list(hostname: String): Future[List[Location]] = cache.list(hostname)
 
   /**
    * List all locations registered with the given connection type
    */
-  def list(connectionType: ConnectionType): Future[List[Location]] =
-    list.map(_.filter(_.connection.connectionType == connectionType))
+  def list(connectionType: ConnectionType): Future[List[Location]] = cache.list(connectionType)
 
-  override def listByPrefix(_prefix: String): Future[List[Location]] = list.map(_.filter(_.prefix.toString.startsWith(_prefix)))
+  override def listByPrefix(_prefix: String): Future[List[Location]] = cache.listByPrefix(_prefix)
+
+  /**
+   * Metrics of the local cache serving find and list
+   */
+  def cacheMetrics: LocationCacheMetrics = cache.metrics
 
   /**
    * Track the status of given connection
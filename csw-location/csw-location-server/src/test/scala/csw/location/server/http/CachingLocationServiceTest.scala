@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.location.server.http
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import csw.location.api.models.Connection.HttpConnection
+import csw.location.api.models.{ComponentId, ComponentType, HttpRegistration}
+import csw.location.client.ActorSystemFactory
+import csw.location.client.internal.CachingLocationService.CacheMetrics
+import csw.location.client.scaladsl.HttpLocationServiceFactory
+import csw.location.server.commons.TestFutureExtension.RichFuture
+import csw.prefix.models.Prefix
+import org.scalatest.concurrent.Eventually
+
+import scala.concurrent.duration.DurationInt
+
+class CachingLocationServiceTest extends HTTPLocationService with Eventually {
+
+  private implicit val system: ActorSystem[SpawnProtocol.Command] = ActorSystemFactory.remote(SpawnProtocol(), "caching-client")
+
+  private lazy val locationService        = HttpLocationServiceFactory.makeLocalClient
+  private lazy val cachingLocationService = HttpLocationServiceFactory.makeCachingLocalClient
+
+  private val connection   = HttpConnection(ComponentId(Prefix("wfos.blue.filter"), ComponentType.HCD))
+  private val registration = HttpRegistration(connection, 8080, "")
+
+  override implicit val patienceConfig: PatienceConfig = PatienceConfig(5.seconds, 50.millis)
+
+  override def afterAll(): Unit = {
+    system.terminate()
+    system.whenTerminated.await
+    super.afterAll()
+  }
+
+  test("should resolve from the cache and remove the location when it is unregistered") {
+    val location = locationService.register(registration).await.location
+
+    // the first resolve goes to the location server, all the following ones are answered from the cache
+    cachingLocationService.resolve(connection, 1.second).await shouldBe Some(location)
+    cachingLocationService.metrics shouldBe CacheMetrics(hits = 0, misses = 1, invalidations = 0, size = 1)
+
+    val resolves = 200
+    (1 to resolves).foreach(_ => cachingLocationService.resolve(connection, 1.second).await shouldBe Some(location))
+    cachingLocationService.find(connection).await shouldBe Some(location)
+    cachingLocationService.metrics shouldBe CacheMetrics(hits = resolves + 1, misses = 1, invalidations = 0, size = 1)
+
+    // the location is removed through another client, the cached location is invalidated by tracking it
+    locationService.unregister(connection).await
+    eventually(cachingLocationService.metrics.size shouldBe 0)
+    cachingLocationService.find(connection).await shouldBe None
+    cachingLocationService.metrics.invalidations shouldBe 1
+  }
+}
@@ -89,6 +89,18 @@ class LocationRequestHandlerTest
     }
   }
 
+  test("registerAll must check if user has location admin role and delegate to locationService.registerAll") {
+    when(registrationResult.location).thenReturn(location)
+    when(securityDirectives.sPost(locationAdminRolePolicy)).thenReturn(accessTokenDirective)
+    when(locationService.registerAll(List(registration))).thenReturn(Future.successful(List(registrationResult)))
+
+    Post("/post-endpoint", RegisterAll(List(registration)).narrow) ~> route ~> check {
+      verify(locationService).registerAll(List(registration))
+      verify(securityDirectives).sPost(locationAdminRolePolicy)
+      responseAs[List[Location]] should ===(locations)
+    }
+  }
+
   test("unregisterAll must check if user has location admin role and delegate to locationService.unregisterAll | CSW-98 ") {
     when(securityDirectives.sPost(locationAdminRolePolicy)).thenReturn(accessTokenDirective)
     when(locationService.unregisterAll()).thenReturn(Future.successful(Done))
@@ -111,6 +123,17 @@ class LocationRequestHandlerTest
     }
   }
 
+  test("unregisterAll with connections must check if user has location admin role and delegate to locationService.unregisterAll") {
+    when(securityDirectives.sPost(locationAdminRolePolicy)).thenReturn(accessTokenDirective)
+    when(locationService.unregisterAll(List(connection))).thenReturn(Future.successful(Done))
+
+    Post("/post-endpoint", UnregisterConnections(List(connection)).narrow) ~> route ~> check {
+      verify(locationService).unregisterAll(List(connection))
+      verify(securityDirectives).sPost(locationAdminRolePolicy)
+      responseAs[Done] should ===(Done)
+    }
+  }
+
   test("Find must delegate to locationService.find | CSW-98") {
     val maybeLocation = Some(location)
     when(locationService.find(connection)).thenReturn(Future.successful(maybeLocation))
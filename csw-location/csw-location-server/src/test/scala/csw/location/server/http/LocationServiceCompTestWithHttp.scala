@@ -14,7 +14,9 @@ import csw.location.server.scaladsl.LocationServiceCompTest
 import scala.concurrent.duration.DurationInt
 
 // DEOPSCSW-429: [SPIKE] Provide HTTP server and client for location service
-class LocationServiceCompTestWithHttp extends LocationServiceCompTest("http") {
+class LocationServiceCompTestWithHttp(mode: String) extends LocationServiceCompTest(mode) {
+  def this() = this("http")
+
   private var wiring: ServerWiring = _
 
   override protected def beforeAll(): Unit = {
@@ -32,3 +34,6 @@ class LocationServiceCompTestWithHttp extends LocationServiceCompTest("http") {
     super.afterAll()
   }
 }
+
+// the location server answers JSON requests, as sent by browser clients, in JSON
+class LocationServiceCompTestWithHttpJson extends LocationServiceCompTestWithHttp("http-json")
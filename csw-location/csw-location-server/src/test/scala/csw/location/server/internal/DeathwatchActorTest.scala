@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.location.server.internal
+
+import java.net.URI
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import akka.Done
+import akka.actor.testkit.typed.scaladsl.ActorTestKit
+import akka.actor.typed.ActorRef
+import akka.actor.typed.scaladsl.Behaviors
+import csw.location.api.extensions.ActorExtension.RichActor
+import csw.location.api.models.ComponentType.{HCD, Service}
+import csw.location.api.models.Connection.{AkkaConnection, HttpConnection}
+import csw.location.api.models.*
+import csw.location.server.internal.DeathwatchActor.LocationsChanged
+import csw.prefix.models.Prefix
+import csw.prefix.models.Subsystem.CSW
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.Eventually
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+import scala.concurrent.Future
+import scala.concurrent.duration.{DurationInt, FiniteDuration}
+import scala.jdk.CollectionConverters.*
+
+class DeathwatchActorTest extends AnyFunSuite with Matchers with BeforeAndAfterAll with Eventually {
+  private val testKit = ActorTestKit()
+
+  override implicit val patienceConfig: PatienceConfig = PatienceConfig(10.seconds, 100.millis)
+
+  override def afterAll(): Unit = testKit.shutdownTestKit()
+
+  private def component(): ActorRef[String] = testKit.spawn(Behaviors.receiveMessage[String](_ => Behaviors.stopped))
+
+  private def akkaLocation(name: String, actorRef: ActorRef[_]): AkkaLocation =
+    AkkaLocation(AkkaConnection(ComponentId(Prefix(CSW, name), HCD)), actorRef.toURI, Metadata.empty)
+
+  private def httpLocation(location: AkkaLocation): HttpLocation =
+    HttpLocation(HttpConnection(location.connection.componentId), new URI("http://host"), Metadata.empty)
+
+  private def spawnDeathwatch(batchWindow: FiniteDuration): (ActorRef[DeathwatchActor.Msg], ConcurrentLinkedQueue[Seq[Location]]) = {
+    val batches = new ConcurrentLinkedQueue[Seq[Location]]()
+    def unregister(locations: Seq[Location]): Future[Done] = {
+      batches.add(locations)
+      Future.successful(Done)
+    }
+    (testKit.spawn(new DeathwatchActor(unregister, batchWindow)(testKit.system).behavior(_ => ())), batches)
+  }
+
+  test("should watch thousands of registrations and unregister the connections of terminated actors in batches") {
+    val (deathwatch, batches) = spawnDeathwatch(100.millis)
+
+    val actors    = (1 to 3000).map(_ => component())
+    val locations = actors.zipWithIndex.map { case (actorRef, i) => akkaLocation(s"hcd$i", actorRef) }
+    val service   = HttpConnection(ComponentId(Prefix(CSW, "service"), Service))
+    val http      = HttpLocation(service, new URI("http://host"), Metadata.empty)
+    // the first 10 components also registered an http connection
+    val embedded                              = locations.take(10).map(httpLocation)
+    val registered: Map[Connection, Location] = (locations ++ embedded :+ http).map(l => l.connection -> l).toMap
+    deathwatch ! LocationsChanged(registered)
+
+    // a node with 1000 components is lost
+    actors.take(1000).foreach(_ ! "stop")
+
+    val expected = (locations.take(1000) ++ embedded).toSet[Location]
+    eventually(batches.asScala.flatten.toSet shouldBe expected)
+    batches.size should be < 100
+
+    // the terminated components are unregistered, 1000 others are unregistered and one is registered
+    batches.clear()
+    val newActor    = component()
+    val newLocation = akkaLocation("new-hcd", newActor)
+    val changed     = registered -- (locations.take(2000) ++ embedded).map(_.connection) + (newLocation.connection -> newLocation)
+    deathwatch ! LocationsChanged(changed)
+
+    // unregistered components are not watched anymore
+    actors.slice(1000, 2000).foreach(_ ! "stop")
+    newActor ! "stop"
+
+    eventually(batches.asScala.flatten.toSet shouldBe Set(newLocation))
+  }
+
+  test("should not unregister a component which registered again after its actor terminated") {
+    val (deathwatch, batches) = spawnDeathwatch(500.millis)
+
+    val actors        = List(component(), component())
+    val reRegistering = akkaLocation("re-registering", actors.head)
+    val dying         = akkaLocation("dying", actors(1))
+    val registered    = List(reRegistering, httpLocation(reRegistering), dying).map(l => l.connection -> l).toMap
+    deathwatch ! LocationsChanged(registered)
+
+    // both actors terminate, one of the components registers again with a new actor within the batch window
+    actors.foreach(_ ! "stop")
+    val registeredAgain = reRegistering.copy(uri = component().toURI)
+    deathwatch ! LocationsChanged(registered + (registeredAgain.connection -> registeredAgain))
+
+    eventually(batches.asScala.flatten.toList shouldBe List(dying))
+  }
+}
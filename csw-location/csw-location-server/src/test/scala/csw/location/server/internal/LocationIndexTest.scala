@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.location.server.internal
+
+import java.net.URI
+
+import csw.location.api.models.ComponentType.{Assembly, HCD, Service}
+import csw.location.api.models.Connection.{AkkaConnection, HttpConnection, TcpConnection}
+import csw.location.api.models.*
+import csw.location.server.internal.LocationCache.LocationIndex
+import csw.prefix.models.Prefix
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+class LocationIndexTest extends AnyFunSuite with Matchers {
+  private def http(prefix: String, componentType: ComponentType, host: String) =
+    HttpLocation(HttpConnection(ComponentId(Prefix(prefix), componentType)), new URI(s"http://$host:8080"), Metadata.empty)
+
+  private val hcd1     = http("nfiraos.ncc.trombone.hcd1", HCD, "host1")
+  private val hcd2     = http("nfiraos.ncc.trombone.hcd2", HCD, "host2")
+  private val assembly = http("nfiraos.ncc.assembly", Assembly, "host1")
+  private val redis =
+    TcpLocation(TcpConnection(ComponentId(Prefix("csw.redis"), Service)), new URI("tcp://host2:6379"), Metadata.empty)
+
+  private val index = new LocationIndex(List(hcd1, hcd2, assembly, redis))
+
+  test("should find a location by its connection") {
+    index.find(hcd2.connection) shouldBe Some(hcd2)
+    index.find(AkkaConnection(hcd2.connection.componentId)) shouldBe None
+  }
+
+  test("should list locations by component type, connection type and hostname") {
+    index.list(HCD) shouldBe List(hcd1, hcd2)
+    index.list(ComponentType.Sequencer) shouldBe Nil
+    index.list(ConnectionType.TcpType) shouldBe List(redis)
+    index.list("host1") shouldBe List(hcd1, assembly)
+    index.list("unknown") shouldBe Nil
+  }
+
+  test("should list locations by the start of their prefix") {
+    index.listByPrefix("NFIRAOS.ncc.trombone").toSet shouldBe Set(hcd1, hcd2)
+    index.listByPrefix("NFIRAOS.ncc").toSet shouldBe Set(hcd1, hcd2, assembly)
+    index.listByPrefix("").toSet shouldBe Set(hcd1, hcd2, assembly, redis)
+    index.listByPrefix("TCS") shouldBe Nil
+  }
+}
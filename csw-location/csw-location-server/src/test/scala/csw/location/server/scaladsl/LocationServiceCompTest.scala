@@ -12,7 +12,7 @@ import akka.actor.typed.scaladsl.adapter.TypedActorSystemOps
 import akka.actor.typed.{Behavior, SpawnProtocol}
 import akka.stream.scaladsl.{Keep, Sink}
 import akka.testkit.TestProbe
-import csw.location.api.exceptions.OtherLocationIsRegistered
+import csw.location.api.exceptions.{OtherLocationIsRegistered, RegistrationFailed}
 import csw.location.api.models.*
 import csw.location.api.models.ComponentType.{Assembly, HCD, Sequencer}
 import csw.location.api.models.Connection.{AkkaConnection, HttpConnection, TcpConnection}
@@ -28,6 +28,7 @@ import csw.logging.client.commons.AkkaTypedExtension.UserActorFactory
 import csw.network.utils.Networks
 import csw.prefix.models.{Prefix, Subsystem}
 import io.netty.util.internal.logging.{InternalLoggerFactory, Slf4JLoggerFactory}
+import msocket.api.ContentType
 import org.scalatest.concurrent.Eventually
 import org.scalatest.funsuite.AnyFunSuite
 import org.scalatest.matchers.should.Matchers
@@ -43,8 +44,8 @@ object TestRegistrationExt {
 
   implicit class RichRegistration(registration: Registration) {
     implicit def cswVersion(mode: String): Registration = mode match {
-      case "http"    => registration.withCswVersion(new CswVersionJvm().get)
-      case "cluster" => registration
+      case "http" | "http-json" => registration.withCswVersion(new CswVersionJvm().get)
+      case "cluster"            => registration
     }
   }
 }
@@ -64,8 +65,9 @@ class LocationServiceCompTest(mode: String)
   lazy private val clusterSystem: typed.ActorSystem[SpawnProtocol.Command]   = clusterSettings.system
   implicit val ec: ExecutionContext                                          = typedSystem.executionContext
   private lazy val locationService: LocationService = mode match {
-    case "http"    => HttpLocationServiceFactory.makeLocalClient
-    case "cluster" => LocationServiceFactory.make(ClusterAwareSettings)
+    case "http"      => HttpLocationServiceFactory.makeLocalClient
+    case "http-json" => HttpLocationServiceFactory.make("localhost", 7654, contentType = ContentType.Json)
+    case "cluster"   => LocationServiceFactory.make(ClusterAwareSettings)
   }
 
   import AkkaRegistrationFactory.*
@@ -219,6 +221,73 @@ class LocationServiceCompTest(mode: String)
     }
   }
 
+  test("should register and unregister many connections together") {
+    val tcpConnection  = TcpConnection(models.ComponentId(Prefix(Subsystem.CSW, "redis6"), ComponentType.Service))
+    val httpConnection = HttpConnection(models.ComponentId(Prefix(Subsystem.CSW, "config6"), ComponentType.Service))
+    val akkaConnection = AkkaConnection(models.ComponentId(Prefix(Subsystem.NFIRAOS, "hcd6"), HCD))
+    val actorRef       = typedSystem.spawn(Behaviors.empty, "my-actor-6")
+    val registrations: List[Registration] =
+      List(TcpRegistration(tcpConnection, 1234), HttpRegistration(httpConnection, 8080, "path"), make(akkaConnection, actorRef))
+    val locations = registrations.map(_.cswVersion(mode).location(Networks().hostname))
+
+    locationService.registerAll(registrations).await.map(_.location) shouldBe locations
+    locationService.list.await.toSet shouldBe locations.toSet
+    locationService.find(akkaConnection).await shouldBe Some(locations(2))
+
+    locationService.unregisterAll(List(tcpConnection, httpConnection, akkaConnection)).await
+    locationService.list.await shouldBe empty
+  }
+
+  test("should not register any of many connections when one of them is registered against another location") {
+    val connection      = TcpConnection(models.ComponentId(Prefix(Subsystem.CSW, "redis7"), ComponentType.Service))
+    val otherConnection = TcpConnection(models.ComponentId(Prefix(Subsystem.CSW, "redis8"), ComponentType.Service))
+    val tcpRegistration = TcpRegistration(connection, 1111)
+
+    locationService.register(tcpRegistration).await
+
+    intercept[OtherLocationIsRegistered] {
+      locationService.registerAll(List(TcpRegistration(otherConnection, 1234), TcpRegistration(connection, 1234))).await
+    }
+
+    locationService.list.await shouldBe List(tcpRegistration.cswVersion(mode).location(Networks().hostname))
+    locationService.register(TcpRegistration(otherConnection, 2222)).await.location.connection shouldBe otherConnection
+  }
+
+  test("should keep the connections registered before when registering many connections fails") {
+    val existing                = TcpConnection(models.ComponentId(Prefix(Subsystem.CSW, "redis9"), ComponentType.Service))
+    val conflicting             = TcpConnection(models.ComponentId(Prefix(Subsystem.CSW, "redis10"), ComponentType.Service))
+    val newcomer                = TcpConnection(models.ComponentId(Prefix(Subsystem.CSW, "redis11"), ComponentType.Service))
+    val existingRegistration    = TcpRegistration(existing, 1111)
+    val conflictingRegistration = TcpRegistration(conflicting, 2222)
+
+    locationService.register(existingRegistration).await
+    locationService.register(conflictingRegistration).await
+
+    // the existing connection is registered again with the same location, which succeeds, before the batch fails
+    intercept[OtherLocationIsRegistered] {
+      val registrations = List(existingRegistration, TcpRegistration(newcomer, 3333), TcpRegistration(conflicting, 4444))
+      locationService.registerAll(registrations).await
+    }
+
+    val registered = List(existingRegistration, conflictingRegistration).map(_.cswVersion(mode).location(Networks().hostname))
+    locationService.list.await.toSet shouldBe registered.toSet
+    locationService.find(existing).await shouldBe Some(registered.head)
+    // the key of the existing connection still holds its location, the one of the new connection was cleared
+    intercept[OtherLocationIsRegistered](locationService.register(TcpRegistration(existing, 5555)).await)
+    locationService.register(TcpRegistration(newcomer, 6666)).await.location.connection shouldBe newcomer
+  }
+
+  test("should reject registering the same connection more than once together") {
+    val connection = TcpConnection(models.ComponentId(Prefix(Subsystem.CSW, "redis12"), ComponentType.Service))
+
+    intercept[RegistrationFailed] {
+      locationService.registerAll(List(TcpRegistration(connection, 1234), TcpRegistration(connection, 4321))).await
+    }
+
+    locationService.list.await shouldBe empty
+    locationService.register(TcpRegistration(connection, 1234)).await.location.connection shouldBe connection
+  }
+
   // DEOPSCSW-23: Unregister a comp/service
   // DEOPSCSW-35: CRDT detects comp/service crash
   // DEOPSCSW-36: Track a crashed service/comp
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.appenders
+
+import java.util.concurrent.{ArrayBlockingQueue, TimeUnit}
+
+import scala.collection.mutable
+import scala.concurrent.duration.FiniteDuration
+import scala.concurrent.{Future, Promise}
+import scala.util.control.NonFatal
+
+/**
+ * Writes log lines to their files on a dedicated thread, so that a slow disk does not hold up the LogActor. Lines are
+ * handed over through a bounded queue, which blocks the caller when it is full instead of dropping lines.
+ *
+ * Written lines are flushed together once `flushSize` bytes are pending, `flushInterval` after the first pending line,
+ * when a line asks for it and before the writer is closed.
+ *
+ * @param name name of the writer thread
+ * @param queueSize maximum number of lines waiting to be written
+ * @param flushSize number of pending bytes which triggers a flush
+ * @param flushInterval maximum time a written line stays unflushed
+ */
+private[logging] class AsyncFileWriter(name: String, queueSize: Int, flushSize: Int, flushInterval: FiniteDuration) {
+  import AsyncFileWriter._
+
+  private[this] val queue              = new ArrayBlockingQueue[Command](queueSize)
+  private[this] val flushIntervalNanos = flushInterval.toNanos
+  @volatile private[this] var closed   = false
+
+  private[this] val thread = new Thread(() => run(), name)
+  thread.setDaemon(true)
+  thread.start()
+
+  /**
+   * Queues a line to be written to a file
+   *
+   * @param file the file to write to
+   * @param time the time of the log message in milliseconds since the epoch, used to rotate the file
+   * @param line the line to write, without the line separator
+   * @param rotateFlag whether the file is rotated
+   * @param flush whether to flush the line, and all the lines pending before it, once it is written
+   */
+  def write(file: FilesAppender, time: Long, line: Array[Byte], rotateFlag: Boolean, flush: Boolean): Unit =
+    if (!closed) queue.put(Write(file, time, line, rotateFlag, flush))
+
+  /**
+   * Flushes all the lines queued so far
+   *
+   * @return a future that is completed when the lines are flushed
+   */
+  def flush(): Future[Unit] = send(Flush(_))
+
+  /**
+   * Writes and flushes all the lines queued so far, closes the files and stops the writer thread
+   *
+   * @return a future that is completed when the files are closed
+   */
+  def close(): Future[Unit] = {
+    val done = send(Close(_))
+    closed = true
+    done
+  }
+
+  private def send(command: Promise[Unit] => Command): Future[Unit] =
+    if (closed) Future.successful(())
+    else {
+      val p = Promise[Unit]()
+      queue.put(command(p))
+      p.future
+    }
+
+  private def run(): Unit = {
+    val files        = mutable.LinkedHashSet.empty[FilesAppender]
+    var pendingBytes = 0L
+    var deadline     = 0L
+    var running      = true
+
+    def flushAll(): Unit = {
+      files.foreach(file => guarded(file.flush()))
+      pendingBytes = 0
+    }
+
+    while (running) {
+      val command =
+        if (pendingBytes == 0) queue.take()
+        else queue.poll(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+
+      command match {
+        case null => flushAll()
+        case Write(file, time, line, rotateFlag, flush) =>
+          files += file
+          guarded(file.write(time, _.write(line), rotateFlag))
+          if (pendingBytes == 0) deadline = System.nanoTime() + flushIntervalNanos
+          pendingBytes += line.length
+          if (flush || pendingBytes >= flushSize) flushAll()
+        case Flush(p) =>
+          flushAll()
+          p.success(())
+        case Close(p) =>
+          flushAll()
+          files.foreach(file => guarded(file.close()))
+          p.success(())
+          running = false
+      }
+
+      if (pendingBytes > 0 && System.nanoTime() - deadline >= 0) flushAll()
+    }
+  }
+
+  // a failing disk must not stop the writer thread, otherwise the LogActor would block on the full queue
+  private def guarded(op: => Any): Unit =
+    try op
+    catch { case NonFatal(ex) => System.err.println(s"$name failed to write log file: $ex") }
+}
+
+private[logging] object AsyncFileWriter {
+  private sealed trait Command
+  private case class Write(file: FilesAppender, time: Long, line: Array[Byte], rotateFlag: Boolean, flush: Boolean)
+      extends Command
+  private case class Flush(done: Promise[Unit]) extends Command
+  private case class Close(done: Promise[Unit]) extends Command
+}
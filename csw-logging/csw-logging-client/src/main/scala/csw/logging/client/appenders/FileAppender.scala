@@ -6,12 +6,16 @@
 package csw.logging.client.appenders
 
 import java.io._
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets.UTF_8
+import java.nio.file.Paths
+import java.nio.file.StandardOpenOption.{APPEND, CREATE, WRITE}
 import java.time.temporal.ChronoUnit
-import java.time.{LocalDateTime, ZoneId, ZoneOffset, ZonedDateTime}
+import java.time.{Instant, ZoneOffset, ZonedDateTime}
 
 import akka.actor.typed.ActorSystem
 import csw.logging.api.scaladsl.Logger
-import csw.logging.client.commons.{Category, Constants, LoggingKeys, TMTDateTimeFormatter}
+import csw.logging.client.commons.{Category, Constants, LoggingKeys}
 import csw.logging.client.exceptions.BaseLogPathNotDefined
 import csw.logging.client.internal.JsonExtensions.RichJsObject
 import csw.logging.client.internal.LoggerImpl
@@ -19,49 +23,64 @@ import csw.logging.models.Level
 import play.api.libs.json.JsObject
 
 import scala.concurrent.{ExecutionContextExecutor, Future, Promise}
+import scala.jdk.DurationConverters.JavaDurationOps
 
 /**
  * Responsible for writing log messages to a file on local disk
  *
  * @param path path where the log file will be created
  * @param category category of the log messages
+ * @param bufferSize size of the buffer in front of the file in bytes
+ * @param useFileChannel whether to write through a file channel with a direct buffer instead of a buffered stream
  */
-private[logging] class FileAppenderHelper(path: String, name: String, category: String) {
+private[logging] class FileAppenderHelper(
+    path: String,
+    name: String,
+    category: String,
+    bufferSize: Int = 8192,
+    useFileChannel: Boolean = false
+) {
 
-  private[this] var fileSpanTimestamp: Option[ZonedDateTime] = None
-  private[this] var maybePrintWriter: Option[PrintWriter]    = None
+  // epoch millis after which the current file is rotated
+  private[this] var fileSpanEnd: Long                 = Long.MinValue
+  private[this] var maybeOutput: Option[OutputStream] = None
+  private[this] val lineSeparator                     = System.lineSeparator().getBytes(UTF_8)
 
   protected val log: Logger = new LoggerImpl(None, None)
 
   // The file containing logs is created on local machine. This file is rotated everyday at 12:00:00 hour.
-  def appendAdd(maybeTimestamp: Option[ZonedDateTime], line: String, rotateFlag: Boolean): Unit = {
-    maybePrintWriter match {
+  // The line is written by `writeLine` straight into the buffered stream of the file, without the line separator.
+  def appendAdd(time: Long, writeLine: OutputStream => Unit, rotateFlag: Boolean): Unit = {
+    write(time, writeLine, rotateFlag)
+    flush()
+  }
+
+  // Writes a line into the buffer of the file, it reaches the file when the buffer is full or flushed
+  def write(time: Long, writeLine: OutputStream => Unit, rotateFlag: Boolean): Unit = {
+    maybeOutput match {
       case Some(w) =>
-        if (
-          rotateFlag &&
-          maybeTimestamp.get.isAfter(
-            fileSpanTimestamp.getOrElse(ZonedDateTime.of(LocalDateTime.MIN, ZoneId.from(ZoneOffset.UTC)))
-          )
-        ) {
+        if (rotateFlag && time > fileSpanEnd) {
           w.close()
-          open(maybeTimestamp, rotateFlag)
+          open(time, rotateFlag)
         }
       case None =>
-        open(maybeTimestamp, rotateFlag)
+        open(time, rotateFlag)
     }
-    maybePrintWriter match {
+    maybeOutput match {
       case Some(w) =>
-        w.println(line)
-        w.flush()
+        writeLine(w)
+        w.write(lineSeparator)
       case None =>
     }
   }
 
+  def flush(): Unit = maybeOutput.foreach(_.flush())
+
   def appendClose(p: Promise[Unit]): Unit = {
-    maybePrintWriter match {
+    maybeOutput match {
       case Some(w) =>
         w.close()
-        maybePrintWriter = None
+        maybeOutput = None
       case None =>
     }
     p.success(())
@@ -69,19 +88,19 @@ private[logging] class FileAppenderHelper(path: String, name: String, category:
   }
 
   def postStop(): Unit =
-    maybePrintWriter match {
+    maybeOutput match {
       case Some(w) =>
         w.close()
-        maybePrintWriter = None
+        maybeOutput = None
       case None =>
     }
 
   // Initialize writer for log file
-  private def open(maybeTimestamp: Option[ZonedDateTime], rotateFlag: Boolean): Unit = {
+  private def open(time: Long, rotateFlag: Boolean): Unit = {
     def catSuffix = if (category.equalsIgnoreCase("common")) "" else s"_$category"
     val fileName = if (rotateFlag) {
-      val fileTimestamp = FileAppender.decideTimestampForFile(maybeTimestamp.get)
-      fileSpanTimestamp = Some(fileTimestamp.plusDays(1L))
+      val fileTimestamp = FileAppender.decideTimestampForFile(ZonedDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneOffset.UTC))
+      fileSpanEnd = fileTimestamp.plusDays(1L).toInstant.toEpochMilli
       s"$path/${name}_$fileTimestamp$catSuffix.log"
     }
     else {
@@ -89,8 +108,13 @@ private[logging] class FileAppenderHelper(path: String, name: String, category:
     }
 
     new File(path).mkdirs()
-    val printWriter = new PrintWriter(new BufferedOutputStream(new FileOutputStream(fileName, true)))
-    maybePrintWriter = Some(printWriter)
+    val output =
+      if (useFileChannel) {
+        val channel = FileChannel.open(Paths.get(fileName), CREATE, WRITE, APPEND)
+        new FileChannelOutputStream(channel, bufferSize)
+      }
+      else new BufferedOutputStream(new FileOutputStream(fileName, true), bufferSize)
+    maybeOutput = Some(output)
   }
 }
 
@@ -100,12 +124,23 @@ private[logging] class FileAppenderHelper(path: String, name: String, category:
  * @param path log file path
  * @param category log category
  */
-private[logging] class FilesAppender(path: String, name: String, category: String) {
+private[logging] class FilesAppender(
+    path: String,
+    name: String,
+    category: String,
+    bufferSize: Int = 8192,
+    useFileChannel: Boolean = false
+) {
+
+  private[this] val fileAppenderHelper = new FileAppenderHelper(path, name, category, bufferSize, useFileChannel)
 
-  private[this] val fileAppenderHelper = new FileAppenderHelper(path, name, category)
+  def add(time: Long, writeLine: OutputStream => Unit, rotateFlag: Boolean): Unit =
+    fileAppenderHelper.appendAdd(time, writeLine, rotateFlag)
 
-  def add(maybeTimestamp: Option[ZonedDateTime], line: String, rotateFlag: Boolean): Unit =
-    fileAppenderHelper.appendAdd(maybeTimestamp, line, rotateFlag)
+  def write(time: Long, writeLine: OutputStream => Unit, rotateFlag: Boolean): Unit =
+    fileAppenderHelper.write(time, writeLine, rotateFlag)
+
+  def flush(): Unit = fileAppenderHelper.flush()
 
   def close(): Future[Unit] = {
     val p = Promise[Unit]()
@@ -162,11 +197,28 @@ class FileAppender(system: ActorSystem[_], stdHeaders: JsObject) extends LogAppe
   private[this] val logPath       = s"${config.getString(FileAppender.BaseLogPath)}/${config.getString("logPath")}"
   private[this] val logLevelLimit = Level(config.getString("logLevelLimit"))
   private[this] val rotateFlag    = config.getBoolean("rotate")
+  private[this] val bufferSize    = config.getBytes("bufferSize").toInt
+  private[this] val fileChannel   = config.getBoolean("useFileChannel")
   private[this] val fileAppenders =
     scala.collection.mutable.HashMap[String, FilesAppender]()
   private val loggingSystemName = stdHeaders.getString(LoggingKeys.NAME)
+  private[this] val headers     = if (fullHeaders) LogRecord.Headers(stdHeaders) else LogRecord.Headers.empty
+
+  // In async mode the lines are written by a separate thread, the LogActor only copies them into the queue of the writer
+  private[this] val asyncWriter =
+    if (config.getBoolean("async"))
+      Some(
+        new AsyncFileWriter(
+          s"csw-logging-file-writer-$loggingSystemName",
+          config.getInt("queueSize"),
+          bufferSize,
+          config.getDuration("flushInterval").toScala
+        )
+      )
+    else None
+  private[this] val lineBuffer = new ByteArrayOutputStream()
 
-  private def checkLevel(baseMsg: JsObject): Boolean = {
+  private def checkLevel(baseMsg: LogRecord): Boolean = {
     val level = baseMsg.getString(LoggingKeys.SEVERITY)
     Level(level) >= logLevelLimit
   }
@@ -177,26 +229,40 @@ class FileAppender(system: ActorSystem[_], stdHeaders: JsObject) extends LogAppe
    * @param baseMsg the message to be logged.
    * @param category the kinds of log (for example, "common").
    */
-  def append(baseMsg: JsObject, category: String): Unit = {
+  def append(baseMsg: JsObject, category: String): Unit = append(LogRecord(baseMsg), category)
+
+  /**
+   * Write the log message to a file, straight from the record without building its JSON object.
+   *
+   * @param baseMsg the message to be logged.
+   * @param category the kinds of log (for example, "common").
+   */
+  override def append(baseMsg: LogRecord, category: String): Unit = {
     if (category != Category.Common.name || checkLevel(baseMsg)) {
-      val msg = (if (fullHeaders) stdHeaders ++ baseMsg else baseMsg) - LoggingKeys.PLAINSTACK
       // Maintain a file appender for each category in a logging system
       val fileAppenderKey = loggingSystemName + "-" + category
       val fileAppender = fileAppenders.get(fileAppenderKey) match {
         case Some(appender) => appender
         case None           =>
           // Create a file appender with logging file directory as logging system name within the log file path
-          val filesAppender = new FilesAppender(logPath, loggingSystemName, category)
+          val filesAppender = new FilesAppender(logPath, loggingSystemName, category, bufferSize, fileChannel)
           fileAppenders += (fileAppenderKey -> filesAppender)
           filesAppender
       }
-      val maybeTimestamp = if (rotateFlag) {
-        val timestamp = baseMsg.getString(LoggingKeys.TIMESTAMP)
-        Some(TMTDateTimeFormatter.parse(timestamp))
-      }
-      else None
+      val time = if (rotateFlag) baseMsg.time else 0L
+
+      def writeLine(out: OutputStream): Unit = baseMsg.writeTo(out, headers, withCategory = true, withPlainStack = false)
 
-      fileAppender.add(maybeTimestamp, msg.toString(), rotateFlag)
+      asyncWriter match {
+        case Some(writer) =>
+          // the record is only valid during this call, hence the line is copied before it is handed over to the writer
+          lineBuffer.reset()
+          writeLine(lineBuffer)
+          val flush = Level(baseMsg.getString(LoggingKeys.SEVERITY)) >= Level.ERROR
+          writer.write(fileAppender, time, lineBuffer.toByteArray, rotateFlag, flush)
+        case None =>
+          fileAppender.add(time, writeLine, rotateFlag)
+      }
     }
   }
 
@@ -206,17 +272,20 @@ class FileAppender(system: ActorSystem[_], stdHeaders: JsObject) extends LogAppe
    * @return a future that is completed when finished.
    */
   def finish(): Future[Unit] =
-    Future.successful(())
+    asyncWriter.fold(Future.successful(()))(_.flush())
 
   /**
    * Closes the file appender.
    *
    * @return a future that is completed when the close is complete.
    */
-  def stop(): Future[Unit] = {
-    val fs = for ((category, appender) <- fileAppenders) yield {
-      appender.close()
+  def stop(): Future[Unit] =
+    asyncWriter match {
+      case Some(writer) => writer.close()
+      case None =>
+        val fs = for ((category, appender) <- fileAppenders) yield {
+          appender.close()
+        }
+        Future.sequence(fs).map(_ => ())
     }
-    Future.sequence(fs).map(_ => ())
-  }
 }
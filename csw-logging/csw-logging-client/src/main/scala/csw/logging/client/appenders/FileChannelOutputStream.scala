@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.appenders
+
+import java.io.OutputStream
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+
+/**
+ * An output stream which collects the written bytes in a direct buffer and hands them to the file channel in one write
+ * when the buffer is full or flushed, without copying them into a heap buffer of the channel first.
+ *
+ * @param channel the channel of the file to write to
+ * @param bufferSize the size of the direct buffer in bytes
+ */
+private[logging] class FileChannelOutputStream(channel: FileChannel, bufferSize: Int) extends OutputStream {
+  private[this] val buffer = ByteBuffer.allocateDirect(bufferSize)
+
+  override def write(b: Int): Unit = {
+    if (!buffer.hasRemaining) drain()
+    buffer.put(b.toByte)
+  }
+
+  override def write(bytes: Array[Byte], offset: Int, length: Int): Unit = {
+    var from      = offset
+    var remaining = length
+    while (remaining > 0) {
+      if (!buffer.hasRemaining) drain()
+      val count = Math.min(remaining, buffer.remaining())
+      buffer.put(bytes, from, count)
+      from += count
+      remaining -= count
+    }
+  }
+
+  override def flush(): Unit = drain()
+
+  override def close(): Unit =
+    try drain()
+    finally channel.close()
+
+  private def drain(): Unit = {
+    buffer.flip()
+    while (buffer.hasRemaining) channel.write(buffer)
+    buffer.clear()
+  }
+}
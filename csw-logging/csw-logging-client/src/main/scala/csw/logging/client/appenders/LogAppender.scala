@@ -38,6 +38,15 @@ trait LogAppender {
    */
   def append(baseMsg: JsObject, category: String): Unit
 
+  /**
+   * Appends a new log message which may not have been built as a JSON object yet. Appenders which write the message as
+   * JSON should override this to write the record directly, the default builds the JSON object of the record.
+   *
+   * @param record the message to be logged, which must not be used after this method returns
+   * @param category the kinds of log (for example, "common")
+   */
+  def append(record: LogRecord, category: String): Unit = append(record.json, category)
+
   /**
    * Called just before the logger shuts down
    *
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.appenders
+
+import java.io.{ByteArrayOutputStream, OutputStream}
+import java.nio.charset.StandardCharsets.UTF_8
+
+import csw.logging.client.commons.{LoggingKeys, TMTDateTimeFormatter}
+import csw.logging.client.internal.JsonExtensions.RichJsObject
+import play.api.libs.json.{JsObject, Json}
+
+/**
+ * A log message handed over to the appenders. The message can be written as one line of JSON without building a
+ * [[play.api.libs.json.JsObject]], which is only built when an appender asks for `json`.
+ *
+ * @note a record may be backed by a buffer which is reused for the next message, hence an appender must not hold on to it
+ *       after `append` returns
+ */
+abstract class LogRecord {
+
+  /**
+   * The log message as a JSON object
+   */
+  def json: JsObject
+
+  /**
+   * Returns the value of a top level key as a string
+   *
+   * @param key the key to look for
+   * @return the value of the key, or an empty string if the key is not present
+   */
+  def getString(key: String): String = json.getString(key)
+
+  /**
+   * Returns true if the log message contains the given top level key
+   */
+  def contains(key: String): Boolean = json.contains(key)
+
+  /**
+   * The time of the log message in milliseconds since the epoch
+   */
+  def time: Long = TMTDateTimeFormatter.parse(getString(LoggingKeys.TIMESTAMP)).toInstant.toEpochMilli
+
+  /**
+   * Writes the log message as one line of JSON, without a line separator
+   *
+   * @param out            the stream to write to
+   * @param headers        the encoded standard headers to write before the message, empty for none
+   * @param withCategory   whether to write the category of the message
+   * @param withPlainStack whether to write the plain stack trace of the exception, if any
+   */
+  def writeTo(out: OutputStream, headers: LogRecord.Headers, withCategory: Boolean, withPlainStack: Boolean): Unit
+
+  /**
+   * The log message as one line of JSON
+   */
+  def toJsonString(headers: LogRecord.Headers, withCategory: Boolean, withPlainStack: Boolean): String = {
+    val out = new ByteArrayOutputStream()
+    writeTo(out, headers, withCategory, withPlainStack)
+    out.toString(UTF_8.name())
+  }
+}
+
+object LogRecord {
+
+  /**
+   * Standard headers encoded once, to be written in front of every log message
+   *
+   * @param json the headers object
+   */
+  final class Headers private (private[logging] val json: JsObject) {
+    // the members of the headers object, without the enclosing braces
+    private[logging] val bytes: Array[Byte] = members(json)
+
+    def isEmpty: Boolean = json.fields.isEmpty
+  }
+
+  object Headers {
+    val empty: Headers = new Headers(JsObject.empty)
+
+    def apply(stdHeaders: JsObject): Headers = new Headers(stdHeaders)
+  }
+
+  /**
+   * Creates a record for a log message which already is a JSON object
+   *
+   * @param json the log message
+   * @return a record which serializes the given object
+   */
+  def apply(json: JsObject): LogRecord = new JsObjectLogRecord(json)
+
+  // the members of a JSON object, without the enclosing braces
+  private def members(json: JsObject): Array[Byte] = {
+    val bytes = Json.stringify(json).getBytes(UTF_8)
+    java.util.Arrays.copyOfRange(bytes, 1, bytes.length - 1)
+  }
+
+  private class JsObjectLogRecord(val json: JsObject) extends LogRecord {
+    override def writeTo(out: OutputStream, headers: Headers, withCategory: Boolean, withPlainStack: Boolean): Unit = {
+      // members of the message replace the headers of the same name
+      var msg = if (headers.isEmpty) json else headers.json ++ json
+      if (!withCategory) msg = msg - LoggingKeys.CATEGORY
+      if (!withPlainStack) msg = msg - LoggingKeys.PLAINSTACK
+      out.write(Json.stringify(msg).getBytes(UTF_8))
+    }
+  }
+}
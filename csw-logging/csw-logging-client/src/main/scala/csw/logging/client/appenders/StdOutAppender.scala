@@ -7,7 +7,6 @@ package csw.logging.client.appenders
 
 import akka.actor.typed.ActorSystem
 import csw.logging.client.commons.{Category, LoggingKeys}
-import csw.logging.client.internal.JsonExtensions.RichJsObject
 import csw.logging.models.Level
 import play.api.libs.json.{JsObject, Json}
 
@@ -49,29 +48,39 @@ class StdOutAppender(system: ActorSystem[_], stdHeaders: JsObject, logPrinter: A
   private[this] var levels     = Map.empty[String, Int]
   private[this] var kinds      = Map.empty[String, Int]
 
+  private[this] val headers = if (fullHeaders) LogRecord.Headers(stdHeaders) else LogRecord.Headers.empty
+
   /**
    * Writes a log message to stdout
    *
    * @param baseMsg the message to be logged
    * @param category the kinds of log (for example, "common")
    */
-  def append(baseMsg: JsObject, category: String): Unit = {
-    val level = baseMsg.getString(LoggingKeys.SEVERITY)
+  def append(baseMsg: JsObject, category: String): Unit = append(LogRecord(baseMsg), category)
+
+  /**
+   * Writes a log message to stdout, without building its JSON object unless it is pretty printed
+   *
+   * @param record the message to be logged
+   * @param category the kinds of log (for example, "common")
+   */
+  override def append(record: LogRecord, category: String): Unit = {
+    val level = record.getString(LoggingKeys.SEVERITY)
 
     if (category == Category.Common.name && Level(level) >= logLevelLimit) {
-      val maybeKind = baseMsg.getString(LoggingKeys.KIND)
+      val maybeKind = record.getString(LoggingKeys.KIND)
       if (summary) {
         buildSummary(level, maybeKind)
       }
-      val msg = if (fullHeaders) stdHeaders ++ baseMsg else baseMsg
       val normalText = if (oneLine) {
-        oneLine(baseMsg, level, maybeKind)
+        oneLine(record, level, maybeKind)
       }
       else if (pretty) {
+        val msg = if (fullHeaders) stdHeaders ++ record.json else record.json
         Json.prettyPrint(msg - LoggingKeys.CATEGORY)
       }
       else {
-        (msg - LoggingKeys.CATEGORY).toString()
+        record.toJsonString(headers, withCategory = false, withPlainStack = true)
       }
 
       val finalText = if (color) {
@@ -98,16 +107,16 @@ class StdOutAppender(system: ActorSystem[_], stdHeaders: JsObject, logPrinter: A
       case _ => normalText
     }
 
-  private def oneLine(baseMsg: JsObject, level: String, maybeKind: String) = {
-    val msg       = baseMsg.getString(LoggingKeys.MESSAGE)
+  private def oneLine(record: LogRecord, level: String, maybeKind: String) = {
+    val msg       = record.getString(LoggingKeys.MESSAGE)
     val kind      = if (maybeKind.nonEmpty) s":$maybeKind" else ""
-    val file      = baseMsg.getString(LoggingKeys.FILE)
-    val where     = if (file.nonEmpty) s" ($file ${baseMsg.getString(LoggingKeys.LINE)})" else ""
-    val prefix    = baseMsg.getString(LoggingKeys.PREFIX)
-    val timestamp = baseMsg.getString(LoggingKeys.TIMESTAMP)
+    val file      = record.getString(LoggingKeys.FILE)
+    val where     = if (file.nonEmpty) s" ($file ${record.getString(LoggingKeys.LINE)})" else ""
+    val prefix    = record.getString(LoggingKeys.PREFIX)
+    val timestamp = record.getString(LoggingKeys.TIMESTAMP)
 
     val plainStack =
-      if (baseMsg.contains(LoggingKeys.PLAINSTACK)) " [Stacktrace] " ++ baseMsg.getString(LoggingKeys.PLAINSTACK) else ""
+      if (record.contains(LoggingKeys.PLAINSTACK)) " [Stacktrace] " ++ record.getString(LoggingKeys.PLAINSTACK) else ""
 
     f"$timestamp $level%-5s$kind $prefix$where - $msg$plainStack"
   }
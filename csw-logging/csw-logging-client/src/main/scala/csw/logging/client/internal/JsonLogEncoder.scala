@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.internal
+
+import java.io.OutputStream
+import java.nio.charset.StandardCharsets.UTF_8
+
+import csw.logging.api.NoLogException
+import csw.logging.client.appenders.LogRecord
+import csw.logging.client.appenders.LogRecord.Headers
+import csw.logging.client.commons.{Category, LoggingKeys, TMTDateTimeFormatter}
+import csw.logging.client.internal.LogActorMessages.Log
+import csw.logging.models.RequestId
+import csw.prefix.models.Prefix
+import play.api.libs.json.{JsObject, JsString, JsValue, Json}
+
+import scala.collection.mutable
+
+/**
+ * Writes [[csw.logging.client.internal.LogActorMessages.Log]] messages as JSON straight into a byte buffer which is
+ * reused for every message, instead of building a [[play.api.libs.json.JsObject]] first. The members are always
+ * written in the same order, and the keys as well as the members derived from the prefix of a logger are encoded once.
+ *
+ * An encoder is not thread safe, it is used by the LogActor only. A record returned by `encode` is valid until the
+ * next call to `encode`.
+ */
+private[csw] class JsonLogEncoder {
+  import JsonLogEncoder._
+
+  private val buffer   = new JsonBuffer
+  private val record   = new EncodedLogRecord(buffer)
+  private val prefixes = mutable.HashMap.empty[Prefix, Array[Byte]]
+
+  /**
+   * Encodes the log message into the buffer of this encoder
+   *
+   * @param log the message to encode
+   * @return a record over the encoded message, or a record over the JsObject of the message if it can not be encoded
+   *         in the fixed order because the user supplied members clash with the standard ones
+   */
+  def encode(log: Log): LogRecord = encode(log, detached = false)
+
+  /**
+   * Encodes the log message into a record which stays valid after the next call to `encode`, so that it can be handed
+   * over to another thread
+   *
+   * @param log the message to encode
+   * @return a record over a copy of the encoded message
+   */
+  def encodeDetached(log: Log): LogRecord = encode(log, detached = true)
+
+  private def encode(log: Log, detached: Boolean): LogRecord =
+    if (log.map.keys.exists(ReservedKeys.contains)) LogRecord(LogActorOperations.createJsonFromLog(log))
+    else {
+      buffer.reset()
+      record.reset(log)
+
+      buffer.writeRaw(TimestampKey).writeString(record.timestamp)
+      buffer.writeRaw(MessageKey).writeString(log.msg)
+      buffer.writeRaw(SeverityKey).writeString(log.level.name)
+
+      record.categoryStart = buffer.size
+      buffer.writeRaw(CommonCategory)
+      record.categoryEnd = buffer.size
+
+      log.map.fields.foreach { case (key, value) => buffer.writeByte(',').writeString(key).writeByte(':').writeValue(value) }
+
+      val location = log.sourceLocation
+      if (location.fileName.nonEmpty) buffer.writeRaw(FileKey).writeString(location.fileName)
+      if (location.line > 0) buffer.writeRaw(LineKey).writeLong(location.line)
+      (location.packageName, location.className) match {
+        case ("", "") =>
+        case ("", c)  => buffer.writeRaw(ClassKey).writeString(c)
+        case (p, c)   => buffer.writeRaw(ClassKey).writeByte('"').writeEscaped(p).writeByte('.').writeEscaped(c).writeByte('"')
+      }
+
+      log.actorName.foreach(actorName => buffer.writeRaw(ActorKey).writeString(actorName))
+      log.prefix.foreach(prefix => buffer.writeRaw(prefixes.getOrElseUpdate(prefix, encodePrefix(prefix))))
+
+      if (log.ex != NoLogException) writeException(log.ex)
+
+      log.id match {
+        case RequestId(trackingId, spanId, _) =>
+          buffer.writeRaw(TraceIdKey).writeByte('[').writeString(trackingId).writeByte(',').writeString(spanId).writeByte(']')
+        case _ =>
+      }
+
+      if (log.kind.nonEmpty) buffer.writeRaw(KindKey).writeString(log.kind)
+      if (detached) record.detach() else record
+    }
+
+  // exceptions are rare, hence their members are taken from the JsObject built for them
+  private def writeException(ex: Throwable): Unit = {
+    val exceptionJson = LogActorOperations.exceptionJson(ex)
+    exceptionJson.value.get(LoggingKeys.TRACE).foreach(trace => buffer.writeRaw(TraceKey).writeValue(trace))
+
+    record.plainStackStart = buffer.size
+    exceptionJson.value.get(LoggingKeys.PLAINSTACK).foreach(stack => buffer.writeRaw(PlainStackKey).writeValue(stack))
+    record.plainStackEnd = buffer.size
+
+    exceptionJson.value.get(LoggingKeys.CAUSE).foreach { cause =>
+      buffer.writeRaw(CauseKey).writeValue(cause)
+      record.withCause = true
+    }
+  }
+
+  private def encodePrefix(prefix: Prefix): Array[Byte] =
+    new JsonBuffer()
+      .writeRaw(PrefixKey)
+      .writeString(prefix.toString)
+      .writeRaw(SubsystemKey)
+      .writeString(prefix.subsystem.name)
+      .writeRaw(ComponentNameKey)
+      .writeString(prefix.componentName)
+      .toByteArray
+}
+
+private[csw] object JsonLogEncoder {
+
+  private def key(name: String, first: Boolean = false): Array[Byte] =
+    new JsonBuffer().writeRaw(if (first) Array.emptyByteArray else Array(','.toByte)).writeString(name).writeByte(':').toByteArray
+
+  private val TimestampKey     = key(LoggingKeys.TIMESTAMP, first = true)
+  private val MessageKey       = key(LoggingKeys.MESSAGE)
+  private val SeverityKey      = key(LoggingKeys.SEVERITY)
+  private val FileKey          = key(LoggingKeys.FILE)
+  private val LineKey          = key(LoggingKeys.LINE)
+  private val ClassKey         = key(LoggingKeys.CLASS)
+  private val ActorKey         = key(LoggingKeys.ACTOR)
+  private val PrefixKey        = key(LoggingKeys.PREFIX)
+  private val SubsystemKey     = key(LoggingKeys.SUBSYSTEM)
+  private val ComponentNameKey = key(LoggingKeys.COMPONENT_NAME)
+  private val TraceKey         = key(LoggingKeys.TRACE)
+  private val PlainStackKey    = key(LoggingKeys.PLAINSTACK)
+  private val CauseKey         = key(LoggingKeys.CAUSE)
+  private val TraceIdKey       = key(LoggingKeys.TRACE_ID)
+  private val KindKey          = key(LoggingKeys.KIND)
+
+  private val CommonCategory = new JsonBuffer().writeRaw(key(LoggingKeys.CATEGORY)).writeString(Category.Common.name).toByteArray
+
+  // members written by the encoder, which user supplied members must not clash with
+  private val ReservedKeys = Set(
+    LoggingKeys.TIMESTAMP,
+    LoggingKeys.MESSAGE,
+    LoggingKeys.SEVERITY,
+    LoggingKeys.CATEGORY,
+    LoggingKeys.FILE,
+    LoggingKeys.LINE,
+    LoggingKeys.CLASS,
+    LoggingKeys.ACTOR,
+    LoggingKeys.PREFIX,
+    LoggingKeys.SUBSYSTEM,
+    LoggingKeys.COMPONENT_NAME,
+    LoggingKeys.TRACE,
+    LoggingKeys.PLAINSTACK,
+    LoggingKeys.CAUSE,
+    LoggingKeys.TRACE_ID,
+    LoggingKeys.KIND
+  )
+
+  /**
+   * A record over the members encoded into the buffer, without the enclosing braces. The category and the plain stack
+   * trace are ranges of the buffer which are skipped when an appender leaves them out.
+   */
+  private class EncodedLogRecord(buffer: JsonBuffer) extends LogRecord {
+    private var log: Log                    = _
+    private var _json: JsObject             = _
+    var categoryStart, categoryEnd: Int     = 0
+    var plainStackStart, plainStackEnd: Int = 0
+    var withCause: Boolean                  = false
+    var timestamp: String                   = _
+
+    def reset(log: Log): Unit = {
+      this.log = log
+      timestamp = TMTDateTimeFormatter.format(log.time)
+      _json = null
+      plainStackStart = 0
+      plainStackEnd = 0
+      withCause = false
+    }
+
+    // a copy of this record with its own bytes, which stays valid when the buffer of the encoder is reused
+    def detach(): EncodedLogRecord = {
+      val detached = new EncodedLogRecord(buffer.copy())
+      detached.log = log
+      detached._json = _json
+      detached.categoryStart = categoryStart
+      detached.categoryEnd = categoryEnd
+      detached.plainStackStart = plainStackStart
+      detached.plainStackEnd = plainStackEnd
+      detached.withCause = withCause
+      detached.timestamp = timestamp
+      detached
+    }
+
+    override def json: JsObject = {
+      if (_json == null) _json = LogActorOperations.createJsonFromLog(log)
+      _json
+    }
+
+    // answers the keys read by the standard appenders without building the JsObject
+    override def getString(key: String): String =
+      key match {
+        case LoggingKeys.SEVERITY  => log.level.name
+        case LoggingKeys.MESSAGE   => log.msg
+        case LoggingKeys.KIND      => log.kind
+        case LoggingKeys.FILE      => log.sourceLocation.fileName
+        case LoggingKeys.LINE      => if (log.sourceLocation.line > 0) log.sourceLocation.line.toString else ""
+        case LoggingKeys.PREFIX    => log.prefix.fold("")(_.toString)
+        case LoggingKeys.TIMESTAMP => timestamp
+        case _                     => super.getString(key)
+      }
+
+    override def time: Long = log.time
+
+    override def contains(key: String): Boolean =
+      key match {
+        case LoggingKeys.PLAINSTACK => log.ex != NoLogException
+        case _                      => super.contains(key)
+      }
+
+    override def writeTo(out: OutputStream, headers: Headers, withCategory: Boolean, withPlainStack: Boolean): Unit = {
+      out.write('{')
+      writeHeaders(out, headers)
+      var from = 0
+      if (!withCategory) {
+        buffer.writeTo(out, from, categoryStart)
+        from = categoryEnd
+      }
+      if (!withPlainStack && plainStackEnd > plainStackStart) {
+        buffer.writeTo(out, from, plainStackStart)
+        from = plainStackEnd
+      }
+      buffer.writeTo(out, from, buffer.size)
+      out.write('}')
+    }
+
+    // members of the message replace the headers of the same name, as for a record over a JsObject
+    private def writeHeaders(out: OutputStream, headers: Headers): Unit =
+      if (!headers.isEmpty) {
+        val bytes =
+          if (!headers.json.keys.exists(writesKey)) headers.bytes
+          else Headers(JsObject(headers.json.fields.filterNot { case (key, _) => writesKey(key) })).bytes
+        if (bytes.nonEmpty) {
+          out.write(bytes)
+          out.write(',')
+        }
+      }
+
+    // true if the encoded message has a member with the given key
+    private def writesKey(key: String): Boolean = {
+      val location = log.sourceLocation
+      key match {
+        case LoggingKeys.TIMESTAMP | LoggingKeys.MESSAGE => true
+        case LoggingKeys.SEVERITY | LoggingKeys.CATEGORY => true
+        case LoggingKeys.FILE                            => location.fileName.nonEmpty
+        case LoggingKeys.LINE                            => location.line > 0
+        case LoggingKeys.CLASS                           => location.packageName.nonEmpty || location.className.nonEmpty
+        case LoggingKeys.ACTOR                           => log.actorName.isDefined
+        case LoggingKeys.PREFIX | LoggingKeys.SUBSYSTEM  => log.prefix.isDefined
+        case LoggingKeys.COMPONENT_NAME                  => log.prefix.isDefined
+        case LoggingKeys.TRACE | LoggingKeys.PLAINSTACK  => log.ex != NoLogException
+        case LoggingKeys.CAUSE                           => withCause
+        case LoggingKeys.TRACE_ID                        => log.id.isInstanceOf[RequestId]
+        case LoggingKeys.KIND                            => log.kind.nonEmpty
+        case _                                           => log.map.value.contains(key)
+      }
+    }
+  }
+
+  /**
+   * A growable byte buffer with the JSON primitives needed to encode log messages
+   */
+  private class JsonBuffer(private var bytes: Array[Byte], private var count: Int) {
+    def this() = this(new Array[Byte](1024), 0)
+
+    def size: Int = count
+
+    def copy(): JsonBuffer = new JsonBuffer(toByteArray, count)
+
+    def reset(): Unit = count = 0
+
+    def toByteArray: Array[Byte] = java.util.Arrays.copyOf(bytes, count)
+
+    def writeTo(out: OutputStream, from: Int, until: Int): Unit = out.write(bytes, from, until - from)
+
+    private def ensure(extra: Int): Unit =
+      if (count + extra > bytes.length) bytes = java.util.Arrays.copyOf(bytes, Math.max(bytes.length * 2, count + extra))
+
+    def writeByte(b: Int): JsonBuffer = {
+      ensure(1)
+      bytes(count) = b.toByte
+      count += 1
+      this
+    }
+
+    def writeRaw(raw: Array[Byte]): JsonBuffer = {
+      ensure(raw.length)
+      System.arraycopy(raw, 0, bytes, count, raw.length)
+      count += raw.length
+      this
+    }
+
+    def writeLong(value: Long): JsonBuffer = writeAscii(java.lang.Long.toString(value))
+
+    def writeString(value: String): JsonBuffer = writeByte('"').writeEscaped(value).writeByte('"')
+
+    def writeValue(value: JsValue): JsonBuffer =
+      value match {
+        case JsString(string) => writeString(string)
+        case other            => writeRaw(Json.stringify(other).getBytes(UTF_8))
+      }
+
+    // writes the characters of a JSON string, escaped and encoded as UTF-8
+    def writeEscaped(value: String): JsonBuffer = {
+      ensure(value.length * 3)
+      var i = 0
+      while (i < value.length) {
+        val c = value.charAt(i)
+        if (c == '"' || c == '\\') { bytes(count) = '\\'.toByte; bytes(count + 1) = c.toByte; count += 2 }
+        else if (c < 0x20) {
+          writeControl(c)
+          ensure((value.length - i) * 3)
+        }
+        else if (c < 0x80) { bytes(count) = c.toByte; count += 1 }
+        else if (c < 0x800) {
+          bytes(count) = (0xc0 | (c >> 6)).toByte
+          bytes(count + 1) = (0x80 | (c & 0x3f)).toByte
+          count += 2
+        }
+        else if (Character.isHighSurrogate(c) && i + 1 < value.length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          val codePoint = Character.toCodePoint(c, value.charAt(i + 1))
+          bytes(count) = (0xf0 | (codePoint >> 18)).toByte
+          bytes(count + 1) = (0x80 | ((codePoint >> 12) & 0x3f)).toByte
+          bytes(count + 2) = (0x80 | ((codePoint >> 6) & 0x3f)).toByte
+          bytes(count + 3) = (0x80 | (codePoint & 0x3f)).toByte
+          count += 4
+          i += 1
+        }
+        else {
+          bytes(count) = (0xe0 | (c >> 12)).toByte
+          bytes(count + 1) = (0x80 | ((c >> 6) & 0x3f)).toByte
+          bytes(count + 2) = (0x80 | (c & 0x3f)).toByte
+          count += 3
+        }
+        i += 1
+      }
+      this
+    }
+
+    private def writeControl(c: Char): JsonBuffer =
+      c match {
+        case '\n' => writeAscii("\\n")
+        case '\r' => writeAscii("\\r")
+        case '\t' => writeAscii("\\t")
+        case '\b' => writeAscii("\\b")
+        case '\f' => writeAscii("\\f")
+        case _    => writeByte('\\').writeAscii(f"u${c.toInt}%04X")
+      }
+
+    private def writeAscii(ascii: String): JsonBuffer = {
+      ensure(ascii.length)
+      var i = 0
+      while (i < ascii.length) {
+        bytes(count + i) = ascii.charAt(i).toByte
+        i += 1
+      }
+      count += ascii.length
+      this
+    }
+  }
+}
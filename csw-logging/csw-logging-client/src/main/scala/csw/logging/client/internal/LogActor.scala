@@ -9,79 +9,84 @@ import akka.actor.typed.scaladsl.Behaviors
 import akka.actor.typed.scaladsl.adapter.TypedActorSystemOps
 import akka.actor.typed.{Behavior, PostStop}
 import akka.event.LogSource
-import csw.logging.client.appenders.LogAppender
-import csw.logging.client.commons.Category
+import csw.logging.client.appenders.{LogAppender, LogRecord}
 import csw.logging.client.internal.LogActorMessages._
 import csw.logging.models.Level
-import play.api.libs.json.JsObject
 
+import scala.collection.mutable
 import scala.concurrent.Promise
 
 /**
  * All log messages are routed to this single Akka Actor. There is one LogActor per logging system.
  * Logging messages from logging API, Java Slf4j and Akka loggers are sent to this actor.
  * Messages are then forwarded to one or more configured appenders.
+ *
+ * When the logging system is sharded, the messages are formatted by the shards in parallel and this actor only passes
+ * the formatted records on to the appenders, so that every appender is still used by a single actor.
  */
 private[logging] object LogActor {
 
+  /**
+   * @param shards number of shards formatting the log messages for this actor, 0 when it formats them itself. The actor
+   *               stops once every shard has passed on StopLogging.
+   * @param queue  depth of the queue of the shards, which is decremented once a sharded message is appended
+   */
   def behavior(
       done: Promise[Unit],
       appends: Seq[LogAppender],
       initLevel: Level,
       initSlf4jLevel: Level,
-      initAkkaLevel: Level
+      initAkkaLevel: Level,
+      shards: Int = 0,
+      queue: Option[LogShards.QueueCounters] = None
   ): Behavior[LogActorMessages] =
     Behaviors.setup { ctx =>
-      import LogActorOperations._
-
       implicit val logSource: LogSource[AnyRef] = new LogSource[AnyRef] {
         def genString(o: AnyRef): String           = o.getClass.getName
         override def getClazz(o: AnyRef): Class[_] = o.getClass
       }
 
       var level: Level                = initLevel
-      var akkaLogLevel: Level         = initAkkaLevel
-      var slf4jLogLevel: Level        = initSlf4jLevel
       var appenders: Seq[LogAppender] = appends
+      val formatter                   = new LogFormatter(initSlf4jLevel, initAkkaLevel, detached = false)
+      var runningShards               = shards
 
-      // Send JSON log object for each appender configured for the logging system
-      def append(baseMsg: JsObject, category: String): Unit =
-        for (appender <- appenders) appender.append(baseMsg, category)
+      // records formatted by the shards ahead of their turn, when the global order is kept
+      val reorderBuffer = mutable.LongMap.empty[Option[(LogRecord, String)]]
+      var nextSeq       = 0L
 
-      def receiveAltMessage(logAltMessage: LogAltMessage): Unit = {
-        val jsonObject = generateAltMessageJson(logAltMessage)
-        append(jsonObject, logAltMessage.category)
-      }
+      // Send log record for each appender configured for the logging system
+      def append(record: LogRecord, category: String): Unit =
+        for (appender <- appenders) appender.append(record, category)
 
-      def receiveLogSlf4j(logSlf4j: LogSlf4j): Unit =
-        if (logSlf4j.level >= LoggingState.slf4jLogLevel) {
-          val jsonObject = generateLogSlf4jJson(logSlf4j, slf4jLogLevel)
-          jsonObject.foreach(json => append(json, Category.Common.name))
-        }
-
-      def receiveLogAkkaMessage(logAkka: LogAkka): Unit =
-        if (logAkka.level >= LoggingState.akkaLogLevel) {
-          val jsonObject = generateLogAkkaJson(logAkka, akkaLogLevel)
-          jsonObject.foreach(json => append(json, Category.Common.name))
+      def receiveFormatted(formattedLog: FormattedLog): Unit = {
+        if (formattedLog.seq == Unordered) formattedLog.record.foreach { case (record, category) => append(record, category) }
+        else {
+          reorderBuffer.update(formattedLog.seq, formattedLog.record)
+          while (reorderBuffer.contains(nextSeq)) {
+            reorderBuffer.remove(nextSeq).flatten.foreach { case (record, category) => append(record, category) }
+            nextSeq += 1
+          }
         }
+        queue.foreach(_.appended())
+      }
 
-      def receiveLog(log: Log): Unit = {
-        if (log.level >= LoggingState.logLevel)
-          append(createJsonFromLog(log), Category.Common.name)
+      def stopShard(): Behavior[LogActorMessages] = {
+        runningShards -= 1
+        if (runningShards > 0) Behaviors.same else Behaviors.stopped
       }
 
       Behaviors
         .receiveMessage[LogActorMessages] {
-          case log: Log                     => receiveLog(log); Behaviors.same
-          case logAltMessage: LogAltMessage => receiveAltMessage(logAltMessage); Behaviors.same
-          case logSlf4J: LogSlf4j           => receiveLogSlf4j(logSlf4J); Behaviors.same
-          case logAkka: LogAkka             => receiveLogAkkaMessage(logAkka); Behaviors.same
-          case SetLevel(level1)             => level = level1; Behaviors.same
-          case SetSlf4jLevel(level1)        => slf4jLogLevel = level1; Behaviors.same
-          case SetAkkaLevel(level1)         => akkaLogLevel = level1; Behaviors.same
-          case SetAppenders(_appenders)     => appenders = _appenders; Behaviors.same
-          case LastAkkaMessage              => akka.event.Logging(ctx.system.toClassic, this).error("DIE"); Behaviors.same
-          case StopLogging                  => Behaviors.stopped
+          case formattedLog: FormattedLog => receiveFormatted(formattedLog); Behaviors.same
+          case SetLevel(level1)           => level = level1; Behaviors.same
+          case SetSlf4jLevel(level1)      => formatter.slf4jLogLevel = level1; Behaviors.same
+          case SetAkkaLevel(level1)       => formatter.akkaLogLevel = level1; Behaviors.same
+          case SetAppenders(_appenders)   => appenders = _appenders; Behaviors.same
+          case LastAkkaMessage            => akka.event.Logging(ctx.system.toClassic, this).error("DIE"); Behaviors.same
+          case StopLogging if shards > 0  => stopShard()
+          case StopLogging                => Behaviors.stopped
+          case msg                        => formatter.format(msg)(append); Behaviors.same
         }
         .receiveSignal { case (_, PostStop) =>
           done.success(())
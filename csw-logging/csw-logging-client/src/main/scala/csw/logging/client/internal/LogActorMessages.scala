@@ -5,7 +5,7 @@
 
 package csw.logging.client.internal
 
-import csw.logging.client.appenders.LogAppender
+import csw.logging.client.appenders.{LogAppender, LogRecord}
 import csw.logging.macros.SourceLocation
 import csw.logging.models.{AnyId, Level}
 import csw.prefix.models.Prefix
@@ -51,4 +51,13 @@ private[csw] object LogActorMessages {
 
   case object StopLogging extends LogActorMessages
 
+  // Model for log messages routed to a shard, numbered when the shards keep the global order of messages
+  case class ShardedLog(seq: Long, msg: LogActorMessages) extends LogActorMessages
+
+  // Model for the outcome of a ShardedLog sent to the LogActor, record is None when the message was filtered out
+  case class FormattedLog(seq: Long, record: Option[(LogRecord, String)]) extends LogActorMessages
+
+  // Sequence number of sharded log messages when the order across shards is not kept
+  val Unordered: Long = -1L
+
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.internal
+
+import csw.logging.client.appenders.LogRecord
+import csw.logging.client.commons.Category
+import csw.logging.client.internal.LogActorMessages._
+import csw.logging.models.Level
+
+/**
+ * Filters log messages by their level and turns them into records for the appenders. Used by the LogActor, and by
+ * every shard when the messages are formatted in parallel.
+ *
+ * A formatter is not thread safe, it is owned by one actor.
+ *
+ * @param detached whether the records of Log messages have to stay valid after the next message is formatted, which is
+ *                 the case when they are handed over to another actor
+ */
+private[logging] class LogFormatter(initSlf4jLevel: Level, initAkkaLevel: Level, detached: Boolean) {
+  import LogActorOperations._
+
+  var akkaLogLevel: Level  = initAkkaLevel
+  var slf4jLogLevel: Level = initSlf4jLevel
+
+  private[this] val encoder = new JsonLogEncoder
+
+  /**
+   * Formats a log message and passes the record and its category to `append`, unless the message is filtered out
+   */
+  def format(msg: LogActorMessages)(append: (LogRecord, String) => Unit): Unit =
+    msg match {
+      case log: Log =>
+        if (log.level >= LoggingState.logLevel)
+          append(if (detached) encoder.encodeDetached(log) else encoder.encode(log), Category.Common.name)
+      case logAltMessage: LogAltMessage =>
+        append(LogRecord(generateAltMessageJson(logAltMessage)), logAltMessage.category)
+      case logSlf4j: LogSlf4j =>
+        if (logSlf4j.level >= LoggingState.slf4jLogLevel)
+          generateLogSlf4jJson(logSlf4j, slf4jLogLevel).foreach(json => append(LogRecord(json), Category.Common.name))
+      case logAkka: LogAkka =>
+        if (logAkka.level >= LoggingState.akkaLogLevel)
+          generateLogAkkaJson(logAkka, akkaLogLevel).foreach(json => append(LogRecord(json), Category.Common.name))
+      case _ =>
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.internal
+
+import java.util.concurrent.atomic.{AtomicLong, LongAdder}
+
+import akka.actor.typed.scaladsl.Behaviors
+import akka.actor.typed.{ActorRef, Behavior}
+import csw.logging.client.appenders.LogRecord
+import csw.logging.client.internal.LogActorMessages._
+import csw.logging.client.models.LogQueueMetrics
+import csw.logging.models.Level
+
+/**
+ * Routes log messages to shards which format them in parallel and pass the records on to the LogActor, which remains
+ * the only actor using the appenders.
+ *
+ * A message is assigned to a shard by the prefix of its logger, or by its category, class or source when it has no
+ * prefix, so the messages of one component are formatted in order by the same shard. With `strictOrder` every message
+ * is numbered and the LogActor appends the records in that order, whichever shard formatted them.
+ *
+ * @param logActor the LogActor which appends the formatted records
+ * @param shards the shards formatting the log messages
+ * @param strictOrder whether to keep the global order of log messages across shards
+ * @param maxQueueSize maximum number of messages on their way through the shards, messages beyond are dropped
+ * @param queue counters of the messages on their way through the shards
+ */
+private[logging] class LogShards(
+    logActor: ActorRef[LogActorMessages],
+    shards: IndexedSeq[ActorRef[LogActorMessages]],
+    strictOrder: Boolean,
+    maxQueueSize: Int,
+    queue: LogShards.QueueCounters
+) {
+  private[this] val sequence = new AtomicLong()
+
+  def send(msg: LogActorMessages): Unit =
+    msg match {
+      case log: Log                     => route(log.prefix.fold(log.sourceLocation.className.hashCode)(_.hashCode), msg)
+      case logAltMessage: LogAltMessage => route(logAltMessage.category.hashCode, msg)
+      case logSlf4j: LogSlf4j           => route(logSlf4j.className.hashCode, msg)
+      case logAkka: LogAkka             => route(logAkka.source.hashCode, msg)
+      case _: SetSlf4jLevel | _: SetAkkaLevel =>
+        shards.foreach(_ ! msg)
+        logActor ! msg
+      // the LogActor stops once every shard has passed on StopLogging after the messages queued before it
+      case StopLogging => shards.foreach(_ ! StopLogging)
+      case _           => logActor ! msg
+    }
+
+  def metrics: LogQueueMetrics = LogQueueMetrics(queue.depth.get(), queue.dropped.sum())
+
+  private def route(hash: Int, msg: LogActorMessages): Unit =
+    if (queue.depth.incrementAndGet() > maxQueueSize) {
+      queue.depth.decrementAndGet()
+      queue.dropped.increment()
+    }
+    else {
+      // numbered only once admitted, so that a dropped message leaves no gap in the sequence
+      val seq = if (strictOrder) sequence.getAndIncrement() else Unordered
+      shards(Math.floorMod(hash, shards.size)) ! ShardedLog(seq, msg)
+    }
+}
+
+private[logging] object LogShards {
+
+  class QueueCounters {
+    val depth: AtomicLong  = new AtomicLong()
+    val dropped: LongAdder = new LongAdder()
+
+    def appended(): Unit = depth.decrementAndGet()
+  }
+
+  /**
+   * A shard formats the log messages routed to it and sends the records to the LogActor. Every sharded message is
+   * answered, also when it is filtered out, so that the LogActor can account for it.
+   */
+  def shard(logActor: ActorRef[LogActorMessages], initSlf4jLevel: Level, initAkkaLevel: Level): Behavior[LogActorMessages] =
+    Behaviors.setup { _ =>
+      val formatter = new LogFormatter(initSlf4jLevel, initAkkaLevel, detached = true)
+
+      Behaviors.receiveMessage {
+        case ShardedLog(seq, msg) =>
+          var formatted: Option[(LogRecord, String)] = None
+          formatter.format(msg)((record, category) => formatted = Some((record, category)))
+          logActor ! FormattedLog(seq, formatted)
+          Behaviors.same
+        case SetSlf4jLevel(level) => formatter.slf4jLogLevel = level; Behaviors.same
+        case SetAkkaLevel(level)  => formatter.akkaLogLevel = level; Behaviors.same
+        case StopLogging          => logActor ! StopLogging; Behaviors.stopped
+        case _                    => Behaviors.same
+      }
+    }
+}
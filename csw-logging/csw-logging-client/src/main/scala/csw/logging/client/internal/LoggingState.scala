@@ -30,6 +30,8 @@ private[logging] object LoggingState {
 
   // LogActor that gets instantiated when LoggingSystem starts
   var maybeLogActor: Option[ActorRef[LogActorMessages]] = None
+  // Shards in front of the LogActor, when LoggingSystem is configured to format log messages in parallel
+  var maybeLogShards: Option[LogShards]                 = None
   @volatile var loggerStopping                          = false
 
   var doTime: Boolean                                     = false
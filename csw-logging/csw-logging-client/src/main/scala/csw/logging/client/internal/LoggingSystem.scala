@@ -17,7 +17,7 @@ import csw.logging.client.commons.LoggingKeys
 import csw.logging.client.exceptions.AppenderNotFoundException
 import csw.logging.client.internal.LogActorMessages._
 import csw.logging.client.internal.TimeActorMessages.TimeDone
-import csw.logging.client.models.ComponentLoggingState
+import csw.logging.client.models.{ComponentLoggingState, LogQueueMetrics}
 import csw.logging.models.{Level, Levels, LogMetadata}
 import csw.prefix.models.Prefix
 import org.slf4j.LoggerFactory
@@ -93,13 +93,31 @@ class LoggingSystem private[csw] (name: String, version: String, host: String, v
     _.apply(system, standardHeaders)
   }
 
+  private[this] val shardCount = loggingConfig.getInt("shards")
+  private[this] val queueCounters =
+    if (shardCount > 0) Some(new LogShards.QueueCounters)
+    else None
+
   private[this] val logActor = system.spawn(
-    LogActor.behavior(done, appenders, defaultLevel, defaultSlf4jLogLevel, defaultAkkaLogLevel),
+    LogActor.behavior(done, appenders, defaultLevel, defaultSlf4jLogLevel, defaultAkkaLogLevel, shardCount, queueCounters),
     name = "LoggingActor",
     MailboxSelector.fromConfig("logging-dispatcher")
   )
 
+  // Shards format the log messages in parallel, the LogActor keeps appending them one at a time
+  private[this] val logShards: Option[LogShards] = queueCounters.map { counters =>
+    val shards = (1 to shardCount).map { i =>
+      system.spawn(
+        LogShards.shard(logActor, defaultSlf4jLogLevel, defaultAkkaLogLevel),
+        name = s"LoggingShard-$i",
+        MailboxSelector.fromConfig("logging-dispatcher")
+      )
+    }
+    new LogShards(logActor, shards, loggingConfig.getBoolean("strictOrder"), loggingConfig.getInt("shardQueueSize"), counters)
+  }
+
   LoggingState.maybeLogActor = Some(logActor)
+  LoggingState.maybeLogShards = logShards
 
   private[logging] val gcLogger: Option[GcLogger] =
     if (gc) Some(new GcLogger)
@@ -146,7 +164,7 @@ class LoggingSystem private[csw] (name: String, version: String, host: String, v
    */
   def setAkkaLevel(level: Level): Unit = {
     LoggingState.akkaLogLevel = level
-    logActor ! SetAkkaLevel(level)
+    send(SetAkkaLevel(level))
   }
 
   /**
@@ -163,7 +181,7 @@ class LoggingSystem private[csw] (name: String, version: String, host: String, v
    */
   def setSlf4jLevel(level: Level): Unit = {
     LoggingState.slf4jLogLevel = level
-    logActor ! SetSlf4jLevel(level)
+    send(SetSlf4jLevel(level))
   }
 
   /**
@@ -192,6 +210,13 @@ class LoggingSystem private[csw] (name: String, version: String, host: String, v
   def setComponentLogLevel(prefix: Prefix, level: Level): Unit =
     ComponentLoggingStateManager.add(prefix, level)
 
+  /**
+   * Get the metrics of the queue of log messages, when log messages are formatted by shards (`csw-logging.shards` > 0)
+   *
+   * @return the number of queued and dropped log messages, or None when the logging system is not sharded
+   */
+  def getQueueMetrics: Option[LogQueueMetrics] = logShards.map(_.metrics)
+
   /**
    * Get the basic logging configuration values
    *
@@ -225,8 +250,9 @@ class LoggingSystem private[csw] (name: String, version: String, host: String, v
 
     def stopLogger(): Future[Unit] = {
       LoggingState.loggerStopping = true
-      logActor ! StopLogging
+      send(StopLogging)
       LoggingState.maybeLogActor = None
+      LoggingState.maybeLogShards = None
       LoggingState.loggerStopping = false
       done.future
     }
@@ -252,6 +278,12 @@ class LoggingSystem private[csw] (name: String, version: String, host: String, v
 
   def javaStop(): CompletableFuture[Done] = stop.toJava.toCompletableFuture
 
+  private def send(msg: LogActorMessages): Unit =
+    logShards match {
+      case Some(shards) => shards.send(msg)
+      case None         => logActor ! msg
+    }
+
   private def getAppenderInstance(appender: String): LogAppenderBuilder = {
     try {
       if (appender.endsWith("$"))
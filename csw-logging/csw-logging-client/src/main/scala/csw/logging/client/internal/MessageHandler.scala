@@ -37,7 +37,10 @@ private[logging] object MessageHandler {
 //      println(s"*** Log message received after logger shutdown: $msg")
     }
     else {
-      maybeLogActor.foreach(_ ! msg)
+      maybeLogShards match {
+        case Some(logShards) => logShards.send(msg)
+        case None            => maybeLogActor.foreach(_ ! msg)
+      }
     }
 
   // Route akka messages to common log actor
@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.models
+
+/**
+ * Metrics of the queue of log messages waiting to be formatted and appended by a sharded logging system
+ *
+ * @param queueDepth number of log messages accepted but not yet handed to the appenders
+ * @param dropped number of log messages dropped since the logging system started, because the queue was full
+ */
+case class LogQueueMetrics(queueDepth: Long, dropped: Long)
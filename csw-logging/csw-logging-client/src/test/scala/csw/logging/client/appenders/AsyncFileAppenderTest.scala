@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.appenders
+
+import java.nio.file.Paths
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.logging.client.commons.{Category, LoggingKeys, TMTDateTimeFormatter}
+import csw.logging.client.utils.FileUtils
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.Eventually
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+import play.api.libs.json.{JsObject, Json}
+
+import scala.concurrent.Await
+import scala.concurrent.duration.DurationLong
+import scala.jdk.CollectionConverters._
+
+class AsyncFileAppenderTest extends AnyFunSuite with Matchers with BeforeAndAfterAll with Eventually {
+  private val logFileDir = Paths.get("/tmp/csw-async-test-logs/").toFile
+  private val map: Map[String, Any] = Map(
+    "csw-logging.appender-config.file.logPath"        -> "csw-async-test-logs",
+    "csw-logging.appender-config.file.async"          -> true,
+    "csw-logging.appender-config.file.useFileChannel" -> true,
+    "csw-logging.appender-config.file.flushInterval"  -> "100ms"
+  )
+  private val config                    = ConfigFactory.parseMap(map.asJava).withFallback(ConfigFactory.load())
+  private val actorSystem               = ActorSystem(SpawnProtocol(), "test-1", config)
+  private val standardHeaders: JsObject = Json.obj(LoggingKeys.HOST -> "localhost", LoggingKeys.NAME -> "test-service")
+
+  private val fileAppender = new FileAppender(actorSystem, standardHeaders)
+
+  override implicit val patienceConfig: PatienceConfig = PatienceConfig(5.seconds, 50.millis)
+
+  private def logMsg(severity: String, timestamp: String): JsObject =
+    Json.obj(
+      LoggingKeys.CATEGORY  -> Category.Common.name,
+      LoggingKeys.HOST      -> "localhost",
+      LoggingKeys.NAME      -> "test-service",
+      LoggingKeys.SEVERITY  -> severity,
+      LoggingKeys.TIMESTAMP -> timestamp,
+      LoggingKeys.MESSAGE   -> s"This is at $severity level"
+    )
+
+  private def logFilePath(timestamp: String) = {
+    val fileTimestamp = FileAppender.decideTimestampForFile(TMTDateTimeFormatter.parse(timestamp))
+    s"${logFileDir.getAbsolutePath}/test-service_$fileTimestamp.log"
+  }
+
+  override protected def beforeAll(): Unit = FileUtils.deleteRecursively(logFileDir)
+
+  override protected def afterAll(): Unit = {
+    Await.result(fileAppender.stop(), 5.seconds)
+    FileUtils.deleteRecursively(logFileDir)
+    actorSystem.terminate()
+    Await.result(actorSystem.whenTerminated, 5.seconds)
+  }
+
+  test("should write lines on the writer thread and flush them within the flush interval") {
+    val info = logMsg("INFO", "2017-06-19T16:10:19.397Z")
+    fileAppender.append(info, Category.Common.name)
+
+    eventually(FileUtils.read(logFilePath("2017-06-19T16:10:19.397Z")).toList shouldBe List(info))
+  }
+
+  test("should rotate the file based on the time of the log message") {
+    val before = logMsg("INFO", "2017-06-21T11:59:59.999Z")
+    val after  = logMsg("ERROR", "2017-06-21T12:00:00.001Z")
+    fileAppender.append(before, Category.Common.name)
+    fileAppender.append(after, Category.Common.name)
+    Await.result(fileAppender.finish(), 5.seconds)
+
+    FileUtils.read(logFilePath("2017-06-21T11:59:59.999Z")).toList shouldBe List(before)
+    FileUtils.read(logFilePath("2017-06-21T12:00:00.001Z")).toList shouldBe List(after)
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.internal
+
+import csw.logging.api.NoLogException
+import csw.logging.client.appenders.LogRecord
+import csw.logging.client.commons.LoggingKeys
+import csw.logging.client.internal.JsonExtensions.RichJsObject
+import csw.logging.client.internal.LogActorMessages.Log
+import csw.logging.macros.SourceLocation
+import csw.logging.models.Level.{ERROR, INFO}
+import csw.logging.models.{noId, RequestId}
+import csw.prefix.models.Prefix
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+import play.api.libs.json.{JsObject, Json}
+
+class JsonLogEncoderTest extends AnyFunSuite with Matchers {
+
+  private val encoder = new JsonLogEncoder
+
+  private val log = Log(
+    Some(Prefix("csw.tromboneHCD")),
+    INFO,
+    noId,
+    System.currentTimeMillis(),
+    Some("testActor"),
+    "quotes \" backslash \\ newline \n tab \t control \u0001 umlaut ä euro € emoji 😀",
+    Json.obj("name" -> "trombone", "position" -> 12.5, "moving" -> true, "nested" -> Json.obj("axis" -> Seq(1, 2))),
+    SourceLocation("hcd.scala", "iris", "tromboneHCD", 12),
+    NoLogException,
+    "kind"
+  )
+
+  private def encode(log: Log, withCategory: Boolean = true, withPlainStack: Boolean = true): String =
+    encoder.encode(log).toJsonString(LogRecord.Headers.empty, withCategory, withPlainStack)
+
+  test("should write the same JSON as the JsObject created from a log") {
+    encode(log) shouldBe Json.stringify(LogActorOperations.createJsonFromLog(log))
+  }
+
+  test("should leave out the category and the plain stack trace when asked to") {
+    val failed   = log.copy(level = ERROR, id = RequestId("tracking", "1"), ex = new RuntimeException("failed"))
+    val expected = LogActorOperations.createJsonFromLog(failed)
+
+    Json.parse(encode(failed)) shouldBe expected
+    Json.parse(encode(failed, withCategory = false)) shouldBe expected - LoggingKeys.CATEGORY
+    Json.parse(encode(failed, withPlainStack = false)) shouldBe expected - LoggingKeys.PLAINSTACK
+    Json.parse(encode(failed, withCategory = false, withPlainStack = false)) shouldBe
+      expected - LoggingKeys.CATEGORY - LoggingKeys.PLAINSTACK
+  }
+
+  test("should write the standard headers before the log message") {
+    val stdHeaders = Json.obj(LoggingKeys.HOST -> "localhost", LoggingKeys.NAME -> "test")
+    val json       = encoder.encode(log).toJsonString(LogRecord.Headers(stdHeaders), withCategory = true, withPlainStack = true)
+
+    json shouldBe Json.stringify(stdHeaders ++ LogActorOperations.createJsonFromLog(log))
+  }
+
+  test("should leave out the standard headers whose keys are present in the log message") {
+    // the user map of the log message has a member "name"
+    val stdHeaders = Json.obj(LoggingKeys.HOST -> "localhost", "name" -> "header", LoggingKeys.FILE -> "header.scala")
+    val expected   = stdHeaders ++ LogActorOperations.createJsonFromLog(log)
+    val json       = encoder.encode(log).toJsonString(LogRecord.Headers(stdHeaders), withCategory = true, withPlainStack = true)
+
+    // the parser accepts duplicate keys, hence the occurrences are counted
+    Seq("name", LoggingKeys.FILE).foreach(key => ("\"" + key + "\":").r.findAllIn(json).size shouldBe 1)
+    Json.parse(json) shouldBe expected
+
+    val onlyClashing = Json.obj("name" -> "header")
+    Json.parse(
+      encoder.encode(log).toJsonString(LogRecord.Headers(onlyClashing), withCategory = true, withPlainStack = true)
+    ) shouldBe LogActorOperations.createJsonFromLog(log)
+  }
+
+  test("should answer the keys read by the appenders without building the JsObject") {
+    val record   = encoder.encode(log)
+    val expected = LogActorOperations.createJsonFromLog(log)
+
+    Seq(LoggingKeys.SEVERITY, LoggingKeys.MESSAGE, LoggingKeys.KIND, LoggingKeys.FILE, LoggingKeys.LINE, LoggingKeys.PREFIX)
+      .foreach(key => record.getString(key) shouldBe expected.getString(key))
+    record.contains(LoggingKeys.PLAINSTACK) shouldBe false
+    record.json shouldBe expected
+  }
+
+  test("should fall back to the JsObject when the user map overrides a standard key") {
+    val overriding = log.copy(map = Json.obj(LoggingKeys.SEVERITY -> "custom"))
+    val json       = Json.parse(encode(overriding)).as[JsObject]
+
+    json shouldBe LogActorOperations.createJsonFromLog(overriding)
+    json.getString(LoggingKeys.SEVERITY) shouldBe "custom"
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.logging.client.internal
+
+import akka.actor.typed.{ActorSystem, SpawnProtocol}
+import com.typesafe.config.ConfigFactory
+import csw.logging.client.commons.LoggingKeys
+import csw.logging.client.internal.JsonExtensions.RichJsObject
+import csw.logging.client.models.LogQueueMetrics
+import csw.logging.client.scaladsl.LoggerFactory
+import csw.logging.client.utils.LoggingTestSuite
+import csw.prefix.models.Prefix
+import csw.prefix.models.Subsystem.CSW
+import org.scalatest.concurrent.Eventually
+
+import scala.concurrent.duration.DurationInt
+
+class ShardedLoggingTest extends LoggingTestSuite with Eventually {
+  private val config = ConfigFactory
+    .parseString("""
+        |csw-logging.shards = 4
+        |csw-logging.strictOrder = true
+        |""".stripMargin)
+    .withFallback(ConfigFactory.load())
+
+  override lazy val actorSystem = ActorSystem(SpawnProtocol(), "sharded-logging-test", config)
+
+  override implicit val patienceConfig: PatienceConfig = PatienceConfig(5.seconds, 50.millis)
+
+  test("should append the log messages of all components in the order they were logged when strictOrder is on") {
+    val loggers = (1 to 8).map(i => new LoggerFactory(Prefix(CSW, s"component$i")).getLogger)
+
+    (0 until 400).foreach(i => loggers(i % loggers.size).info(s"message $i"))
+
+    eventually(logBuffer.size shouldBe 400)
+    logBuffer.map(_.getString(LoggingKeys.MESSAGE)) shouldBe (0 until 400).map(i => s"message $i")
+    logBuffer.map(_.getString(LoggingKeys.COMPONENT_NAME)).distinct.size shouldBe 8
+    eventually(loggingSystem.getQueueMetrics shouldBe Some(LogQueueMetrics(0, 0)))
+  }
+}
@@ -67,11 +67,33 @@ trait ParamCodecsBase extends CommonCodecs {
   implicit lazy val taiTimeCodec: Codec[TAITime] = deriveCodec
 
   // ************************ Composite Codecs ********************
-  implicit def arrayDataCodec[T: ArrayEnc: ArrayDec]: Codec[ArrayData[T]] =
-    Codec.bimap[Array[T], ArrayData[T]](_.values, ArrayData.fromArray)
+  // arrays and matrices of primitives are written as RFC 8746 typed arrays in CBOR, and as plain arrays in JSON
+  implicit def arrayDataCodec[T: ClassTag: ArrayEnc: ArrayDec]: Codec[ArrayData[T]] = {
+    val arrayCodec = TypedArrays.element[T] match {
+      case Some(element) =>
+        Codec(
+          Encoder.targetSpecific(cbor = TypedArrays.arrayEncoder(element), json = implicitly[ArrayEnc[T]]),
+          Decoder.targetSpecific(
+            cbor = TypedArrays.arrayDecoder(element, implicitly[ArrayDec[T]]),
+            json = implicitly[ArrayDec[T]]
+          )
+        )
+      case None => Codec(implicitly[ArrayEnc[T]], implicitly[ArrayDec[T]])
+    }
+    Codec.bimap[Array[T], ArrayData[T]](_.values, ArrayData.fromArray)(arrayCodec.encoder, arrayCodec.decoder)
+  }
 
-  implicit def matrixDataCodec[T: ClassTag: ArrayEnc: ArrayDec]: Codec[MatrixData[T]] =
-    Codec.bimap[Array[Array[T]], MatrixData[T]](_.values, MatrixData.fromArrays)
+  implicit def matrixDataCodec[T: ClassTag: ArrayEnc: ArrayDec]: Codec[MatrixData[T]] = {
+    val rowsCodec = Codec.bimap[Array[Array[T]], MatrixData[T]](_.values, MatrixData.fromArrays)
+    TypedArrays.element[T] match {
+      case Some(element) =>
+        Codec(
+          Encoder.targetSpecific(cbor = TypedArrays.matrixEncoder(element), json = rowsCodec.encoder),
+          Decoder.targetSpecific(cbor = TypedArrays.matrixDecoder(element, implicitly[ArrayDec[T]]), json = rowsCodec.decoder)
+        )
+      case None => rowsCodec
+    }
+  }
 
   // ************************ Parameter Codecs ********************
   // Do not replace these with bimap, due to an issue with borer https://github.com/sirthias/borer/issues/24
@@ -115,7 +137,7 @@ trait ParamCodecsBase extends CommonCodecs {
 
   // ************************ Event Codecs ********************
   implicit lazy val idCodec: Codec[Id]               = deriveCodec
-  implicit lazy val eventNameCodec: Codec[EventName] = deriveCodec
+  implicit lazy val eventNameCodec: Codec[EventName] = Codec.bimap[String, EventName](_.name, EventName.interned(_))
   implicit lazy val eventCodec: Codec[Event]         = deriveAllCodecs
 
   // ************************ Command Codecs ********************
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.params.core.formats
+
+import java.nio.{ByteBuffer, ByteOrder}
+
+import csw.params.core.models.MatrixData
+import io.bullet.borer.{Decoder, Encoder, Reader, Tag, Writer}
+
+import scala.reflect.ClassTag
+
+/**
+ * CBOR codecs for arrays and matrices of primitives based on the typed arrays of RFC 8746. An array is written as a tagged
+ * byte string holding its values in little endian order, which is copied in bulk instead of writing every value as a
+ * separate CBOR data item. A rectangular matrix is written as a row-major multi-dimensional array of its dimensions and
+ * one typed array of all its values.
+ *
+ * Decoders also accept the plain CBOR arrays written before typed arrays were introduced.
+ */
+private[formats] object TypedArrays {
+
+  // RFC 8746: multi-dimensional array in row-major order
+  val RowMajorArray: Tag = Tag.Other(40)
+
+  sealed abstract class Element[T](tagCode: Long, size: Int) {
+    val tag: Tag = Tag.Other(tagCode)
+
+    def toBytes(values: Array[T], offset: Int, length: Int): Array[Byte] = {
+      val buffer = ByteBuffer.allocate(length * size).order(ByteOrder.LITTLE_ENDIAN)
+      put(buffer, values, offset, length)
+      buffer.array()
+    }
+
+    def fromBytes(bytes: Array[Byte]): Array[T] = {
+      if (bytes.length % size != 0)
+        throw new IllegalArgumentException(s"Typed array of ${bytes.length} bytes is not a multiple of $size bytes")
+      get(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN), bytes.length / size)
+    }
+
+    protected def put(buffer: ByteBuffer, values: Array[T], offset: Int, length: Int): Unit
+    protected def get(buffer: ByteBuffer, length: Int): Array[T]
+  }
+
+  object DoubleElement extends Element[Double](86, 8) {
+    protected def put(buffer: ByteBuffer, values: Array[Double], offset: Int, length: Int): Unit =
+      buffer.asDoubleBuffer().put(values, offset, length)
+    protected def get(buffer: ByteBuffer, length: Int): Array[Double] = {
+      val values = new Array[Double](length)
+      buffer.asDoubleBuffer().get(values)
+      values
+    }
+  }
+
+  object FloatElement extends Element[Float](85, 4) {
+    protected def put(buffer: ByteBuffer, values: Array[Float], offset: Int, length: Int): Unit =
+      buffer.asFloatBuffer().put(values, offset, length)
+    protected def get(buffer: ByteBuffer, length: Int): Array[Float] = {
+      val values = new Array[Float](length)
+      buffer.asFloatBuffer().get(values)
+      values
+    }
+  }
+
+  object LongElement extends Element[Long](79, 8) {
+    protected def put(buffer: ByteBuffer, values: Array[Long], offset: Int, length: Int): Unit =
+      buffer.asLongBuffer().put(values, offset, length)
+    protected def get(buffer: ByteBuffer, length: Int): Array[Long] = {
+      val values = new Array[Long](length)
+      buffer.asLongBuffer().get(values)
+      values
+    }
+  }
+
+  object IntElement extends Element[Int](78, 4) {
+    protected def put(buffer: ByteBuffer, values: Array[Int], offset: Int, length: Int): Unit =
+      buffer.asIntBuffer().put(values, offset, length)
+    protected def get(buffer: ByteBuffer, length: Int): Array[Int] = {
+      val values = new Array[Int](length)
+      buffer.asIntBuffer().get(values)
+      values
+    }
+  }
+
+  object ShortElement extends Element[Short](77, 2) {
+    protected def put(buffer: ByteBuffer, values: Array[Short], offset: Int, length: Int): Unit =
+      buffer.asShortBuffer().put(values, offset, length)
+    protected def get(buffer: ByteBuffer, length: Int): Array[Short] = {
+      val values = new Array[Short](length)
+      buffer.asShortBuffer().get(values)
+      values
+    }
+  }
+
+  // bytes keep being written as an untagged CBOR byte string, which is a bulk copy already
+  object ByteElement extends Element[Byte](72, 1) {
+    protected def put(buffer: ByteBuffer, values: Array[Byte], offset: Int, length: Int): Unit =
+      buffer.put(values, offset, length)
+    protected def get(buffer: ByteBuffer, length: Int): Array[Byte] = {
+      val values = new Array[Byte](length)
+      buffer.get(values)
+      values
+    }
+  }
+
+  /**
+   * The typed array element for a primitive type, None for all other types including the boxed java types
+   */
+  def element[T: ClassTag]: Option[Element[T]] = {
+    val element = implicitly[ClassTag[T]].runtimeClass match {
+      case java.lang.Double.TYPE  => Some(DoubleElement)
+      case java.lang.Float.TYPE   => Some(FloatElement)
+      case java.lang.Long.TYPE    => Some(LongElement)
+      case java.lang.Integer.TYPE => Some(IntElement)
+      case java.lang.Short.TYPE   => Some(ShortElement)
+      case java.lang.Byte.TYPE    => Some(ByteElement)
+      case _                      => None
+    }
+    element.asInstanceOf[Option[Element[T]]]
+  }
+
+  def arrayEncoder[T](element: Element[T]): Encoder[Array[T]] = { (w: Writer, values: Array[T]) =>
+    writeTypedArray(w, element, values, 0, values.length)
+  }
+
+  def arrayDecoder[T](element: Element[T], fallback: Decoder[Array[T]]): Decoder[Array[T]] = { r: Reader =>
+    if (r.hasTag) readTypedArray(r, element) else fallback.read(r)
+  }
+
+  def matrixEncoder[T](element: Element[T]): Encoder[MatrixData[T]] = { (w: Writer, matrix: MatrixData[T]) =>
+    import matrix.{flatValues, rowOffsets, rows}
+    if (matrix.isRectangular) {
+      w.writeTag(RowMajorArray).writeArrayHeader(2)
+      w.writeArrayHeader(2).writeInt(rows).writeInt(matrix.cols.getOrElse(0))
+      writeTypedArray(w, element, flatValues, 0, flatValues.length)
+    }
+    else {
+      w.writeArrayHeader(rows)
+      (0 until rows).foreach { row =>
+        writeTypedArray(w, element, flatValues, rowOffsets(row), rowOffsets(row + 1) - rowOffsets(row))
+      }
+      w
+    }
+  }
+
+  def matrixDecoder[T: ClassTag](element: Element[T], fallback: Decoder[Array[T]]): Decoder[MatrixData[T]] = {
+    val valuesDecoder = arrayDecoder(element, fallback)
+    val rowsDecoder   = Decoder.forArray[Array[T]](implicitly[ClassTag[Array[T]]], valuesDecoder)
+
+    val decoder: Decoder[MatrixData[T]] = { r: Reader =>
+      if (r.hasTag) {
+        val tag = r.readTag()
+        if (tag != RowMajorArray) r.validationFailure(s"Expected a row-major multi-dimensional array but found tag [$tag]")
+        r.readArrayHeader(2)
+        r.readArrayHeader(2)
+        val rows = r.readInt()
+        val cols = r.readInt()
+        MatrixData.fromFlat(rows, cols, valuesDecoder.read(r))
+      }
+      else MatrixData.fromArrays(rowsDecoder.read(r))
+    }
+    decoder
+  }
+
+  private def writeTypedArray[T](w: Writer, element: Element[T], values: Array[T], offset: Int, length: Int): Writer =
+    (element, values) match {
+      case (ByteElement, bytes: Array[Byte]) =>
+        w.writeBytes(if (offset == 0 && length == bytes.length) bytes else bytes.slice(offset, offset + length))
+      case _ => w.writeTag(element.tag).writeBytes(element.toBytes(values, offset, length))
+    }
+
+  private def readTypedArray[T](r: Reader, element: Element[T]): Array[T] = {
+    val tag = r.readTag()
+    if (tag != element.tag) r.validationFailure(s"Expected typed array tag [${element.tag}] but found [$tag]")
+    element.fromBytes(r.readByteArray())
+  }
+}
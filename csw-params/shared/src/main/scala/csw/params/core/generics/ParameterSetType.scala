@@ -35,6 +35,27 @@ abstract class ParameterSetType[T <: ParameterSetType[T]] { self: T =>
    */
   def jParamSet: util.Set[Parameter[_]] = paramSet.asJava
 
+  /**
+   * Parameters of this parameter set by key name. A parameter set holds one parameter per key name, which makes lookups by
+   * key name independent of the number of parameters. A parameter set made by `add`, `madd` or `remove` gets the index of
+   * the set it was made from, updated with the change, hence building a set one parameter at a time does not build an
+   * index per step. Other parameter sets build their index on the first lookup.
+   */
+  @transient private var indexCache: Map[String, Parameter[_]] = _
+
+  // the index is derived from paramSet, hence threads which race to build it build the same index
+  private def paramIndex: Map[String, Parameter[_]] = {
+    if (indexCache == null) indexCache = paramSet.iterator.map(p => p.keyName -> p).toMap
+    indexCache
+  }
+
+  // creates a parameter set with the given parameters, whose index is the given one
+  private def createIndexed(data: Set[Parameter[_]], index: Map[String, Parameter[_]]): T = {
+    val created = create(data)
+    (created: ParameterSetType[T]).indexCache = index
+    created
+  }
+
   /**
    * The number of parameters in this parameter set
    *
@@ -49,9 +70,11 @@ abstract class ParameterSetType[T <: ParameterSetType[T]] { self: T =>
    * @tparam P the Parameter type
    * @return a new instance of this parameter set with the given parameter added
    */
-  def add[P <: Parameter[_]](parameter: P): T = doAdd(this, parameter)
-
-  private def doAdd[P <: Parameter[_]](c: T, parameter: P): T = create(removeByKeyname(c, parameter.keyName).paramSet + parameter)
+  def add[P <: Parameter[_]](parameter: P): T = {
+    val index    = paramIndex
+    val replaced = index.get(parameter.keyName).fold(paramSet)(paramSet - _)
+    createIndexed(replaced + parameter, index.updated(parameter.keyName, parameter))
+  }
 
   /**
    * Adds several parameters to the parameter set
@@ -73,7 +96,15 @@ abstract class ParameterSetType[T <: ParameterSetType[T]] { self: T =>
    * @tparam P must be a subclass of Parameter
    * @return a new instance of this parameter set with the given parameter added
    */
-  def madd[P <: Parameter[_]](parametersToAdd: Set[P]): T = parametersToAdd.foldLeft(this)((c, parameter) => doAdd(c, parameter))
+  def madd[P <: Parameter[_]](parametersToAdd: Set[P]): T =
+    if (parametersToAdd.isEmpty) this
+    else {
+      // one parameter per key name, as if the parameters were added one after the other
+      val parametersByKeyName = parametersToAdd.iterator.map(p => p.keyName -> (p: Parameter[_])).toMap
+      val index               = paramIndex
+      val replaced            = parametersByKeyName.keysIterator.flatMap(index.get)
+      createIndexed(paramSet -- replaced ++ parametersByKeyName.values, index ++ parametersByKeyName)
+    }
 
   /**
    * Returns an Option with the parameter for the key if found, otherwise None
@@ -102,7 +133,12 @@ abstract class ParameterSetType[T <: ParameterSetType[T]] { self: T =>
    * @return the parameter for the key, if found
    */
   def get[S](keyName: String, keyType: KeyType[S]): Option[Parameter[S]] = {
-    paramSet.find(p => p.keyName == keyName && p.keyType == keyType).asInstanceOf[Option[Parameter[S]]]
+    val parameter = paramIndex.get(keyName) match {
+      case found @ Some(p) if p.keyType == keyType => found
+      case Some(_)                                 => paramSet.find(p => p.keyName == keyName && p.keyType == keyType)
+      case None                                    => None
+    }
+    parameter.asInstanceOf[Option[Parameter[S]]]
   }
 
   /**
@@ -186,13 +222,11 @@ abstract class ParameterSetType[T <: ParameterSetType[T]] { self: T =>
    *
    * @param c       the parameter set to remove from
    * @param keyname the key name of the parameter to remove
-   * @tparam P the Parameter type
    * @return a new T, where T is a parameter set child with the parameter removed or identical if the parameter is not present
    */
-  private def removeByKeyname[P <: Parameter[_]](c: ParameterSetType[T], keyname: String): T = {
-    val f: Option[P] = getByKeyname(c.paramSet, keyname)
-    f match {
-      case Some(parameter) => create(c.paramSet - parameter)
+  private def removeByKeyname(c: ParameterSetType[T], keyname: String): T = {
+    c.paramIndex.get(keyname) match {
+      case Some(parameter) => c.createIndexed(c.paramSet - parameter, c.paramIndex - keyname)
       case None            => c.asInstanceOf[T] // create(c.parameters) also works
     }
   }
@@ -208,15 +242,11 @@ abstract class ParameterSetType[T <: ParameterSetType[T]] { self: T =>
   private def removeByParameter[P <: Parameter[_]](c: ParameterSetType[T], parameterIn: P): T = {
     val f: Option[P] = getByParameter(c.paramSet, parameterIn)
     f match {
-      case Some(parameter) => create(c.paramSet.-(parameter))
+      case Some(parameter) => c.createIndexed(c.paramSet - parameter, c.paramIndex - parameter.keyName)
       case None            => c.asInstanceOf[T]
     }
   }
 
-  // Function to find a parameter by keyname
-  private def getByKeyname[P](parametersIn: Set[Parameter[_]], keyname: String): Option[P] =
-    parametersIn.find(_.keyName == keyname).asInstanceOf[Option[P]]
-
   // Function to find a given parameter in the parameter set
   private def getByParameter[P](parametersIn: Set[Parameter[_]], parameter: Parameter[_]): Option[P] =
     parametersIn.find(_.equals(parameter)).asInstanceOf[Option[P]]
@@ -243,7 +273,7 @@ abstract class ParameterSetType[T <: ParameterSetType[T]] { self: T =>
   /**
    * Returns true if the data contains the given key
    */
-  def contains(key: Key[_]): Boolean = paramSet.exists(_.keyName == key.keyName)
+  def contains(key: Key[_]): Boolean = paramIndex.contains(key.keyName)
 
   /**
    * Returns a set containing the names of any of the given keys that are missing in the data
@@ -252,9 +282,7 @@ abstract class ParameterSetType[T <: ParameterSetType[T]] { self: T =>
    * @return a Set of key names
    */
   def missingKeys(keys: Key[_]*): Set[String] = {
-    val argKeySet        = keys.map(_.keyName).toSet
-    val parametersKeySet = paramSet.map(_.keyName)
-    argKeySet.diff(parametersKeySet)
+    keys.iterator.map(_.keyName).filterNot(paramIndex.contains).toSet
   }
 
   /**
@@ -8,38 +8,162 @@ package csw.params.core.models
 import java.util
 
 import scala.annotation.{nowarn, varargs}
-import scala.collection.mutable
+import scala.collection.{mutable, IndexedSeqView}
 import scala.jdk.CollectionConverters._
 import scala.language.implicitConversions
 import scala.reflect.ClassTag
+import scala.util.hashing.MurmurHash3
 
 /**
  * A top level key for a parameter set representing an matrix like collection.
  *
- * @param data input array of array
+ * The values are stored row after row in one flat array of the element type, so that a matrix of primitives is held
+ * unboxed and can be copied in bulk. Row `i` occupies the range `[rowOffsets(i), rowOffsets(i + 1))` of the flat array,
+ * which also allows rows of different lengths.
+ *
+ * It keeps the members of the case class it used to be, so that `copy` and pattern matching on `MatrixData(data)` work as
+ * before.
+ *
+ * @param flatValues values of all the rows, one row after the other
+ * @param rowOffsets start offset of every row in `flatValues`, followed by the total number of values
  */
-case class MatrixData[T] private (data: mutable.ArraySeq[mutable.ArraySeq[T]])(val values: Array[Array[T]]) {
+final class MatrixData[T] private (
+    private[params] val flatValues: Array[T],
+    private[params] val rowOffsets: Array[Int]
+) extends Product
+    with Serializable {
+
+  import MatrixData._
+
+  /**
+   * The number of rows of this matrix
+   */
+  def rows: Int = rowOffsets.length - 1
+
+  /**
+   * The number of columns of this matrix, if all the rows have the same length
+   */
+  def cols: Option[Int] = if (isRectangular) Some(if (rows == 0) 0 else rowOffsets(1)) else None
+
+  private[params] lazy val isRectangular: Boolean =
+    rows == 0 || (0 until rows).forall(row => rowOffsets(row + 1) - rowOffsets(row) == rowOffsets(1))
+
+  /**
+   * An Array of rows this matrix holds. The rows are copied out of the flat storage when accessed the first time.
+   */
+  lazy val values: Array[Array[T]] = {
+    implicit val ct: ClassTag[T] = ClassTag[T](flatValues.getClass.getComponentType)
+    Array.tabulate(rows)(row => flatValues.slice(rowOffsets(row), rowOffsets(row + 1)))
+  }
+
+  /**
+   * The rows of this matrix
+   */
+  lazy val data: mutable.ArraySeq[mutable.ArraySeq[T]] = mutable.ArraySeq.make(values.map(x => x: mutable.ArraySeq[T]))
+
+  /**
+   * Returns a view of a row which reads through to the flat storage, without copying the row
+   *
+   * @param row index of the row
+   * @return the values of the row
+   */
+  def row(row: Int): IndexedSeqView[T] = mutable.ArraySeq.make(flatValues).view.slice(rowOffsets(row), rowOffsets(row + 1))
 
   /**
    * Returns a value stored at position represented by [row][col]
    *
    * @return a value represented by T
    */
-  def apply(row: Int, col: Int): T = data(row)(col)
+  def apply(row: Int, col: Int): T = {
+    val start = rowOffsets(row)
+    if (col < 0 || col >= rowOffsets(row + 1) - start) throw new IndexOutOfBoundsException(s"$col")
+    flatValues(start + col)
+  }
 
   /**
    * A Java helper that returns an Array of values this parameter holds
    */
   def jValues: util.List[util.List[T]] = data.map(_.asJava).asJava
 
+  /**
+   * Creates a MatrixData from the given rows, given either as `data` or as `values`
+   *
+   * @param data the rows of the new matrix
+   * @param values the rows of the new matrix, which are used instead of `data` when given
+   * @return an instance of MatrixData
+   */
+  def copy(data: mutable.ArraySeq[mutable.ArraySeq[T]] = this.data)(values: Array[Array[T]] = this.values): MatrixData[T] =
+    if (values ne this.values) fromArrays(values)
+    else if (data ne this.data) {
+      implicit val ct: ClassTag[T] = ClassTag[T](flatValues.getClass.getComponentType)
+      fromArrays(data.iterator.map(_.toArray).toArray)
+    }
+    else this
+
+  override def productArity: Int = 1
+
+  override def productElement(n: Int): Any = if (n == 0) data else throw new IndexOutOfBoundsException(n.toString)
+
+  override def productPrefix: String = "MatrixData"
+
+  override def canEqual(that: Any): Boolean = that.isInstanceOf[MatrixData[_]]
+
+  override def equals(that: Any): Boolean =
+    that match {
+      case other: MatrixData[_] =>
+        (this eq other) || (util.Arrays.equals(rowOffsets, other.rowOffsets) && sameValues(flatValues, other.flatValues))
+      case _ => false
+    }
+
+  override def hashCode(): Int = MurmurHash3.mix(util.Arrays.hashCode(rowOffsets), valuesHash(flatValues))
+
   /**
    * A comma separated string representation of all values this MatrixData holds
    */
-  override def toString: String = (for (l <- data) yield l.mkString("(", ",", ")")).mkString("(", ",", ")")
+  override def toString: String =
+    (0 until rows).map(row(_).mkString("(", ",", ")")).mkString("(", ",", ")")
 }
 
 object MatrixData {
 
+  /**
+   * Extracts the rows of a MatrixData in pattern matching
+   *
+   * @param matrixData the matrix to extract the rows of
+   * @tparam T the type of values
+   * @return the rows of the matrix
+   */
+  def unapply[T](matrixData: MatrixData[T]): Some[mutable.ArraySeq[mutable.ArraySeq[T]]] = Some(matrixData.data)
+
+  // values are compared and hashed like java.util.Arrays does, which does not box the values of primitive arrays
+  private def sameValues(values: Array[_], others: Array[_]): Boolean =
+    (values, others) match {
+      case (xs: Array[Double], ys: Array[Double])   => util.Arrays.equals(xs, ys)
+      case (xs: Array[Float], ys: Array[Float])     => util.Arrays.equals(xs, ys)
+      case (xs: Array[Long], ys: Array[Long])       => util.Arrays.equals(xs, ys)
+      case (xs: Array[Int], ys: Array[Int])         => util.Arrays.equals(xs, ys)
+      case (xs: Array[Short], ys: Array[Short])     => util.Arrays.equals(xs, ys)
+      case (xs: Array[Byte], ys: Array[Byte])       => util.Arrays.equals(xs, ys)
+      case (xs: Array[Char], ys: Array[Char])       => util.Arrays.equals(xs, ys)
+      case (xs: Array[Boolean], ys: Array[Boolean]) => util.Arrays.equals(xs, ys)
+      case (xs: Array[AnyRef], ys: Array[AnyRef])   => util.Arrays.equals(xs, ys)
+      case _                                        => false
+    }
+
+  private def valuesHash(values: Array[_]): Int =
+    values match {
+      case xs: Array[Double]  => util.Arrays.hashCode(xs)
+      case xs: Array[Float]   => util.Arrays.hashCode(xs)
+      case xs: Array[Long]    => util.Arrays.hashCode(xs)
+      case xs: Array[Int]     => util.Arrays.hashCode(xs)
+      case xs: Array[Short]   => util.Arrays.hashCode(xs)
+      case xs: Array[Byte]    => util.Arrays.hashCode(xs)
+      case xs: Array[Char]    => util.Arrays.hashCode(xs)
+      case xs: Array[Boolean] => util.Arrays.hashCode(xs)
+      case xs: Array[AnyRef]  => util.Arrays.hashCode(xs)
+      case _                  => 0
+    }
+
   /**
    * Create a MatrixData from one or more arrays of Array[T]
    *
@@ -47,8 +171,15 @@ object MatrixData {
    * @tparam T the type of values
    * @return an instance of MatrixData
    */
-  implicit def fromArrays[T](values: Array[Array[T]]): MatrixData[T] =
-    new MatrixData[T](values.map(x => x: mutable.ArraySeq[T]))(values) {}
+  implicit def fromArrays[T](values: Array[Array[T]]): MatrixData[T] = {
+    // getComponentType gives the Class type of T from a row, or from Array[Array[T]] when there are no rows
+    val rowClass      = values.headOption.map(_.getClass).getOrElse(values.getClass.getComponentType)
+    val componentType = Option(rowClass.getComponentType).getOrElse(classOf[AnyRef])
+    val rowOffsets    = values.scanLeft(0)(_ + _.length)
+    val flatValues    = java.lang.reflect.Array.newInstance(componentType, rowOffsets.last).asInstanceOf[Array[T]]
+    values.indices.foreach(row => System.arraycopy(values(row), 0, flatValues, rowOffsets(row), values(row).length))
+    new MatrixData[T](flatValues, rowOffsets)
+  }
 
   /**
    * Create a MatrixData from Array[T]
@@ -64,4 +195,20 @@ object MatrixData {
     implicit val ct: ClassTag[T] = ClassTag[T](first.getClass.getComponentType)
     MatrixData.fromArrays((first +: rest).toArray)
   }
+
+  /**
+   * Create a MatrixData of `rows` x `cols` from values laid out row after row. The array is used as the storage of the
+   * matrix without copying, hence it should not be modified afterwards.
+   *
+   * @param rows number of rows
+   * @param cols number of columns
+   * @param values `rows` * `cols` values in row-major order
+   * @tparam T the type of values
+   * @return an instance of MatrixData
+   */
+  def fromFlat[T](rows: Int, cols: Int, values: Array[T]): MatrixData[T] = {
+    require(rows >= 0 && cols >= 0, s"Invalid matrix dimensions [$rows x $cols]")
+    require(values.length == rows * cols, s"Expected ${rows * cols} values for [$rows x $cols] matrix, found ${values.length}")
+    new MatrixData[T](values, Array.tabulate(rows + 1)(_ * cols))
+  }
 }
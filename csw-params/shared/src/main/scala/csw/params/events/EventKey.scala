@@ -5,7 +5,7 @@
 
 package csw.params.events
 
-import csw.prefix.models.Prefix
+import csw.prefix.models.{InterningCache, Prefix}
 
 /**
  * A wrapper class representing the key for an event e.g. tcs.prog.cloudcover.oiwfsProbeDemands
@@ -16,14 +16,24 @@ import csw.prefix.models.Prefix
 case class EventKey(source: Prefix, eventName: EventName) {
   val key                       = s"${source}${EventKey.SEPARATOR}$eventName"
   override def toString: String = key
+
+  // event keys are looked up in maps on every received event, equal event keys have equal key strings
+  override val hashCode: Int = key.hashCode
 }
 
 object EventKey {
   private val SEPARATOR = "."
 
+  // every event received from the event server carries the string of its key, and the same few keys arrive over and over
+  private val interned = new InterningCache[EventKey](InterningCache.DefaultMaxSize)(parse)
+
   def apply(eventKeyStr: String): EventKey = {
     require(eventKeyStr != null)
+    interned(eventKeyStr)
+  }
+
+  private def parse(eventKeyStr: String): EventKey = {
     val strings = eventKeyStr.splitAt(eventKeyStr.lastIndexOf(SEPARATOR))
-    new EventKey(Prefix(strings._1), EventName(strings._2.tail))
+    new EventKey(Prefix(strings._1), EventName.interned(strings._2.tail))
   }
 }
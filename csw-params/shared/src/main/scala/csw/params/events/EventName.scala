@@ -5,9 +5,20 @@
 
 package csw.params.events
 
+import csw.prefix.models.InterningCache
+
 /**
  * A wrapper class representing the name of an Event
  */
 case class EventName(name: String) {
   override def toString: String = name
 }
+
+object EventName {
+
+  /**
+   * Event names parsed from received event keys and events, the same instance is returned for the same name
+   */
+  private[csw] val interned: InterningCache[EventName] =
+    new InterningCache[EventName](InterningCache.DefaultMaxSize)(new EventName(_))
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.params.events
+
+import java.util.Optional
+
+import csw.params.core.generics.{Key, Parameter}
+import csw.params.core.models.Id
+import csw.params.extensions.OptionConverters.RichOption
+import csw.prefix.models.Prefix
+import csw.time.core.models.UTCTime
+
+/**
+ * A read-only view of an [[csw.params.events.Event]]. The header fields are always available, whereas an implementation
+ * may decode parameters only when they are looked up. This allows subscribers which read a few parameters of large events
+ * to skip decoding the rest of the event.
+ */
+trait EventView {
+
+  /**
+   * A name identifying the type of event, such as "SystemEvent", "ObserveEvent"
+   */
+  def typeName: String
+
+  /**
+   * unique Id for event
+   */
+  def eventId: Id
+
+  /**
+   * Prefix representing source of the event
+   */
+  def source: Prefix
+
+  /**
+   * The name of event
+   */
+  def eventName: EventName
+
+  /**
+   * The time of event creation
+   */
+  def eventTime: UTCTime
+
+  /**
+   * Returns an Option with the parameter for the key if found, otherwise None
+   *
+   * @param key the Key to be used for lookup
+   * @tparam S the value type
+   * @return the parameter for the key, if found
+   */
+  def get[S](key: Key[S]): Option[Parameter[S]]
+
+  /**
+   * The fully decoded event
+   *
+   * @return the event this view is backed by
+   */
+  def toEvent: Event
+
+  /**
+   * A Java helper to get the parameter for the key
+   *
+   * @param key the Key to be used for lookup
+   * @tparam S the value type
+   * @return the parameter for the key, if found
+   */
+  def jGet[S](key: Key[S]): Optional[Parameter[S]] = get(key).asJava
+
+  /**
+   * Returns true if the key exists in the event
+   *
+   * @param key the key to check for
+   * @tparam S the Scala value type
+   * @return true if the key is found
+   */
+  def exists[S](key: Key[S]): Boolean = get(key).isDefined
+
+  /**
+   * The EventKey on which the event was published
+   *
+   * @return an EventKey formed by combination of prefix and eventName of an event
+   */
+  def eventKey: EventKey = EventKey(source, eventName)
+
+  def isInvalid: Boolean = eventTime == Event.invalidEventTime
+
+  override def toString: String = s"EventView($typeName, eventId=$eventId, source=$source, eventName=$eventName, eventTime=$eventTime)"
+}
+
+object EventView {
+
+  /**
+   * Creates a view over an already decoded event
+   *
+   * @param event the event to be viewed
+   * @return an EventView which reads all the fields from the given event
+   */
+  def apply(event: Event): EventView = new DecodedEventView(event)
+
+  private class DecodedEventView(event: Event) extends EventView {
+    override def typeName: String                          = event.typeName
+    override def eventId: Id                               = event.eventId
+    override def source: Prefix                            = event.source
+    override def eventName: EventName                      = event.eventName
+    override def eventTime: UTCTime                        = event.eventTime
+    override def get[S](key: Key[S]): Option[Parameter[S]] = event.paramType.get(key.keyName, key.keyType)
+    override def toEvent: Event                            = event
+  }
+}
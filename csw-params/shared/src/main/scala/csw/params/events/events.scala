@@ -77,7 +77,7 @@ sealed trait Event { self: ParameterSetType[_] =>
 
 object Event {
 
-  private val invalidEventTime = UTCTime(Instant.ofEpochMilli(-1))
+  private[events] val invalidEventTime = UTCTime(Instant.ofEpochMilli(-1))
 
   /**
    * A helper method to create an event which is provided to subscriber when there is no event available at the
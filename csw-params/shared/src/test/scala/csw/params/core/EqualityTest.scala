@@ -369,4 +369,26 @@ class EqualityTest extends AnyFunSpec {
       assert(!i3.equals(i4))
     }
   }
+
+  describe("MatrixData members of the former case class") {
+    val m1 = MatrixData.fromArrays(Array(1.0f, 2.0f), Array(3.0f, 4.0f))
+
+    it("should have equal hash codes for equal matrices") {
+      assert(m1.hashCode() == MatrixData.fromArrays(Array(1.0f, 2.0f), Array(3.0f, 4.0f)).hashCode())
+    }
+
+    it("should copy a matrix with new rows") {
+      val rows = Array(Array(5.0f, 6.0f))
+      assert(m1.copy()() == m1)
+      assert(m1.copy()(values = rows) == MatrixData.fromArrays(rows))
+      assert(m1.copy(data = MatrixData.fromArrays(rows).data)() == MatrixData.fromArrays(rows))
+    }
+
+    it("should extract the rows of a matrix in pattern matching") {
+      val rows = m1 match {
+        case MatrixData(data) => data.map(_.toList).toList
+      }
+      assert(rows == List(List(1.0f, 2.0f), List(3.0f, 4.0f)))
+    }
+  }
 }
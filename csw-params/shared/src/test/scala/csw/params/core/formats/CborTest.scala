@@ -7,11 +7,13 @@ package csw.params.core.formats
 
 import csw.params.commands.CommandIssue._
 import csw.params.commands._
+import csw.params.core.generics.KeyType.{DoubleMatrixKey, FloatArrayKey, FloatMatrixKey, IntArrayKey}
+import csw.params.core.generics.Parameter
 import csw.params.core.models._
 import csw.params.events.{Event, EventName, ObserveEvent, SystemEvent}
 import csw.params.testdata.ParamSetData
 import csw.prefix.models.Prefix
-import io.bullet.borer.Cbor
+import io.bullet.borer.{Cbor, Codec}
 import org.scalatest.funsuite.AnyFunSuite
 import org.scalatest.matchers.should.Matchers
 
@@ -124,6 +126,34 @@ class CborTest extends AnyFunSuite with Matchers {
     }
   }
 
+  test("should encode and decode arrays and matrices of primitives as typed arrays") {
+    val floatArray  = FloatArrayKey.make("floats").set(ArrayData.fromArray(Array(1.5f, -2.25f, Float.MaxValue)))
+    val floatMatrix = FloatMatrixKey.make("frame").set(MatrixData.fromFlat(2, 3, Array(1f, 2f, 3f, 4f, 5f, 6f)))
+    val jagged      = DoubleMatrixKey.make("jagged").set(MatrixData.fromArrays(Array(1.0), Array(2.0, 3.0), Array.empty[Double]))
+    val command     = Setup(prefix, commandName, maybeObsId, Set(floatArray, floatMatrix, jagged))
+
+    val parsedCommand = CommandCbor.decode[Setup](CommandCbor.encode(command))
+
+    parsedCommand shouldEqual command
+    parsedCommand(FloatMatrixKey.make("frame")).head.row(1).toList shouldBe List(4f, 5f, 6f)
+  }
+
+  test("should decode arrays and matrices written as plain CBOR arrays") {
+    import ParamCodecs._
+    val param: Parameter[ArrayData[Int]] = IntArrayKey.make("ints").set(ArrayData.fromArray(Array(1, 2, 3)))
+    val matrix                           = MatrixData.fromArrays(Array(1.0, 2.0), Array(3.0, 4.0))
+
+    // the encoding of arrays before typed arrays were introduced
+    val plainArrayCodec  = Codec.bimap[Array[Int], ArrayData[Int]](_.values, ArrayData.fromArray)
+    val plainMatrixCodec = Codec.bimap[Array[Array[Double]], MatrixData[Double]](_.values, MatrixData.fromArrays)
+
+    val arrayBytes  = Cbor.encode(param.head)(plainArrayCodec.encoder).toByteArray
+    val matrixBytes = Cbor.encode(matrix)(plainMatrixCodec.encoder).toByteArray
+
+    Cbor.decode(arrayBytes).to[ArrayData[Int]].value shouldEqual param.head
+    Cbor.decode(matrixBytes).to[MatrixData[Double]].value shouldEqual matrix
+  }
+
   test("should encode and decode Result") {
     import ParamCodecs.resultCodec
     val result = Result(ParamSetData.paramSet)
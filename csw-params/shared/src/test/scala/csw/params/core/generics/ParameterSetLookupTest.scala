@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.params.core.generics
+
+import csw.params.commands.{CommandName, Setup}
+import csw.prefix.models.Prefix
+import org.scalatest.funspec.AnyFunSpec
+import org.scalatest.matchers.should.Matchers
+
+class ParameterSetLookupTest extends AnyFunSpec with Matchers {
+
+  private val encoderKey: Key[Int]         = KeyType.IntKey.make("encoder")
+  private val filterKey: Key[String]       = KeyType.StringKey.make("filter")
+  private val encoderAsDouble: Key[Double] = KeyType.DoubleKey.make("encoder")
+  private val missingKey: Key[Int]         = KeyType.IntKey.make("missing")
+
+  private val setup = Setup(Prefix("wfos.blue.filter"), CommandName("move"), None)
+
+  describe("lookups by key") {
+
+    it("should find a parameter by key, key name and parameter") {
+      val encoderParam = encoderKey.set(1)
+      val filled       = setup.add(encoderParam).add(filterKey.set("red"))
+
+      filled.get(encoderKey) shouldBe Some(encoderParam)
+      filled.get("encoder", KeyType.IntKey) shouldBe Some(encoderParam)
+      filled.find(encoderParam) shouldBe Some(encoderParam)
+      filled(filterKey).head shouldBe "red"
+      filled.get(missingKey) shouldBe None
+    }
+
+    it("should not find a parameter whose key name matches but whose key type does not") {
+      val filled = setup.add(encoderKey.set(1))
+
+      filled.get(encoderAsDouble) shouldBe None
+      filled.exists(encoderAsDouble) shouldBe false
+      filled.exists(encoderKey) shouldBe true
+      // contains only looks at the key name
+      filled.contains(encoderAsDouble) shouldBe true
+    }
+
+    it("should report contained and missing keys") {
+      val filled = setup.add(encoderKey.set(1))
+
+      filled.contains(encoderKey) shouldBe true
+      filled.contains(filterKey) shouldBe false
+      filled.missingKeys(encoderKey, filterKey, missingKey) shouldBe Set("filter", "missing")
+    }
+  }
+
+  describe("replacing parameters") {
+
+    it("should replace a parameter with the same key name on add") {
+      val replaced = setup.add(encoderKey.set(1)).add(filterKey.set("red")).add(encoderKey.set(2))
+
+      replaced.size shouldBe 2
+      replaced(encoderKey).head shouldBe 2
+      replaced(filterKey).head shouldBe "red"
+    }
+
+    it("should replace a parameter with the same key name but a different key type on add") {
+      val replaced = setup.add(encoderKey.set(1)).add(encoderAsDouble.set(2.5))
+
+      replaced.size shouldBe 1
+      replaced.get(encoderKey) shouldBe None
+      replaced(encoderAsDouble).head shouldBe 2.5
+    }
+
+    it("should replace existing parameters and keep the others on madd") {
+      val initial  = setup.madd(encoderKey.set(1), filterKey.set("red"))
+      val replaced = initial.madd(encoderKey.set(2), missingKey.set(3))
+
+      replaced.size shouldBe 3
+      replaced(encoderKey).head shouldBe 2
+      replaced(filterKey).head shouldBe "red"
+      replaced(missingKey).head shouldBe 3
+      // the original parameter set is unchanged
+      initial(encoderKey).head shouldBe 1
+      initial.contains(missingKey) shouldBe false
+    }
+
+    it("should keep one parameter per key name when madd is given several with the same key name") {
+      val replaced = setup.add(encoderKey.set(1)).madd(encoderKey.set(2), encoderKey.set(3))
+
+      replaced.size shouldBe 1
+      List(2, 3) should contain(replaced(encoderKey).head)
+    }
+
+    it("should look up every parameter of a set built one parameter at a time") {
+      val keys  = (1 to 100).map(i => KeyType.IntKey.make(s"key$i"))
+      val built = keys.foldLeft(setup)((set, key) => set.add(key.set(1))).add(keys.head.set(2)).remove(keys.last)
+
+      built.size shouldBe 99
+      built(keys.head).head shouldBe 2
+      keys.tail.init.foreach(key => built(key).head shouldBe 1)
+      built.contains(keys.last) shouldBe false
+      // a copy of the set looks up the same parameters
+      built.copy(paramSet = built.paramSet).missingKeys(keys: _*) shouldBe Set(keys.last.keyName)
+      built.missingKeys(keys: _*) shouldBe Set(keys.last.keyName)
+    }
+
+    it("should look up the parameters of a set after removing a parameter") {
+      val encoderParam = encoderKey.set(1)
+      val removed      = setup.madd(encoderParam, filterKey.set("red")).remove(encoderParam)
+
+      removed.get(encoderKey) shouldBe None
+      removed.add(encoderKey.set(3))(encoderKey).head shouldBe 3
+      removed(filterKey).head shouldBe "red"
+    }
+
+    it("should look up the parameters of a set after removing a key") {
+      val removed = setup.madd(encoderKey.set(1), filterKey.set("red")).remove(encoderKey)
+
+      removed.contains(encoderKey) shouldBe false
+      removed.get(encoderKey) shouldBe None
+      removed(filterKey).head shouldBe "red"
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.prefix.models
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A bounded, thread safe cache of values parsed from strings, so that a string which is received over and over again is
+ * parsed once and every parse of it returns the same instance.
+ *
+ * Values which fail to parse are not cached. Once `maxSize` values are cached, the cache is cleared and fills up again with
+ * the values that are still in use.
+ *
+ * @param maxSize maximum number of cached values
+ * @param parse creates the value of a string, called only when the string is not cached
+ */
+private[csw] class InterningCache[V <: AnyRef](maxSize: Int)(parse: String => V) {
+  require(maxSize > 0, s"size of an interning cache should be positive but was $maxSize")
+
+  private val cache = new ConcurrentHashMap[String, V]()
+
+  def apply(value: String): V = {
+    val cached = cache.get(value)
+    if (cached != null) cached
+    else {
+      if (cache.size() >= maxSize) cache.clear()
+      val parsed = parse(value)
+      val raced  = cache.putIfAbsent(value, parsed)
+      if (raced != null) raced else parsed
+    }
+  }
+}
+
+private[csw] object InterningCache {
+  val DefaultMaxSize = 4096
+}
@@ -22,12 +22,15 @@ case class Prefix(subsystem: Subsystem, componentName: String) {
   /**
    * String representation of prefix e.g. tcs.filter.wheel where tcs is the subsystem name and filter.wheel is the component name
    */
-  override def toString: String = s"${subsystem.name}${Prefix.SEPARATOR}$componentName"
+  override val toString: String = s"${subsystem.name}${Prefix.SEPARATOR}$componentName"
 }
 
 object Prefix {
   private val SEPARATOR = "."
 
+  // prefixes are parsed from the same few strings over and over again, e.g. from the keys of received events
+  private val interned = new InterningCache[Prefix](InterningCache.DefaultMaxSize)(parse)
+
   /**
    * Creates a Prefix based on the given value of format tcs.filter.wheel and splits it to have tcs as `subsystem` and filter.wheel
    * as `componentName`
@@ -35,7 +38,9 @@ object Prefix {
    * @param value of format tcs.filter.wheel
    * @return a Prefix instance
    */
-  def apply(value: String): Prefix = {
+  def apply(value: String): Prefix = interned(value)
+
+  private def parse(value: String): Prefix = {
     require(value.contains(SEPARATOR), s"prefix must have a '$SEPARATOR' separator")
     value.split(s"\\$SEPARATOR", 2) match {
       case Array(subsystem, componentName) => Prefix(Subsystem.withNameInsensitive(subsystem), componentName)
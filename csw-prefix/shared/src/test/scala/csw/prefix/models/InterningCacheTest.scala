@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package csw.prefix.models
+
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers
+
+class InterningCacheTest extends AnyFunSuite with Matchers {
+
+  test("should parse a string once and return the same instance for it") {
+    var parsed = 0
+    val cache  = new InterningCache[Prefix](10)({ value => parsed += 1; Prefix(value) })
+
+    val prefix = cache("tcs.filter.wheel")
+    cache("tcs.filter.wheel") should be theSameInstanceAs prefix
+    cache("wfos.blue.filter") shouldBe Prefix(Subsystem.WFOS, "blue.filter")
+    parsed shouldBe 2
+  }
+
+  test("should not cache strings which fail to parse") {
+    var parsed = 0
+    val cache  = new InterningCache[Prefix](10)({ value => parsed += 1; Prefix(value) })
+
+    a[NoSuchElementException] shouldBe thrownBy(cache("invalid.prefix"))
+    a[NoSuchElementException] shouldBe thrownBy(cache("invalid.prefix"))
+    parsed shouldBe 2
+  }
+
+  test("should start over once it holds the maximum number of values") {
+    var parsed = 0
+    val cache  = new InterningCache[Prefix](2)({ value => parsed += 1; Prefix(value) })
+
+    cache("tcs.a")
+    cache("tcs.b")
+    cache("tcs.c")
+    cache("tcs.c")
+    parsed shouldBe 3
+
+    cache("tcs.a")
+    parsed shouldBe 4
+  }
+}
@@ -30,4 +30,8 @@ class PrefixTest extends AnyFunSuite with Matchers {
     prefix.subsystem shouldBe TCS
     prefix.componentName shouldBe "Filter.Wheel"
   }
+
+  test("should return the same instance when the same prefix string is parsed again") {
+    Prefix("tcs.mobie.red.filter") should be theSameInstanceAs Prefix("tcs.mobie.red.filter")
+  }
 }
@@ -9,7 +9,7 @@ import io.lettuce.core.{RedisClient, RedisURI}
 import romaine.async.RedisAsyncApi
 import romaine.codec.{RomaineCodec, RomaineRedisCodec}
 import romaine.exceptions.RedisServerNotAvailable
-import romaine.reactive.RedisSubscriptionApi
+import romaine.reactive.{RedisSharedSubscriptionApi, RedisSubscriptionApi}
 
 import scala.async.Async
 import scala.compat.java8.FutureConverters.CompletionStageOps
@@ -36,6 +36,20 @@ class RomaineFactory(redisClient: RedisClient)(implicit val ec: ExecutionContext
       }
     )
 
+  def redisSharedSubscriptionApi[K: RomaineCodec, V: RomaineCodec](
+      redisURIF: Future[RedisURI],
+      connections: Int = 1
+  ): RedisSharedSubscriptionApi[K, V] =
+    new RedisSharedSubscriptionApi(
+      () =>
+        Async.async {
+          val redisURI    = await(redisURIF)
+          val connectionF = init { () => redisClient.connectPubSubAsync(new RomaineRedisCodec[K, V], redisURI).toScala }
+          await(connectionF)
+        },
+      connections
+    )
+
   private def init[T](conn: () => Future[T]): Future[T] =
     Future.unit.flatMap(_ => conn()).recover { case NonFatal(ex) =>
       throw RedisServerNotAvailable(ex.getCause)
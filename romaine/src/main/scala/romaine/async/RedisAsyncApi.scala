@@ -5,9 +5,13 @@
 
 package romaine.async
 
-import akka.Done
+import akka.stream.scaladsl.Source
+import akka.{Done, NotUsed}
 import io.lettuce.core.api.async.RedisAsyncCommands
+import io.lettuce.core.{KeyScanCursor, RedisCommandExecutionException, ScanArgs, ScanCursor, ScriptOutputType}
 import romaine.RedisResult
+import romaine.codec.RomaineCodec
+import romaine.codec.RomaineCodec.ToBytesAndString
 import romaine.exceptions.RedisServerNotAvailable
 import romaine.extensions.FutureExtensions.RichFuture
 
@@ -17,7 +21,14 @@ import scala.compat.java8.OptionConverters.RichOptionalGeneric
 import scala.concurrent.{ExecutionContext, Future}
 import scala.util.control.NonFatal
 
-class RedisAsyncApi[K, V](redisAsyncCommands: Future[RedisAsyncCommands[K, V]])(implicit ec: ExecutionContext) {
+class RedisAsyncApi[K, V](redisAsyncCommands: Future[RedisAsyncCommands[K, V]])(implicit
+    ec: ExecutionContext,
+    keyCodec: RomaineCodec[K]
+) {
+  import RedisAsyncApi._
+
+  // UNLINK needs redis 4.0, it is replaced by DEL for good once redis rejects it
+  @volatile private var unlinkSupported = true
 
   def set(key: K, value: V): Future[Done] =
     redisAsyncCommands.flatMap(_.set(key, value).toScala.failWith(s"Redis 'SET' operation failed for [key:$key value:$value]"))
@@ -41,16 +52,127 @@ class RedisAsyncApi[K, V](redisAsyncCommands: Future[RedisAsyncCommands[K, V]])(
         .map(_.asScala.map(kv => RedisResult(kv.getKey, kv.optional().asScala)).toList)
     )
 
+  /**
+   * Gets all the keys matching the given pattern with KEYS, which blocks redis while it walks the whole keyspace. Prefer
+   * [[scanKeys]] on stores with many keys.
+   */
   def keys(key: K): Future[List[K]] = redisAsyncCommands.flatMap(_.keys(key).toScala.map(_.asScala.toList))
 
+  /**
+   * Streams the keys matching the given pattern with SCAN, asking redis for `count` keys per call, so that redis is never
+   * blocked for a walk of the whole keyspace. A key may be emitted more than once if redis rehashes the keyspace during the
+   * scan.
+   *
+   * @param pattern the glob style pattern of the keys
+   * @param count the number of keys redis looks at per call
+   * @return a source of the matching keys which scans once per materialization
+   */
+  def scanKeys(pattern: K, count: Long = DefaultScanCount): Source[K, NotUsed] =
+    Source
+      .unfoldAsync[Option[ScanCursor], List[K]](Some(ScanCursor.INITIAL)) {
+        case None => Future.successful(None)
+        case Some(cursor) =>
+          scan(cursor, pattern, count).map { keyScanCursor =>
+            val next = if (keyScanCursor.isFinished) None else Some(keyScanCursor)
+            Some(next -> keyScanCursor.getKeys.asScala.toList)
+          }
+      }
+      .mapConcat(identity)
+
   def exists(keys: K*): Future[Boolean] = redisAsyncCommands.flatMap(_.exists(keys: _*).toScala.map(_ == keys.size))
 
   def del(keys: List[K]): Future[Long] = redisAsyncCommands.flatMap(_.del(keys: _*).toScala.map(_.toLong))
 
-  def pdel(pattern: K): Future[Long] =
-    keys(pattern).flatMap(matchedKeys => if (matchedKeys.nonEmpty) del(matchedKeys) else Future.successful(0))
+  /**
+   * Unlinks the given keys, which frees their values in the background instead of blocking redis like DEL does
+   */
+  def unlink(keys: List[K]): Future[Long] =
+    if (!unlinkSupported) del(keys)
+    else
+      redisAsyncCommands.flatMap(_.unlink(keys: _*).toScala.map(_.toLong)).recoverWith {
+        case ex: RedisCommandExecutionException if ex.getMessage.contains("unknown command") =>
+          unlinkSupported = false
+          del(keys)
+      }
+
+  /**
+   * Deletes the keys matching the given pattern, scanning them with SCAN and unlinking every chunk of scanned keys before
+   * scanning the next one, so that redis is never blocked for the whole keyspace
+   *
+   * @return a future which completes with the number of deleted keys
+   */
+  def pdel(pattern: K): Future[Long] = {
+    def pdelFrom(cursor: ScanCursor, deleted: Long): Future[Long] =
+      scan(cursor, pattern, DefaultScanCount).flatMap { keyScanCursor =>
+        val scannedKeys = keyScanCursor.getKeys.asScala.toList
+        val unlinkedF   = if (scannedKeys.isEmpty) Future.successful(0L) else unlink(scannedKeys)
+        unlinkedF.flatMap { unlinked =>
+          if (keyScanCursor.isFinished) Future.successful(deleted + unlinked) else pdelFrom(keyScanCursor, deleted + unlinked)
+        }
+      }
+    pdelFrom(ScanCursor.INITIAL, 0)
+  }
+
+  def sadd(key: K, members: List[V]): Future[Long] = redisAsyncCommands.flatMap(_.sadd(key, members: _*).toScala.map(_.toLong))
+
+  def smembers(key: K): Future[Set[V]] = redisAsyncCommands.flatMap(_.smembers(key).toScala.map(_.asScala.toSet))
 
   def publish(key: K, value: V): Future[Long] = redisAsyncCommands.flatMap(_.publish(key, value).toScala.map(_.toLong))
 
+  /**
+   * Runs `f` with auto-flush disabled on the underlying connection, so all the commands issued by `f` are buffered and written
+   * to redis in a single flush instead of one write per command. Commands keep the order in which `f` issues them.
+   *
+   * @param f issues commands on the connection and returns their pending results
+   * @return a future which completes with the value returned by `f` once all its commands are flushed
+   */
+  def pipelined[T](f: RedisAsyncCommands[K, V] => T): Future[T] =
+    redisAsyncCommands.map { commands =>
+      val connection = commands.getStatefulConnection
+      connection.synchronized {
+        connection.setAutoFlushCommands(false)
+        try f(commands)
+        finally {
+          // re-enable auto-flush before flushing so that commands issued concurrently by other callers are never left buffered
+          connection.setAutoFlushCommands(true)
+          connection.flushCommands()
+        }
+      }
+    }
+
+  /**
+   * Runs a lua script with EVALSHA, so that only the digest of the script is sent to redis. The script itself is sent with
+   * EVAL only when redis does not know it yet, which also caches it in redis for the following calls.
+   *
+   * @param script the lua script to run
+   * @param outputType the type of the value returned by the script
+   * @param keys the keys the script reads and writes, available as KEYS in the script
+   * @param values the arguments of the script, available as ARGV in the script
+   * @return a future which completes with the value returned by the script
+   */
+  def evalScript[T](script: String, outputType: ScriptOutputType, keys: List[K], values: List[V]): Future[T] =
+    redisAsyncCommands.flatMap { commands =>
+      // redis commands take the keys as an array, which is an array of objects once K is erased
+      val keysArray = keys.toArray[Any].asInstanceOf[Array[K]]
+      commands
+        .evalsha[T](commands.digest(script), outputType, keysArray, values: _*)
+        .toScala
+        .recoverWith {
+          case ex: RedisCommandExecutionException if ex.getMessage.startsWith("NOSCRIPT") =>
+            commands.eval[T](script, outputType, keysArray, values: _*).toScala
+        }
+    }
+
   def quit(): Future[String] = redisAsyncCommands.flatMap(_.quit().toScala)
+
+  private def scan(cursor: ScanCursor, pattern: K, count: Long): Future[KeyScanCursor[K]] =
+    redisAsyncCommands.flatMap(_.scan(cursor, ScanArgs.Builder.matches(pattern.asString).limit(count)).toScala)
+}
+
+object RedisAsyncApi {
+
+  /**
+   * Number of keys redis looks at per SCAN call by default
+   */
+  val DefaultScanCount: Long = 1000
 }
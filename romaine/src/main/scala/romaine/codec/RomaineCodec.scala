@@ -41,6 +41,20 @@ object RomaineCodec {
     override def fromBytes(byteBuffer: ByteBuffer): ByteBuffer = byteBuffer
   }
 
+  /**
+   * Hands over a copy of the raw bytes of a value, to decode it later and on another thread. The buffer which lettuce passes
+   * to a codec is only valid until decoding returns, hence [[byteBufferCodec]] cannot be used for that.
+   */
+  lazy val rawBytesCodec: RomaineCodec[ByteBuffer] = new RomaineCodec[ByteBuffer] {
+    override def toBytes(value: ByteBuffer): ByteBuffer = value
+    override def fromBytes(byteBuffer: ByteBuffer): ByteBuffer = {
+      val copy = ByteBuffer.allocate(byteBuffer.remaining())
+      copy.put(byteBuffer.duplicate())
+      copy.flip()
+      copy
+    }
+  }
+
   implicit lazy val stringCodec: RomaineCodec[String] = {
     byteBufferCodec.bimap[String](StringCodec.UTF8.encodeValue, StringCodec.UTF8.decodeValue)
   }
@@ -54,6 +54,47 @@ class RedisKeySpaceApi[K: RomaineCodec, V: RomaineCodec](
       case RedisResult(k, Removed)    => RedisResult[K, Option[V]](k, None)
     }.distinctUntilChanged
 
+  /**
+   * Watches the values of the given keys like [[watchKeyspaceValue]], without a GET per keyspace notification. The values
+   * are expected to be published by the writers on a channel named like their key, and come with the published messages.
+   * Keyspace notifications are only used to find out about keys which expire or are deleted.
+   *
+   * @note values written without being published on their channel are missed
+   * @note the keyspace notifications and the published values come on two connections. A removal is dropped if the key
+   *       exists again by the time it arrives, as a newer value was written then, while a value published right before the
+   *       key expired may still arrive after its removal
+   * @param keys the keys to watch
+   * @param valueSubscriptionApi subscribes to the channels the values are published on
+   * @param overflowStrategy applied when the subscriber is slower than the changes
+   * @return a source of the changed values, with None for the keys which expired or were deleted
+   */
+  def watchPublishedValue(
+      keys: List[K],
+      valueSubscriptionApi: RedisSubscriptionApi[K, V],
+      overflowStrategy: OverflowStrategy
+  ): Source[RedisResult[K, Option[V]], RedisSubscription] = {
+    // a removal which arrives after the value of a newer write of the key would remove that value
+    val removals = redisSubscriptionApi
+      .psubscribe(keys.map(x => KeyspaceKey(keyspacePrefix, x.asString)), overflowStrategy)
+      .collect { case RedisResult(key, Expired | Delete) => key.value.as[K] }
+      .mapAsync(1)(key => redisAsyncApi.exists(key).map(exists => key -> exists))
+      .collect { case (key, false) => RedisResult[K, Option[V]](key, None) }
+
+    val values = valueSubscriptionApi
+      .subscribe(keys, overflowStrategy)
+      .map(result => RedisResult[K, Option[V]](result.key, Some(result.value)))
+
+    removals
+      .mergeMat(values) { (removalSubscription, valueSubscription) =>
+        new RedisSubscription {
+          override def unsubscribe(): Future[Done] =
+            removalSubscription.unsubscribe().zipWith(valueSubscription.unsubscribe())((done, _) => done)
+          override def ready(): Future[Done] = removalSubscription.ready().zipWith(valueSubscription.ready())((done, _) => done)
+        }
+      }
+      .distinctUntilChanged
+  }
+
   def watchKeyspaceValueChange(
       keys: List[K],
       overflowStrategy: OverflowStrategy
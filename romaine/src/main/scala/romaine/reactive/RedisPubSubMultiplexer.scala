@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package romaine.reactive
+
+import akka.Done
+import akka.stream.scaladsl.SourceQueueWithComplete
+import io.lettuce.core.RedisFuture
+import io.lettuce.core.pubsub.api.async.RedisPubSubAsyncCommands
+import io.lettuce.core.pubsub.{RedisPubSubAdapter, StatefulRedisPubSubConnection}
+import romaine.RedisResult
+
+import scala.compat.java8.FutureConverters.CompletionStageOps
+import scala.concurrent.{ExecutionContext, Future}
+
+/**
+ * Multiplexes the channel and pattern subscriptions of many subscribers over a single redis pub/sub connection.
+ * A channel (or pattern) is subscribed on redis when its first subscriber arrives and unsubscribed when its last subscriber
+ * leaves. Messages are handed only to the subscribers of their channel (or pattern). The connection is opened on the first
+ * subscription and closed once no channel or pattern is subscribed, it is opened again by the next subscription.
+ */
+private[reactive] class RedisPubSubMultiplexer[K, V](connectionFactory: () => Future[StatefulRedisPubSubConnection[K, V]])(
+    implicit ec: ExecutionContext
+) {
+  type Connection = StatefulRedisPubSubConnection[K, V]
+  type Commands   = RedisPubSubAsyncCommands[K, V]
+  type Subscriber = SourceQueueWithComplete[RedisResult[K, V]]
+
+  private val listener = new RedisPubSubAdapter[K, V] {
+    override def message(channel: K, message: V): Unit             = channels.dispatch(channel, channel, message)
+    override def message(pattern: K, channel: K, message: V): Unit = patterns.dispatch(pattern, channel, message)
+  }
+
+  private val channels = new Registry((c, keys) => c.subscribe(keys: _*), (c, keys) => c.unsubscribe(keys: _*))
+  private val patterns = new Registry((c, keys) => c.psubscribe(keys: _*), (c, keys) => c.punsubscribe(keys: _*))
+
+  // guarded by this multiplexer's lock
+  private var connectionF: Option[Future[Connection]] = None
+  private var lastIssued: Future[Any]                 = Future.unit
+
+  def subscribe(keys: List[K], subscriber: Subscriber): Future[Done]    = channels.add(keys, subscriber)
+  def unsubscribe(keys: List[K], subscriber: Subscriber): Future[Done]  = channels.remove(keys, subscriber)
+  def psubscribe(keys: List[K], subscriber: Subscriber): Future[Done]   = patterns.add(keys, subscriber)
+  def punsubscribe(keys: List[K], subscriber: Subscriber): Future[Done] = patterns.remove(keys, subscriber)
+
+  private class Registry(
+      subscribeCommand: (Commands, Seq[K]) => RedisFuture[Void],
+      unsubscribeCommand: (Commands, Seq[K]) => RedisFuture[Void]
+  ) {
+    // updated under the multiplexer's lock and read without locking by the lettuce thread which dispatches messages
+    @volatile private var subscribers: Map[K, Set[Subscriber]] = Map.empty
+    private var subscribed: Map[K, Future[Done]]               = Map.empty
+
+    def isEmpty: Boolean = subscribers.isEmpty
+
+    def dispatch(key: K, channel: K, message: V): Unit =
+      subscribers.get(key).foreach(_.foreach(_.offer(RedisResult(channel, message))))
+
+    // keys are subscribed on redis unless a subscribe of them is pending or has succeeded. A failed subscribe is not handed to
+    // later subscribers, they subscribe the keys again
+    def add(keys: List[K], subscriber: Subscriber): Future[Done] =
+      RedisPubSubMultiplexer.this.synchronized {
+        val distinctKeys = keys.distinct
+        val newKeys      = distinctKeys.filterNot(key => subscribed.get(key).exists(subscribedF => !isFailed(subscribedF)))
+        subscribers = distinctKeys.foldLeft(subscribers) { (acc, key) =>
+          acc.updated(key, acc.getOrElse(key, Set.empty[Subscriber]) + subscriber)
+        }
+        if (newKeys.nonEmpty) {
+          val subscribedF = issue(subscribeCommand(_, newKeys))
+          subscribed ++= newKeys.map(_ -> subscribedF)
+        }
+        Future.sequence(distinctKeys.map(subscribed)).map(_ => Done)
+      }
+
+    private def isFailed(subscribedF: Future[Done]): Boolean = subscribedF.value.exists(_.isFailure)
+
+    def remove(keys: List[K], subscriber: Subscriber): Future[Done] =
+      RedisPubSubMultiplexer.this.synchronized {
+        val removedKeys = keys.distinct.filter(key => subscribers.get(key).exists(_.contains(subscriber)))
+        subscribers = removedKeys.foldLeft(subscribers) { (acc, key) =>
+          val remaining = acc(key) - subscriber
+          if (remaining.isEmpty) acc - key else acc.updated(key, remaining)
+        }
+        // keys whose subscribe failed are not subscribed on redis, hence not unsubscribed either
+        val droppedKeys      = removedKeys.filterNot(subscribers.contains)
+        val unsubscribedKeys = droppedKeys.filterNot(key => isFailed(subscribed(key)))
+        subscribed --= droppedKeys
+        val unsubscribedF =
+          if (unsubscribedKeys.nonEmpty) issue(unsubscribeCommand(_, unsubscribedKeys)) else Future.successful(Done)
+        if (droppedKeys.nonEmpty && channels.isEmpty && patterns.isEmpty) close()
+        unsubscribedF
+      }
+  }
+
+  // commands are issued one after the other, so that unsubscribe and subscribe of the same channel can not overtake each other
+  private def issue(command: Commands => RedisFuture[Void]): Future[Done] = {
+    val connectedF = connection()
+    val issuedF    = lastIssued.transformWith(_ => connectedF.map(c => command(c.async())))
+    lastIssued = issuedF
+    issuedF.flatMap(_.toScala).map(_ => Done)
+  }
+
+  // connects lazily on the first subscription, and connects again if the previous attempt has failed
+  private def connection(): Future[Connection] =
+    connectionF match {
+      case Some(connectedF) if !connectedF.value.exists(_.isFailure) => connectedF
+      case _ =>
+        val connectedF = connectionFactory().map { connection =>
+          connection.addListener(listener)
+          connection
+        }
+        connectionF = Some(connectedF)
+        connectedF
+    }
+
+  // closes the connection after the commands issued on it, a later subscription opens a new one
+  private def close(): Unit =
+    connectionF.foreach { connectedF =>
+      connectionF = None
+      lastIssued = lastIssued.transformWith(_ => connectedF.flatMap(_.closeAsync().toScala))
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) [year] Thirty Meter Telescope International Observatory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package romaine.reactive
+
+import akka.Done
+import akka.stream.scaladsl.{Keep, Source, SourceQueueWithComplete}
+import akka.stream.{OverflowStrategy => AkkaOverflowStrategy}
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection
+import reactor.core.publisher.FluxSink.OverflowStrategy
+import romaine.RedisResult
+
+import scala.async.Async.{async, await}
+import scala.concurrent.{ExecutionContext, Future}
+
+/**
+ * Same API as [[romaine.reactive.RedisSubscriptionApi]], but all subscriptions share `connections` pub/sub connections instead of
+ * opening a new connection per subscription. Keys are striped over the connections by their hash.
+ *
+ * A channel (or pattern) is subscribed on redis once, however many subscriptions include it, and is unsubscribed only when its
+ * last subscription is unsubscribed. Each message is handed only to the subscriptions of its channel (or pattern).
+ * A connection is opened on the first subscription of its channels and patterns, and closed once none of them is subscribed.
+ */
+class RedisSharedSubscriptionApi[K, V](
+    connectionFactory: () => Future[StatefulRedisPubSubConnection[K, V]],
+    connections: Int = 1
+)(implicit ec: ExecutionContext) {
+
+  require(connections > 0, s"number of shared pub/sub connections should be positive but was $connections")
+
+  private val bufferSize   = 16
+  private val multiplexers = Vector.fill(connections)(new RedisPubSubMultiplexer(connectionFactory))
+
+  private type Subscriber = SourceQueueWithComplete[RedisResult[K, V]]
+
+  def subscribe(keys: List[K], overflowStrategy: OverflowStrategy): Source[RedisResult[K, V], RedisSubscription] =
+    subscribeInternal(keys, overflowStrategy, _.subscribe(_, _), _.unsubscribe(_, _))
+
+  def psubscribe(keys: List[K], overflowStrategy: OverflowStrategy): Source[RedisResult[K, V], RedisSubscription] =
+    subscribeInternal(keys, overflowStrategy, _.psubscribe(_, _), _.punsubscribe(_, _))
+
+  private def subscribeInternal(
+      keys: List[K],
+      overflowStrategy: OverflowStrategy,
+      add: (RedisPubSubMultiplexer[K, V], List[K], Subscriber) => Future[Done],
+      remove: (RedisPubSubMultiplexer[K, V], List[K], Subscriber) => Future[Done]
+  ): Source[RedisResult[K, V], RedisSubscription] =
+    Source
+      .queue[RedisResult[K, V]](bufferSize, akkaOverflowStrategy(overflowStrategy))
+      .watchTermination()(Keep.both)
+      .mapMaterializedValue { case (subscriber, terminationSignal) =>
+        val keysByMultiplexer = keys.groupBy(key => multiplexers(Math.floorMod(key.hashCode, connections))).toList
+
+        val connectedF = Future.traverse(keysByMultiplexer) { case (m, ks) => add(m, ks, subscriber) }.map(_ => Done)
+        connectedF.failed.foreach(subscriber.fail)
+
+        lazy val unsubscribedF = Future.traverse(keysByMultiplexer) { case (m, ks) => remove(m, ks, subscriber) }.map(_ => Done)
+        terminationSignal.onComplete(_ => unsubscribedF) // unsubscribe on stream termination
+
+        new RedisSubscription {
+          override def unsubscribe(): Future[Done] =
+            async {
+              await(unsubscribedF)
+              subscriber.complete()
+              await(terminationSignal) // await on terminationSignal when unsubscribe is called by user
+            }
+
+          override def ready(): Future[Done] = connectedF
+        }
+      }
+
+  // messages are buffered per subscription, a slow subscription keeps the latest messages unless asked otherwise
+  private def akkaOverflowStrategy(overflowStrategy: OverflowStrategy): AkkaOverflowStrategy =
+    overflowStrategy match {
+      case OverflowStrategy.DROP  => AkkaOverflowStrategy.dropNew
+      case OverflowStrategy.ERROR => AkkaOverflowStrategy.fail
+      case _                      => AkkaOverflowStrategy.dropHead
+    }
+}